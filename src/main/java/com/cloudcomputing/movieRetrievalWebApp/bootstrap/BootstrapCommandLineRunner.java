@@ -2,31 +2,33 @@ package com.cloudcomputing.movieRetrievalWebApp.bootstrap;
 
 import com.cloudcomputing.movieRetrievalWebApp.model.User;
 import com.cloudcomputing.movieRetrievalWebApp.repository.UserRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.logging.Logger;
 
 @Component
 public class BootstrapCommandLineRunner implements CommandLineRunner {
 
-  private static final Logger LOGGER = Logger.getLogger(BootstrapCommandLineRunner.class.getName());
+  private static final Logger LOGGER = LoggerFactory.getLogger(BootstrapCommandLineRunner.class);
   private static final int MAX_RETRY_ATTEMPTS = 3;
   private static final long RETRY_DELAY_MS = 1000;
 
   private final JdbcTemplate jdbcTemplate;
   private final UserRepo userRepo;
+  private final PasswordEncoder passwordEncoder;
 
   @Autowired
-  public BootstrapCommandLineRunner(JdbcTemplate jdbcTemplate, UserRepo userRepo) {
+  public BootstrapCommandLineRunner(JdbcTemplate jdbcTemplate, UserRepo userRepo, PasswordEncoder passwordEncoder) {
     this.jdbcTemplate = jdbcTemplate;
     this.userRepo = userRepo;
+    this.passwordEncoder = passwordEncoder;
   }
 
   @Override
@@ -35,7 +37,7 @@ public class BootstrapCommandLineRunner implements CommandLineRunner {
     if (checkDatabaseConnectionWithRetry(databaseName)) {
       handleDatabaseOperations();
     } else {
-      LOGGER.severe("Failed to connect to the database: " + databaseName);
+      LOGGER.error("Failed to connect to the database: {}", databaseName);
     }
   }
 
@@ -43,10 +45,10 @@ public class BootstrapCommandLineRunner implements CommandLineRunner {
     for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
       try {
         jdbcTemplate.execute("SELECT 1");
-        LOGGER.info("Database connection to " + databaseName + " is successful!");
+        LOGGER.info("Database connection to {} is successful!", databaseName);
         return true;
       } catch (DataAccessException e) {
-        LOGGER.warning("Attempt " + attempt + " failed: " + e.getMessage());
+        LOGGER.warn("Attempt {} failed: {}", attempt, e.getMessage());
         if (attempt < MAX_RETRY_ATTEMPTS) {
           try {
             Thread.sleep(RETRY_DELAY_MS);
@@ -71,12 +73,11 @@ public class BootstrapCommandLineRunner implements CommandLineRunner {
       }
       logExistingUserData();
     } catch (DataAccessException e) {
-      LOGGER.warning("Error accessing the database" + e.toString());
+      LOGGER.warn("Error accessing the database: {}", e.toString());
     }
   }
 
   private void seedUserData() {
-    PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
     List<User> users = userRepo.findAll();
 
     if (users.isEmpty()) {
@@ -104,7 +105,7 @@ public class BootstrapCommandLineRunner implements CommandLineRunner {
     } else {
       LOGGER.info("Existing data in 'users' table (first 5 rows):");
       for (User user : users) {
-        LOGGER.info(user.toString());
+        LOGGER.info("{}", user);
       }
     }
   }
@@ -2,12 +2,16 @@ package com.cloudcomputing.movieRetrievalWebApp.config;
 
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.SnsClientBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.URI;
+
 @Configuration
 public class AWSSnsConfig {
 
@@ -20,13 +24,24 @@ public class AWSSnsConfig {
   @Value("${cloud.aws.credentials.secret-key}")
   private String awsSecretKey;
 
+  // Points the client at an SNS-compatible stand-in (e.g. LocalStack) instead of AWS when set.
+  @Value("${cloud.aws.sns.endpoint:}")
+  private String endpoint;
+
+  @Value("${cloud.aws.http.maxConnections:50}")
+  private int maxConnections;
+
   @Bean
   public SnsClient snsClient() {
-    return SnsClient.builder()
+    SnsClientBuilder builder = SnsClient.builder()
       .region(Region.of(region))
+      .httpClientBuilder(ApacheHttpClient.builder().maxConnections(maxConnections))
       .credentialsProvider(
         StaticCredentialsProvider.create(
-          AwsBasicCredentials.create(awsAccessKey, awsSecretKey)))
-      .build();
+          AwsBasicCredentials.create(awsAccessKey, awsSecretKey)));
+    if (!endpoint.isBlank()) {
+      builder.endpointOverride(URI.create(endpoint));
+    }
+    return builder.build();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Claims carried by a signed access token issued at login.
+ */
+public record AccessTokenClaims(UUID userId, String email, boolean verified, Instant expiresAt) {
+}
@@ -0,0 +1,131 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and validates short-lived, HMAC-SHA256 signed bearer tokens.
+ *
+ * A token is {@code base64url(payload) + "." + base64url(signature)} where the payload is
+ * {@code userId|verified|expiryEpochSeconds|email}. Validation is a single HMAC computation with no
+ * database access, so requests presenting a token skip the user lookup and BCrypt entirely.
+ *
+ * Every instance behind the load balancer must sign with the same {@code auth.token.secret}, so
+ * startup fails without one. Only the {@code test} profile falls back to a random per-process key.
+ */
+@Component
+public class AccessTokenService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AccessTokenService.class);
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final SecretKeySpec signingKey;
+  private final long ttlSeconds;
+  private final Clock clock;
+
+  @Autowired
+  public AccessTokenService(@Value("${auth.token.secret:}") String secret,
+                            @Value("${auth.token.ttlSeconds:900}") long ttlSeconds, Environment environment) {
+    this(keyBytes(secret, environment), ttlSeconds, Clock.systemUTC());
+  }
+
+  AccessTokenService(String secret, long ttlSeconds, Clock clock) {
+    this(Base64.getDecoder().decode(secret), ttlSeconds, clock);
+  }
+
+  private AccessTokenService(byte[] keyBytes, long ttlSeconds, Clock clock) {
+    this.signingKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    this.ttlSeconds = ttlSeconds;
+    this.clock = clock;
+  }
+
+  private static byte[] keyBytes(String secret, Environment environment) {
+    if (secret != null && !secret.isBlank()) {
+      return Base64.getDecoder().decode(secret);
+    }
+    if (!environment.acceptsProfiles(Profiles.of("test"))) {
+      // A per-process key would make every other instance reject this one's tokens.
+      throw new IllegalStateException("auth.token.secret is not set; it must be the same Base64 key on every instance");
+    }
+    LOGGER.warn("auth.token.secret is not set; using a random per-process signing key for tests.");
+    byte[] keyBytes = new byte[32];
+    new SecureRandom().nextBytes(keyBytes);
+    return keyBytes;
+  }
+
+  public long getTtlSeconds() {
+    return ttlSeconds;
+  }
+
+  /**
+   * Issues a token for the given user that expires after the configured TTL.
+   */
+  public String issueToken(UUID userId, String email, boolean verified) {
+    long expiry = clock.instant().plusSeconds(ttlSeconds).getEpochSecond();
+    String payload = userId + "|" + verified + "|" + expiry + "|" + email;
+    String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+  }
+
+  /**
+   * Validates the signature and expiry of a token.
+   *
+   * @return the token claims, or an empty Optional if the token is malformed, tampered with or expired.
+   */
+  public Optional<AccessTokenClaims> parseToken(String token) {
+    int separator = token.indexOf('.');
+    if (separator <= 0 || separator == token.length() - 1) {
+      return Optional.empty();
+    }
+    String encodedPayload = token.substring(0, separator);
+
+    try {
+      byte[] signature = DECODER.decode(token.substring(separator + 1));
+      if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+        return Optional.empty();
+      }
+
+      String[] fields = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\\|", 4);
+      if (fields.length != 4) {
+        return Optional.empty();
+      }
+      Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[2]));
+      if (!expiresAt.isAfter(clock.instant())) {
+        return Optional.empty();
+      }
+      return Optional.of(new AccessTokenClaims(UUID.fromString(fields[0]), fields[3],
+          Boolean.parseBoolean(fields[1]), expiresAt));
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  private byte[] sign(String encodedPayload) {
+    try {
+      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(signingKey);
+      return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,269 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.ConvenienceMethodProvidingStatsDClient;
+import com.timgroup.statsd.StatsDClientException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A StatsD client that aggregates in process and sends on a fixed interval, instead of sending a
+ * datagram for every call as NonBlockingStatsDClient does.
+ *
+ * Counters are summed in LongAdder cells, gauges keep their latest value and timers are recorded
+ * into HdrHistogram recorders, so a call on the request path is a map lookup and an update that
+ * allocates nothing. Every flush interval the aggregates are written as ordinary StatsD lines,
+ * newline-separated and packed into datagrams of at most {@code maxPacketBytes}:
+ * <ul>
+ *   <li>a counter as one {@code name:sum|c} line, if it changed in the interval;</li>
+ *   <li>a gauge as {@code name:value|g} if it was set and {@code name:+delta|g} if it was adjusted;</li>
+ *   <li>a timer as one {@code name:value|ms|@rate} line per distinct recorded value, the sample rate
+ *   being one over the number of times it was recorded, so the agent counts every sample;</li>
+ *   <li>a set as one {@code name:value|s} line per distinct value.</li>
+ * </ul>
+ * Timers below 256ms are sent exactly and longer ones to within 1%. Values passed with a sample rate
+ * below 1 are scaled up when they are recorded, since this client never drops a call.
+ */
+public final class AggregatingStatsDClient extends ConvenienceMethodProvidingStatsDClient {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AggregatingStatsDClient.class);
+
+  private final String prefix;
+  private final InetSocketAddress address;
+  private final DatagramChannel channel;
+  private final ScheduledExecutorService flusher;
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Set<String>> sets = new ConcurrentHashMap<>();
+
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  // Only touched by flush(), under flushLock.
+  private final ByteBuffer packet;
+  private final DecimalFormat valueFormat = new DecimalFormat("0.######", DecimalFormatSymbols.getInstance(Locale.US));
+  private final DecimalFormat rateFormat = new DecimalFormat("0.##########", DecimalFormatSymbols.getInstance(Locale.US));
+
+  public AggregatingStatsDClient(String prefix, String hostname, int port, long flushIntervalMs, int maxPacketBytes) {
+    this.prefix = prefix == null || prefix.trim().isEmpty() ? "" : prefix.trim() + ".";
+    this.packet = ByteBuffer.allocate(maxPacketBytes);
+    // Rounded down, so an agent that repeats a timer value 1/rate times never repeats it too few times.
+    rateFormat.setRoundingMode(RoundingMode.DOWN);
+    try {
+      this.address = new InetSocketAddress(hostname, port);
+      this.channel = DatagramChannel.open();
+    } catch (IOException | RuntimeException e) {
+      throw new StatsDClientException("Failed to start StatsD client", e);
+    }
+    this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "statsd-flush");
+      thread.setDaemon(true);
+      return thread;
+    });
+    flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void count(String aspect, long delta, double sampleRate) {
+    Counter counter = counters.get(aspect);
+    if (counter == null) {
+      counter = counters.computeIfAbsent(aspect, key -> new Counter());
+    }
+    counter.sum.add(sampleRate > 0 && sampleRate < 1 ? Math.round(delta / sampleRate) : delta);
+  }
+
+  @Override
+  public void recordGaugeValue(String aspect, long value) {
+    recordGaugeValue(aspect, (double) value);
+  }
+
+  @Override
+  public void recordGaugeValue(String aspect, double value) {
+    Gauge gauge = gaugeFor(aspect);
+    gauge.value = value;
+    gauge.set = true;
+  }
+
+  @Override
+  public void recordGaugeDelta(String aspect, long delta) {
+    gaugeFor(aspect).delta.add(delta);
+  }
+
+  @Override
+  public void recordGaugeDelta(String aspect, double delta) {
+    gaugeFor(aspect).delta.add(delta);
+  }
+
+  private Gauge gaugeFor(String aspect) {
+    Gauge gauge = gauges.get(aspect);
+    return gauge != null ? gauge : gauges.computeIfAbsent(aspect, key -> new Gauge());
+  }
+
+  @Override
+  public void recordSetEvent(String aspect, String eventName) {
+    Set<String> values = sets.get(aspect);
+    if (values == null) {
+      values = sets.computeIfAbsent(aspect, key -> ConcurrentHashMap.newKeySet());
+    }
+    values.add(eventName);
+  }
+
+  @Override
+  public void recordExecutionTime(String aspect, long timeInMs, double sampleRate) {
+    Timer timer = timers.get(aspect);
+    if (timer == null) {
+      timer = timers.computeIfAbsent(aspect, key -> new Timer());
+    }
+    long count = sampleRate > 0 && sampleRate < 1 ? Math.round(1 / sampleRate) : 1;
+    timer.recorder.recordValueWithCount(Math.max(timeInMs, 0), count);
+  }
+
+  /**
+   * Sends everything recorded since the previous flush. Metrics that did not change in the interval
+   * send nothing. Called on the flush interval and once more by {@link #stop()}.
+   */
+  public void flush() {
+    // A lock rather than synchronized, so a virtual thread blocked in send() does not pin its carrier.
+    flushLock.lock();
+    try {
+      counters.forEach((aspect, counter) -> {
+        long sum = counter.sum.sumThenReset();
+        if (sum != 0) {
+          write(aspect, Long.toString(sum), "c");
+        }
+      });
+      gauges.forEach((aspect, gauge) -> {
+        if (gauge.set) {
+          // Cleared before the value is read, so a value set meanwhile is sent again next time rather than lost.
+          gauge.set = false;
+          double value = gauge.value;
+          if (value < 0) {
+            // A leading '-' on its own would be read as a delta.
+            write(aspect, "0", "g");
+          }
+          write(aspect, valueFormat.format(value), "g");
+        }
+        double delta = gauge.delta.sumThenReset();
+        if (delta != 0) {
+          write(aspect, (delta > 0 ? "+" : "") + valueFormat.format(delta), "g");
+        }
+      });
+      timers.forEach((aspect, timer) -> {
+        Histogram interval = timer.recorder.getIntervalHistogram(timer.recycled);
+        timer.recycled = interval;
+        for (HistogramIterationValue value : interval.recordedValues()) {
+          long count = value.getCountAtValueIteratedTo();
+          String time = Long.toString(interval.medianEquivalentValue(value.getValueIteratedTo()));
+          write(aspect, time, count == 1 ? "ms" : "ms|@" + rateFormat.format(1.0 / count));
+        }
+      });
+      sets.forEach((aspect, values) -> {
+        for (Iterator<String> iterator = values.iterator(); iterator.hasNext(); ) {
+          write(aspect, iterator.next(), "s");
+          iterator.remove();
+        }
+      });
+      send();
+    } catch (IOException | RuntimeException e) {
+      packet.clear();
+      LOGGER.warn("Failed to send StatsD metrics to {}", address, e);
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  // Appends one line to the current datagram, sending it first if the line would not fit.
+  private void write(String aspect, String value, String type) {
+    byte[] line = (prefix + aspect + ":" + value + "|" + type).getBytes(StandardCharsets.UTF_8);
+    int needed = packet.position() == 0 ? line.length : line.length + 1;
+    if (needed > packet.remaining()) {
+      sendUnchecked();
+    }
+    if (line.length > packet.capacity()) {
+      LOGGER.warn("Dropped StatsD line longer than {} bytes for {}", packet.capacity(), aspect);
+      return;
+    }
+    if (packet.position() > 0) {
+      packet.put((byte) '\n');
+    }
+    packet.put(line);
+  }
+
+  private void sendUnchecked() {
+    try {
+      send();
+    } catch (IOException e) {
+      throw new StatsDClientException("Failed to send StatsD datagram", e);
+    }
+  }
+
+  private void send() throws IOException {
+    if (packet.position() == 0) {
+      return;
+    }
+    packet.flip();
+    try {
+      channel.send(packet, address);
+    } finally {
+      packet.clear();
+    }
+  }
+
+  /**
+   * Stops the flush schedule and sends what was recorded since the last flush.
+   */
+  @Override
+  public void stop() {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      LOGGER.debug("Failed to close StatsD channel", e);
+    }
+  }
+
+  private static final class Counter {
+    final LongAdder sum = new LongAdder();
+  }
+
+  private static final class Gauge {
+    volatile double value;
+    volatile boolean set;
+    final DoubleAdder delta = new DoubleAdder();
+  }
+
+  private static final class Timer {
+    // Two significant digits: exact below 256ms, which keeps a flush to a few lines per timer.
+    final Recorder recorder = new Recorder(2);
+    // Only touched by flush(), under flushLock.
+    Histogram recycled;
+  }
+}
@@ -0,0 +1,100 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import com.timgroup.statsd.StatsDClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Moves the appenders Spring Boot configured from {@code logging.*}, the console and the log file
+ * when one is set, behind CountingAsyncAppenders, so a request thread only enqueues its messages.
+ * It also installs a RateLimitingTurboFilter for the application's loggers. Dropped and rate-limited
+ * messages are reported as the {@code logging.dropped} and {@code logging.rate_limited} counters.
+ *
+ * Messages logged while the application starts, before this runs, are written synchronously.
+ */
+@Component
+public class AsyncLoggingInstaller {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncLoggingInstaller.class);
+
+  private final StatsDClient statsDClient;
+  private final List<CountingAsyncAppender> asyncAppenders = new ArrayList<>();
+  private final RateLimitingTurboFilter rateLimiter;
+
+  @Autowired
+  public AsyncLoggingInstaller(StatsDClient statsDClient,
+                               @Value("${logging.async.enabled:true}") boolean asyncEnabled,
+                               @Value("${logging.async.queueSize:8192}") int queueSize,
+                               @Value("${logging.async.maxFlushTimeMs:1000}") int maxFlushTimeMs,
+                               @Value("${logging.rateLimit.loggerPrefix:com.cloudcomputing.movieRetrievalWebApp}") String loggerPrefix,
+                               @Value("${logging.rateLimit.eventsPerSecond:100}") long eventsPerSecond,
+                               @Value("${logging.rateLimit.sampleEvery:100}") long sampleEvery,
+                               @Value("${logging.rateLimit.maxLevel:WARN}") String maxLevel) {
+    this.statsDClient = statsDClient;
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    if (asyncEnabled) {
+      wrapRootAppenders(context, queueSize, maxFlushTimeMs);
+    }
+    // A context reinitialized for another application in the same JVM starts without filters.
+    context.getTurboFilterList().removeIf(filter -> filter instanceof RateLimitingTurboFilter);
+    if (eventsPerSecond > 0) {
+      rateLimiter = new RateLimitingTurboFilter(loggerPrefix, eventsPerSecond, sampleEvery, Level.toLevel(maxLevel));
+      rateLimiter.setContext(context);
+      rateLimiter.start();
+      context.addTurboFilter(rateLimiter);
+    } else {
+      rateLimiter = null;
+    }
+    LOGGER.info("Asynchronous logging {} (queueSize={}); {} messages per second per logger under {}",
+        asyncEnabled ? "enabled" : "disabled", queueSize, eventsPerSecond > 0 ? eventsPerSecond : "unlimited",
+        loggerPrefix);
+  }
+
+  private void wrapRootAppenders(LoggerContext context, int queueSize, int maxFlushTimeMs) {
+    ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+    List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+    for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+      appenders.add(it.next());
+    }
+    for (Appender<ILoggingEvent> appender : appenders) {
+      if (appender instanceof AsyncAppenderBase) {
+        continue;
+      }
+      CountingAsyncAppender async = new CountingAsyncAppender();
+      async.setContext(context);
+      async.setName("ASYNC_" + appender.getName());
+      async.setQueueSize(queueSize);
+      async.setMaxFlushTime(maxFlushTimeMs);
+      async.addAppender(appender);
+      async.start();
+      root.addAppender(async);
+      root.detachAppender(appender);
+      asyncAppenders.add(async);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${logging.metrics.flushIntervalMs:10000}")
+  public void reportDrops() {
+    long dropped = 0;
+    for (CountingAsyncAppender appender : asyncAppenders) {
+      dropped += appender.takeDropped();
+    }
+    statsDClient.count("logging.dropped", dropped);
+    if (rateLimiter != null) {
+      statsDClient.count("logging.rate_limited", rateLimiter.takeDenied());
+    }
+  }
+}
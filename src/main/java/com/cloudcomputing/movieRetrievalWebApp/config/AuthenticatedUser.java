@@ -0,0 +1,124 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Security principal for an authenticated user.
+ *
+ * Carries the user's id, profile fields and verification state, loaded together with the password
+ * hash in a single query by {@link CustomUserDetailsService}, so controllers can serve a request
+ * from the SecurityContext without looking the user up again. Principals built from an access
+ * token only know the id, email and verification flag; {@link #hasProfile()} tells them apart.
+ */
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+  private final UUID userId;
+  private final String email;
+  private String password;
+  private final String firstName;
+  private final String lastName;
+  private final LocalDateTime accountCreated;
+  private final LocalDateTime accountUpdated;
+  private final boolean verified;
+
+  public AuthenticatedUser(UUID userId, String email, String password, String firstName, String lastName,
+                           LocalDateTime accountCreated, LocalDateTime accountUpdated, Boolean verified) {
+    this.userId = userId;
+    this.email = email;
+    this.password = password;
+    this.firstName = firstName;
+    this.lastName = lastName;
+    this.accountCreated = accountCreated;
+    this.accountUpdated = accountUpdated;
+    this.verified = Boolean.TRUE.equals(verified);
+  }
+
+  /**
+   * Builds a principal from verified access token claims; profile fields are left empty.
+   */
+  public static AuthenticatedUser fromClaims(AccessTokenClaims claims) {
+    return new AuthenticatedUser(claims.userId(), claims.email(), null, null, null, null, null, claims.verified());
+  }
+
+  /**
+   * Returns a copy of this principal holding a re-encoded password hash.
+   */
+  public AuthenticatedUser withPassword(String newPassword) {
+    return new AuthenticatedUser(userId, email, newPassword, firstName, lastName, accountCreated, accountUpdated,
+        verified);
+  }
+
+  public UUID getUserId() {
+    return userId;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public String getFirstName() {
+    return firstName;
+  }
+
+  public String getLastName() {
+    return lastName;
+  }
+
+  public LocalDateTime getAccountCreated() {
+    return accountCreated;
+  }
+
+  public LocalDateTime getAccountUpdated() {
+    return accountUpdated;
+  }
+
+  public boolean isVerified() {
+    return verified;
+  }
+
+  public boolean hasProfile() {
+    return accountCreated != null;
+  }
+
+  @Override
+  public String getUsername() {
+    return email;
+  }
+
+  @Override
+  public String getPassword() {
+    return password;
+  }
+
+  @Override
+  public Collection<? extends GrantedAuthority> getAuthorities() {
+    return List.of(); // No roles/authorities
+  }
+
+  @Override
+  public void eraseCredentials() {
+    this.password = null;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof AuthenticatedUser other && email.equals(other.email);
+  }
+
+  @Override
+  public int hashCode() {
+    return email.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "AuthenticatedUser{userId=" + userId + ", email='" + email + "', verified=" + verified + "}";
+  }
+}
@@ -0,0 +1,110 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.timgroup.statsd.StatsDClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-based cache of successful HTTP Basic password checks.
+ *
+ * Entries are keyed on the email address and hold an HMAC-SHA256 digest of the stored password hash
+ * together with the password that was accepted for it, so a repeat request with the same credentials
+ * skips the BCrypt verification. Only the outcome of the check is cached: the principal is still loaded
+ * per request, and an entry stops matching as soon as the stored hash changes, including when another
+ * instance changed the password. The HMAC key is random per process and never leaves memory, which
+ * means the cached digests cannot be used to recover or brute-force passwords offline.
+ */
+@Component
+public class AuthenticationCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticationCache.class);
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+  private final StatsDClient statsDClient;
+  private final boolean enabled;
+  private final SecretKeySpec digestKey;
+  private final Cache<String, byte[]> cache;
+
+  @Autowired
+  public AuthenticationCache(StatsDClient statsDClient,
+                             @Value("${auth.cache.enabled:true}") boolean enabled,
+                             @Value("${auth.cache.maxSize:10000}") long maxSize,
+                             @Value("${auth.cache.ttlSeconds:300}") long ttlSeconds) {
+    this.statsDClient = statsDClient;
+    this.enabled = enabled;
+
+    byte[] keyBytes = new byte[32];
+    new SecureRandom().nextBytes(keyBytes);
+    this.digestKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .removalListener((String email, byte[] digest, RemovalCause cause) -> {
+          if (cause.wasEvicted()) {
+            statsDClient.incrementCounter("auth.cache.eviction");
+          }
+        })
+        .build();
+
+    LOGGER.info("Authentication cache {} (maxSize={}, ttlSeconds={})",
+        enabled ? "enabled" : "disabled", maxSize, ttlSeconds);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns whether the presented password was already verified against this stored password hash.
+   */
+  public boolean matches(String email, String password, String passwordHash) {
+    byte[] cached = cache.getIfPresent(email);
+    if (cached != null && MessageDigest.isEqual(cached, digest(password, passwordHash))) {
+      statsDClient.incrementCounter("auth.cache.hit");
+      return true;
+    }
+    statsDClient.incrementCounter("auth.cache.miss");
+    return false;
+  }
+
+  public void put(String email, String password, String passwordHash) {
+    cache.put(email, digest(password, passwordHash));
+  }
+
+  /**
+   * Drops any cached password check for the given email, e.g. after the password changed.
+   */
+  public void invalidate(String email) {
+    if (cache.asMap().remove(email) != null) {
+      statsDClient.incrementCounter("auth.cache.invalidation");
+    }
+  }
+
+  private byte[] digest(String password, String passwordHash) {
+    try {
+      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(digestKey);
+      mac.update(passwordHash.getBytes(StandardCharsets.UTF_8));
+      // Password hashes never contain NUL, so the separator keeps the two parts apart.
+      mac.update((byte) 0);
+      return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 is not available", e);
+    }
+  }
+}
@@ -1,14 +1,27 @@
 package com.cloudcomputing.movieRetrievalWebApp.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
 
+import java.net.URI;
+
+// S3 clients are only needed when images are stored in S3; see storage.backend.
 @Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
 public class AwsS3Config {
 
   @Value("${cloud.aws.region.static}")
@@ -20,11 +33,84 @@ public class AwsS3Config {
   @Value("${cloud.aws.credentials.secret-key}")
   private String secretKey;
 
+  // Optional endpoint of an S3-compatible store (e.g. a local stand-in); empty means AWS.
+  @Value("${cloud.aws.s3.endpoint:}")
+  private String endpoint;
+
+  @Value("${cloud.aws.s3.pathStyleAccess:false}")
+  private boolean pathStyleAccess;
+
+  @Value("${cloud.aws.s3.multipartThreshold:16777216}")
+  private long multipartThreshold;
+
+  @Value("${cloud.aws.s3.partSize:8388608}")
+  private long partSize;
+
+  // Upper bound on concurrent HTTP requests, i.e. parts in flight, of the async client.
+  @Value("${cloud.aws.s3.maxConcurrency:8}")
+  private int maxConcurrency;
+
+  // Upper bound on pooled connections, i.e. concurrent requests, of the blocking client. Request
+  // threads wait for a free one, so with virtual threads this rather than the thread pool limits S3 calls.
+  @Value("${cloud.aws.http.maxConnections:50}")
+  private int maxConnections;
+
   @Bean
   public S3Client s3Client() {
-    return S3Client.builder()
+    S3ClientBuilder builder = S3Client.builder()
+            .region(Region.of(region))
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+            .httpClientBuilder(ApacheHttpClient.builder().maxConnections(maxConnections))
+            .forcePathStyle(pathStyleAccess);
+    if (!endpoint.isBlank()) {
+      builder.endpointOverride(URI.create(endpoint));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Async client that splits objects above the multipart threshold into parts and uploads them
+   * concurrently, with at most {@code cloud.aws.s3.maxConcurrency} parts in flight. Each upload may
+   * buffer {@code partSize * maxConcurrency} bytes, 64 MiB with the defaults, which is why it is only
+   * used when {@code cloud.aws.s3.uploadMode=transfer-manager}.
+   */
+  @Bean
+  public S3AsyncClient s3AsyncClient() {
+    S3AsyncClientBuilder builder = S3AsyncClient.builder()
             .region(Region.of(region))
             .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+            .forcePathStyle(pathStyleAccess)
+            .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(maxConcurrency))
+            .multipartEnabled(true)
+            .multipartConfiguration(multipart -> multipart
+                    .thresholdInBytes(multipartThreshold)
+                    .minimumPartSizeInBytes(partSize)
+                    .apiCallBufferSizeInBytes(partSize * maxConcurrency));
+    if (!endpoint.isBlank()) {
+      builder.endpointOverride(URI.create(endpoint));
+    }
+    return builder.build();
+  }
+
+  @Bean
+  public S3TransferManager s3TransferManager(S3AsyncClient s3AsyncClient) {
+    return S3TransferManager.builder()
+            .s3Client(s3AsyncClient)
             .build();
   }
-}
\ No newline at end of file
+
+  /**
+   * Signs download URLs locally with the configured credentials; presigning makes no network call.
+   */
+  @Bean
+  public S3Presigner s3Presigner() {
+    S3Presigner.Builder builder = S3Presigner.builder()
+            .region(Region.of(region))
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyleAccess).build());
+    if (!endpoint.isBlank()) {
+      builder.endpointOverride(URI.create(endpoint));
+    }
+    return builder.build();
+  }
+}
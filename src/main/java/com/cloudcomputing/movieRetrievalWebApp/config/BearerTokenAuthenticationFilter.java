@@ -0,0 +1,70 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Authenticates requests that carry an {@code Authorization: Bearer} access token.
+ * Requests without a bearer token fall through to HTTP Basic authentication unchanged.
+ */
+public class BearerTokenAuthenticationFilter extends OncePerRequestFilter {
+
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  private final AccessTokenService accessTokenService;
+  private final StatsDClient statsDClient;
+  // Keeps the context on the request so async dispatches (e.g. streamed responses) stay authenticated.
+  private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
+  public BearerTokenAuthenticationFilter(AccessTokenService accessTokenService, StatsDClient statsDClient) {
+    this.accessTokenService = accessTokenService;
+    this.statsDClient = statsDClient;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    Optional<AccessTokenClaims> claims = accessTokenService.parseToken(header.substring(BEARER_PREFIX.length()).trim());
+    if (claims.isEmpty()) {
+      statsDClient.incrementCounter("auth.token.rejected");
+      response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+      response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+      return;
+    }
+
+    statsDClient.incrementCounter("auth.token.accepted");
+    UsernamePasswordAuthenticationToken authentication =
+        UsernamePasswordAuthenticationToken.authenticated(AuthenticatedUser.fromClaims(claims.get()), null, List.of());
+    authentication.setDetails(claims.get());
+
+    SecurityContext context = SecurityContextHolder.createEmptyContext();
+    context.setAuthentication(authentication);
+    SecurityContextHolder.setContext(context);
+    securityContextRepository.saveContext(context, request, response);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+  }
+}
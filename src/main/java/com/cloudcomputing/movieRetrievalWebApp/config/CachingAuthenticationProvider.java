@@ -0,0 +1,73 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * AuthenticationProvider that consults the {@link AuthenticationCache} before delegating to the
+ * wrapped provider, so only the first request for a given password and stored hash pays for BCrypt.
+ *
+ * The user is loaded on every request, in the single query that also builds the principal, so the
+ * profile in the SecurityContext is always current and a password changed on another instance no
+ * longer matches the cached check. Failed authentications are never cached.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+  private final AuthenticationProvider delegate;
+  private final UserDetailsService userDetailsService;
+  private final AuthenticationCache authenticationCache;
+  private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+
+  public CachingAuthenticationProvider(AuthenticationProvider delegate, UserDetailsService userDetailsService,
+                                       AuthenticationCache authenticationCache) {
+    this.delegate = delegate;
+    this.userDetailsService = userDetailsService;
+    this.authenticationCache = authenticationCache;
+  }
+
+  @Override
+  public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+    if (!authenticationCache.isEnabled() || !(authentication.getCredentials() instanceof String password)) {
+      return delegate.authenticate(authentication);
+    }
+
+    String email = authentication.getName();
+    UserDetails user;
+    try {
+      user = userDetailsService.loadUserByUsername(email);
+    } catch (UsernameNotFoundException e) {
+      // The delegate answers unknown users with the same work and error as a wrong password.
+      return delegate.authenticate(authentication);
+    }
+
+    if (user.getPassword() != null && authenticationCache.matches(email, password, user.getPassword())) {
+      userDetailsChecker.check(user);
+      UsernamePasswordAuthenticationToken result =
+          UsernamePasswordAuthenticationToken.authenticated(user, password, user.getAuthorities());
+      result.setDetails(authentication.getDetails());
+      return result;
+    }
+
+    Authentication result = delegate.authenticate(authentication);
+    // The principal still holds the hash it was verified against (re-encoded if it was upgraded);
+    // credentials are only erased once the provider has returned.
+    if (result != null && result.isAuthenticated()
+        && result.getPrincipal() instanceof UserDetails verified && verified.getPassword() != null) {
+      authenticationCache.put(email, password, verified.getPassword());
+    }
+    return result;
+  }
+
+  @Override
+  public boolean supports(Class<?> authentication) {
+    return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication)
+        && delegate.supports(authentication);
+  }
+}
@@ -0,0 +1,39 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An AsyncAppender that never blocks the logging thread and counts the events it drops.
+ *
+ * Events are dropped when the queue is full, and INFO and below are dropped once less than the
+ * discarding threshold remains, as AsyncAppender does; WARN and ERROR keep the rest of the queue.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+  private final LongAdder dropped = new LongAdder();
+
+  public CountingAsyncAppender() {
+    setNeverBlock(true);
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    int remaining = getRemainingCapacity();
+    if (remaining == 0 || (remaining < getDiscardingThreshold() && event.getLevel().toInt() <= Level.INFO_INT)) {
+      dropped.increment();
+      return;
+    }
+    super.append(event);
+  }
+
+  /**
+   * The number of events dropped since the previous call.
+   */
+  public long takeDropped() {
+    return dropped.sumThenReset();
+  }
+}
@@ -1,34 +1,41 @@
 package com.cloudcomputing.movieRetrievalWebApp.config;
 
-import com.cloudcomputing.movieRetrievalWebApp.model.User;
 import com.cloudcomputing.movieRetrievalWebApp.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserService userService;
 
+    /**
+     * Loads the user as an {@link AuthenticatedUser}, so the principal placed in the SecurityContext
+     * already carries the user id, profile and verification state.
+     */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userService.getUserByEmail(email)
+        return userService.getAuthenticatedUser(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    }
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmailAddress(),
-                user.getPassword(),
-                true,
-                true,
-                true,
-                true,
-                new ArrayList<>() // No roles/authorities
-        );
+    /**
+     * Called after a successful login whose stored hash needs upgrading (legacy format or lower BCrypt cost).
+     * Stores the re-encoded hash without touching any other user field.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userService.updatePasswordHash(user.getUsername(), newPassword);
+        if (user instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.withPassword(newPassword);
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
     }
 }
@@ -0,0 +1,43 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "metrics.jdbc.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceMetricsConfig {
+
+  // Static, since post-processors are created before the rest of the configuration. The StatsD
+  // client is only looked up once the DataSource exists.
+  @Bean
+  public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<StatsDClient> statsDClient,
+      @Value("${metrics.jdbc.largeResultRows:500}") long largeResultRows) {
+    return new InstrumentingPostProcessor(statsDClient, largeResultRows);
+  }
+
+  private static final class InstrumentingPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<StatsDClient> statsDClient;
+    private final long largeResultRows;
+
+    InstrumentingPostProcessor(ObjectProvider<StatsDClient> statsDClient, long largeResultRows) {
+      this.statsDClient = statsDClient;
+      this.largeResultRows = largeResultRows;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof DataSource dataSource) {
+        return InstrumentedDataSource.wrap(dataSource, new QueryMetrics(statsDClient.getObject(), largeResultRows));
+      }
+      return bean;
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.QueryMetrics.StatementShape;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Wraps a DataSource in JDK proxies that report to QueryMetrics: the wait for each connection,
+ * and for every statement, whether Hibernate, Spring Data or plain JDBC issued it, its SQL, time to
+ * execute and the rows read from its results.
+ *
+ * The DataSource proxy implements every interface of the pool it wraps, so the pool can still be
+ * closed and unwrapped. Connections, statements and result sets are proxied by their JDBC
+ * interfaces only; {@code unwrap} reaches the driver's objects as before.
+ */
+public final class InstrumentedDataSource {
+
+  private InstrumentedDataSource() {
+  }
+
+  public static DataSource wrap(DataSource dataSource, QueryMetrics metrics) {
+    return (DataSource) Proxy.newProxyInstance(dataSource.getClass().getClassLoader(),
+        ClassUtils.getAllInterfaces(dataSource), new DataSourceHandler(dataSource, metrics));
+  }
+
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+
+  private abstract static class DelegatingHandler implements InvocationHandler {
+
+    final Object target;
+
+    DelegatingHandler(Object target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      return switch (method.getName()) {
+        case "equals" -> proxy == args[0];
+        case "hashCode" -> System.identityHashCode(proxy);
+        case "toString" -> "Instrumented " + target;
+        default -> handle(method, args);
+      };
+    }
+
+    abstract Object handle(Method method, Object[] args) throws Throwable;
+
+    final Object delegate(Method method, Object[] args) throws Throwable {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+  private static final class DataSourceHandler extends DelegatingHandler {
+
+    private final QueryMetrics metrics;
+
+    DataSourceHandler(DataSource target, QueryMetrics metrics) {
+      super(target);
+      this.metrics = metrics;
+    }
+
+    @Override
+    Object handle(Method method, Object[] args) throws Throwable {
+      if (!method.getName().equals("getConnection")) {
+        return delegate(method, args);
+      }
+      long startTime = System.nanoTime();
+      Connection connection = (Connection) delegate(method, args);
+      metrics.connectionAcquired(System.nanoTime() - startTime);
+      return proxy(Connection.class, new ConnectionHandler(connection, metrics));
+    }
+  }
+
+  private static final class ConnectionHandler extends DelegatingHandler {
+
+    private final QueryMetrics metrics;
+
+    ConnectionHandler(Connection target, QueryMetrics metrics) {
+      super(target);
+      this.metrics = metrics;
+    }
+
+    @Override
+    Object handle(Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "prepareStatement", "prepareCall" -> {
+          Statement statement = (Statement) delegate(method, args);
+          return proxy(method.getReturnType(), new StatementHandler(statement, metrics, metrics.statement((String) args[0])));
+        }
+        case "createStatement" -> {
+          Statement statement = (Statement) delegate(method, args);
+          return proxy(Statement.class, new StatementHandler(statement, metrics, null));
+        }
+        default -> {
+          return delegate(method, args);
+        }
+      }
+    }
+  }
+
+  private static final class StatementHandler extends DelegatingHandler {
+
+    private final QueryMetrics metrics;
+    // The prepared SQL, or for a plain Statement the SQL it last executed or batched.
+    private StatementShape shape;
+
+    StatementHandler(Statement target, QueryMetrics metrics, StatementShape shape) {
+      super(target);
+      this.metrics = metrics;
+      this.shape = shape;
+    }
+
+    @Override
+    Object handle(Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.equals("addBatch") && args != null && args.length > 0 && args[0] instanceof String sql) {
+        shape = metrics.statement(sql);
+      } else if (name.equals("getResultSet")) {
+        return results((ResultSet) delegate(method, args));
+      } else if (name.startsWith("execute")) {
+        return execute(method, args);
+      }
+      return delegate(method, args);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+      if (args != null && args.length > 0 && args[0] instanceof String sql) {
+        shape = metrics.statement(sql);
+      }
+      if (shape == null) {
+        return delegate(method, args);
+      }
+      long startTime = System.nanoTime();
+      boolean failed = true;
+      try {
+        Object result = delegate(method, args);
+        failed = false;
+        return result instanceof ResultSet resultSet ? results(resultSet) : result;
+      } finally {
+        metrics.executed(shape, System.nanoTime() - startTime, failed);
+      }
+    }
+
+    private ResultSet results(ResultSet resultSet) {
+      return resultSet == null || shape == null
+          ? resultSet
+          : proxy(ResultSet.class, new ResultSetHandler(resultSet, metrics, shape));
+    }
+  }
+
+  private static final class ResultSetHandler extends DelegatingHandler {
+
+    private final QueryMetrics metrics;
+    private final StatementShape shape;
+    private long rows;
+    private boolean recorded;
+
+    ResultSetHandler(ResultSet target, QueryMetrics metrics, StatementShape shape) {
+      super(target);
+      this.metrics = metrics;
+      this.shape = shape;
+    }
+
+    // Rows are reported when the results run out or are closed, whichever comes first.
+    @Override
+    Object handle(Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "next" -> {
+          boolean hasRow = (Boolean) delegate(method, args);
+          if (hasRow) {
+            rows++;
+          } else {
+            record();
+          }
+          return hasRow;
+        }
+        case "close" -> {
+          record();
+          return delegate(method, args);
+        }
+        default -> {
+          return delegate(method, args);
+        }
+      }
+    }
+
+    private void record() {
+      if (!recorded) {
+        recorded = true;
+        metrics.rowsRead(shape, rows);
+      }
+    }
+  }
+}
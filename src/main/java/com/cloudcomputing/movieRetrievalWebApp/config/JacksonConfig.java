@@ -0,0 +1,29 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tunes the application's shared ObjectMapper, which binds request bodies and is injected wherever
+ * JSON is written.
+ *
+ * Unknown properties fail binding, so a request body with extra fields is answered with 400 before
+ * the controller runs. Blackbird replaces reflective getter/setter calls with generated lambdas.
+ */
+@Configuration
+public class JacksonConfig {
+
+  // Module beans are registered with the auto-configured ObjectMapper by Spring Boot.
+  @Bean
+  public Module blackbirdModule() {
+    return new BlackbirdModule();
+  }
+
+  @Bean
+  public Jackson2ObjectMapperBuilderCustomizer strictJsonBinding() {
+    return builder -> builder.failOnUnknownProperties(true);
+  }
+}
@@ -1,15 +1,156 @@
 package com.cloudcomputing.movieRetrievalWebApp.config;
 
+import com.timgroup.statsd.StatsDClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Builds the application PasswordEncoder.
+ *
+ * The BCrypt cost is calibrated at startup: a hash is timed at the cheap probe cost
+ * {@code auth.bcrypt.probeStrength} and projected up (each cost step doubles the work) to the highest cost
+ * whose expected hashing time fits in {@code auth.bcrypt.targetMillis}, clamped to
+ * [{@code auth.bcrypt.minStrength}, {@code auth.bcrypt.maxStrength}]. The minimum is a security floor, so
+ * slow hosts can select a cost below BCrypt's default of 10.
+ *
+ * Calibrated costs differ between instance types, so they only decide the cost of new hashes; stored hashes
+ * are re-encoded on login only when they are below the floor or in the legacy un-prefixed format. Setting
+ * {@code auth.bcrypt.strength} pins one cost for the whole fleet: calibration then only logs its
+ * recommendation, and any stored hash at a different cost is re-encoded at the pinned one on the next
+ * successful login through {@link CustomUserDetailsService#updatePassword}.
+ */
 @Configuration
 public class PasswordEncoderConfig {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+    private static final String ENCODING_ID = "bcrypt";
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    @Value("${auth.bcrypt.strength:0}")
+    private int configuredStrength;
+
+    @Value("${auth.bcrypt.targetMillis:250}")
+    private long targetMillis;
+
+    @Value("${auth.bcrypt.probeStrength:4}")
+    private int probeStrength;
+
+    @Value("${auth.bcrypt.minStrength:8}")
+    private int minStrength;
+
+    @Value("${auth.bcrypt.maxStrength:14}")
+    private int maxStrength;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(StatsDClient statsDClient) {
+        int recommended = calibrateStrength(statsDClient);
+        statsDClient.recordGaugeValue("auth.bcrypt.recommended_strength", recommended);
+
+        BCryptPasswordEncoder bcrypt;
+        int strength;
+        if (configuredStrength > 0) {
+            strength = configuredStrength;
+            bcrypt = new RehashingBCryptPasswordEncoder(strength, strength, strength);
+            if (recommended != strength) {
+                LOGGER.info("auth.bcrypt.strength pins BCrypt cost {}; calibration on this host recommends {}",
+                    strength, recommended);
+            }
+        } else {
+            strength = recommended;
+            bcrypt = new RehashingBCryptPasswordEncoder(strength, minStrength, Integer.MAX_VALUE);
+            LOGGER.info("auth.bcrypt.strength is not set; new hashes use the calibrated cost {}. "
+                + "Set auth.bcrypt.strength to keep the cost consistent across instances", strength);
+        }
+        statsDClient.recordGaugeValue("auth.bcrypt.strength", strength);
+        LOGGER.info("Using BCrypt strength {}", strength);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(ENCODING_ID, Map.of(ENCODING_ID, bcrypt));
+        // Hashes written before the {bcrypt} prefix was introduced.
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new TimedPasswordEncoder(delegating, statsDClient);
+    }
+
+    private int calibrateStrength(StatsDClient statsDClient) {
+        BCryptPasswordEncoder baseline = new BCryptPasswordEncoder(probeStrength);
+        baseline.encode("calibration-warmup");
+
+        long[] samples = new long[CALIBRATION_SAMPLES];
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            baseline.encode("calibration-sample");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long medianNanos = samples[CALIBRATION_SAMPLES / 2];
+        statsDClient.recordExecutionTime("auth.bcrypt.calibration.baseline_time", medianNanos / 1_000_000);
+
+        int strength = chooseStrength(medianNanos, probeStrength, targetMillis * 1_000_000, minStrength, maxStrength);
+        LOGGER.info("BCrypt cost {} takes {} us; budget {} ms selects cost {}",
+            probeStrength, medianNanos / 1_000, targetMillis, strength);
+        return strength;
+    }
+
+    /**
+     * Projects the baseline time up to the highest cost that stays within the budget, then clamps the result
+     * to [minStrength, maxStrength].
+     */
+    static int chooseStrength(long baselineNanos, int baselineStrength, long budgetNanos,
+                              int minStrength, int maxStrength) {
+        int strength = baselineStrength;
+        long projectedNanos = Math.max(baselineNanos, 1);
+        while (strength < maxStrength && projectedNanos * 2 <= budgetNanos) {
+            projectedNanos *= 2;
+            strength++;
+        }
+        return Math.min(Math.max(strength, minStrength), maxStrength);
+    }
+
+    /**
+     * Reads the cost from a BCrypt hash such as {@code $2a$10$...}, or returns -1 if it is not one.
+     */
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+            || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * BCryptPasswordEncoder that asks for a rehash only when the stored cost is outside [lowest, highest],
+     * instead of whenever it is below the local cost.
+     */
+    static class RehashingBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private final int lowestAccepted;
+        private final int highestAccepted;
+
+        RehashingBCryptPasswordEncoder(int strength, int lowestAccepted, int highestAccepted) {
+            super(strength);
+            this.lowestAccepted = lowestAccepted;
+            this.highestAccepted = highestAccepted;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            int cost = costOf(encodedPassword);
+            if (cost < 0) {
+                return false;
+            }
+            return cost < lowestAccepted || cost > highestAccepted;
+        }
     }
-}
\ No newline at end of file
+}
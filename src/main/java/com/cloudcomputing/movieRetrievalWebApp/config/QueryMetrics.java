@@ -0,0 +1,182 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Records what InstrumentedDataSource sees to StatsD. Statements are grouped by the shape of their
+ * SQL, with literals replaced by '?', and each shape gets a metric name of its verb, first table and
+ * a hash of the shape, such as {@code db.statement.select.users.5c1e09a2}. The shape behind a name is
+ * logged the first time it runs. For each shape:
+ * <ul>
+ *   <li>{@code <name>.time}, the time to execute in milliseconds;</li>
+ *   <li>{@code <name>.rows}, the rows read from its results;</li>
+ *   <li>{@code <name>.error}, executions that threw.</li>
+ * </ul>
+ * A result of more than {@code largeResultRows} rows counts towards {@code db.statement.large_result}
+ * and logs a warning for the shape, once. Waiting for a pooled connection is timed as
+ * {@code db.connection.acquire.time}.
+ */
+public class QueryMetrics {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(QueryMetrics.class);
+
+  // Hibernate sends the same SQL strings over and over; the cap only guards against SQL built with literals.
+  private static final int MAX_CACHED_STATEMENTS = 2048;
+  private static final Pattern IN_LIST = Pattern.compile("\\(\\?(?: ?, ?\\?)+\\)");
+
+  // Statements run by each thread so far; the difference across a request is its query count.
+  private static final ThreadLocal<long[]> STATEMENTS_ON_THREAD = ThreadLocal.withInitial(() -> new long[1]);
+
+  private final StatsDClient statsDClient;
+  private final long largeResultRows;
+  private final ConcurrentMap<String, StatementShape> statements = new ConcurrentHashMap<>();
+
+  public QueryMetrics(StatsDClient statsDClient, long largeResultRows) {
+    this.statsDClient = statsDClient;
+    this.largeResultRows = largeResultRows;
+  }
+
+  /**
+   * The number of statements the current thread has executed since it started.
+   */
+  public static long statementsOnCurrentThread() {
+    return STATEMENTS_ON_THREAD.get()[0];
+  }
+
+  public StatementShape statement(String sql) {
+    StatementShape statement = statements.get(sql);
+    if (statement != null) {
+      return statement;
+    }
+    String shape = normalize(sql);
+    if (statements.size() >= MAX_CACHED_STATEMENTS) {
+      return new StatementShape(metricName(shape), shape);
+    }
+    return statements.computeIfAbsent(sql, key -> {
+      StatementShape created = new StatementShape(metricName(shape), shape);
+      LOGGER.info("Statement {} is: {}", created.name, shape);
+      return created;
+    });
+  }
+
+  public void executed(StatementShape statement, long elapsedNanos, boolean failed) {
+    STATEMENTS_ON_THREAD.get()[0]++;
+    statsDClient.recordExecutionTime(statement.timeName, elapsedNanos / 1_000_000);
+    if (failed) {
+      statsDClient.incrementCounter(statement.errorName);
+    }
+  }
+
+  public void rowsRead(StatementShape statement, long rows) {
+    if (rows > 0) {
+      statsDClient.count(statement.rowsName, rows);
+    }
+    if (rows > largeResultRows) {
+      statsDClient.incrementCounter("db.statement.large_result");
+      if (!statement.largeResultLogged) {
+        statement.largeResultLogged = true;
+        LOGGER.warn("Statement {} read {} rows, more than {}: {}",
+            statement.name, rows, largeResultRows, statement.shape);
+      }
+    }
+  }
+
+  public void connectionAcquired(long elapsedNanos) {
+    statsDClient.recordExecutionTime("db.connection.acquire.time", elapsedNanos / 1_000_000);
+  }
+
+  /**
+   * Reduces SQL to its shape: comments dropped, whitespace collapsed, keywords and identifiers
+   * lower-cased, string and number literals replaced by '?' and parenthesised lists of placeholders,
+   * such as IN lists and VALUES rows, collapsed to one.
+   */
+  static String normalize(String sql) {
+    StringBuilder shape = new StringBuilder(sql.length());
+    int length = sql.length();
+    for (int i = 0; i < length; i++) {
+      char c = sql.charAt(i);
+      if (c == '\'') {
+        // A quote inside a literal is written twice.
+        i++;
+        while (i < length && (sql.charAt(i) != '\'' || (i + 1 < length && sql.charAt(i + 1) == '\''))) {
+          i += sql.charAt(i) == '\'' ? 2 : 1;
+        }
+        shape.append('?');
+      } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? length : end + 1;
+        appendSpace(shape);
+      } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+        // Stops before the line break, which then separates the words either side.
+        int end = sql.indexOf('\n', i);
+        i = end < 0 ? length : end - 1;
+      } else if (Character.isWhitespace(c)) {
+        appendSpace(shape);
+      } else if (Character.isDigit(c) && (shape.isEmpty() || !isIdentifierPart(shape.charAt(shape.length() - 1)))) {
+        while (i + 1 < length && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+          i++;
+        }
+        shape.append('?');
+      } else {
+        shape.append(Character.toLowerCase(c));
+      }
+    }
+    return IN_LIST.matcher(shape.toString().trim()).replaceAll("(?)");
+  }
+
+  private static void appendSpace(StringBuilder shape) {
+    if (!shape.isEmpty() && shape.charAt(shape.length() - 1) != ' ') {
+      shape.append(' ');
+    }
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+  }
+
+  static String metricName(String shape) {
+    String[] words = shape.split("[ (),]+");
+    String verb = words.length > 0 && words[0].matches("select|insert|update|delete|merge|with|call") ? words[0] : "other";
+    String table = "unknown";
+    String tableAfter = switch (verb) {
+      case "insert", "merge" -> "into";
+      case "update" -> "update";
+      default -> "from";
+    };
+    for (int i = 0; i < words.length - 1; i++) {
+      if (words[i].equals(tableAfter)) {
+        table = words[i + 1].replaceAll("[^a-z0-9_]", "_");
+        break;
+      }
+    }
+    return "db.statement." + verb + "." + table + "." + String.format(Locale.ROOT, "%08x", shape.hashCode());
+  }
+
+  /**
+   * A statement shape and its precomputed metric names.
+   */
+  public static final class StatementShape {
+
+    final String name;
+    final String shape;
+    final String timeName;
+    final String rowsName;
+    final String errorName;
+    volatile boolean largeResultLogged;
+
+    StatementShape(String name, String shape) {
+      this.name = name;
+      this.shape = shape;
+      this.timeName = name + ".time";
+      this.rowsName = name + ".rows";
+      this.errorName = name + ".error";
+    }
+  }
+}
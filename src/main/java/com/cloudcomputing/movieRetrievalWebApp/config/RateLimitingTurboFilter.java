@@ -0,0 +1,84 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how many messages each logger under a name prefix may write per second, so per-request
+ * messages cannot flood the log under load. Once a logger's budget for the second is spent, one
+ * message in {@code sampleEvery} still gets through; the rest are denied before they are formatted
+ * and counted. Messages above {@code maxLevel} are never limited.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+  private final String loggerPrefix;
+  private final long eventsPerSecond;
+  private final long sampleEvery;
+  private final int maxLevel;
+  private final ConcurrentMap<String, Budget> budgets = new ConcurrentHashMap<>();
+  private final LongAdder denied = new LongAdder();
+
+  public RateLimitingTurboFilter(String loggerPrefix, long eventsPerSecond, long sampleEvery, Level maxLevel) {
+    this.loggerPrefix = loggerPrefix;
+    this.eventsPerSecond = eventsPerSecond;
+    this.sampleEvery = sampleEvery;
+    this.maxLevel = maxLevel.toInt();
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    // No format means an isEnabled check, which should not spend the budget.
+    if (format == null || level.toInt() > maxLevel || !logger.getName().startsWith(loggerPrefix)
+        || level.toInt() < logger.getEffectiveLevel().toInt()) {
+      return FilterReply.NEUTRAL;
+    }
+    Budget budget = budgets.get(logger.getName());
+    if (budget == null) {
+      budget = budgets.computeIfAbsent(logger.getName(), name -> new Budget());
+    }
+    if (budget.tryAcquire()) {
+      return FilterReply.NEUTRAL;
+    }
+    denied.increment();
+    return FilterReply.DENY;
+  }
+
+  /**
+   * The number of messages denied since the previous call.
+   */
+  public long takeDenied() {
+    return denied.sumThenReset();
+  }
+
+  private final class Budget {
+
+    private final AtomicLong used = new AtomicLong();
+    private volatile long second = currentSecond();
+
+    boolean tryAcquire() {
+      long now = currentSecond();
+      if (now != second) {
+        synchronized (this) {
+          if (now != second) {
+            used.set(0);
+            second = now;
+          }
+        }
+      }
+      long n = used.incrementAndGet();
+      return n <= eventsPerSecond || (sampleEvery > 0 && (n - eventsPerSecond) % sampleEvery == 0);
+    }
+  }
+
+  private static long currentSecond() {
+    return System.nanoTime() / 1_000_000_000L;
+  }
+}
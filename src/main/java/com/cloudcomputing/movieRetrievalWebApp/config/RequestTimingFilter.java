@@ -0,0 +1,222 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every request with System.nanoTime into HdrHistogram recorders, one per route, method and
+ * status, and flushes them to StatsD on a fixed interval as
+ * {@code http.server.<route>.<METHOD>.<status>.{count,p50,p95,p99,max}}, in milliseconds.
+ *
+ * The route is the path pattern of the handler that served the request, so
+ * {@code /v1/user/self/pic/uploads/{uploadId}} is reported as {@code v1.user.self.pic.uploads.uploadId}
+ * however many uploads there are. Requests that reached no handler, such as those rejected by
+ * Spring Security, are reported under {@code unmatched}. Asynchronous requests, such as streamed
+ * image content, are timed until the response completes.
+ *
+ * Alongside the latencies go {@code queries}, the number of JDBC statements the requests ran, and
+ * {@code queries_max}, the most any one of them ran. Statements run on the request thread are
+ * counted, so those of an asynchronous request's background work are not.
+ */
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+  private static final String UNMATCHED = "unmatched";
+  private static final int STATUS_CODES = 600;
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private final StatsDClient statsDClient;
+  private final ConcurrentMap<String, ConcurrentMap<String, AtomicReferenceArray<RequestTimer>>> timers =
+      new ConcurrentHashMap<>();
+  private final Queue<RequestTimer> allTimers = new ConcurrentLinkedQueue<>();
+
+  public RequestTimingFilter(StatsDClient statsDClient) {
+    this.statsDClient = statsDClient;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long startTime = System.nanoTime();
+    long statementsBefore = QueryMetrics.statementsOnCurrentThread();
+    boolean completed = false;
+    try {
+      filterChain.doFilter(request, response);
+      completed = true;
+    } finally {
+      long queries = QueryMetrics.statementsOnCurrentThread() - statementsBefore;
+      if (completed && request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(new CompletionListener(request, response, startTime, queries));
+      } else {
+        // An exception escaping the chain is answered with 500 once it reaches the container.
+        record(request, completed ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR, startTime,
+            queries);
+      }
+    }
+  }
+
+  private void record(HttpServletRequest request, int status, long startTime, long queries) {
+    RequestTimer timer = timerFor(route(request), request.getMethod(), status);
+    timer.recorder.recordValue(System.nanoTime() - startTime);
+    timer.queries.add(queries);
+    timer.maxQueries.accumulate(queries);
+  }
+
+  private static String route(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern instanceof String route ? route : UNMATCHED;
+  }
+
+  // Looked up through maps keyed by the route pattern and method strings, so a request for a
+  // route, method and status seen before allocates nothing.
+  private RequestTimer timerFor(String route, String method, int status) {
+    ConcurrentMap<String, AtomicReferenceArray<RequestTimer>> byMethod = timers.get(route);
+    if (byMethod == null) {
+      byMethod = timers.computeIfAbsent(route, key -> new ConcurrentHashMap<>());
+    }
+    AtomicReferenceArray<RequestTimer> byStatus = byMethod.get(method);
+    if (byStatus == null) {
+      byStatus = byMethod.computeIfAbsent(method, key -> new AtomicReferenceArray<>(STATUS_CODES));
+    }
+    int index = status >= 0 && status < STATUS_CODES ? status : 0;
+    RequestTimer timer = byStatus.get(index);
+    if (timer == null) {
+      RequestTimer created = new RequestTimer("http.server." + metricRoute(route) + "." + method + "." + index);
+      timer = byStatus.compareAndExchange(index, null, created);
+      if (timer == null) {
+        allTimers.add(created);
+        timer = created;
+      }
+    }
+    return timer;
+  }
+
+  /**
+   * Turns a route pattern into dot-separated metric name segments: path variables lose their
+   * braces, wildcards become "wildcard" and other characters StatsD treats specially become '_'.
+   */
+  static String metricRoute(String route) {
+    StringBuilder name = new StringBuilder();
+    for (String segment : route.split("/")) {
+      if (segment.isEmpty()) {
+        continue;
+      }
+      if (!name.isEmpty()) {
+        name.append('.');
+      }
+      if (segment.startsWith("*")) {
+        name.append("wildcard");
+        continue;
+      }
+      for (int i = 0; i < segment.length(); i++) {
+        char c = segment.charAt(i);
+        if (Character.isLetterOrDigit(c) || c == '-' || c == '_') {
+          name.append(c);
+        } else if (c != '{' && c != '}') {
+          name.append('_');
+        }
+      }
+    }
+    return name.isEmpty() ? "root" : name.toString();
+  }
+
+  /**
+   * Sends the latencies recorded since the previous flush. Timers that saw no requests in the
+   * interval send nothing.
+   */
+  @Scheduled(fixedDelayString = "${metrics.requestTiming.flushIntervalMs:10000}")
+  public synchronized void flush() {
+    for (RequestTimer timer : allTimers) {
+      Histogram interval = timer.recorder.getIntervalHistogram(timer.recycled);
+      timer.recycled = interval;
+      if (interval.getTotalCount() == 0) {
+        continue;
+      }
+      statsDClient.count(timer.countName, interval.getTotalCount());
+      statsDClient.recordGaugeValue(timer.p50Name, interval.getValueAtPercentile(50) / NANOS_PER_MILLI);
+      statsDClient.recordGaugeValue(timer.p95Name, interval.getValueAtPercentile(95) / NANOS_PER_MILLI);
+      statsDClient.recordGaugeValue(timer.p99Name, interval.getValueAtPercentile(99) / NANOS_PER_MILLI);
+      statsDClient.recordGaugeValue(timer.maxName, interval.getMaxValue() / NANOS_PER_MILLI);
+      statsDClient.count(timer.queriesName, timer.queries.sumThenReset());
+      statsDClient.recordGaugeValue(timer.maxQueriesName, timer.maxQueries.getThenReset());
+    }
+  }
+
+  private static final class RequestTimer {
+
+    // Three significant digits; the histogram resizes itself to whatever latencies it sees.
+    final Recorder recorder = new Recorder(3);
+    final String countName;
+    final String p50Name;
+    final String p95Name;
+    final String p99Name;
+    final String maxName;
+    final String queriesName;
+    final String maxQueriesName;
+    final LongAdder queries = new LongAdder();
+    final LongAccumulator maxQueries = new LongAccumulator(Math::max, 0);
+    // Only touched by flush(), which is synchronized.
+    Histogram recycled;
+
+    RequestTimer(String name) {
+      countName = name + ".count";
+      p50Name = name + ".p50";
+      p95Name = name + ".p95";
+      p99Name = name + ".p99";
+      maxName = name + ".max";
+      queriesName = name + ".queries";
+      maxQueriesName = name + ".queries_max";
+    }
+  }
+
+  private final class CompletionListener implements AsyncListener {
+
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private final long startTime;
+    private final long queries;
+
+    CompletionListener(HttpServletRequest request, HttpServletResponse response, long startTime, long queries) {
+      this.request = request;
+      this.response = response;
+      this.startTime = startTime;
+      this.queries = queries;
+    }
+
+    // Timeouts and errors are followed by completion, so completion alone is recorded.
+    @Override
+    public void onComplete(AsyncEvent event) {
+      record(request, response.getStatus(), startTime, queries);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+  }
+}
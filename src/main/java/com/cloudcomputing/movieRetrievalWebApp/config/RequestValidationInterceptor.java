@@ -0,0 +1,114 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.cloudcomputing.movieRetrievalWebApp.controller.ValidatedRequest;
+import com.timgroup.statsd.StatsDClient;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Enforces {@link ValidatedRequest} on handler methods: disallowed query parameters and, where
+ * required, a non-empty body are answered with 400 Bad Request before the handler runs.
+ *
+ * The annotation is read once per handler method and cached. A request that passes is checked
+ * without allocating: its parameters are only looked at when it has a query string or a form body,
+ * and nothing is logged.
+ */
+public class RequestValidationInterceptor implements HandlerInterceptor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RequestValidationInterceptor.class);
+
+  private static final String FORM_CONTENT_TYPE = MediaType.APPLICATION_FORM_URLENCODED_VALUE;
+
+  // Handlers without the annotation map to this rule, so they are looked up once as well.
+  private static final Rule UNCONSTRAINED = new Rule(new String[0], false, null);
+
+  private final StatsDClient statsDClient;
+  private final ConcurrentMap<Method, Rule> rules = new ConcurrentHashMap<>();
+
+  public RequestValidationInterceptor(StatsDClient statsDClient) {
+    this.statsDClient = statsDClient;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!(handler instanceof HandlerMethod handlerMethod)) {
+      return true;
+    }
+    Rule rule = ruleFor(handlerMethod.getMethod());
+    if (rule == UNCONSTRAINED) {
+      return true;
+    }
+
+    if (rule.emptyBody() && request.getContentLengthLong() > 0) {
+      return reject(request, response, rule, "a request body is not allowed");
+    }
+    if (hasParameters(request)) {
+      for (String name : request.getParameterMap().keySet()) {
+        if (!rule.allows(name)) {
+          return reject(request, response, rule, "query parameter '" + name + "' is not allowed");
+        }
+      }
+    }
+    return true;
+  }
+
+  private Rule ruleFor(Method method) {
+    Rule rule = rules.get(method);
+    return rule != null ? rule : rules.computeIfAbsent(method, RequestValidationInterceptor::readRule);
+  }
+
+  private static Rule readRule(Method method) {
+    ValidatedRequest annotation = method.getAnnotation(ValidatedRequest.class);
+    if (annotation == null) {
+      return UNCONSTRAINED;
+    }
+    return new Rule(annotation.allowedParameters(), annotation.emptyBody(),
+        "api.validation." + method.getName() + ".rejected.count");
+  }
+
+  // Parameters come from the query string or a form-encoded body. When neither is present the
+  // parameter map is left alone, so the container has nothing to parse and nothing to allocate.
+  private static boolean hasParameters(HttpServletRequest request) {
+    if (request.getQueryString() == null) {
+      String contentType = request.getContentType();
+      if (contentType == null || !contentType.regionMatches(true, 0, FORM_CONTENT_TYPE, 0, FORM_CONTENT_TYPE.length())) {
+        return false;
+      }
+    }
+    return !request.getParameterMap().isEmpty();
+  }
+
+  private boolean reject(HttpServletRequest request, HttpServletResponse response, Rule rule, String reason) {
+    statsDClient.incrementCounter(rule.rejectedMetric());
+    LOGGER.warn("Rejected {} {}: {}", request.getMethod(), request.getRequestURI(), reason);
+
+    response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+    response.addHeader("Cache-Control", "no-cache");
+    response.addHeader("Cache-Control", "no-store");
+    response.addHeader("Cache-Control", "must-revalidate");
+    response.setHeader("Pragma", "no-cache");
+    response.setHeader("X-Content-Type-Options", "no-sniff");
+    return false;
+  }
+
+  private record Rule(String[] allowedParameters, boolean emptyBody, String rejectedMetric) {
+
+    boolean allows(String name) {
+      for (String allowed : allowedParameters) {
+        if (allowed.equals(name)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.cloudcomputing.movieRetrievalWebApp.config;
 
+import com.timgroup.statsd.StatsDClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,6 +10,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -16,11 +18,19 @@ public class SecurityConfig {
 
   private final CustomUserDetailsService customUserDetailsService;
   private final PasswordEncoder passwordEncoder;
+  private final AuthenticationCache authenticationCache;
+  private final AccessTokenService accessTokenService;
+  private final StatsDClient statsDClient;
 
   @Autowired
-  public SecurityConfig(CustomUserDetailsService customUserDetailsService, PasswordEncoder passwordEncoder) {
+  public SecurityConfig(CustomUserDetailsService customUserDetailsService, PasswordEncoder passwordEncoder,
+                        AuthenticationCache authenticationCache, AccessTokenService accessTokenService,
+                        StatsDClient statsDClient) {
     this.customUserDetailsService = customUserDetailsService;
     this.passwordEncoder = passwordEncoder;
+    this.authenticationCache = authenticationCache;
+    this.accessTokenService = accessTokenService;
+    this.statsDClient = statsDClient;
   }
 
   @Bean
@@ -28,9 +38,13 @@ public class SecurityConfig {
     http.csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(auth -> auth
             .requestMatchers("/v1/user/self/**").authenticated()
+            // The deep check does I/O against every dependency, so it is not for anonymous callers.
+            .requestMatchers("/healthz/deep", "/cicdz/deep").authenticated()
             .requestMatchers("/healthz", "/v1/users/**").permitAll()
             .requestMatchers("/").permitAll()
             .anyRequest().permitAll())
+        .addFilterBefore(new BearerTokenAuthenticationFilter(accessTokenService, statsDClient),
+            BasicAuthenticationFilter.class)
         .httpBasic();
 
     return http.build();
@@ -42,6 +56,8 @@ public class SecurityConfig {
     DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
     provider.setUserDetailsService(customUserDetailsService);
     provider.setPasswordEncoder(passwordEncoder);
-    auth.authenticationProvider(provider);
+    provider.setUserDetailsPasswordService(customUserDetailsService);
+    auth.authenticationProvider(new CachingAuthenticationProvider(provider, customUserDetailsService,
+        authenticationCache));
   }
 }
@@ -22,8 +22,21 @@ public class StatsDConfig {
   @Value("${statsd.prefix:csye6225}")
   private String prefix;
 
-  @Bean
+  @Value("${statsd.aggregate:true}")
+  private boolean aggregate;
+
+  @Value("${statsd.flushIntervalMs:1000}")
+  private long flushIntervalMs;
+
+  // An Ethernet MTU of 1500 less the IPv4 and UDP headers, with room for IP options.
+  @Value("${statsd.maxPacketBytes:1432}")
+  private int maxPacketBytes;
+
+  @Bean(destroyMethod = "stop")
   public StatsDClient metricClient() {
+    if (publishMessage && aggregate) {
+      return new AggregatingStatsDClient(prefix, metricHost, portNumber, flushIntervalMs, maxPacketBytes);
+    }
     if (publishMessage) {
       return new NonBlockingStatsDClient(prefix, metricHost, portNumber);
     }
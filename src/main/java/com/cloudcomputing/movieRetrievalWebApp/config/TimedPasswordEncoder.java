@@ -0,0 +1,47 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder decorator that reports hashing and verification times to StatsD.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final StatsDClient statsDClient;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, StatsDClient statsDClient) {
+        this.delegate = delegate;
+        this.statsDClient = statsDClient;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long startTime = System.currentTimeMillis();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            statsDClient.recordExecutionTime("auth.password.encode.time", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long startTime = System.currentTimeMillis();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            statsDClient.recordExecutionTime("auth.password.matches.time", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        boolean upgrade = delegate.upgradeEncoding(encodedPassword);
+        if (upgrade) {
+            statsDClient.incrementCounter("auth.password.rehash");
+        }
+        return upgrade;
+    }
+}
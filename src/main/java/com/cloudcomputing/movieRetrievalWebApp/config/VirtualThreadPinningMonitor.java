@@ -0,0 +1,87 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier thread, typically inside a
+ * {@code synchronized} block or a native frame, using the JDK's {@code jdk.VirtualThreadPinned}
+ * Flight Recorder event. Pinned virtual threads hold a carrier the way platform threads hold a
+ * pool thread, so enough of them stall every request.
+ *
+ * Each pin longer than {@code threads.virtual.pinning.thresholdMs} counts towards
+ * {@code threads.virtual.pinned} and is timed as {@code threads.virtual.pinned.time}. The stack of
+ * each distinct pinning site is logged once.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+  private static final int LOGGED_FRAMES = 12;
+  // Distinct sites are few; the cap only guards against stacks that differ on every event.
+  private static final int MAX_LOGGED_SITES = 256;
+
+  private final StatsDClient statsDClient;
+  private final RecordingStream recording;
+  private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+
+  @Autowired
+  public VirtualThreadPinningMonitor(StatsDClient statsDClient,
+                                     @Value("${threads.virtual.pinning.thresholdMs:20}") long thresholdMs) {
+    this.statsDClient = statsDClient;
+    this.recording = new RecordingStream();
+    recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+    recording.onEvent("jdk.VirtualThreadPinned", this::pinned);
+    recording.startAsync();
+    LOGGER.info("Reporting virtual threads pinned for more than {}ms", thresholdMs);
+  }
+
+  @PreDestroy
+  public void close() {
+    recording.close();
+  }
+
+  void pinned(RecordedEvent event) {
+    statsDClient.incrementCounter("threads.virtual.pinned");
+    statsDClient.recordExecutionTime("threads.virtual.pinned.time", event.getDuration().toMillis());
+
+    String site = describe(event.getStackTrace());
+    if (loggedSites.size() < MAX_LOGGED_SITES && loggedSites.add(site)) {
+      String thread = event.getThread() == null ? "?" : event.getThread().getJavaName();
+      LOGGER.warn("Virtual thread {} was pinned for {}ms at:\n{}", thread, event.getDuration().toMillis(), site);
+    }
+  }
+
+  private static String describe(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return "    (no stack trace)";
+    }
+    // The top frames are the JDK parking the thread; the code that pinned it is below them.
+    return stackTrace.getFrames().stream()
+        .dropWhile(frame -> isJdkFrame(frame.getMethod().getType().getName()))
+        .limit(LOGGED_FRAMES)
+        .map(frame -> "    at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+            + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : ""))
+        .collect(Collectors.joining("\n"));
+  }
+
+  private static boolean isJdkFrame(String className) {
+    return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.");
+  }
+}
@@ -0,0 +1,37 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+  private final StatsDClient statsDClient;
+
+  public WebMvcConfig(StatsDClient statsDClient) {
+    this.statsDClient = statsDClient;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new RequestValidationInterceptor(statsDClient));
+  }
+
+  @Bean
+  public RequestTimingFilter requestTimingFilter() {
+    return new RequestTimingFilter(statsDClient);
+  }
+
+  // Outermost filter, so the time spent in Spring Security is part of every request's latency.
+  @Bean
+  public FilterRegistrationBean<RequestTimingFilter> requestTimingFilterRegistration(RequestTimingFilter requestTimingFilter) {
+    FilterRegistrationBean<RequestTimingFilter> registration = new FilterRegistrationBean<>(requestTimingFilter);
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
@@ -0,0 +1,108 @@
+package com.cloudcomputing.movieRetrievalWebApp.controller;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AccessTokenService;
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticatedUser;
+import com.cloudcomputing.movieRetrievalWebApp.config.CustomUserDetailsService;
+import com.cloudcomputing.movieRetrievalWebApp.dto.authdto.AccessTokenResponseDTO;
+import com.cloudcomputing.movieRetrievalWebApp.dto.authdto.LoginRequestDTO;
+import com.cloudcomputing.movieRetrievalWebApp.service.UserService;
+import com.cloudcomputing.movieRetrievalWebApp.service.VerificationService;
+import com.timgroup.statsd.StatsDClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Optional;
+
+/**
+ * AuthController exchanges an email and password for a short-lived signed access token.
+ * The password is verified once here; subsequent requests present the token as
+ * {@code Authorization: Bearer <token>} and skip BCrypt entirely.
+ */
+@RestController
+@RequestMapping("/v1/user")
+public class AuthController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AuthController.class);
+
+  @Autowired
+  private StatsDClient statsDClient;
+
+  @Autowired
+  private CustomUserDetailsService customUserDetailsService;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private VerificationService verificationService;
+
+  @Autowired
+  private AccessTokenService accessTokenService;
+
+  // Unknown emails are checked against this hash, so they cost the same BCrypt work as known ones and
+  // response times do not reveal which emails are registered, as DaoAuthenticationProvider does.
+  private volatile String userNotFoundPasswordHash;
+
+  /**
+   * Handles the POST request to log in and obtain an access token.
+   *
+   * @param loginRequestDTO The email address and password of the user.
+   * @return ResponseEntity containing the AccessTokenResponseDTO, 400 for malformed requests
+   * or 401 when the credentials are not valid. Query parameters are rejected before the handler runs.
+   */
+  @PostMapping("/login")
+  @ValidatedRequest
+  public ResponseEntity<AccessTokenResponseDTO> login(@RequestBody LoginRequestDTO loginRequestDTO) {
+    statsDClient.incrementCounter("api.v1.user.login.count");
+    LOGGER.info("Login Request Received.");
+
+    if (loginRequestDTO.getEmailAddress() == null || loginRequestDTO.getPassword() == null) {
+      LOGGER.warn("Login request is missing credentials.");
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+
+    String email = loginRequestDTO.getEmailAddress();
+    // One query loads the password hash together with the user id and verification state.
+    Optional<AuthenticatedUser> user = userService.getAuthenticatedUser(email);
+
+    String passwordHash = user.map(AuthenticatedUser::getPassword).orElseGet(this::userNotFoundPasswordHash);
+    boolean passwordMatches = passwordEncoder.matches(loginRequestDTO.getPassword(), passwordHash);
+    if (user.isEmpty() || !passwordMatches) {
+      LOGGER.warn("Invalid credentials for login: {}", email);
+      return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+    }
+
+    // Re-encode hashes stored at an outdated BCrypt cost while the raw password is at hand.
+    if (passwordEncoder.upgradeEncoding(user.get().getPassword())) {
+      customUserDetailsService.updatePassword(user.get(), passwordEncoder.encode(loginRequestDTO.getPassword()));
+    }
+
+    boolean verified = ControllerUtils.checkUserVerified(verificationService, user.get());
+
+    String token = accessTokenService.issueToken(user.get().getUserId(), email, verified);
+    LOGGER.info("Access token issued for: {}", email);
+
+    return ResponseEntity.ok()
+        .header("Cache-Control", "no-store")
+        .header("Pragma", "no-cache")
+        .body(new AccessTokenResponseDTO(token, "Bearer", accessTokenService.getTtlSeconds()));
+  }
+
+  private String userNotFoundPasswordHash() {
+    if (userNotFoundPasswordHash == null) {
+      userNotFoundPasswordHash = passwordEncoder.encode("userNotFoundPassword");
+    }
+    return userNotFoundPasswordHash;
+  }
+}
@@ -1,15 +1,18 @@
 package com.cloudcomputing.movieRetrievalWebApp.controller;
 
+import java.security.Principal;
 import java.util.Optional;
-import java.util.regex.Pattern;
-
-import java.util.logging.Logger;
 
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticatedUser;
 import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCreateDTO;
 import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserResponseDTO;
 import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserUpdateDTO;
 import com.cloudcomputing.movieRetrievalWebApp.model.User;
 import com.cloudcomputing.movieRetrievalWebApp.service.UserService;
+import com.cloudcomputing.movieRetrievalWebApp.service.VerificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
 
 /**
  * ControllerUtils is a utility class containing reusable methods for
@@ -18,41 +21,58 @@ import com.cloudcomputing.movieRetrievalWebApp.service.UserService;
 public class ControllerUtils {
 
   // Logger instance for logging warnings and information.
-  private static final Logger LOGGER = Logger.getLogger(ControllerUtils.class.getName());
+  private static final Logger LOGGER = LoggerFactory.getLogger(ControllerUtils.class);
+
+  // The email format ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$, precompiled into the characters allowed on
+  // either side of the '@' so that checking an address allocates nothing (a regex Matcher would).
+  private static final boolean[] LOCAL_PART_CHARS = asciiAlphanumericAnd("+_.-");
+  private static final boolean[] DOMAIN_CHARS = asciiAlphanumericAnd(".-");
 
   /**
-   * Checks if a user exists in the system using the provided email.
+   * Resolves the authenticated user from the security principal populated during authentication.
+   * Falls back to a single database lookup when the principal was not created by this application
+   * (e.g. a mocked user in tests).
    *
-   * @param userService The UserService to interact with user data.
-   * @param email       The email address to check.
-   * @return Boolean indicating whether the user exists.
+   * @param userService The UserService used when the principal has to be loaded.
+   * @param principal   The security principal of the current request.
+   * @return Optional<AuthenticatedUser> containing the user if found, or an empty Optional if not.
    */
-  public static Boolean checkUserExists(UserService userService, String email) {
-    // Retrieve the existing user from the service.
-    Optional<User> existingUser = getExsistingUser(userService, email);
-
-    // If the user does not exist, log and return false.
-    if (existingUser.isEmpty()) {
-      LOGGER.info("User not found for email: " + email);
-      return false;
-    } else {
-      LOGGER.warning("User found for email: " + email);
-      return true;
+  public static Optional<AuthenticatedUser> getAuthenticatedUser(UserService userService, Principal principal) {
+    if (principal instanceof Authentication authentication
+        && authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+      return Optional.of(authenticatedUser);
     }
+    return userService.getAuthenticatedUser(principal.getName());
   }
 
   /**
-   * Retrieves an existing user from the UserService by email.
+   * Checks whether the authenticated user is verified. A principal authenticated before the user
+   * completed verification is re-checked against the VerificationService.
    *
-   * @param userService The UserService used to retrieve user data.
-   * @param email       The email address to look up.
-   * @return Optional<User> containing the user if found, or an empty Optional if
-   *         not.
+   * @param verificationService The VerificationService holding the verification status cache.
+   * @param authenticatedUser   The authenticated user to check.
+   * @return Boolean indicating whether the user is verified.
    */
-  public static Optional<User> getExsistingUser(UserService userService, String email) {
-    // Call the service method to get the user by email.
-    Optional<User> existingUser = userService.getUserByEmail(email);
-    return existingUser;
+  public static Boolean checkUserVerified(VerificationService verificationService, AuthenticatedUser authenticatedUser) {
+    return authenticatedUser.isVerified() || verificationService.isUserVerified(authenticatedUser.getEmail());
+  }
+
+  /**
+   * Constructs a UserResponseDTO object from an authenticated user that carries its profile.
+   *
+   * @param authenticatedUser The authenticated user from which the response will be built.
+   * @return UserResponseDTO containing the user details.
+   */
+  public static UserResponseDTO setResponseObject(AuthenticatedUser authenticatedUser) {
+    UserResponseDTO userResponseDTO = new UserResponseDTO();
+    userResponseDTO.setId(authenticatedUser.getUserId());
+    userResponseDTO.setFirst_name(authenticatedUser.getFirstName());
+    userResponseDTO.setLast_name(authenticatedUser.getLastName());
+    userResponseDTO.setEmail(authenticatedUser.getEmail());
+    userResponseDTO.setAccount_created(authenticatedUser.getAccountCreated().toString());
+    userResponseDTO.setAccount_updated(authenticatedUser.getAccountUpdated().toString());
+
+    return userResponseDTO;
   }
 
   /**
@@ -84,25 +104,53 @@ public class ControllerUtils {
    * @return Boolean indicating whether the email and password are valid.
    */
   public static Boolean validateEmailPassword(UserCreateDTO userCreateDTO) {
-    // Regular expression for validating email format.
-    String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$";
-    Pattern pattern = Pattern.compile(emailRegex);
+    String email = userCreateDTO.getEmailAddress();
 
     // Check if the email matches the valid pattern.
-    if (!pattern.matcher(userCreateDTO.getEmailAddress()).matches()) {
-      LOGGER.warning("Invalid email format: " + userCreateDTO.getEmailAddress());
+    if (email == null || !isValidEmail(email)) {
+      LOGGER.warn("Invalid email format: {}", email);
       return false;
-    } else {
-      LOGGER.info("Valid email provided: " + userCreateDTO.getEmailAddress());
+    }
+
+    // Check if the password is provided and is not empty.
+    if (userCreateDTO.getPassword() == null || userCreateDTO.getPassword().isEmpty()) {
+      LOGGER.warn("Missing password for user: {}", email);
+      return false;
+    }
+    return true;
+  }
 
-      // Check if the password is provided and is not empty.
-      if (userCreateDTO.getPassword() == null || userCreateDTO.getPassword().isEmpty()) {
-        LOGGER.warning("Missing password for user: " + userCreateDTO.getEmailAddress());
+  private static boolean isValidEmail(String email) {
+    int at = email.indexOf('@');
+    if (at <= 0 || at == email.length() - 1) {
+      return false;
+    }
+    return allCharsIn(email, 0, at, LOCAL_PART_CHARS) && allCharsIn(email, at + 1, email.length(), DOMAIN_CHARS);
+  }
+
+  private static boolean allCharsIn(String value, int from, int to, boolean[] allowed) {
+    for (int i = from; i < to; i++) {
+      char c = value.charAt(i);
+      if (c >= allowed.length || !allowed[c]) {
         return false;
       }
-      LOGGER.info("Valid password provided");
-      return true;
     }
+    return true;
+  }
+
+  private static boolean[] asciiAlphanumericAnd(String extraChars) {
+    boolean[] allowed = new boolean[128];
+    for (char c = 'a'; c <= 'z'; c++) {
+      allowed[c] = true;
+      allowed[Character.toUpperCase(c)] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      allowed[c] = true;
+    }
+    for (char c : extraChars.toCharArray()) {
+      allowed[c] = true;
+    }
+    return allowed;
   }
 
   /**
@@ -119,45 +167,41 @@ public class ControllerUtils {
     newUser.setFirstName(userCreateDTO.getFirstName());
     newUser.setLastName(userCreateDTO.getLastName());
 
-    LOGGER.info("New User Obj created: " + newUser);
+    LOGGER.info("New User Obj created: {}", newUser);
     return newUser;
   }
 
   /**
-   * Updates an existing User object with data from a UserUpdateDTO.
+   * Builds the update for a user from a UserUpdateDTO, keeping the authenticated user's current
+   * names for fields that are not provided. The stored user itself is loaded once, by the DAO.
    *
-   * @param userService   The UserService to retrieve the existing user.
-   * @param userUpdateDTO DTO containing the updated user data.
-   * @param email         The email of the user to update.
+   * @param userUpdateDTO     DTO containing the updated user data.
+   * @param authenticatedUser The authenticated user, carrying its current profile.
    * @return User object with updated information.
    */
-  public static User updateUser(UserService userService, UserUpdateDTO userUpdateDTO, String email) {
-    // Retrieve the existing user using the service.
-    Optional<User> existingUserInfo = getExsistingUser(userService, email);
-    User existingUser = existingUserInfo.get();
+  public static User updateUser(UserUpdateDTO userUpdateDTO, AuthenticatedUser authenticatedUser) {
     User updatedUserInfo = new User();
 
     // Update first name if provided, otherwise retain the existing one.
     if (userUpdateDTO.getFirstName() != null && !userUpdateDTO.getFirstName().isEmpty()) {
       updatedUserInfo.setFirstName(userUpdateDTO.getFirstName());
     } else {
-      updatedUserInfo.setFirstName(existingUser.getFirstName());
+      updatedUserInfo.setFirstName(authenticatedUser.getFirstName());
     }
 
     // Update last name if provided, otherwise retain the existing one.
     if (userUpdateDTO.getLastName() != null && !userUpdateDTO.getLastName().isEmpty()) {
       updatedUserInfo.setLastName(userUpdateDTO.getLastName());
     } else {
-      updatedUserInfo.setLastName(existingUser.getLastName());
+      updatedUserInfo.setLastName(authenticatedUser.getLastName());
     }
 
-    // Update password if provided, otherwise retain the existing one.
+    // Set the password only if a new one is provided. It is left null otherwise, so the stored
+    // hash is kept as is rather than being hashed a second time.
     if (userUpdateDTO.getPassword() != null && !userUpdateDTO.getPassword().isEmpty()) {
       updatedUserInfo.setPassword(userUpdateDTO.getPassword());
-    } else {
-      updatedUserInfo.setPassword(existingUser.getPassword());
     }
 
     return updatedUserInfo;
   }
-}
\ No newline at end of file
+}
@@ -1,87 +1,87 @@
 package com.cloudcomputing.movieRetrievalWebApp.controller;
 
+import com.cloudcomputing.movieRetrievalWebApp.service.HealthProbeService;
 import com.timgroup.statsd.StatsDClient;
-import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.logging.Logger;
 
 @RestController
 @RequestMapping({"/healthz", "/cicdz"})
 public class HealthController {
-  private static final Logger LOGGER = Logger.getLogger(HealthController.class.getName());
+  private static final Logger LOGGER = LoggerFactory.getLogger(HealthController.class);
 
   @Autowired
-  private JdbcTemplate jdbcTemplate;
+  private HealthProbeService healthProbeService;
 
   @Autowired
   private StatsDClient statsDClient;
 
+  /**
+   * Answers from the background prober's latest snapshot, without touching the database. A snapshot
+   * that has gone stale counts as unhealthy.
+   */
   @GetMapping
-  public ResponseEntity<Void> healthCheck(HttpServletRequest request) {
+  @ValidatedRequest(emptyBody = true)
+  public ResponseEntity<Void> healthCheck() {
 
     LOGGER.info("Health check endpoint accessed.");
 
-    long startTime = System.currentTimeMillis();
     statsDClient.incrementCounter("api.healthz.get.count");
-    Map<String, String[]> queryParams = request.getParameterMap();
-
-    if (request.getContentLength() > 0 || !queryParams.isEmpty()) {
-      LOGGER.warning("Invalid request: Content length is greater than zero or query parameters are present."
-          + " ##HttpStatus.BAD_REQUEST sent in response## ");
-      return ResponseEntity.badRequest()
-          .header("Cache-Control", "no-cache", "no-store", "must-revalidate")
-          .header("Pragma", "no-cache")
-          .header("X-Content-Type-Options", "no-sniff")
-          .build();
-    }
 
-    try {
-      LOGGER.info("Executing a simple database query to check connectivity.");
-      jdbcTemplate.execute("SELECT 1");
-      LOGGER.info("Database connectivity check successful." + " ##HttpStatus.OK sent in response## ");
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.healthz.get.response_time", elapsedTime);
-
-      return ResponseEntity.ok()
-          .header("Cache-Control", "no-cache", "no-store", "must-revalidate")
-          .header("Pragma", "no-cache")
-          .header("X-Content-Type-Options", "no-sniff")
-          .build();
-    } catch (DataAccessException e) {
-      LOGGER.severe("Database connectivity check failed: " + e.getMessage());
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.healthz.get.response_time", elapsedTime);
-
-      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-          .header("Cache-Control", "no-cache", "no-store", "must-revalidate")
-          .header("Pragma", "no-cache")
-          .header("X-Content-Type-Options", "no-sniff")
-          .build();
+    HealthProbeService.Snapshot snapshot = healthProbeService.snapshot();
+    statsDClient.recordGaugeValue("health.snapshot.age", healthProbeService.ageMillis(snapshot));
+    if (healthProbeService.isStale(snapshot)) {
+      statsDClient.incrementCounter("health.snapshot.stale");
+      LOGGER.error("Health snapshot from {} is stale. ##HttpStatus.SERVICE_UNAVAILABLE sent in response## ",
+          snapshot.checkedAt());
+      return noCache(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
+    return noCache(snapshot.healthy() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).build();
+  }
+
+  /**
+   * Reports each dependency from a probe taken now, or from the latest snapshot when it is recent or
+   * a probe is already running. For authenticated operators rather than load balancers.
+   */
+  @GetMapping("/deep")
+  @ValidatedRequest(emptyBody = true)
+  public ResponseEntity<Map<String, Object>> deepHealthCheck() {
+
+    LOGGER.info("Deep health check endpoint accessed.");
+
+    statsDClient.incrementCounter("api.healthz.deep.get.count");
+
+    HealthProbeService.Snapshot snapshot = healthProbeService.refresh();
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("status", snapshot.healthy() ? "UP" : "DOWN");
+    body.put("checkedAt", snapshot.checkedAt().toString());
+    body.put("components", snapshot.components());
+    return noCache(snapshot.healthy() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(body);
   }
 
   @RequestMapping(method = { RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.PATCH })
   public ResponseEntity<Void> methodNotAllowed() {
 
     statsDClient.incrementCounter("api.healthz.method_not_allowed.count");
-    LOGGER.warning("Unsupported HTTP method attempted on /healthz endpoint.");
+    LOGGER.warn("Unsupported HTTP method attempted on /healthz endpoint.");
+
+    return noCache(HttpStatus.METHOD_NOT_ALLOWED).build();
+  }
 
-    return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+  private static ResponseEntity.BodyBuilder noCache(HttpStatus status) {
+    return ResponseEntity.status(status)
         .header("Cache-Control", "no-cache", "no-store", "must-revalidate")
         .header("Pragma", "no-cache")
-        .header("X-Content-Type-Options", "no-sniff")
-        .build();
+        .header("X-Content-Type-Options", "no-sniff");
   }
 }
@@ -1,27 +1,41 @@
 package com.cloudcomputing.movieRetrievalWebApp.controller;
 
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticatedUser;
 import com.cloudcomputing.movieRetrievalWebApp.dto.imagedto.ImageResponseDTO;
-import com.cloudcomputing.movieRetrievalWebApp.model.User;
+import com.cloudcomputing.movieRetrievalWebApp.dto.imagedto.ImageUploadStatusDTO;
+import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.model.ImageUpload;
+import com.cloudcomputing.movieRetrievalWebApp.service.ImageContent;
+import com.cloudcomputing.movieRetrievalWebApp.service.ImageDerivativeService;
 import com.cloudcomputing.movieRetrievalWebApp.service.ImageService;
+import com.cloudcomputing.movieRetrievalWebApp.service.ImageUploadService;
 import com.cloudcomputing.movieRetrievalWebApp.service.UserService;
 
 import com.cloudcomputing.movieRetrievalWebApp.service.VerificationService;
 import com.timgroup.statsd.StatsDClient;
 import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.net.URI;
 import java.security.Principal;
-import java.util.Map;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.logging.Logger;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller class to handle image-related operations for authenticated users.
@@ -33,7 +47,7 @@ import java.util.logging.Logger;
 @RequestMapping("/v1/user/self")
 public class ImageController {
 
-  private static final Logger LOGGER = Logger.getLogger(ImageController.class.getName());
+  private static final Logger LOGGER = LoggerFactory.getLogger(ImageController.class);
 
   @Autowired
   private StatsDClient statsDClient;
@@ -47,25 +61,11 @@ public class ImageController {
   @Autowired
   private VerificationService verificationService;
 
-  /**
-   * Middleware to check if the authenticated user is verified.
-   * Verifies the user by retrieving the verification token associated with their account.
-   * Logs warnings if the user is not found or verification fails.
-   *
-   * @param email The email of the authenticated user.
-   * @return true if the user is verified, false otherwise.
-   */
-  private Boolean checkUserVerified(String email) {
-    Optional<User> user = userService.getUserByEmail(email);
-
-    if (user.isEmpty()) {
-      LOGGER.warning("User not found: " + email);
-    }
+  @Autowired
+  private ImageDerivativeService imageDerivativeService;
 
-    return verificationService.getVerificationTokenByUserId(user.get().getUserId())
-      .map(token -> token.getVerificationFlag() != null && token.getVerificationFlag())
-      .orElse(false); // User is verified
-  }
+  @Autowired
+  private ImageUploadService imageUploadService;
 
   /**
    * Uploads a profile image for the authenticated user.
@@ -74,255 +74,418 @@ public class ImageController {
    *
    * @param principal The security principal containing the user's email.
    * @param file      The image file to be uploaded.
-   * @param request   The HTTP request object, used to validate parameters.
    * @return ResponseEntity containing the {@link ImageResponseDTO} on success or the appropriate HTTP status code.
    */
   @PostMapping(value = "/pic", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<ImageResponseDTO> uploadUserImage(Principal principal, @RequestParam("file") MultipartFile file,
-                                                          HttpServletRequest request) {
+  @ValidatedRequest
+  public ResponseEntity<ImageResponseDTO> uploadUserImage(Principal principal, @RequestParam("file") MultipartFile file) {
 
-    long startTime = System.currentTimeMillis();
     statsDClient.incrementCounter("api.v1.user.uploadUserImage.count");
 
     LOGGER.info("Image POST Request Received.");
 
-    // Log query parameters if present
-    request.getParameterMap()
-      .forEach((key, value) -> LOGGER.warning("Query Parameter: " + key + " = " + String.join(",", value)));
+    String email = principal.getName();
+    Optional<AuthenticatedUser> authenticatedUser = ControllerUtils.getAuthenticatedUser(userService, principal);
+
+    // Check if the authenticated user exists in the system.
+    if (authenticatedUser.isPresent()) {
 
-    // Check if there are any query parameters, return BAD_REQUEST if found
-    if (!request.getParameterMap().isEmpty()) {
-      LOGGER.warning("Query parameters are not allowed in this request.");
+      // Check if the user is verified
+      if (!ControllerUtils.checkUserVerified(verificationService, authenticatedUser.get())) {
+        LOGGER.warn("User is not verified: {}", email);
+        return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+      }
+      LOGGER.info("User is verified: {}", email);
 
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.uploadUserImage.response_time", elapsedTime);
+      try {
+        UUID userId = authenticatedUser.get().getUserId();
+        ImageResponseDTO response = imageService.uploadImage(file, userId);
 
-      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+      } catch (IOException e) {
+        return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+      }
     }
+    // Log if the user is not found and return a 404 response.
+    LOGGER.warn("User not found for email: {}", email);
+
+    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+  }
+
+  /**
+   * Accepts a profile image upload for the authenticated user without waiting for it to be stored.
+   * The file is spooled to local disk and stored in the background; the response is 202 Accepted
+   * with the upload's status and a Location header to poll. Returns 503 with Retry-After when the
+   * upload queue is full.
+   *
+   * @param principal The security principal containing the user's email.
+   * @param file      The image file to be uploaded.
+   * @return ResponseEntity containing the {@link ImageUploadStatusDTO} on success or the appropriate HTTP status code.
+   */
+  @PostMapping(value = "/pic/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+  @ValidatedRequest
+  public ResponseEntity<ImageUploadStatusDTO> uploadUserImageAsync(Principal principal,
+                                                                   @RequestParam("file") MultipartFile file) {
+
+    statsDClient.incrementCounter("api.v1.user.uploadUserImageAsync.count");
+
+    LOGGER.info("Async image POST Request Received.");
 
     String email = principal.getName();
+    Optional<AuthenticatedUser> authenticatedUser = ControllerUtils.getAuthenticatedUser(userService, principal);
+    if (authenticatedUser.isEmpty()) {
+      LOGGER.warn("User not found for email: {}", email);
 
-    // Check if the authenticated user exists in the system.
-    if (ControllerUtils.checkUserExists(userService, email)) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
 
-      // Check if the user is verified
-      if (!checkUserVerified(email)) {
-        LOGGER.warning("User is not verified: " + email);
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        statsDClient.recordExecutionTime("api.v1.user.getUserInfo.response_time", elapsedTime);
-        return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-      }
-      LOGGER.info("User is verified: " + email);
+    // Check if the user is verified
+    if (!ControllerUtils.checkUserVerified(verificationService, authenticatedUser.get())) {
+      LOGGER.warn("User is not verified: {}", email);
+      return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+    }
 
-      Optional<User> existingUser = ControllerUtils.getExsistingUser(userService, email);
-      if (existingUser.isPresent()) {
-        User user = existingUser.get();
-        try {
-          UUID userId = user.getUserId();
-          ImageResponseDTO response = imageService.uploadImage(file, userId);
+    try {
+      ImageUpload upload = imageUploadService.accept(file, authenticatedUser.get().getUserId());
 
-          long elapsedTime = System.currentTimeMillis() - startTime;
-          statsDClient.recordExecutionTime("api.v1.user.uploadUserImage.response_time", elapsedTime);
+      return ResponseEntity.accepted()
+        .location(URI.create("/v1/user/self/pic/uploads/" + upload.getId()))
+        .body(new ImageUploadStatusDTO(upload));
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn("Upload queue is full; rejecting upload for user: {}", email);
 
-          return new ResponseEntity<>(response, HttpStatus.CREATED);
-        } catch (IOException e) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "5")
+        .build();
+    } catch (IOException e) {
+      LOGGER.warn("Error spooling upload: {}", e.getMessage());
 
-          long elapsedTime = System.currentTimeMillis() - startTime;
-          statsDClient.recordExecutionTime("api.v1.user.uploadUserImage.response_time", elapsedTime);
+      return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+  }
 
-          return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
-        }
-      }
+  /**
+   * Reports the status (pending, complete or failed) of an upload accepted by POST /pic/async.
+   * Uploads of other users are reported as not found.
+   *
+   * @param principal The security principal containing the user's email.
+   * @param uploadId  The id returned when the upload was accepted.
+   * @return ResponseEntity containing the {@link ImageUploadStatusDTO} or the appropriate HTTP status code.
+   */
+  @GetMapping(value = "/pic/uploads/{uploadId}", produces = MediaType.APPLICATION_JSON_VALUE)
+  @ValidatedRequest
+  public ResponseEntity<ImageUploadStatusDTO> getUploadStatus(Principal principal, @PathVariable UUID uploadId) {
+
+    statsDClient.incrementCounter("api.v1.user.getUploadStatus.count");
+
+    Optional<AuthenticatedUser> authenticatedUser = ControllerUtils.getAuthenticatedUser(userService, principal);
+    if (authenticatedUser.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
     }
-    // Log if the user is not found and return a 404 response.
-    LOGGER.warning("User not found for email: " + email);
 
-    long elapsedTime = System.currentTimeMillis() - startTime;
-    statsDClient.recordExecutionTime("api.v1.user.uploadUserImage.response_time", elapsedTime);
+    Optional<ImageUpload> upload = imageUploadService.getUpload(uploadId, authenticatedUser.get().getUserId());
 
-    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    return upload
+      .map(value -> ResponseEntity.ok()
+        .cacheControl(CacheControl.noStore())
+        .body(new ImageUploadStatusDTO(value)))
+      .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
   }
 
   /**
    * Retrieves the profile image of the authenticated user.
-   * Validates query parameters and request body to ensure compliance with the API contract.
+   * An optional {@code size} query parameter selects a generated derivative (thumbnail); the original
+   * is returned until that derivative exists. Other query parameters and a request body are rejected.
    * Logs request details and records response time metrics.
    *
    * @param principal      The security principal containing the user's email.
-   * @param request        The HTTP request object, used to validate parameters.
-   * @param requestBodyMap The request body, expected to be empty; validated for compliance.
+   * @param request        The HTTP request object, used to validate the size parameter.
    * @return ResponseEntity containing the {@link ImageResponseDTO} on success or the appropriate HTTP status code.
    */
   @GetMapping(value = "/pic", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<ImageResponseDTO> getUserImage(Principal principal,  HttpServletRequest request,
-                                                       @RequestBody Map<String, Object> requestBodyMap) {
+  @ValidatedRequest(allowedParameters = "size", emptyBody = true)
+  public ResponseEntity<ImageResponseDTO> getUserImage(Principal principal, HttpServletRequest request) {
 
-    long startTime = System.currentTimeMillis();
     statsDClient.incrementCounter("api.v1.user.getUserImage.count");
 
     LOGGER.info("Image GET Request Received.");
 
-    // Log query parameters if present
-    request.getParameterMap()
-      .forEach((key, value) -> LOGGER.warning("Query Parameter: " + key + " = " + String.join(",", value)));
-
-    // Check if there are any query parameters, return BAD_REQUEST if found
-    if (!request.getParameterMap().isEmpty()) {
-      LOGGER.warning("Query parameters are not allowed in this request.");
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.getUserImage.response_time", elapsedTime);
-
-      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-    }
-
-    // Check for any fields in the request body; return BAD_REQUEST if found
-    if (!requestBodyMap.isEmpty()) {
-      LOGGER.warning("Request body should not contain any fields.");
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.getUserImage.response_time", elapsedTime);
+    // Only a supported derivative size may be passed; return BAD_REQUEST for anything else
+    if (!isValidImageQuery(request)) {
+      LOGGER.warn("Only a supported size parameter is allowed in this request.");
 
       return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
     }
 
     String email = principal.getName();
+    Optional<AuthenticatedUser> authenticatedUser = ControllerUtils.getAuthenticatedUser(userService, principal);
 
     // Check if the authenticated user exists in the system.
-    if (ControllerUtils.checkUserExists(userService, email)) {
+    if (authenticatedUser.isPresent()) {
 
       // Check if the user is verified
-      if (!checkUserVerified(email)) {
-        LOGGER.warning("User is not verified: " + email);
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        statsDClient.recordExecutionTime("api.v1.user.getUserInfo.response_time", elapsedTime);
+      if (!ControllerUtils.checkUserVerified(verificationService, authenticatedUser.get())) {
+        LOGGER.warn("User is not verified: {}", email);
         return new ResponseEntity<>(HttpStatus.FORBIDDEN);
       }
-      LOGGER.info("User is verified: " + email);
+      LOGGER.info("User is verified: {}", email);
 
-      Optional<User> existingUser = ControllerUtils.getExsistingUser(userService, email);
-      if (existingUser.isPresent()) {
-        User user = existingUser.get();
-        try {
-          UUID userId = user.getUserId();
-          ImageResponseDTO imageResponseData = imageService.downloadImage(userId);
-          LOGGER.info("Request Successful. Returning ImageResponseDTO.");
+      try {
+        UUID userId = authenticatedUser.get().getUserId();
+        ImageResponseDTO imageResponseData = imageService.downloadImage(userId, requestedSize(request));
+        LOGGER.info("Request Successful. Returning ImageResponseDTO.");
 
-          long elapsedTime = System.currentTimeMillis() - startTime;
-          statsDClient.recordExecutionTime("api.v1.user.getUserImage.response_time", elapsedTime);
+        return new ResponseEntity<>(imageResponseData, HttpStatus.OK);
+      } catch (IOException e) {
+        LOGGER.warn("Error fetching image: {}", e.getMessage());
 
-          return new ResponseEntity<>(imageResponseData, HttpStatus.OK);
-        } catch (IOException e) {
-          LOGGER.warning("Error fetching image: " + e.getMessage());
-
-          long elapsedTime = System.currentTimeMillis() - startTime;
-          statsDClient.recordExecutionTime("api.v1.user.getUserImage.response_time", elapsedTime);
-
-          return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
       }
     } else {
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.getUserImage.response_time", elapsedTime);
-
       return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
     }
-
-    long elapsedTime = System.currentTimeMillis() - startTime;
-    statsDClient.recordExecutionTime("api.v1.user.getUserImage.response_time", elapsedTime);
-
-    return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
   /**
    * Deletes the profile image of the authenticated user.
-   * Validates query parameters and request body, checks user verification status, and processes the image deletion.
+   * Query parameters and a request body are rejected before the handler runs; checks user verification
+   * status and processes the image deletion.
    * Logs request details and tracks response time metrics for monitoring.
    *
-   * @param principal      The security principal containing the user's email.
-   * @param request        The HTTP request object, used to validate parameters.
-   * @param requestBodyMap The request body, expected to be empty; validated for compliance.
+   * @param principal The security principal containing the user's email.
    * @return ResponseEntity with the appropriate HTTP status code.
    */
   @DeleteMapping("/pic")
-  public ResponseEntity<Void> deleteUserImage(Principal principal,  HttpServletRequest request,
-                                              @RequestBody Map<String, Object> requestBodyMap) {
-    long startTime = System.currentTimeMillis();
+  @ValidatedRequest(emptyBody = true)
+  public ResponseEntity<Void> deleteUserImage(Principal principal) {
     statsDClient.incrementCounter("api.v1.user.deleteUserImage.count");
     LOGGER.info("Image DELETE Request Received.");
 
-    // Log query parameters if present
-    request.getParameterMap()
-      .forEach((key, value) -> LOGGER.warning("Query Parameter: " + key + " = " + String.join(",", value)));
+    String email = principal.getName();
+    Optional<AuthenticatedUser> authenticatedUser = ControllerUtils.getAuthenticatedUser(userService, principal);
 
-    // Check if there are any query parameters, return BAD_REQUEST if found
-    if (!request.getParameterMap().isEmpty()) {
-      LOGGER.warning("Query parameters are not allowed in this request.");
+    // Check if the authenticated user exists in the system.
+    if (authenticatedUser.isPresent()) {
 
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.deleteUserImage.response_time", elapsedTime);
+      // Check if the user is verified
+      if (!ControllerUtils.checkUserVerified(verificationService, authenticatedUser.get())) {
+        LOGGER.warn("User is not verified: {}", email);
+        return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+      }
+      LOGGER.info("User is verified: {}", email);
 
-      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      try {
+        UUID userId = authenticatedUser.get().getUserId();
+        imageService.deleteImage(userId);
+        LOGGER.info("Request Successful. Image Deleted Successfully.");
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+      } catch (IOException e) {
+        LOGGER.warn("Error Deleting image: {}", e.getMessage());
+
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+      }
+    } else {
+      return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
     }
+  }
 
-    // Check for any fields in the request body; return BAD_REQUEST if found
-    if (!requestBodyMap.isEmpty()) {
-      LOGGER.warning("Request body should not contain any fields.");
+  /**
+   * Streams the authenticated user's profile image bytes, or those of the derivative selected by the
+   * optional {@code size} query parameter once it has been generated.
+   * Supports a single byte range (206 Partial Content, 416 when unsatisfiable; If-Range is honoured)
+   * and conditional requests: If-None-Match against the strong ETag, or If-Modified-Since when no
+   * ETag is sent, answer 304 Not Modified. The body is written by a {@link StreamingResponseBody}
+   * through a fixed-size buffer, so the image is never held in memory.
+   *
+   * @param principal The security principal containing the user's email.
+   * @param request   The HTTP request object, used to validate parameters and read conditional headers.
+   * @return ResponseEntity streaming the image content, or the appropriate HTTP status code.
+   */
+  @GetMapping("/pic/content")
+  @ValidatedRequest(allowedParameters = "size")
+  public ResponseEntity<StreamingResponseBody> getUserImageContent(Principal principal, HttpServletRequest request) {
+
+    statsDClient.incrementCounter("api.v1.user.getUserImageContent.count");
+
+    LOGGER.info("Image content GET Request Received.");
 
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.deleteUserImage.response_time", elapsedTime);
+    // Only a supported derivative size may be passed; return BAD_REQUEST for anything else
+    if (!isValidImageQuery(request)) {
+      LOGGER.warn("Only a supported size parameter is allowed in this request.");
 
       return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
     }
 
     String email = principal.getName();
+    Optional<AuthenticatedUser> authenticatedUser = ControllerUtils.getAuthenticatedUser(userService, principal);
+    if (authenticatedUser.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+    }
 
-    // Check if the authenticated user exists in the system.
-    if (ControllerUtils.checkUserExists(userService, email)) {
+    // Check if the user is verified
+    if (!ControllerUtils.checkUserVerified(verificationService, authenticatedUser.get())) {
+      LOGGER.warn("User is not verified: {}", email);
+      return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+    }
 
-      // Check if the user is verified
-      if (!checkUserVerified(email)) {
-        LOGGER.warning("User is not verified: " + email);
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        statsDClient.recordExecutionTime("api.v1.user.getUserInfo.response_time", elapsedTime);
-        return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+    try {
+      Optional<Image> image = imageService.getImageByUserId_DB(authenticatedUser.get().getUserId());
+      if (image.isEmpty()) {
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
       }
-      LOGGER.info("User is verified: " + email);
 
-      Optional<User> existingUser = ControllerUtils.getExsistingUser(userService, email);
-      if (existingUser.isPresent()) {
-        User user = existingUser.get();
-        try {
-          UUID userId = user.getUserId();
-          imageService.deleteImage(userId);
-          LOGGER.info("Request Successful. Image Deleted Successfully.");
-
-          long elapsedTime = System.currentTimeMillis() - startTime;
-          statsDClient.recordExecutionTime("api.v1.user.deleteUserImage.response_time", elapsedTime);
+      // The ETag comes from the image row, so a matching If-None-Match is answered without touching storage.
+      Integer size = requestedSize(request);
+      String eTag = imageService.contentETag(image.get(), size);
+      String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+      if (ifNoneMatch != null && eTagMatches(ifNoneMatch, eTag)) {
+        return notModified(eTag, null);
+      }
 
-          return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-        } catch (IOException e) {
-          LOGGER.warning("Error Deleting image: " + e.getMessage());
+      Optional<ImageContent> content = imageService.describeContent(image.get(), size);
+      if (content.isEmpty()) {
+        LOGGER.warn("Image record exists but its content is missing for user: {}", email);
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+      }
+      ImageContent imageContent = content.get();
 
-          long elapsedTime = System.currentTimeMillis() - startTime;
-          statsDClient.recordExecutionTime("api.v1.user.deleteUserImage.response_time", elapsedTime);
+      // If-Modified-Since only applies when no If-None-Match was sent; HTTP dates have second precision.
+      long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+      if (ifNoneMatch == null && ifModifiedSince >= 0
+          && imageContent.lastModified().getEpochSecond() * 1000 <= ifModifiedSince) {
+        return notModified(eTag, imageContent.lastModified());
+      }
 
-          return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+      HttpHeaders headers = new HttpHeaders();
+      headers.setETag(eTag);
+      headers.setLastModified(imageContent.lastModified());
+      headers.setCacheControl(CacheControl.noCache().cachePrivate());
+      headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+      headers.setContentType(MediaType.parseMediaType(imageContent.contentType()));
+
+      long length = imageContent.contentLength();
+      long position = 0;
+      long count = length;
+      HttpStatus status = HttpStatus.OK;
+
+      Optional<HttpRange> range = singleRange(request, imageContent);
+      if (range.isPresent()) {
+        position = range.get().getRangeStart(length);
+        if (position >= length) {
+          LOGGER.warn("Unsatisfiable range requested: {}", request.getHeader(HttpHeaders.RANGE));
+          return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+            .build();
         }
+        count = range.get().getRangeEnd(length) - position + 1;
+        status = HttpStatus.PARTIAL_CONTENT;
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + position + "-" + (position + count - 1) + "/" + length);
+        statsDClient.incrementCounter("api.v1.user.getUserImageContent.partial");
       }
-    } else {
+      headers.setContentLength(count);
 
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.deleteUserImage.response_time", elapsedTime);
+      final long start = position;
+      final long bytes = count;
+      StreamingResponseBody body = outputStream -> {
+        long written = imageService.streamContent(imageContent, start, bytes, outputStream);
+        statsDClient.count("api.v1.user.getUserImageContent.bytes", written);
+      };
+
+      return new ResponseEntity<>(body, headers, status);
+    } catch (IOException e) {
+      LOGGER.warn("Error reading image content: {}", e.getMessage());
 
       return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
     }
+  }
+
+  private ResponseEntity<StreamingResponseBody> notModified(String eTag, Instant lastModified) {
+    statsDClient.incrementCounter("api.v1.user.getUserImageContent.not_modified");
+
+    ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+      .eTag(eTag)
+      .cacheControl(CacheControl.noCache().cachePrivate());
+    if (lastModified != null) {
+      builder.lastModified(lastModified);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns the requested byte range when the request asks for exactly one and If-Range, if sent,
+   * still matches the current content. Malformed and multi-range requests are served in full,
+   * which HTTP permits.
+   */
+  private static Optional<HttpRange> singleRange(HttpServletRequest request, ImageContent content) {
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    if (rangeHeader == null) {
+      return Optional.empty();
+    }
+
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange != null) {
+      boolean stillCurrent = ifRange.startsWith("\"")
+          ? ifRange.equals(content.eTag())
+          : dateHeader(request, HttpHeaders.IF_RANGE) == content.lastModified().getEpochSecond() * 1000;
+      if (!stillCurrent) {
+        return Optional.empty();
+      }
+    }
 
-    long elapsedTime = System.currentTimeMillis() - startTime;
-    statsDClient.recordExecutionTime("api.v1.user.deleteUserImage.response_time", elapsedTime);
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+      return ranges.size() == 1 ? Optional.of(ranges.get(0)) : Optional.empty();
+    } catch (IllegalArgumentException e) {
+      LOGGER.warn("Ignoring malformed Range header: {}", rangeHeader);
+      return Optional.empty();
+    }
+  }
 
-    return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+  /**
+   * Weak comparison of an If-None-Match list against the current ETag, as HTTP requires for GET.
+   */
+  private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+    for (String candidate : ifNoneMatch.split(",")) {
+      String trimmed = candidate.trim();
+      if (trimmed.equals("*") || trimmed.equals(eTag) || trimmed.equals("W/" + eTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Accepts no {@code size} parameter, or a single one naming a configured derivative size. Other
+   * parameters never reach the handler; they are rejected as declared by {@link ValidatedRequest}.
+   */
+  private boolean isValidImageQuery(HttpServletRequest request) {
+    String[] sizes = request.getParameterValues("size");
+    if (sizes == null) {
+      return true;
+    }
+    if (sizes.length != 1) {
+      return false;
+    }
+    try {
+      return imageDerivativeService.isSupportedSize(Integer.parseInt(sizes[0]));
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static Integer requestedSize(HttpServletRequest request) {
+    String size = request.getParameter("size");
+    return size == null ? null : Integer.valueOf(size);
+  }
+
+  // Date header in epoch millis, or -1 if absent or malformed.
+  private static long dateHeader(HttpServletRequest request, String name) {
+    try {
+      return request.getDateHeader(name);
+    } catch (IllegalArgumentException e) {
+      return -1;
+    }
   }
 
   /**
@@ -340,7 +503,7 @@ public class ImageController {
   })
   public ResponseEntity<Void> methodNotAllowed() {
     // Log unsupported method attempts.
-    LOGGER.warning("Unsupported HTTP method attempted on /pic endpoint.");
+    LOGGER.warn("Unsupported HTTP method attempted on /pic endpoint.");
     statsDClient.incrementCounter("api.v1.image.method_not_allowed.count");
     return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
       .header("Cache-Control", "no-cache, no-store, must-revalidate")
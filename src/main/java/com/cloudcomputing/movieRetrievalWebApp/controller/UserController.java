@@ -1,28 +1,25 @@
 package com.cloudcomputing.movieRetrievalWebApp.controller;
 
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticatedUser;
 import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCreateDTO;
 import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserResponseDTO;
 import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserUpdateDTO;
 import com.cloudcomputing.movieRetrievalWebApp.model.User;
-import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
-import com.cloudcomputing.movieRetrievalWebApp.service.MessagePubService;
 import com.cloudcomputing.movieRetrievalWebApp.service.UserService;
 import com.cloudcomputing.movieRetrievalWebApp.service.VerificationService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.timgroup.statsd.StatsDClient;
-import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
 import java.util.Optional;
-import java.util.logging.Logger;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * UserController handles API requests related to user operations such as
@@ -33,7 +30,7 @@ import java.util.Set;
 @RequestMapping("/v1/user")
 public class UserController {
 
-  private static final Logger LOGGER = Logger.getLogger(UserController.class.getName());
+  private static final Logger LOGGER = LoggerFactory.getLogger(UserController.class);
 
   @Autowired
   private StatsDClient statsDClient;
@@ -44,193 +41,91 @@ public class UserController {
   @Autowired
   private VerificationService verificationService;
 
-  @Autowired
-  private MessagePubService messagePubService;
-
-  /**
-   * Middleware to check if the authenticated user is verified.
-   *
-   * @param email The email address of the authenticated user.
-   * @return Boolean indicating if the user is verified.
-   */
-  private Boolean checkUserVerified(String email) {
-    Optional<User> user = userService.getUserByEmail(email);
-
-    if (user.isEmpty()) {
-      LOGGER.warning("User not found: " + email);
-    }
-
-    return verificationService.getVerificationTokenByUserId(user.get().getUserId())
-      .map(token -> token.getVerificationFlag() != null && token.getVerificationFlag())
-      .orElse(false); // User is verified
-  }
-
   /**
    * Handles the POST request to create a new user.
    *
-   * @param requestBodyMap Map containing the fields required to create a new user.
-   * @param request        The HTTP request object.
+   * @param userCreateDTO The fields required to create a new user; unknown fields are rejected with
+   *                      400 while the body is bound.
    * @return ResponseEntity containing the created UserResponseDTO and HTTP status.
-   * Includes validation for query parameters, request body structure,
-   * and email/password format. Publishes an SNS message upon successful creation.
+   * Query parameters are rejected before the handler runs; validates the email/password format. Queues the verification message for SNS upon successful creation.
    */
   @PostMapping
-  public ResponseEntity<UserResponseDTO> createUser(@RequestBody Map<String, Object> requestBodyMap,
-                                                    HttpServletRequest request) {
-    long startTime = System.currentTimeMillis();
+  @ValidatedRequest
+  public ResponseEntity<UserResponseDTO> createUser(@RequestBody UserCreateDTO userCreateDTO) {
     statsDClient.incrementCounter("api.v1.user.createUser.count");
     LOGGER.info("POST Request Received.");
 
-    // Log query parameters if present
-    request.getParameterMap()
-            .forEach((key, value) -> LOGGER.warning("Query Parameter: " + key + " = " + String.join(",", value)));
-
-    // Check if there are any query parameters, return BAD_REQUEST if found
-    if (!request.getParameterMap().isEmpty()) {
-      LOGGER.warning("Query parameters are not allowed in this request.");
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.createUser.response_time", elapsedTime);
-
-      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-    }
-
-    // Define the expected fields
-    Set<String> expectedFields = Set.of("emailAddress", "password", "firstName", "lastName");
-
-    // Check for any extra fields in the request body
-    Set<String> actualFields = requestBodyMap.keySet();
-    if (!expectedFields.containsAll(actualFields) || actualFields.size() > expectedFields.size()) {
-      LOGGER.warning("Request body contains extra or invalid fields.");
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.createUser.response_time", elapsedTime);
-
-      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-    }
-
-    // Convert the request body to UserCreateDTO
-    ObjectMapper mapper = new ObjectMapper();
-    UserCreateDTO userCreateDTO = mapper.convertValue(requestBodyMap, UserCreateDTO.class);
-
     // Validate the email and password in the incoming request.
     if (!ControllerUtils.validateEmailPassword(userCreateDTO)) {
-      LOGGER.warning("Email Address or Password input validation failed.");
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.createUser.response_time", elapsedTime);
+      LOGGER.warn("Email Address or Password input validation failed.");
 
       return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
     }
 
-    String email = userCreateDTO.getEmailAddress();
-
-    // Check if a user with the given email already exists.
-    if (ControllerUtils.checkUserExists(userService, email)) {
-      LOGGER.warning("User already exists: " + email);
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.createUser.response_time", elapsedTime);
+    // Create the user; its verification token and verification message are stored in the same transaction.
+    // A taken email address is reported by the unique constraint on insert rather than looked up first.
+    User user = ControllerUtils.createUser(userCreateDTO);
+    User savedUser;
+    try {
+      savedUser = userService.registerUser(user);
+    } catch (DuplicateKeyException e) {
+      LOGGER.warn("User already exists: {}", userCreateDTO.getEmailAddress());
 
       return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
     }
 
-    // Create a new User object and add it to the service.
-    User user = ControllerUtils.createUser(userCreateDTO);
-    userService.addUser(user);
-
     // Prepare the response DTO with the created user details.
-    Optional<User> justAddedUser = ControllerUtils.getExsistingUser(userService, email);
-    if (justAddedUser.isPresent()) {
-      VerificationToken newToken = verificationService.createVerificationToken(justAddedUser.get().getUserId(), justAddedUser.get().getEmailAddress());
-      UserResponseDTO userResponseDTO = ControllerUtils
-              .setResponseObject(justAddedUser);
-
-      Optional<VerificationToken> justAddedToken = verificationService.getVerificationTokenByUserId(justAddedUser.get().getUserId());
-      // Publish message to SNS topic
-      justAddedToken.ifPresent(verificationToken -> messagePubService.publishMessage(justAddedUser.get().getEmailAddress(),
-                                                                                      justAddedUser.get().getFirstName(),
-                                                                                      justAddedUser.get().getUserId().toString(),
-                                                                                      verificationToken.getToken().toString()));
-
-      // Log successful user creation and return the response.
-      LOGGER.info("User created successfully: " + userResponseDTO);
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.createUser.response_time", elapsedTime);
+    UserResponseDTO userResponseDTO = ControllerUtils.setResponseObject(Optional.of(savedUser));
 
-      return new ResponseEntity<>(userResponseDTO, HttpStatus.CREATED);
-    } else {
-      LOGGER.warning("User Creation Failed.");
+    // Log successful user creation and return the response.
+    LOGGER.info("User created successfully: {}", userResponseDTO);
 
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.createUser.response_time", elapsedTime);
-
-      return new ResponseEntity<>(HttpStatus.CREATED);
-    }
+    return new ResponseEntity<>(userResponseDTO, HttpStatus.CREATED);
   }
 
   /**
    * Handles the GET request to retrieve information about the currently
    * authenticated user.
    *
-   * @param request   The HTTP request object.
    * @param principal Security principal object containing user credentials.
    * @return ResponseEntity containing the UserResponseDTO and HTTP status.
-   * Validates query parameters and ensures the user is verified before retrieving details.
+   * Query parameters are rejected before the handler runs; ensures the user is verified before retrieving details.
    */
   @GetMapping("/self")
-  public ResponseEntity<UserResponseDTO> getUserInfo(HttpServletRequest request, Principal principal) {
+  @ValidatedRequest
+  public ResponseEntity<UserResponseDTO> getUserInfo(Principal principal) {
 
-    long startTime = System.currentTimeMillis();
     statsDClient.incrementCounter("api.v1.user.getUserInfo.count");
     LOGGER.info("GET Request Received.");
 
-    // Log query parameters if present
-    request.getParameterMap()
-            .forEach((key, value) -> LOGGER.warning("Query Parameter: " + key + " = " + String.join(",", value)));
-
-    // Check if there are any query parameters, return BAD_REQUEST if found
-    if (!request.getParameterMap().isEmpty()) {
-      LOGGER.warning("Query parameters are not allowed in this request.");
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.getUserInfo.response_time", elapsedTime);
+    String email = principal.getName();
+    Optional<AuthenticatedUser> authenticatedUser = ControllerUtils.getAuthenticatedUser(userService, principal);
 
-      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    // Principals created from an access token carry no profile fields; load them once.
+    if (authenticatedUser.isPresent() && !authenticatedUser.get().hasProfile()) {
+      authenticatedUser = userService.getAuthenticatedUser(email);
     }
 
-    String email = principal.getName();
-
     // Check if the authenticated user exists in the system.
-    if (ControllerUtils.checkUserExists(userService, email)) {
+    if (authenticatedUser.isPresent()) {
 
       // Check if the user is verified
-      if (!checkUserVerified(email)) {
-        LOGGER.warning("User is not verified: " + email);
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        statsDClient.recordExecutionTime("api.v1.user.getUserInfo.response_time", elapsedTime);
+      if (!ControllerUtils.checkUserVerified(verificationService, authenticatedUser.get())) {
+        LOGGER.warn("User is not verified: {}", email);
         return new ResponseEntity<>(HttpStatus.FORBIDDEN);
       }
-      LOGGER.info("User is verified: " + email);
+      LOGGER.info("User is verified: {}", email);
 
-      Optional<User> existingUser = ControllerUtils.getExsistingUser(userService, email);
-      UserResponseDTO userResponseDTO = ControllerUtils.setResponseObject(existingUser);
+      UserResponseDTO userResponseDTO = ControllerUtils.setResponseObject(authenticatedUser.get());
 
       // Log successful user retrieval and return the response.
-      LOGGER.info("User info retrieved successfully: " + userResponseDTO);
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.getUserInfo.response_time", elapsedTime);
+      LOGGER.info("User info retrieved successfully: {}", userResponseDTO);
 
       return ResponseEntity.ok(userResponseDTO);
     }
 
     // Log if the user is not found and return a 404 response.
-    LOGGER.warning("User not found for email: " + email);
-
-    long elapsedTime = System.currentTimeMillis() - startTime;
-    statsDClient.recordExecutionTime("api.v1.user.getUserInfo.response_time", elapsedTime);
+    LOGGER.warn("User not found for email: {}", email);
 
     return new ResponseEntity<>(HttpStatus.NOT_FOUND);
   }
@@ -239,83 +134,63 @@ public class UserController {
    * Handles the PUT request to update information of the currently authenticated user.
    *
    * @param principal     Security principal object containing user credentials.
-   * @param requestBodyMap Map containing fields to be updated for the user.
-   * @param request        The HTTP request object.
+   * @param userUpdateDTO The fields to update; fields other than password, firstName and lastName
+   *                      are rejected with 400 while the body is bound.
    * @return ResponseEntity with HTTP status.
-   * Ensures only allowed fields are updated and validates user verification status.
+   * Ensures at least one field is updated and validates user verification status.
    */
   @PutMapping("/self")
+  @ValidatedRequest
   public ResponseEntity<UserResponseDTO> updateUser(Principal principal,
-                                                    @RequestBody Map<String, Object> requestBodyMap,
-                                                    HttpServletRequest request) {
+                                                    @RequestBody UserUpdateDTO userUpdateDTO) {
 
-    long startTime = System.currentTimeMillis();
     statsDClient.incrementCounter("api.v1.user.updateUser.count");
     LOGGER.info("PUT Request Received.");
 
-    // Log query parameters if present
-    request.getParameterMap()
-            .forEach((key, value) -> LOGGER.warning("Query Parameter: " + key + " = " + String.join(",", value)));
-
-    // Check if there are any query parameters, return BAD_REQUEST if found
-    if (!request.getParameterMap().isEmpty()) {
-      LOGGER.warning("Query parameters are not allowed in this request.");
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.updateUser.response_time", elapsedTime);
-
-      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-    }
-
     String email = principal.getName();
+    Optional<AuthenticatedUser> authenticatedUser = ControllerUtils.getAuthenticatedUser(userService, principal);
 
     // Check if the authenticated user exists in the system.
-    if (!ControllerUtils.checkUserExists(userService, email)) {
-      LOGGER.warning("User doesn't exist: " + email);
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.updateUser.response_time", elapsedTime);
+    if (authenticatedUser.isEmpty()) {
+      LOGGER.warn("User doesn't exist: {}", email);
 
       return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     // Check if the user is verified
-    if (!checkUserVerified(email)) {
-      LOGGER.warning("User is not verified: " + email);
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.getUserInfo.response_time", elapsedTime);
+    if (!ControllerUtils.checkUserVerified(verificationService, authenticatedUser.get())) {
+      LOGGER.warn("User is not verified: {}", email);
       return new ResponseEntity<>(HttpStatus.FORBIDDEN);
     }
-    LOGGER.info("User is verified: " + email);
+    LOGGER.info("User is verified: {}", email);
 
-    // Define the allowed fields for the update
-    Set<String> allowedFields = Set.of("password", "firstName", "lastName");
-
-    // Check if the request body contains only the allowed fields
-    Set<String> actualFields = requestBodyMap.keySet();
-    if (!allowedFields.containsAll(actualFields) || actualFields.isEmpty()) {
-      LOGGER.warning("Request body contains extra or invalid fields.");
-
-      long elapsedTime = System.currentTimeMillis() - startTime;
-      statsDClient.recordExecutionTime("api.v1.user.updateUser.response_time", elapsedTime);
+    // At least one of the updatable fields must be provided.
+    if (userUpdateDTO.getPassword() == null && userUpdateDTO.getFirstName() == null
+        && userUpdateDTO.getLastName() == null) {
+      LOGGER.warn("Request body contains no fields to update.");
 
       return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
     }
 
-    // Convert the request body to UserUpdateDTO
-    ObjectMapper mapper = new ObjectMapper();
-    UserUpdateDTO userUpdateDTO = mapper.convertValue(requestBodyMap, UserUpdateDTO.class);
+    // Principals created from an access token carry no profile fields; load them once.
+    AuthenticatedUser currentUser = authenticatedUser.get();
+    if (!currentUser.hasProfile()) {
+      Optional<AuthenticatedUser> loadedUser = userService.getAuthenticatedUser(email);
+      if (loadedUser.isEmpty()) {
+        LOGGER.warn("User doesn't exist: {}", email);
+
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+      }
+      currentUser = loadedUser.get();
+    }
 
     // Update the user information and save the changes in the service.
-    User userToUpdate = ControllerUtils.updateUser(userService, userUpdateDTO, email);
+    User userToUpdate = ControllerUtils.updateUser(userUpdateDTO, currentUser);
     userService.updateUser(email, userToUpdate);
 
     // Log the successful update of user information.
     LOGGER.info("User Updated Successfully");
 
-    long elapsedTime = System.currentTimeMillis() - startTime;
-    statsDClient.recordExecutionTime("api.v1.user.updateUser.response_time", elapsedTime);
-
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
 
@@ -333,7 +208,7 @@ public class UserController {
   })
   public ResponseEntity<Void> methodNotAllowed() {
     // Log unsupported method attempts.
-    LOGGER.warning("Unsupported HTTP method attempted on /self endpoint.");
+    LOGGER.warn("Unsupported HTTP method attempted on /self endpoint.");
     statsDClient.incrementCounter("api.v1.user.method_not_allowed.count");
     return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
             .header("Cache-Control", "no-cache, no-store, must-revalidate")
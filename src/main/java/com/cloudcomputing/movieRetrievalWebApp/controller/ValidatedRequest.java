@@ -0,0 +1,28 @@
+package com.cloudcomputing.movieRetrievalWebApp.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the shape of the requests a handler method accepts. Requests that do not fit are
+ * answered with 400 Bad Request by the RequestValidationInterceptor before the handler runs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ValidatedRequest {
+
+  /**
+   * Names of the query parameters the handler accepts. Any other parameter is rejected; by default
+   * no parameters are accepted at all. Parameter values are left to the handler to validate.
+   */
+  String[] allowedParameters() default {};
+
+  /**
+   * Whether the request must not carry a body, i.e. its content length must be zero.
+   */
+  boolean emptyBody() default false;
+}
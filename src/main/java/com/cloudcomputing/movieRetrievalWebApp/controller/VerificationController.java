@@ -2,13 +2,14 @@ package com.cloudcomputing.movieRetrievalWebApp.controller;
 
 import com.cloudcomputing.movieRetrievalWebApp.service.VerificationService;
 import com.timgroup.statsd.StatsDClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
-import java.util.logging.Logger;
 
 /**
  * VerificationController handles API requests related to user verification.
@@ -22,7 +23,7 @@ import java.util.logging.Logger;
 @RequestMapping("/v1/user")
 public class VerificationController {
 
-  private static final Logger LOGGER = Logger.getLogger(VerificationController.class.getName());
+  private static final Logger LOGGER = LoggerFactory.getLogger(VerificationController.class);
 
   private final VerificationService verificationService;
 
@@ -48,18 +49,16 @@ public class VerificationController {
    */
   @GetMapping("/verify")
   public ResponseEntity<String> verifyToken(@RequestParam("token") String token) {
-    long startTime = System.currentTimeMillis();
     statsDClient.incrementCounter("api.v1.user.verifyToken.count");
-    LOGGER.info("GET Request to /v1/user/verify received with token: " + token);
+    LOGGER.info("GET Request to /v1/user/verify received with token: {}", token);
 
     if (token == null || token.isEmpty()) {
-      LOGGER.warning("Token is missing or empty.");
-      statsDClient.recordExecutionTime("api.v1.user.verifyToken.response_time", System.currentTimeMillis() - startTime);
+      LOGGER.warn("Token is missing or empty.");
       return new ResponseEntity<>("Token is missing or invalid.", HttpStatus.BAD_REQUEST);
     }
 
     if(verificationService.isTokenAlreadyVerified(UUID.fromString(token))) {
-      LOGGER.warning("Token already verified.");
+      LOGGER.warn("Token already verified.");
       return new ResponseEntity<>("Token already verified.", HttpStatus.BAD_REQUEST);
     }
 
@@ -67,11 +66,9 @@ public class VerificationController {
 
     if (isVerified) {
       LOGGER.info("Token verified successfully.");
-      statsDClient.recordExecutionTime("api.v1.user.verifyToken.response_time", System.currentTimeMillis() - startTime);
       return new ResponseEntity<>("Token verified successfully.", HttpStatus.OK);
     } else {
-      LOGGER.warning("Token verification failed.");
-      statsDClient.recordExecutionTime("api.v1.user.verifyToken.response_time", System.currentTimeMillis() - startTime);
+      LOGGER.warn("Token verification failed.");
       return new ResponseEntity<>("Token verification failed or token expired.", HttpStatus.BAD_REQUEST);
     }
   }
@@ -94,7 +91,7 @@ public class VerificationController {
     RequestMethod.HEAD
   })
   public ResponseEntity<String> handleUnsupportedMethods() {
-    LOGGER.warning("Unsupported HTTP method attempted on /v1/user/verify endpoint.");
+    LOGGER.warn("Unsupported HTTP method attempted on /v1/user/verify endpoint.");
     statsDClient.incrementCounter("api.v1.user.verifyToken.unsupported_method.count");
     return new ResponseEntity<>("Bad request: Unsupported HTTP method.", HttpStatus.BAD_REQUEST);
   }
@@ -12,7 +12,15 @@ public interface ImageDAO {
 
   Optional<Image> getImageByUserId(UUID id);
 
+  boolean existsByUserId(UUID id);
+
+  Optional<Image> getImageByContentHash(String contentHash);
+
+  boolean existsByContentHash(String contentHash);
+
   Image createImage(Image image);
 
   void deleteImage(UUID imgId);
+
+  boolean updateDerivativeSizes(UUID imageId, String derivativeSizes);
 }
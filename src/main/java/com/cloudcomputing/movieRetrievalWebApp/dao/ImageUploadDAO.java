@@ -0,0 +1,22 @@
+package com.cloudcomputing.movieRetrievalWebApp.dao;
+
+import com.cloudcomputing.movieRetrievalWebApp.model.ImageUpload;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ImageUploadDAO {
+
+  ImageUpload createUpload(ImageUpload upload);
+
+  Optional<ImageUpload> getUploadByIdAndUserId(UUID uploadId, UUID userId);
+
+  List<ImageUpload> getPendingUploads();
+
+  boolean markComplete(UUID uploadId, UUID imageId, int attempts);
+
+  boolean markFailed(UUID uploadId, String failureReason, int attempts);
+
+  void deleteUpload(UUID uploadId);
+}
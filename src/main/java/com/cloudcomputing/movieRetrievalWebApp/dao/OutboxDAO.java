@@ -0,0 +1,25 @@
+package com.cloudcomputing.movieRetrievalWebApp.dao;
+
+import com.cloudcomputing.movieRetrievalWebApp.model.OutboxMessage;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxDAO {
+
+  OutboxMessage createMessage(OutboxMessage message);
+
+  List<OutboxMessage> lockDueMessages(Instant now, int maxAttempts, int limit);
+
+  void updateMessages(Collection<OutboxMessage> messages);
+
+  void deleteMessages(Collection<Long> ids);
+
+  long countPending(int maxAttempts);
+
+  long countDeadLetters(int maxAttempts);
+
+  Optional<Instant> getOldestPendingCreatedAt(int maxAttempts);
+}
@@ -0,0 +1,20 @@
+package com.cloudcomputing.movieRetrievalWebApp.dao;
+
+import com.cloudcomputing.movieRetrievalWebApp.model.StoredContent;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface StoredContentDAO {
+
+  Optional<StoredContent> lockContent(String contentHash);
+
+  StoredContent createContent(StoredContent content);
+
+  void updateContent(StoredContent content);
+
+  void deleteContent(StoredContent content);
+
+  List<String> getReleasedBefore(Instant cutoff, int limit);
+}
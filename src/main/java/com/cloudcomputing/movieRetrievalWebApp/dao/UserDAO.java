@@ -1,5 +1,6 @@
 package com.cloudcomputing.movieRetrievalWebApp.dao;
 
+import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCredentialsDTO;
 import com.cloudcomputing.movieRetrievalWebApp.model.User;
 
 import java.util.List;
@@ -9,7 +10,15 @@ public interface UserDAO {
 
   List<User> getAllUsers();
 
+  Optional<User> getUserByEmail(String emailId);
+
+  Optional<UserCredentialsDTO> getUserCredentials(String emailId);
+
+  boolean existsByEmail(String emailId);
+
   User createUser(User user);
 
   User updateUser(String emailId, User user);
+
+  boolean updatePasswordHash(String emailId, String passwordHash);
 }
@@ -10,5 +10,6 @@ public interface VerificationTokenDAO {
   void deleteVerificationToken(Long tokenId);
   Optional<VerificationToken> getVerificationTokenByToken(UUID token);
   Optional<VerificationToken> getVerificationTokenByUserId(UUID userId);
+  Optional<VerificationToken> getVerificationTokenByUserEmail(String userEmail);
   Optional<VerificationToken> getVerificationTokenById(Long tokenId);
 }
@@ -0,0 +1,53 @@
+package com.cloudcomputing.movieRetrievalWebApp.dao.implementation;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.ImageUploadDAO;
+import com.cloudcomputing.movieRetrievalWebApp.model.ImageUpload;
+import com.cloudcomputing.movieRetrievalWebApp.repository.ImageUploadRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class ImageUploadDAOImpl implements ImageUploadDAO {
+
+  @Autowired
+  ImageUploadRepo imageUploadRepo;
+
+  @Override
+  public ImageUpload createUpload(ImageUpload upload) {
+    return imageUploadRepo.save(upload);
+  }
+
+  @Override
+  public Optional<ImageUpload> getUploadByIdAndUserId(UUID uploadId, UUID userId) {
+    return imageUploadRepo.findByIdAndUserId(uploadId, userId);
+  }
+
+  @Override
+  public List<ImageUpload> getPendingUploads() {
+    return imageUploadRepo.findByStatus(ImageUpload.Status.PENDING);
+  }
+
+  @Override
+  public boolean markComplete(UUID uploadId, UUID imageId, int attempts) {
+    return finish(uploadId, ImageUpload.Status.COMPLETE, imageId, null, attempts);
+  }
+
+  @Override
+  public boolean markFailed(UUID uploadId, String failureReason, int attempts) {
+    return finish(uploadId, ImageUpload.Status.FAILED, null, failureReason, attempts);
+  }
+
+  @Override
+  public void deleteUpload(UUID uploadId) {
+    imageUploadRepo.deleteById(uploadId);
+  }
+
+  private boolean finish(UUID uploadId, ImageUpload.Status status, UUID imageId, String failureReason, int attempts) {
+    return imageUploadRepo.finish(uploadId, status, imageId, failureReason, attempts, Instant.now()) > 0;
+  }
+}
@@ -0,0 +1,54 @@
+package com.cloudcomputing.movieRetrievalWebApp.dao.implementation;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.OutboxDAO;
+import com.cloudcomputing.movieRetrievalWebApp.model.OutboxMessage;
+import com.cloudcomputing.movieRetrievalWebApp.repository.OutboxMessageRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class OutboxDAOImpl implements OutboxDAO {
+
+  @Autowired
+  OutboxMessageRepo outboxMessageRepo;
+
+  @Override
+  public OutboxMessage createMessage(OutboxMessage message) {
+    return outboxMessageRepo.save(message);
+  }
+
+  @Override
+  public List<OutboxMessage> lockDueMessages(Instant now, int maxAttempts, int limit) {
+    return outboxMessageRepo.lockDueMessages(now, maxAttempts, limit);
+  }
+
+  @Override
+  public void updateMessages(Collection<OutboxMessage> messages) {
+    outboxMessageRepo.saveAll(messages);
+  }
+
+  @Override
+  public void deleteMessages(Collection<Long> ids) {
+    outboxMessageRepo.deleteAllByIdInBatch(ids);
+  }
+
+  @Override
+  public long countPending(int maxAttempts) {
+    return outboxMessageRepo.countByAttemptsLessThan(maxAttempts);
+  }
+
+  @Override
+  public long countDeadLetters(int maxAttempts) {
+    return outboxMessageRepo.countByAttemptsGreaterThanEqual(maxAttempts);
+  }
+
+  @Override
+  public Optional<Instant> getOldestPendingCreatedAt(int maxAttempts) {
+    return outboxMessageRepo.findFirstByAttemptsLessThanOrderByIdAsc(maxAttempts).map(OutboxMessage::getCreatedAt);
+  }
+}
@@ -0,0 +1,45 @@
+package com.cloudcomputing.movieRetrievalWebApp.dao.implementation;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.StoredContentDAO;
+import com.cloudcomputing.movieRetrievalWebApp.model.StoredContent;
+import com.cloudcomputing.movieRetrievalWebApp.repository.StoredContentRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class StoredContentDAOImpl implements StoredContentDAO {
+
+  @Autowired
+  StoredContentRepo storedContentRepo;
+
+  @Override
+  public Optional<StoredContent> lockContent(String contentHash) {
+    return storedContentRepo.lockByContentHash(contentHash);
+  }
+
+  @Override
+  public StoredContent createContent(StoredContent content) {
+    // Flushed at once, so a concurrent insert of the same hash fails here rather than at commit.
+    return storedContentRepo.saveAndFlush(content);
+  }
+
+  @Override
+  public void updateContent(StoredContent content) {
+    storedContentRepo.save(content);
+  }
+
+  @Override
+  public void deleteContent(StoredContent content) {
+    storedContentRepo.delete(content);
+  }
+
+  @Override
+  public List<String> getReleasedBefore(Instant cutoff, int limit) {
+    return storedContentRepo.findReleasedBefore(cutoff, PageRequest.of(0, limit));
+  }
+}
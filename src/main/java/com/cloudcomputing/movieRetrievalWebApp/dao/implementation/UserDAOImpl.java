@@ -1,79 +1,88 @@
 package com.cloudcomputing.movieRetrievalWebApp.dao.implementation;
 
 import com.cloudcomputing.movieRetrievalWebApp.dao.UserDAO;
+import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCredentialsDTO;
 import com.cloudcomputing.movieRetrievalWebApp.model.User;
 import com.cloudcomputing.movieRetrievalWebApp.repository.UserRepo;
-import com.timgroup.statsd.StatsDClient;
-import jakarta.persistence.EntityExistsException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
-import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Repository
 public class UserDAOImpl implements UserDAO {
 
-  @Autowired
-  private UserRepo userRepo;
+  private static final String EMAIL_CONSTRAINT = "uk_users_email_address";
 
   @Autowired
-  private StatsDClient statsDClient;
+  private UserRepo userRepo;
 
   @Override
   public List<User> getAllUsers() {
-    long startTime = System.currentTimeMillis();
+    return userRepo.findAll();
+  }
 
-    try {
-      return userRepo.findAll();
-    } catch (DataAccessException e) {
-      throw e;
-    } finally {
-      statsDClient.recordExecutionTime("db.query.getAllUsers.time", System.currentTimeMillis() - startTime);
-    }
+  @Override
+  public Optional<User> getUserByEmail(String emailId) {
+    return userRepo.findByEmailAddress(emailId);
   }
 
   @Override
-  public User createUser(User user) {
-    long startTime = System.currentTimeMillis();
+  public Optional<UserCredentialsDTO> getUserCredentials(String emailId) {
+    return userRepo.findCredentialsByEmailAddress(emailId);
+  }
 
+  @Override
+  public boolean existsByEmail(String emailId) {
+    return userRepo.existsByEmailAddress(emailId);
+  }
+
+  @Override
+  public User createUser(User user) {
     try {
-      if (userRepo.findAll().stream().anyMatch(u -> u.getEmailAddress().equals(user.getEmailAddress()))) {
-        throw new EntityExistsException("User with this email already exists.");
+      // The unique constraint on users.email_address turns the duplicate check into the insert itself.
+      // DuplicateKeyException is already a DataAccessException, so @Repository translation keeps it as is.
+      return userRepo.saveAndFlush(user);
+    } catch (DataIntegrityViolationException e) {
+      if (isEmailConstraintViolation(e)) {
+        throw new DuplicateKeyException("User with this email already exists.", e);
       }
-
-      return userRepo.save(user);
-    } catch (EntityExistsException e) {
       throw e;
-    } finally {
-      statsDClient.recordExecutionTime("db.query.createUser.time", System.currentTimeMillis() - startTime);
     }
   }
 
   @Override
   public User updateUser(String emailId, User updatedUserDetails) {
-    long startTime = System.currentTimeMillis();
+    Optional<User> userOptional = userRepo.findByEmailAddress(emailId);
 
-    try {
-      Optional<User> userOptional = userRepo.findAll().stream()
-              .filter(user -> user.getEmailAddress().equals(emailId))
-              .findFirst();
-
-      if (userOptional.isPresent()) {
-        User user = userOptional.get();
-        user.setFirstName(updatedUserDetails.getFirstName());
-        user.setLastName(updatedUserDetails.getLastName());
+    if (userOptional.isPresent()) {
+      User user = userOptional.get();
+      user.setFirstName(updatedUserDetails.getFirstName());
+      user.setLastName(updatedUserDetails.getLastName());
+      // A null password means it is unchanged.
+      if (updatedUserDetails.getPassword() != null) {
         user.setPassword(updatedUserDetails.getPassword());
-
-        return userRepo.save(user);
-      } else {
-        throw new IllegalArgumentException("User with email " + emailId + " not found.");
       }
-    } catch (IllegalArgumentException e) {
-      throw e;
-    } finally {
-      statsDClient.recordExecutionTime("db.query.updateUser.time", System.currentTimeMillis() - startTime);
+
+      return userRepo.save(user);
+    } else {
+      throw new IllegalArgumentException("User with email " + emailId + " not found.");
     }
   }
+
+  @Override
+  public boolean updatePasswordHash(String emailId, String passwordHash) {
+    return userRepo.updatePasswordByEmailAddress(emailId, passwordHash) > 0;
+  }
+
+  private static boolean isEmailConstraintViolation(DataIntegrityViolationException e) {
+    return e.getCause() instanceof ConstraintViolationException violation
+        && violation.getConstraintName() != null
+        && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT);
+  }
 }
@@ -35,6 +35,11 @@ public class VerificationTokenDAOImpl implements VerificationTokenDAO {
     return repository.findByUserId(userId);
   }
 
+  @Override
+  public Optional<VerificationToken> getVerificationTokenByUserEmail(String userEmail) {
+    return repository.findByUserEmail(userEmail);
+  }
+
   @Override
   public Optional<VerificationToken> getVerificationTokenById(Long tokenId) {
     return repository.findById(tokenId);
@@ -0,0 +1,30 @@
+package com.cloudcomputing.movieRetrievalWebApp.dto.authdto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class LoginRequestDTO {
+
+    @NotBlank(message = "Email is mandatory")
+    private String emailAddress;
+
+    @NotBlank(message = "Password is mandatory")
+    private String password;
+
+    // Getters and Setters
+
+    public String getEmailAddress() {
+        return emailAddress;
+    }
+
+    public void setEmailAddress(String emailAddress) {
+        this.emailAddress = emailAddress;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
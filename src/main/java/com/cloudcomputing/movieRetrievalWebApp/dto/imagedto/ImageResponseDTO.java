@@ -1,6 +1,7 @@
 package com.cloudcomputing.movieRetrievalWebApp.dto.imagedto;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public class ImageResponseDTO {
@@ -10,6 +11,7 @@ public class ImageResponseDTO {
   private String url;
   private LocalDate uploadDate;
   private UUID userId;
+  private List<Integer> availableSizes;
 
   // Constructor, Getters, and Setters
   public ImageResponseDTO(String fileName, UUID id, String url, LocalDate uploadDate, UUID userId) {
@@ -18,6 +20,13 @@ public class ImageResponseDTO {
     this.url = url;
     this.uploadDate = uploadDate;
     this.userId = userId;
+    this.availableSizes = List.of();
+  }
+
+  public ImageResponseDTO(String fileName, UUID id, String url, LocalDate uploadDate, UUID userId,
+                          List<Integer> availableSizes) {
+    this(fileName, id, url, uploadDate, userId);
+    this.availableSizes = availableSizes;
   }
 
   public String getFileName() { return fileName; }
@@ -25,4 +34,5 @@ public class ImageResponseDTO {
   public String getUrl() { return url; }
   public LocalDate getUploadDate() { return uploadDate; }
   public UUID getUserId() { return userId; }
+  public List<Integer> getAvailableSizes() { return availableSizes; }
 }
@@ -0,0 +1,32 @@
+package com.cloudcomputing.movieRetrievalWebApp.dto.imagedto;
+
+import com.cloudcomputing.movieRetrievalWebApp.model.ImageUpload;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class ImageUploadStatusDTO {
+
+  private UUID uploadId;
+  private String status;
+  private UUID imageId;
+  private String failureReason;
+  private Instant createdAt;
+  private Instant completedAt;
+
+  public ImageUploadStatusDTO(ImageUpload upload) {
+    this.uploadId = upload.getId();
+    this.status = upload.getStatus().name().toLowerCase();
+    this.imageId = upload.getImageId();
+    this.failureReason = upload.getFailureReason();
+    this.createdAt = upload.getCreatedAt();
+    this.completedAt = upload.getCompletedAt();
+  }
+
+  public UUID getUploadId() { return uploadId; }
+  public String getStatus() { return status; }
+  public UUID getImageId() { return imageId; }
+  public String getFailureReason() { return failureReason; }
+  public Instant getCreatedAt() { return createdAt; }
+  public Instant getCompletedAt() { return completedAt; }
+}
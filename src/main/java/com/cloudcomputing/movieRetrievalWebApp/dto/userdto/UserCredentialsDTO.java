@@ -0,0 +1,63 @@
+package com.cloudcomputing.movieRetrievalWebApp.dto.userdto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A user's profile, password hash and verification state, as loaded in one query for authentication.
+ */
+public class UserCredentialsDTO {
+
+    private final UUID userId;
+    private final String emailAddress;
+    private final String password;
+    private final String firstName;
+    private final String lastName;
+    private final LocalDateTime accountCreated;
+    private final LocalDateTime accountUpdated;
+    private final boolean verified;
+
+    public UserCredentialsDTO(UUID userId, String emailAddress, String password, String firstName, String lastName,
+                              LocalDateTime accountCreated, LocalDateTime accountUpdated, Boolean verified) {
+        this.userId = userId;
+        this.emailAddress = emailAddress;
+        this.password = password;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.accountCreated = accountCreated;
+        this.accountUpdated = accountUpdated;
+        this.verified = Boolean.TRUE.equals(verified);
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getEmailAddress() {
+        return emailAddress;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public LocalDateTime getAccountCreated() {
+        return accountCreated;
+    }
+
+    public LocalDateTime getAccountUpdated() {
+        return accountUpdated;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+}
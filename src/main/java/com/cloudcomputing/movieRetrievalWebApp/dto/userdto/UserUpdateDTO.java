@@ -1,13 +1,10 @@
 package com.cloudcomputing.movieRetrievalWebApp.dto.userdto;
 
 import jakarta.annotation.Nullable;
-import jakarta.validation.constraints.Email;
 
+// The email address cannot be changed, so it is not a field here and is rejected as unknown.
 public class UserUpdateDTO {
 
-    @Email(message = "Email should be valid")
-    private String emailAddress;
-
     @Nullable
     private String password;
 
@@ -19,14 +16,6 @@ public class UserUpdateDTO {
 
     // Getters and Setters
 
-    public String getEmailAddress() {
-        return emailAddress;
-    }
-
-    public void setEmailAddress(String emailAddress) {
-        this.emailAddress = emailAddress;
-    }
-
     public String getPassword() {
         return password;
     }
@@ -3,14 +3,23 @@ package com.cloudcomputing.movieRetrievalWebApp.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.UUID;
 
 @Entity
-@Table(name = "images")
-public class Image {
+@Table(name = "images",
+    uniqueConstraints = @UniqueConstraint(name = "uk_images_user_id", columnNames = "userId"),
+    indexes = @Index(name = "idx_images_content_hash", columnList = "contentHash"))
+public class Image implements Persistable<UUID> {
 
   @Id
   private UUID id;
@@ -24,26 +33,67 @@ public class Image {
   @Column(nullable = false)
   private String url;
 
+  // Exact S3 key of the uploaded object; null for rows written before it was recorded.
+  @Column
+  private String objectKey;
+
+  // Hex SHA-256 of the content. Rows with the same hash share one stored object, and the number of
+  // rows carrying a hash is that object's reference count. Null for rows written before dedup.
+  @Column(length = 64)
+  private String contentHash;
+
   @Column(nullable = false)
   private LocalDate uploadDate;
 
+  // Comma-separated pixel sizes of the derivatives generated so far, e.g. "64,256,1024".
+  @Column
+  private String derivativeSizes;
+
+  // The id is assigned in the constructor, so Spring Data cannot tell new rows apart by a null id.
+  // Tracking it here lets save() issue a plain INSERT instead of a SELECT followed by an INSERT.
+  @Transient
+  private boolean isNew = true;
+
   public Image() {
     this.id = UUID.randomUUID();
     this.uploadDate = LocalDate.now();
   }
 
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  @Override
+  public boolean isNew() { return isNew; }
+
   // Getters and Setters
   public String getFileName() { return fileName; }
   public void setFileName(String fileName) { this.fileName = fileName; }
 
+  @Override
   public UUID getId() { return id; }
   public void setId(UUID id) { this.id = id; }
 
   public String getUrl() { return url; }
   public void setUrl(String url) { this.url = url; }
 
+  public String getObjectKey() { return objectKey; }
+  public void setObjectKey(String objectKey) { this.objectKey = objectKey; }
+
+  public String getContentHash() { return contentHash; }
+  public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
   public LocalDate getUploadDate() { return uploadDate; }
 
+  public String getDerivativeSizes() { return derivativeSizes; }
+  public void setDerivativeSizes(String derivativeSizes) { this.derivativeSizes = derivativeSizes; }
+
+  public boolean hasDerivative(int size) {
+    return derivativeSizes != null && Arrays.asList(derivativeSizes.split(",")).contains(Integer.toString(size));
+  }
+
   public UUID getUserId() { return userId; }
   public void setUserId(UUID userId) { this.userId = userId; }
 }
@@ -0,0 +1,120 @@
+package com.cloudcomputing.movieRetrievalWebApp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An image upload accepted by POST /v1/user/self/pic/async. The content waits in a local spool file
+ * until a background worker has stored it and written the {@link Image} row.
+ */
+@Entity
+@Table(name = "image_uploads", indexes = @Index(name = "idx_image_uploads_status", columnList = "status"))
+public class ImageUpload implements Persistable<UUID> {
+
+  public enum Status { PENDING, COMPLETE, FAILED }
+
+  @Id
+  private UUID id;
+
+  @Column(nullable = false)
+  private UUID userId;
+
+  @Column(nullable = false)
+  private String fileName;
+
+  @Column
+  private String contentType;
+
+  @Column(nullable = false)
+  private long contentLength;
+
+  @Column(nullable = false)
+  private String spoolPath;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private Status status;
+
+  // The image row written once the upload completes.
+  @Column
+  private UUID imageId;
+
+  @Column
+  private String failureReason;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+
+  @Column
+  private Instant completedAt;
+
+  // Same reasoning as Image: the id is assigned up front, so save() should not SELECT first.
+  @Transient
+  private boolean isNew = true;
+
+  public ImageUpload() {
+    this.id = UUID.randomUUID();
+    this.status = Status.PENDING;
+    this.createdAt = Instant.now();
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  @Override
+  public boolean isNew() { return isNew; }
+
+  // Getters and Setters
+  @Override
+  public UUID getId() { return id; }
+
+  public UUID getUserId() { return userId; }
+  public void setUserId(UUID userId) { this.userId = userId; }
+
+  public String getFileName() { return fileName; }
+  public void setFileName(String fileName) { this.fileName = fileName; }
+
+  public String getContentType() { return contentType; }
+  public void setContentType(String contentType) { this.contentType = contentType; }
+
+  public long getContentLength() { return contentLength; }
+  public void setContentLength(long contentLength) { this.contentLength = contentLength; }
+
+  public String getSpoolPath() { return spoolPath; }
+  public void setSpoolPath(String spoolPath) { this.spoolPath = spoolPath; }
+
+  public Status getStatus() { return status; }
+  public void setStatus(Status status) { this.status = status; }
+
+  public UUID getImageId() { return imageId; }
+  public void setImageId(UUID imageId) { this.imageId = imageId; }
+
+  public String getFailureReason() { return failureReason; }
+  public void setFailureReason(String failureReason) { this.failureReason = failureReason; }
+
+  public int getAttempts() { return attempts; }
+  public void setAttempts(int attempts) { this.attempts = attempts; }
+
+  public Instant getCreatedAt() { return createdAt; }
+
+  public Instant getCompletedAt() { return completedAt; }
+  public void setCompletedAt(Instant completedAt) { this.completedAt = completedAt; }
+}
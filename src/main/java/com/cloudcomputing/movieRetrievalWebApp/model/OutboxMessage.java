@@ -0,0 +1,72 @@
+package com.cloudcomputing.movieRetrievalWebApp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * A message waiting to be published to SNS. Rows are written in the same transaction as the change
+ * they announce and deleted once SNS has accepted them, so a message is never lost to a rollback
+ * or an SNS outage.
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = @Index(name = "idx_outbox_messages_next_attempt", columnList = "nextAttemptAt"))
+public class OutboxMessage {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false, length = 64)
+  private String messageType;
+
+  @Column(nullable = false, length = 4000)
+  private String payload;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+
+  // Not dispatched before this time; pushed back after each failed attempt.
+  @Column(nullable = false)
+  private Instant nextAttemptAt;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column
+  private String lastError;
+
+  public OutboxMessage() {
+  }
+
+  public OutboxMessage(String messageType, String payload) {
+    this.messageType = messageType;
+    this.payload = payload;
+    this.createdAt = Instant.now();
+    this.nextAttemptAt = this.createdAt;
+  }
+
+  // Getters and Setters
+  public Long getId() { return id; }
+
+  public String getMessageType() { return messageType; }
+
+  public String getPayload() { return payload; }
+
+  public Instant getCreatedAt() { return createdAt; }
+
+  public Instant getNextAttemptAt() { return nextAttemptAt; }
+  public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+  public int getAttempts() { return attempts; }
+  public void setAttempts(int attempts) { this.attempts = attempts; }
+
+  public String getLastError() { return lastError; }
+  public void setLastError(String lastError) { this.lastError = lastError; }
+}
@@ -0,0 +1,68 @@
+package com.cloudcomputing.movieRetrievalWebApp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * One row per stored content hash. Uploads and deletes of that content lock the row with
+ * {@code SELECT ... FOR UPDATE} before deciding whether the stored object is still referenced, so
+ * instances sharing the database agree on it. The images carrying the hash remain the references.
+ */
+@Entity
+@Table(name = "stored_content", indexes = @Index(name = "idx_stored_content_released_at", columnList = "releasedAt"))
+public class StoredContent implements Persistable<String> {
+
+  @Id
+  @Column(length = 64)
+  private String contentHash;
+
+  // Set when the content may have no references: after the last image using it was deleted, or while
+  // an upload is still writing it. The sweep removes the object once this is older than its grace period.
+  @Column
+  private Instant releasedAt;
+
+  // Set once the object has been written and the upload recorded; the sweep deletes the object together
+  // with this row. While it is set, a released row can be referenced again without writing the object.
+  @Column(nullable = false)
+  private boolean objectStored;
+
+  // The hash is the id, so Spring Data cannot tell new rows apart by a null id.
+  @Transient
+  private boolean isNew = true;
+
+  public StoredContent() {
+  }
+
+  public StoredContent(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  @Override
+  public boolean isNew() { return isNew; }
+
+  @Override
+  public String getId() { return contentHash; }
+
+  public String getContentHash() { return contentHash; }
+
+  public Instant getReleasedAt() { return releasedAt; }
+  public void setReleasedAt(Instant releasedAt) { this.releasedAt = releasedAt; }
+
+  public boolean isObjectStored() { return objectStored; }
+  public void setObjectStored(boolean objectStored) { this.objectStored = objectStored; }
+}
@@ -1,13 +1,15 @@
 package com.cloudcomputing.movieRetrievalWebApp.model;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
-public class User {
+@Table(name = "users",
+    uniqueConstraints = @UniqueConstraint(name = "uk_users_email_address", columnNames = "emailAddress"))
+public class User implements Persistable<UUID> {
   @Id
   private UUID userId;
 
@@ -29,12 +31,32 @@ public class User {
   @Column(nullable = false)
   private LocalDateTime accountUpdated;
 
+  // The id is assigned in the constructor, so Spring Data cannot tell new users from stored ones by it.
+  @Transient
+  private boolean isNew = true;
+
   public User() {
     this.userId = UUID.randomUUID();
     this.accountCreated = LocalDateTime.now();
     this.accountUpdated = LocalDateTime.now();
   }
 
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  @Override
+  public UUID getId() {
+    return userId;
+  }
+
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
   public User(String emailAddress, String password, String firstName, String lastName) {
     this.userId = UUID.randomUUID();
     this.emailAddress = emailAddress;
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_verification_token_user_email", columnList = "userEmail"))
 public class VerificationToken {
 
   @Id
@@ -2,8 +2,34 @@ package com.cloudcomputing.movieRetrievalWebApp.repository;
 
 import com.cloudcomputing.movieRetrievalWebApp.model.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface ImageRepo  extends JpaRepository<Image, Long> {
+public interface ImageRepo extends JpaRepository<Image, UUID> {
+
+  Optional<Image> findByUserId(UUID userId);
+
+  boolean existsByUserId(UUID userId);
+
+  Optional<Image> findFirstByContentHash(String contentHash);
+
+  boolean existsByContentHash(String contentHash);
+
+  // Bulk delete so removing an image is a single DELETE instead of a select followed by a delete.
+  @Transactional
+  @Modifying
+  @Query("delete from Image i where i.userId = :userId")
+  int deleteByUserId(@Param("userId") UUID userId);
+
+  @Transactional
+  @Modifying
+  @Query("update Image i set i.derivativeSizes = :derivativeSizes where i.id = :id")
+  int updateDerivativeSizes(@Param("id") UUID id, @Param("derivativeSizes") String derivativeSizes);
 }
@@ -0,0 +1,32 @@
+package com.cloudcomputing.movieRetrievalWebApp.repository;
+
+import com.cloudcomputing.movieRetrievalWebApp.model.ImageUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ImageUploadRepo extends JpaRepository<ImageUpload, UUID> {
+
+  Optional<ImageUpload> findByIdAndUserId(UUID id, UUID userId);
+
+  List<ImageUpload> findByStatus(ImageUpload.Status status);
+
+  // Only a pending upload may be finished, so a late or repeated worker cannot overwrite the outcome.
+  @Transactional
+  @Modifying
+  @Query("update ImageUpload u set u.status = :status, u.imageId = :imageId, u.failureReason = :failureReason, "
+      + "u.attempts = :attempts, u.completedAt = :completedAt "
+      + "where u.id = :id and u.status = com.cloudcomputing.movieRetrievalWebApp.model.ImageUpload.Status.PENDING")
+  int finish(@Param("id") UUID id, @Param("status") ImageUpload.Status status, @Param("imageId") UUID imageId,
+             @Param("failureReason") String failureReason, @Param("attempts") int attempts,
+             @Param("completedAt") Instant completedAt);
+}
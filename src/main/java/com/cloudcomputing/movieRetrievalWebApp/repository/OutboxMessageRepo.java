@@ -0,0 +1,27 @@
+package com.cloudcomputing.movieRetrievalWebApp.repository;
+
+import com.cloudcomputing.movieRetrievalWebApp.model.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxMessageRepo extends JpaRepository<OutboxMessage, Long> {
+
+  // Rows locked by another dispatcher are skipped rather than waited on, so instances drain in parallel.
+  @Query(value = "select * from outbox_messages where next_attempt_at <= :now and attempts < :maxAttempts "
+      + "order by id limit :limit for update skip locked", nativeQuery = true)
+  List<OutboxMessage> lockDueMessages(@Param("now") Instant now, @Param("maxAttempts") int maxAttempts,
+                                      @Param("limit") int limit);
+
+  long countByAttemptsLessThan(int maxAttempts);
+
+  long countByAttemptsGreaterThanEqual(int maxAttempts);
+
+  Optional<OutboxMessage> findFirstByAttemptsLessThanOrderByIdAsc(int maxAttempts);
+}
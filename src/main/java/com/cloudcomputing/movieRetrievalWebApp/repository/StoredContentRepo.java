@@ -0,0 +1,26 @@
+package com.cloudcomputing.movieRetrievalWebApp.repository;
+
+import com.cloudcomputing.movieRetrievalWebApp.model.StoredContent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredContentRepo extends JpaRepository<StoredContent, String> {
+
+  // SELECT ... FOR UPDATE: held until the surrounding transaction ends.
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select c from StoredContent c where c.contentHash = :contentHash")
+  Optional<StoredContent> lockByContentHash(@Param("contentHash") String contentHash);
+
+  @Query("select c.contentHash from StoredContent c where c.releasedAt < :cutoff order by c.releasedAt")
+  List<String> findReleasedBefore(@Param("cutoff") Instant cutoff, Pageable pageable);
+}
@@ -1,9 +1,37 @@
 package com.cloudcomputing.movieRetrievalWebApp.repository;
 
+import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCredentialsDTO;
 import com.cloudcomputing.movieRetrievalWebApp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface UserRepo extends JpaRepository<User, Long> {
+public interface UserRepo extends JpaRepository<User, UUID> {
+
+  Optional<User> findByEmailAddress(String emailAddress);
+
+  boolean existsByEmailAddress(String emailAddress);
+
+  /**
+   * Loads everything the security principal needs, including whether the user has a verified
+   * token, in one statement.
+   */
+  @Query("select new com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCredentialsDTO("
+      + "u.userId, u.emailAddress, u.password, u.firstName, u.lastName, u.accountCreated, u.accountUpdated, "
+      + "case when exists (select t.tokenId from VerificationToken t "
+      + "where t.userId = u.userId and t.verificationFlag = true) then true else false end) "
+      + "from User u where u.emailAddress = :emailAddress")
+  Optional<UserCredentialsDTO> findCredentialsByEmailAddress(@Param("emailAddress") String emailAddress);
+
+  @Transactional
+  @Modifying
+  @Query("update User u set u.password = :password where u.emailAddress = :emailAddress")
+  int updatePasswordByEmailAddress(@Param("emailAddress") String emailAddress, @Param("password") String password);
 }
@@ -13,4 +13,5 @@ public interface VerificationTokenRepository extends JpaRepository<VerificationT
 
   Optional<VerificationToken> findByToken(UUID token);
   Optional<VerificationToken> findByUserId(UUID userId);
+  Optional<VerificationToken> findByUserEmail(String userEmail);
 }
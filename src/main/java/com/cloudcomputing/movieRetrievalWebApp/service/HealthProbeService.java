@@ -0,0 +1,223 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
+import com.timgroup.statsd.StatsDClient;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.GetTopicAttributesRequest;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Checks the application's dependencies every {@code health.probe.intervalMs} and keeps the outcome in
+ * a snapshot, so health checks can be answered without any I/O. The database is always checked; the
+ * object store ({@code health.probe.storage.enabled}) and the SNS topic ({@code health.probe.messaging.enabled})
+ * only when switched on.
+ *
+ * The probe runs on a thread of its own, started once the bean is initialized, rather than on the shared
+ * Spring scheduler: a scheduled job stuck on SNS or S3 must not leave the snapshot stale and take every
+ * instance out of the load balancer.
+ *
+ * A snapshot older than {@code health.probe.staleAfterMs} means probing itself is stuck, for example
+ * waiting on a pool with no free connections, and is treated as unhealthy. Only one probe runs at a
+ * time, whether scheduled or asked for by a deep check, and a deep check answers from the snapshot
+ * when one is running or the snapshot is younger than {@code health.probe.deep.minIntervalMs}. Each component's probe is timed as
+ * {@code health.probe.<component>.time}, and failures count towards {@code health.probe.<component>.failure}.
+ */
+@Service
+public class HealthProbeService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HealthProbeService.class);
+
+  // A key that is never written; looking it up only proves the store answers.
+  static final String STORAGE_PROBE_KEY = "health/probe";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectProvider<ObjectStore> objectStore;
+  private final ObjectProvider<SnsClient> snsClient;
+  private final StatsDClient statsDClient;
+  private final boolean probeStorage;
+  private final boolean probeMessaging;
+  private final String snsTopicArn;
+  private final long staleAfterNanos;
+  private final boolean probeInBackground;
+  private final long intervalMs;
+  private final long deepMinIntervalNanos;
+  private final AtomicReference<Snapshot> snapshot;
+  private final ReentrantLock probeLock = new ReentrantLock();
+  private ScheduledExecutorService prober;
+
+  @Autowired
+  public HealthProbeService(JdbcTemplate jdbcTemplate, ObjectProvider<ObjectStore> objectStore,
+                            ObjectProvider<SnsClient> snsClient, StatsDClient statsDClient,
+                            @Value("${health.probe.background.enabled:true}") boolean probeInBackground,
+                            @Value("${health.probe.intervalMs:5000}") long intervalMs,
+                            @Value("${health.probe.staleAfterMs:15000}") long staleAfterMs,
+                            @Value("${health.probe.deep.minIntervalMs:1000}") long deepMinIntervalMs,
+                            @Value("${health.probe.storage.enabled:false}") boolean probeStorage,
+                            @Value("${health.probe.messaging.enabled:false}") boolean probeMessaging,
+                            @Value("${cloud.aws.sns.topic-arn:}") String snsTopicArn) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectStore = objectStore;
+    this.snsClient = snsClient;
+    this.statsDClient = statsDClient;
+    this.probeStorage = probeStorage;
+    this.probeMessaging = probeMessaging;
+    this.snsTopicArn = snsTopicArn;
+    this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(staleAfterMs);
+    this.probeInBackground = probeInBackground;
+    this.intervalMs = intervalMs;
+    this.deepMinIntervalNanos = TimeUnit.MILLISECONDS.toNanos(deepMinIntervalMs);
+    // Until the first probe finishes the application is not known to be healthy.
+    this.snapshot = new AtomicReference<>(new Snapshot(false, Map.of(), Instant.now(), System.nanoTime()));
+  }
+
+  /**
+   * The outcome of the latest probe, without doing any I/O.
+   */
+  public Snapshot snapshot() {
+    return snapshot.get();
+  }
+
+  public long ageMillis(Snapshot snapshot) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - snapshot.checkedAtNanos());
+  }
+
+  public boolean isStale(Snapshot snapshot) {
+    return System.nanoTime() - snapshot.checkedAtNanos() > staleAfterNanos;
+  }
+
+  /**
+   * Probes every component now, waiting for a probe already in progress first, and publishes the
+   * result as the new snapshot.
+   */
+  public Snapshot probe() {
+    probeLock.lock();
+    try {
+      Map<String, ComponentHealth> components = new LinkedHashMap<>();
+      components.put("database", check("database", () -> jdbcTemplate.execute("SELECT 1")));
+      if (probeStorage) {
+        components.put("storage", check("storage", () -> objectStore.getObject().head(STORAGE_PROBE_KEY)));
+      }
+      if (probeMessaging) {
+        components.put("messaging", check("messaging", () -> snsClient.getObject()
+            .getTopicAttributes(GetTopicAttributesRequest.builder().topicArn(snsTopicArn).build())));
+      }
+      boolean healthy = components.values().stream().allMatch(ComponentHealth::up);
+      Snapshot probed = new Snapshot(healthy, Map.copyOf(components), Instant.now(), System.nanoTime());
+      Snapshot previous = snapshot.getAndSet(probed);
+      if (previous.healthy() != healthy) {
+        LOGGER.info("Health changed to {}: {}", healthy ? "UP" : "DOWN", components);
+      }
+      return probed;
+    } finally {
+      probeLock.unlock();
+    }
+  }
+
+  /**
+   * Probes now for a deep check, unless a probe is already running or the latest snapshot is younger
+   * than {@code health.probe.deep.minIntervalMs}; then that snapshot is returned instead. Deep checks
+   * therefore never queue up behind one another or hold up the background probe.
+   */
+  public Snapshot refresh() {
+    Snapshot current = snapshot.get();
+    // Only the placeholder published before the first probe has no components.
+    boolean fresh = !current.components().isEmpty()
+        && System.nanoTime() - current.checkedAtNanos() < deepMinIntervalNanos;
+    if (fresh || !probeLock.tryLock()) {
+      return current;
+    }
+    try {
+      return probe();
+    } finally {
+      probeLock.unlock();
+    }
+  }
+
+  @PostConstruct
+  public void init() {
+    if (probeInBackground) {
+      start();
+    }
+  }
+
+  /**
+   * Starts probing in the background, with the first probe right away. Spring calls it once the bean is
+   * initialized unless {@code health.probe.background.enabled} is false; a service constructed directly,
+   * as in unit tests, does not probe until asked to.
+   */
+  public synchronized void start() {
+    if (prober != null) {
+      return;
+    }
+    prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "health-probe");
+      thread.setDaemon(true);
+      return thread;
+    });
+    prober.scheduleWithFixedDelay(this::probeInBackground, 0, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (prober != null) {
+      prober.shutdownNow();
+      prober = null;
+    }
+  }
+
+  void probeInBackground() {
+    try {
+      probe();
+    } catch (RuntimeException e) {
+      // An exception would cancel the schedule; the snapshot then goes stale instead.
+      LOGGER.error("Health probe failed: {}", e.toString());
+    }
+  }
+
+  private ComponentHealth check(String component, Probe probe) {
+    long startTime = System.nanoTime();
+    String error = null;
+    try {
+      probe.run();
+    } catch (Exception e) {
+      error = e.getClass().getSimpleName();
+      statsDClient.incrementCounter("health.probe." + component + ".failure");
+      LOGGER.warn("Health probe of {} failed: {}", component, e.toString());
+    }
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    statsDClient.recordExecutionTime("health.probe." + component + ".time", elapsedMs);
+    return new ComponentHealth(error == null, elapsedMs, error);
+  }
+
+  @FunctionalInterface
+  private interface Probe {
+    void run() throws Exception;
+  }
+
+  /**
+   * One component's probe: whether it answered, how long it took and, if it failed, the type of error.
+   */
+  public record ComponentHealth(boolean up, long latencyMs, String error) {
+  }
+
+  public record Snapshot(boolean healthy, Map<String, ComponentHealth> components, Instant checkedAt,
+                         long checkedAtNanos) {
+  }
+}
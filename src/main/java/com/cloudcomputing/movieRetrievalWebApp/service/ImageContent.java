@@ -0,0 +1,11 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import java.time.Instant;
+
+/**
+ * What the content endpoint needs to answer a request for an image's bytes: where they are stored,
+ * their validators (strong ETag, last modification time) and their size and media type.
+ */
+public record ImageContent(String objectKey, String fileName, String eTag, long contentLength, String contentType,
+                           Instant lastModified) {
+}
@@ -0,0 +1,245 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.ImageDAO;
+import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
+import com.timgroup.statsd.StatsDClient;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Generates resized copies (derivatives) of uploaded images so clients can fetch a small avatar
+ * instead of the full upload.
+ *
+ * Work runs on a fixed-size pool with a bounded queue: when the queue is full the upload still
+ * succeeds and the image is simply served at full size. Each derivative is stored next to the
+ * original: for an original at {@code <prefix>/<name>} it goes under
+ * {@code <prefix>/derivatives/<size>/<name>}, so {@code content/derivatives/<size>/<hash>} for
+ * deduplicated content. It is scaled so its longest side is {@code size} pixels; images are never
+ * scaled up. The generated sizes are then recorded on the image row.
+ */
+@Service
+public class ImageDerivativeService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+  private final ObjectStore objectStore;
+  private final ImageDAO imageDAO;
+  private final StatsDClient statsDClient;
+  private final boolean enabled;
+  private final int[] sizes;
+  private final long maxPixels;
+  private final ThreadPoolExecutor executor;
+
+  @Autowired
+  public ImageDerivativeService(ObjectStore objectStore, ImageDAO imageDAO, StatsDClient statsDClient,
+                                @Value("${image.derivatives.enabled:true}") boolean enabled,
+                                @Value("${image.derivatives.sizes:64,256,1024}") int[] sizes,
+                                @Value("${image.derivatives.threads:2}") int threads,
+                                @Value("${image.derivatives.queueCapacity:100}") int queueCapacity,
+                                @Value("${image.derivatives.maxPixels:50000000}") long maxPixels) {
+    this.objectStore = objectStore;
+    this.imageDAO = imageDAO;
+    this.statsDClient = statsDClient;
+    this.enabled = enabled;
+    this.sizes = Arrays.stream(sizes).sorted().toArray();
+    this.maxPixels = maxPixels;
+
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+          Thread thread = new Thread(runnable, "image-derivatives-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * The derivative sizes clients may ask for, in ascending order.
+   */
+  public int[] getSizes() {
+    return sizes.clone();
+  }
+
+  public boolean isSupportedSize(int size) {
+    return Arrays.binarySearch(sizes, size) >= 0;
+  }
+
+  public static String derivativeKey(String objectKey, int size) {
+    int slash = objectKey.lastIndexOf('/');
+    return objectKey.substring(0, slash + 1) + "derivatives/" + size + "/" + objectKey.substring(slash + 1);
+  }
+
+  /**
+   * Queues derivative generation for a freshly uploaded image. Returns false if generation is
+   * disabled or the queue is full.
+   */
+  public boolean submit(Image image, String objectKey) {
+    if (!enabled) {
+      return false;
+    }
+    try {
+      executor.execute(() -> generateDerivatives(image, objectKey));
+      statsDClient.recordGaugeValue("image.derivatives.queue_depth", executor.getQueue().size());
+      return true;
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn("Derivative queue is full; serving {} without derivatives", objectKey);
+      statsDClient.incrementCounter("image.derivatives.rejected");
+      return false;
+    }
+  }
+
+  /**
+   * Generates and stores every applicable derivative, then records them on the image row. If the
+   * image was deleted in the meantime, the derivatives just written are removed again, unless they
+   * belong to deduplicated content: those go with the content when StoredContentService sweeps it.
+   */
+  void generateDerivatives(Image image, String objectKey) {
+    long startTime = System.currentTimeMillis();
+    try {
+      List<Integer> generated = writeDerivatives(objectKey);
+      if (generated.isEmpty()) {
+        return;
+      }
+
+      String derivativeSizes = generated.stream().map(String::valueOf).collect(Collectors.joining(","));
+      if (imageDAO.updateDerivativeSizes(image.getId(), derivativeSizes)) {
+        image.setDerivativeSizes(derivativeSizes);
+      } else if (image.getContentHash() == null) {
+        for (int size : generated) {
+          objectStore.delete(derivativeKey(objectKey, size));
+        }
+      }
+      statsDClient.count("image.derivatives.generated", generated.size());
+      statsDClient.recordExecutionTime("image.derivatives.time", System.currentTimeMillis() - startTime);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Generating derivatives of {} failed: {}", objectKey, e.toString());
+      statsDClient.incrementCounter("image.derivatives.failed");
+    } finally {
+      statsDClient.recordGaugeValue("image.derivatives.queue_depth", executor.getQueue().size());
+    }
+  }
+
+  private List<Integer> writeDerivatives(String objectKey) throws IOException {
+    try (InputStream content = objectStore.get(objectKey);
+         ImageInputStream imageInput = ImageIO.createImageInputStream(content)) {
+      Iterator<ImageReader> readers = imageInput == null ? null : ImageIO.getImageReaders(imageInput);
+      if (readers == null || !readers.hasNext()) {
+        LOGGER.info("No image reader for {}; skipping derivatives", objectKey);
+        statsDClient.incrementCounter("image.derivatives.unsupported");
+        return List.of();
+      }
+
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(imageInput, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height > maxPixels) {
+          LOGGER.warn("{} is {}x{}, over the derivative pixel limit", objectKey, width, height);
+          statsDClient.incrementCounter("image.derivatives.too_large");
+          return List.of();
+        }
+
+        int longestSide = Math.max(width, height);
+        int[] targets = Arrays.stream(sizes).filter(size -> size < longestSide).toArray();
+        if (targets.length == 0) {
+          return List.of();
+        }
+
+        // Decode at no more than twice the largest target, which keeps huge uploads cheap to read.
+        ImageReadParam readParam = reader.getDefaultReadParam();
+        int subsampling = Math.max(1, longestSide / (2 * targets[targets.length - 1]));
+        readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        BufferedImage source = reader.read(0, readParam);
+
+        String formatName = reader.getFormatName().toLowerCase(Locale.ROOT);
+        String contentType = reader.getOriginatingProvider().getMIMETypes()[0];
+
+        // Largest first, each derived from the previous one so no step shrinks by more than 2x.
+        List<Integer> generated = new ArrayList<>();
+        BufferedImage previous = source;
+        for (int i = targets.length - 1; i >= 0; i--) {
+          BufferedImage derivative = scaleToFit(previous, targets[i], hasAlpha(formatName));
+          byte[] encoded = encode(derivative, formatName);
+          objectStore.put(derivativeKey(objectKey, targets[i]), new ByteArrayInputStream(encoded), encoded.length,
+              contentType);
+          generated.add(0, targets[i]);
+          previous = derivative;
+        }
+        return generated;
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private static BufferedImage scaleToFit(BufferedImage source, int size, boolean alpha) {
+    double scale = (double) size / Math.max(source.getWidth(), source.getHeight());
+    int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+    int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+    int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+    BufferedImage current = source;
+    do {
+      int width = Math.max(targetWidth, current.getWidth() / 2);
+      int height = Math.max(targetHeight, current.getHeight() / 2);
+      BufferedImage step = new BufferedImage(width, height, type);
+      Graphics2D graphics = step.createGraphics();
+      try {
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(current, 0, 0, width, height, null);
+      } finally {
+        graphics.dispose();
+      }
+      current = step;
+    } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+    return current;
+  }
+
+  // JPEG and BMP writers reject images with an alpha channel.
+  private static boolean hasAlpha(String formatName) {
+    return !(formatName.equals("jpeg") || formatName.equals("jpg") || formatName.equals("bmp"));
+  }
+
+  private static byte[] encode(BufferedImage image, String formatName) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    if (!ImageIO.write(image, formatName, out)) {
+      throw new IOException("No image writer for format " + formatName);
+    }
+    return out.toByteArray();
+  }
+}
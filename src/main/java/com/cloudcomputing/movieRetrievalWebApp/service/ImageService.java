@@ -3,120 +3,254 @@ package com.cloudcomputing.movieRetrievalWebApp.service;
 import com.cloudcomputing.movieRetrievalWebApp.dao.ImageDAO;
 import com.cloudcomputing.movieRetrievalWebApp.dto.imagedto.ImageResponseDTO;
 import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectMetadata;
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
 import com.timgroup.statsd.StatsDClient;
-import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.*;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class ImageService {
 
-  @Value("${cloud.aws.s3.bucket-name}")
-  private String bucketName;
+  // Uploaded content is stored once per distinct SHA-256, under this prefix.
+  static final String CONTENT_KEY_PREFIX = "content/";
+
+  // Each attempt that is not deduplicated writes the object; another one is only needed if the
+  // sweep removed the content meanwhile, which takes an upload slower than its grace period.
+  private static final int MAX_STORE_ATTEMPTS = 3;
+
+  // When enabled, GET returns a time-limited presigned download URL instead of the stored location,
+  // if the storage backend can sign one.
+  @Value("${cloud.aws.s3.presignedUrls.enabled:false}")
+  private boolean presignedUrlsEnabled;
+
+  @Value("${cloud.aws.s3.presignedUrls.ttlSeconds:900}")
+  private long presignedUrlTtlSeconds;
+
+  // Size of the buffer each content response is streamed through, independent of the image size.
+  @Value("${image.content.bufferSize:65536}")
+  private int contentBufferSize;
 
   @Autowired
   ImageDAO imageDAO;
 
   @Autowired
-  private S3Client s3Client;
+  private ObjectStore objectStore;
 
   @Autowired
-  private StatsDClient statsDClient;
-
-  public ImageResponseDTO uploadImage(MultipartFile file, UUID userId) throws IOException {
-    long startTime = System.currentTimeMillis();
+  private ImageDerivativeService imageDerivativeService;
 
-    String fileName = file.getOriginalFilename();
+  @Autowired
+  private StoredContentService storedContentService;
 
-    String objectKey = userId + "/" + fileName;
+  @Autowired
+  private StatsDClient statsDClient;
 
-    PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-            .bucket(bucketName)
-            .key(objectKey)
-            .build();
+  public ImageResponseDTO uploadImage(MultipartFile file, UUID userId) throws IOException {
+    return uploadImage(file, file.getOriginalFilename(), file.getContentType(), file.getSize(), userId);
+  }
 
-    s3Client.putObject(putObjectRequest, software.amazon.awssdk.core.sync.RequestBody.fromBytes(file.getBytes()));
-    statsDClient.recordExecutionTime("aws.s3.uploadImage.time", System.currentTimeMillis() - startTime);
+  /**
+   * Stores an image and records it for the user.
+   *
+   * @param content Local, re-readable content such as a multipart body or a spool file: it is read
+   *                once to hash it, and again only if the object store does not have it yet.
+   */
+  public ImageResponseDTO uploadImage(InputStreamSource content, String fileName, String contentType, long size,
+                                      UUID userId) throws IOException {
+    // Hashing the local copy decides whether the object store needs to be written at all.
+    String contentHash = contentHash(content);
+    String objectKey = CONTENT_KEY_PREFIX + contentHash;
 
     Image image = new Image();
     image.setFileName(fileName);
-    image.setUrl(bucketName + "/" + objectKey);
+    image.setUrl(objectStore.location(objectKey));
+    image.setObjectKey(objectKey);
+    image.setContentHash(contentHash);
     image.setUserId(userId);
 
-    Image savedImageDB = this.addImage_DB(image);
+    // No lock is held while the object is written. If the insert fails afterwards, the content stays
+    // released and the sweep removes it unless another upload references it first.
+    Image savedImageDB = null;
+    for (int attempt = 1; savedImageDB == null; attempt++) {
+      Optional<Image> referenced = storedContentService.reference(image);
+      if (referenced.isPresent()) {
+        // Same bytes are already stored: reference them, along with any thumbnails made from them.
+        statsDClient.incrementCounter("image.dedup.puts_saved");
+        statsDClient.count("image.dedup.bytes_saved", size);
+        savedImageDB = referenced.get();
+        break;
+      }
+      if (attempt > MAX_STORE_ATTEMPTS) {
+        throw new IOException("Stored content " + contentHash + " kept being swept while it was uploaded");
+      }
+
+      // Stream the content instead of materialising it with getBytes().
+      try (InputStream inputStream = content.getInputStream()) {
+        objectStore.put(objectKey, inputStream, size, contentType);
+      }
+      savedImageDB = storedContentService.attach(image).orElse(null);
+    }
+
+    // Thumbnails are generated in the background; until they exist the original is served.
+    if (savedImageDB.getDerivativeSizes() == null) {
+      imageDerivativeService.submit(savedImageDB, objectKey);
+    }
 
     return new ImageResponseDTO(savedImageDB.getFileName(), savedImageDB.getId(), savedImageDB.getUrl(), savedImageDB.getUploadDate(), savedImageDB.getUserId());
   }
 
   public ImageResponseDTO downloadImage(UUID userId) throws IOException {
-    long startTime = System.currentTimeMillis();
+    return downloadImage(userId, null);
+  }
 
-    String prefix = userId.toString() + "/";
-    ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-            .bucket(bucketName)
-            .prefix(prefix)
-            .build();
+  /**
+   * Returns the user's image record. Served from the database alone: the stored object key is
+   * enough to build the response, so the object store is not contacted. When presigned URLs are
+   * enabled the url is a time-limited GET link, signed locally by backends that support it.
+   *
+   * @param size Derivative size to point the url at, or null for the original. Falls back to the
+   *             original while that derivative has not been generated.
+   */
+  public ImageResponseDTO downloadImage(UUID userId, Integer size) throws IOException {
+    Image image = this.getImageByUserId_DB(userId)
+            .orElseThrow(() -> new IOException("Image not found for userId: " + userId));
 
-    ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
+    String objectKey = contentKey(image, size);
+    String url = objectKey.equals(resolveObjectKey(image)) ? image.getUrl() : objectStore.location(objectKey);
+    if (presignedUrlsEnabled) {
+      url = objectStore.presignedUrl(objectKey, Duration.ofSeconds(presignedUrlTtlSeconds))
+              .map(URI::toString)
+              .orElse(url);
+    }
+    return new ImageResponseDTO(image.getFileName(), image.getId(), url, image.getUploadDate(), image.getUserId(),
+            availableSizes(image));
+  }
 
-    statsDClient.recordExecutionTime("aws.s3.downloadImage.time", System.currentTimeMillis() - startTime);
+  public void deleteImage(UUID userId) throws IOException {
+    Optional<Image> presentImage = this.getImageByUserId_DB(userId);
+    if (presentImage.isEmpty()) {
+      throw new IOException("No image found to delete for userId: " + userId);
+    }
 
-    Optional<S3Object> imageObject = listResponse.contents().stream().findFirst();
-    if (imageObject.isPresent()) {
-      S3Object s3Object = imageObject.get();
-      String fileName = s3Object.key().substring(s3Object.key().lastIndexOf('/') + 1);
-      UUID user_Id = UUID.fromString(s3Object.key().substring(0, s3Object.key().indexOf('/')));
-      Optional<Image> presentImage = this.getImageByUserId_DB(user_Id);
-      if (presentImage.isEmpty()) {
-        throw new EntityNotFoundException("Image with id " + userId + " does not exist");
+    Image image = presentImage.get();
+    String objectKey = resolveObjectKey(image);
+    if (image.getContentHash() == null) {
+      // Delete the objects by their recorded keys instead of listing the user's prefix.
+      for (int size : availableSizes(image)) {
+        objectStore.delete(ImageDerivativeService.derivativeKey(objectKey, size));
       }
-      Image image = presentImage.get();
-
-      return new ImageResponseDTO(fileName, image.getId(), image.getUrl(), image.getUploadDate(), image.getUserId());
-    } else {
-      throw new IOException("Image not found for userId: " + userId);
+      objectStore.delete(objectKey);
+      this.deleteImage_DB(userId);
+      return;
     }
+
+    // Dropping the row releases this user's reference; the shared object is swept after the last one.
+    storedContentService.release(userId, image.getContentHash());
   }
 
-  public void deleteImage(UUID userId) throws IOException {
-    long startTime = System.currentTimeMillis();
+  /**
+   * Strong ETag for the content served for {@code size} (null for the original). Every upload
+   * creates a new image row with a fresh id and stored objects are never rewritten in place, so the
+   * id plus the derivative size identifies the bytes exactly without contacting the object store.
+   */
+  public String contentETag(Image image, Integer size) {
+    return size != null && image.hasDerivative(size)
+            ? "\"" + image.getId() + "-" + size + "\""
+            : "\"" + image.getId() + "\"";
+  }
+
+  /**
+   * Looks up the stored object's size, type and modification time. Empty if the object is missing.
+   */
+  public Optional<ImageContent> describeContent(Image image, Integer size) throws IOException {
+    String objectKey = contentKey(image, size);
+    Optional<ObjectMetadata> metadata = objectStore.head(objectKey);
+    if (metadata.isEmpty()) {
+      return Optional.empty();
+    }
+
+    String contentType = metadata.get().contentType();
+    if (contentType == null) {
+      contentType = MediaTypeFactory.getMediaType(image.getFileName())
+              .orElse(MediaType.APPLICATION_OCTET_STREAM)
+              .toString();
+    }
+    return Optional.of(new ImageContent(objectKey, image.getFileName(), contentETag(image, size),
+            metadata.get().contentLength(), contentType, metadata.get().lastModified()));
+  }
 
-    String prefix = userId.toString() + "/"; // Prefix for the user's images
-    ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-            .bucket(bucketName)
-            .prefix(prefix)
-            .build();
+  /**
+   * Streams {@code count} bytes of the image starting at {@code position} to {@code out} through a
+   * single buffer of {@code image.content.bufferSize} bytes, so memory per response does not grow
+   * with the image size. Returns the number of bytes written.
+   */
+  public long streamContent(ImageContent content, long position, long count, OutputStream out) throws IOException {
+    BufferedOutputStream bufferedOut = new BufferedOutputStream(out, contentBufferSize);
+    long written = objectStore.transferTo(content.objectKey(), position, count, Channels.newChannel(bufferedOut));
+    bufferedOut.flush();
+    return written;
+  }
 
-    ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
+  private String contentKey(Image image, Integer size) {
+    String objectKey = resolveObjectKey(image);
+    return size != null && image.hasDerivative(size) ? ImageDerivativeService.derivativeKey(objectKey, size) : objectKey;
+  }
 
-    Optional<S3Object> imageObject = listResponse.contents().stream().findFirst();
+  private static List<Integer> availableSizes(Image image) {
+    if (image.getDerivativeSizes() == null || image.getDerivativeSizes().isBlank()) {
+      return List.of();
+    }
+    return Arrays.stream(image.getDerivativeSizes().split(",")).map(Integer::valueOf).toList();
+  }
 
-    if (imageObject.isPresent()) {
-      S3Object s3Object = imageObject.get();
-      String objectKey = s3Object.key();
+  private String contentHash(InputStreamSource content) throws IOException {
+    long startTime = System.currentTimeMillis();
 
-      // Create a request to delete the object
-      DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-              .bucket(bucketName)
-              .key(objectKey)
-              .build();
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    try (InputStream inputStream = new DigestInputStream(content.getInputStream(), digest)) {
+      inputStream.transferTo(OutputStream.nullOutputStream());
+    }
+    statsDClient.recordExecutionTime("image.upload.hash.time", System.currentTimeMillis() - startTime);
+    return HexFormat.of().formatHex(digest.digest());
+  }
 
-      // Delete the object from S3
-      s3Client.deleteObject(deleteObjectRequest);
-      this.deleteImage_DB(userId);
-      statsDClient.recordExecutionTime("aws.s3.deleteImage.time", System.currentTimeMillis() - startTime);
-    } else {
-      statsDClient.recordExecutionTime("aws.s3.deleteImage.time", System.currentTimeMillis() - startTime);
-      throw new IOException("No image found to delete for userId: " + userId);
+  /**
+   * Rows written before the object key was stored only have the "bucket/key" S3 url; derive the key
+   * from it for those. Bucket names cannot contain '/', so the key starts after the first one.
+   */
+  private String resolveObjectKey(Image image) {
+    if (image.getObjectKey() != null) {
+      return image.getObjectKey();
     }
+    String url = image.getUrl();
+    return url.substring(url.indexOf('/') + 1);
   }
 
   public Image addImage_DB(Image image) {
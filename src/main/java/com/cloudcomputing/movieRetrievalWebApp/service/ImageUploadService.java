@@ -0,0 +1,240 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.ImageUploadDAO;
+import com.cloudcomputing.movieRetrievalWebApp.dto.imagedto.ImageResponseDTO;
+import com.cloudcomputing.movieRetrievalWebApp.model.ImageUpload;
+import com.timgroup.statsd.StatsDClient;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityExistsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts image uploads without holding the request thread for the object store round trip.
+ *
+ * The multipart body is moved into a local spool file and recorded as a pending
+ * {@link ImageUpload}; a fixed-size worker pool then stores it through {@link ImageService},
+ * retrying transient failures with exponential backoff, and records the outcome on the upload row.
+ * When the queue is full new uploads are refused rather than spooled without bound. Uploads left
+ * pending by a shutdown keep their spool file and are resumed on the next start.
+ */
+@Service
+public class ImageUploadService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ImageUploadService.class);
+
+  private final ImageService imageService;
+  private final ImageUploadDAO imageUploadDAO;
+  private final StatsDClient statsDClient;
+  private final Path spoolDir;
+  private final RetryTemplate retryTemplate;
+  private final ThreadPoolExecutor executor;
+
+  // Uploads queued or running on this instance, for the spool and pending-age gauges.
+  private final Map<UUID, ImageUpload> inFlight = new ConcurrentHashMap<>();
+
+  @Autowired
+  public ImageUploadService(ImageService imageService, ImageUploadDAO imageUploadDAO, StatsDClient statsDClient,
+                            @Value("${image.upload.async.spoolDir:${java.io.tmpdir}/movieRetrievalWebApp/spool}") Path spoolDir,
+                            @Value("${image.upload.async.threads:4}") int threads,
+                            @Value("${image.upload.async.queueCapacity:50}") int queueCapacity,
+                            @Value("${image.upload.async.maxAttempts:3}") int maxAttempts,
+                            @Value("${image.upload.async.initialBackoffMs:500}") long initialBackoffMs,
+                            @Value("${image.upload.async.maxBackoffMs:10000}") long maxBackoffMs,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) throws IOException {
+    this.imageService = imageService;
+    this.imageUploadDAO = imageUploadDAO;
+    this.statsDClient = statsDClient;
+    this.spoolDir = Files.createDirectories(spoolDir);
+
+    // A user who already has an image, or content that vanished from the spool, will not succeed on retry.
+    this.retryTemplate = RetryTemplate.builder()
+        .maxAttempts(maxAttempts)
+        .exponentialBackoff(initialBackoffMs, 2.0, maxBackoffMs)
+        .notRetryOn(List.of(EntityExistsException.class, NoSuchFileException.class, IllegalArgumentException.class))
+        .build();
+
+    // Workers mostly wait on the object store, so they are virtual whenever request threads are;
+    // the pool size still bounds how many uploads run at once.
+    ThreadFactory threadFactory = virtualThreads
+        ? Thread.ofVirtual().name("image-uploads-", 1).factory()
+        : Thread.ofPlatform().name("image-uploads-", 1).daemon().factory();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Spools the file, records a pending upload and queues it for storage.
+   *
+   * @throws RejectedExecutionException if the upload queue is full; nothing is kept in that case.
+   */
+  public ImageUpload accept(MultipartFile file, UUID userId) throws IOException {
+    // Refuse before spooling when the queue is visibly full; enqueue() still handles the race.
+    if (executor.getQueue().remainingCapacity() == 0) {
+      statsDClient.incrementCounter("image.upload.async.rejected");
+      throw new RejectedExecutionException("Upload queue is full");
+    }
+
+    ImageUpload upload = new ImageUpload();
+    upload.setUserId(userId);
+    upload.setFileName(file.getOriginalFilename());
+    upload.setContentType(file.getContentType());
+    upload.setContentLength(file.getSize());
+    Path spoolFile = spoolDir.resolve(upload.getId().toString());
+    upload.setSpoolPath(spoolFile.toString());
+
+    // For a disk-backed multipart part this is a move, not a copy.
+    file.transferTo(spoolFile);
+    try {
+      imageUploadDAO.createUpload(upload);
+      enqueue(upload);
+    } catch (RejectedExecutionException e) {
+      statsDClient.incrementCounter("image.upload.async.rejected");
+      imageUploadDAO.deleteUpload(upload.getId());
+      Files.deleteIfExists(spoolFile);
+      throw e;
+    } catch (RuntimeException e) {
+      Files.deleteIfExists(spoolFile);
+      throw e;
+    }
+
+    statsDClient.incrementCounter("image.upload.async.accepted");
+    return upload;
+  }
+
+  public Optional<ImageUpload> getUpload(UUID uploadId, UUID userId) {
+    return imageUploadDAO.getUploadByIdAndUserId(uploadId, userId);
+  }
+
+  /**
+   * Requeues uploads left pending by a previous run whose spool file is on this instance.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumePendingUploads() {
+    for (ImageUpload upload : imageUploadDAO.getPendingUploads()) {
+      if (inFlight.containsKey(upload.getId()) || !Files.exists(Path.of(upload.getSpoolPath()))) {
+        continue;
+      }
+      try {
+        enqueue(upload);
+        LOGGER.info("Resumed pending image upload {}", upload.getId());
+      } catch (RejectedExecutionException e) {
+        LOGGER.warn("Upload queue is full; remaining pending uploads will wait for the next start");
+        return;
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${image.upload.async.metricsIntervalMs:10000}")
+  public void reportMetrics() {
+    Instant now = Instant.now();
+    long spoolBytes = 0;
+    Instant oldest = now;
+    for (ImageUpload upload : inFlight.values()) {
+      spoolBytes += upload.getContentLength();
+      if (upload.getCreatedAt().isBefore(oldest)) {
+        oldest = upload.getCreatedAt();
+      }
+    }
+    statsDClient.recordGaugeValue("image.upload.async.spool_bytes", spoolBytes);
+    statsDClient.recordGaugeValue("image.upload.async.queue_depth", executor.getQueue().size());
+    statsDClient.recordGaugeValue("image.upload.async.pending", inFlight.size());
+    statsDClient.recordGaugeValue("image.upload.async.oldest_pending_age_ms", Duration.between(oldest, now).toMillis());
+  }
+
+  private void enqueue(ImageUpload upload) {
+    inFlight.put(upload.getId(), upload);
+    try {
+      executor.execute(() -> process(upload));
+    } catch (RejectedExecutionException e) {
+      inFlight.remove(upload.getId());
+      throw e;
+    }
+  }
+
+  void process(ImageUpload upload) {
+    Path spoolFile = Path.of(upload.getSpoolPath());
+    AtomicInteger attempts = new AtomicInteger();
+    boolean finished = true;
+    try {
+      ImageResponseDTO image = retryTemplate.execute(context -> {
+        if (attempts.incrementAndGet() > 1) {
+          statsDClient.incrementCounter("image.upload.async.retried");
+        }
+        return imageService.uploadImage(new FileSystemResource(spoolFile), upload.getFileName(),
+            upload.getContentType(), upload.getContentLength(), upload.getUserId());
+      });
+
+      imageUploadDAO.markComplete(upload.getId(), image.getId(), attempts.get());
+      statsDClient.incrementCounter("image.upload.async.completed");
+      statsDClient.recordExecutionTime("image.upload.async.time",
+          Duration.between(upload.getCreatedAt(), Instant.now()).toMillis());
+    } catch (Exception e) {
+      if (executor.isShutdown()) {
+        // Interrupted by shutdown: keep the row pending and the spool file for the next start.
+        finished = false;
+        LOGGER.info("Image upload {} left pending by shutdown", upload.getId());
+        return;
+      }
+      LOGGER.warn("Image upload {} failed after {} attempt(s): {}", upload.getId(), attempts.get(), e.toString());
+      imageUploadDAO.markFailed(upload.getId(), failureReason(e), attempts.get());
+      statsDClient.incrementCounter("image.upload.async.failed");
+    } finally {
+      inFlight.remove(upload.getId());
+      if (finished) {
+        deleteSpoolFile(spoolFile);
+      }
+    }
+  }
+
+  // Shown to the client, so it names the cause without exposing internal details.
+  private static String failureReason(Exception e) {
+    if (e instanceof EntityExistsException) {
+      return "Image already exists";
+    }
+    if (e instanceof NoSuchFileException) {
+      return "Uploaded content is no longer available";
+    }
+    return "Image storage is unavailable";
+  }
+
+  private static void deleteSpoolFile(Path spoolFile) {
+    try {
+      Files.deleteIfExists(spoolFile);
+    } catch (IOException e) {
+      LOGGER.warn("Could not delete spool file {}: {}", spoolFile, e.toString());
+    }
+  }
+}
@@ -1,59 +1,112 @@
 package com.cloudcomputing.movieRetrievalWebApp.service;
 
+import com.cloudcomputing.movieRetrievalWebApp.dao.OutboxDAO;
+import com.cloudcomputing.movieRetrievalWebApp.model.OutboxMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timgroup.statsd.StatsDClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import software.amazon.awssdk.services.sns.SnsClient;
-import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class MessagePubService {
 
+  // SNS accepts at most this many entries per PublishBatch call.
+  public static final int MAX_BATCH_SIZE = 10;
+
+  static final String VERIFICATION_MESSAGE = "verification";
+
   private final SnsClient snsClient;
+  private final OutboxDAO outboxDAO;
+  private final ObjectMapper objectMapper;
+  private final StatsDClient statsDClient;
 
-  // Update this to use the correct property
   @Value("${cloud.aws.sns.topic-arn}")
   private String snsTopicArn;
 
   @Autowired
-  public MessagePubService(SnsClient snsClient) {
+  public MessagePubService(SnsClient snsClient, OutboxDAO outboxDAO, ObjectMapper objectMapper,
+                           StatsDClient statsDClient) {
     this.snsClient = snsClient;
+    this.outboxDAO = outboxDAO;
+    this.objectMapper = objectMapper;
+    this.statsDClient = statsDClient;
   }
 
   /**
-   * Publishes a message to the configured SNS topic.
+   * Records a verification message in the outbox. It must run inside the transaction that creates
+   * the user and token, so the message exists exactly when they do; {@link OutboxDispatcher}
+   * publishes it afterwards.
    *
    * @param userEmailAddress The email address of the user.
    * @param userFirstName The first name of the user.
    * @param userId The ID of the user.
    * @param token The verification token.
    */
-  public void publishMessage(String userEmailAddress, String userFirstName, String userId, String token) {
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void enqueueVerificationMessage(String userEmailAddress, String userFirstName, String userId, String token) {
+    Map<String, String> messagePayload = new HashMap<>();
+    messagePayload.put("userEmailAddress", userEmailAddress);
+    messagePayload.put("userFirstName", userFirstName);
+    messagePayload.put("userId", userId);
+    messagePayload.put("token", token);
+
     try {
-      // Create the JSON payload
-      Map<String, String> messagePayload = new HashMap<>();
-      messagePayload.put("userEmailAddress", userEmailAddress);
-      messagePayload.put("userFirstName", userFirstName);
-      messagePayload.put("userId", userId);
-      messagePayload.put("token", token);
-
-      // Convert payload to JSON
-      ObjectMapper objectMapper = new ObjectMapper();
-      String jsonMessage = objectMapper.writeValueAsString(messagePayload);
-
-      // Publish the message to the SNS topic using the ARN
-      PublishRequest request = PublishRequest.builder()
-        .topicArn(snsTopicArn)  // Use the ARN directly from the properties
-        .message(jsonMessage)
-        .build();
-
-      snsClient.publish(request);
-    } catch (Exception e) {
-      throw new RuntimeException("Failed to publish message to SNS", e);
+      outboxDAO.createMessage(new OutboxMessage(VERIFICATION_MESSAGE, objectMapper.writeValueAsString(messagePayload)));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Verification message could not be serialised", e);
+    }
+    statsDClient.incrementCounter("outbox.enqueued");
+  }
+
+  /**
+   * Publishes up to {@link #MAX_BATCH_SIZE} outbox messages to the configured SNS topic in one
+   * PublishBatch call.
+   *
+   * @return The entries SNS did not accept, by outbox message id; empty when all were published.
+   * @throws software.amazon.awssdk.core.exception.SdkException if the call as a whole failed.
+   */
+  public Map<Long, PublishFailure> publishBatch(List<OutboxMessage> messages) {
+    if (messages.size() > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " messages per batch, got " + messages.size());
     }
+
+    PublishBatchRequest request = PublishBatchRequest.builder()
+      .topicArn(snsTopicArn)
+      .publishBatchRequestEntries(messages.stream()
+        .map(message -> PublishBatchRequestEntry.builder()
+          .id(message.getId().toString())
+          .message(message.getPayload())
+          .build())
+        .toList())
+      .build();
+
+    PublishBatchResponse response = snsClient.publishBatch(request);
+
+    Map<Long, PublishFailure> failures = new LinkedHashMap<>();
+    for (BatchResultErrorEntry failed : response.failed()) {
+      failures.put(Long.valueOf(failed.id()), new PublishFailure(failed.code(), Boolean.TRUE.equals(failed.senderFault())));
+    }
+    return failures;
+  }
+
+  /**
+   * Why SNS rejected one entry of a batch. Sender faults (e.g. an invalid message) will fail the
+   * same way on every retry.
+   */
+  public record PublishFailure(String code, boolean senderFault) {
   }
 }
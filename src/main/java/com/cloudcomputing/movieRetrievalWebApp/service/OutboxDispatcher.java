@@ -0,0 +1,188 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.OutboxDAO;
+import com.cloudcomputing.movieRetrievalWebApp.model.OutboxMessage;
+import com.timgroup.statsd.StatsDClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox to SNS in PublishBatch calls of up to ten messages.
+ *
+ * Each batch is claimed in a short transaction: the rows are locked with {@code FOR UPDATE SKIP LOCKED}
+ * and their next attempt is moved {@code outbox.dispatch.leaseMs} ahead, so other instances skip them.
+ * The batch is then published with no transaction or connection held, and deleted (or rescheduled) in
+ * a second short transaction. If an instance stops between the two, its lease runs out and the
+ * messages are dispatched again. Failed messages are retried with exponential backoff; after
+ * {@code outbox.dispatch.maxAttempts}, or at once for sender faults, they are kept as dead letters
+ * and no longer dispatched.
+ */
+@Service
+public class OutboxDispatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+  private final OutboxDAO outboxDAO;
+  private final MessagePubService messagePubService;
+  private final StatsDClient statsDClient;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final int batchSize;
+  private final int maxBatchesPerRun;
+  private final int maxAttempts;
+  private final long initialBackoffMs;
+  private final long maxBackoffMs;
+  private final long leaseMs;
+
+  @Autowired
+  public OutboxDispatcher(OutboxDAO outboxDAO, MessagePubService messagePubService, StatsDClient statsDClient,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${outbox.dispatch.enabled:true}") boolean enabled,
+                          @Value("${outbox.dispatch.batchSize:10}") int batchSize,
+                          @Value("${outbox.dispatch.maxBatchesPerRun:50}") int maxBatchesPerRun,
+                          @Value("${outbox.dispatch.maxAttempts:10}") int maxAttempts,
+                          @Value("${outbox.dispatch.initialBackoffMs:1000}") long initialBackoffMs,
+                          @Value("${outbox.dispatch.maxBackoffMs:300000}") long maxBackoffMs,
+                          @Value("${outbox.dispatch.leaseMs:120000}") long leaseMs) {
+    this.outboxDAO = outboxDAO;
+    this.messagePubService = messagePubService;
+    this.statsDClient = statsDClient;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+    this.batchSize = Math.min(batchSize, MessagePubService.MAX_BATCH_SIZE);
+    this.maxBatchesPerRun = maxBatchesPerRun;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffMs = initialBackoffMs;
+    this.maxBackoffMs = maxBackoffMs;
+    this.leaseMs = leaseMs;
+  }
+
+  @Scheduled(fixedDelayString = "${outbox.dispatch.intervalMs:1000}")
+  public void scheduledDispatch() {
+    if (enabled) {
+      dispatch();
+    }
+  }
+
+  /**
+   * Publishes due messages until the outbox is drained or {@code outbox.dispatch.maxBatchesPerRun}
+   * batches have been sent, then reports the outbox lag.
+   */
+  public void dispatch() {
+    try {
+      for (int i = 0; i < maxBatchesPerRun; i++) {
+        int dispatched = dispatchBatch();
+        if (dispatched < batchSize) {
+          break;
+        }
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("Outbox dispatch failed: {}", e.toString());
+      statsDClient.incrementCounter("outbox.dispatch.error");
+    }
+    reportLag();
+  }
+
+  private int dispatchBatch() {
+    Instant now = Instant.now();
+    List<OutboxMessage> batch = transactionTemplate.execute(status -> claimBatch(now));
+    if (batch == null || batch.isEmpty()) {
+      return 0;
+    }
+
+    long startTime = System.currentTimeMillis();
+    Map<Long, MessagePubService.PublishFailure> failures;
+    try {
+      failures = messagePubService.publishBatch(batch);
+    } catch (RuntimeException e) {
+      LOGGER.warn("PublishBatch of {} outbox messages failed: {}", batch.size(), e.toString());
+      MessagePubService.PublishFailure failure = new MessagePubService.PublishFailure(e.getClass().getSimpleName(), false);
+      failures = batch.stream().collect(Collectors.toMap(OutboxMessage::getId, message -> failure));
+    } finally {
+      statsDClient.recordExecutionTime("outbox.dispatch.time", System.currentTimeMillis() - startTime);
+    }
+
+    List<Long> published = new ArrayList<>();
+    List<OutboxMessage> failed = new ArrayList<>();
+    for (OutboxMessage message : batch) {
+      MessagePubService.PublishFailure failure = failures.get(message.getId());
+      if (failure == null) {
+        published.add(message.getId());
+        statsDClient.recordExecutionTime("outbox.publish_lag",
+            Duration.between(message.getCreatedAt(), now).toMillis());
+      } else {
+        scheduleRetry(message, failure, now);
+        failed.add(message);
+      }
+    }
+
+    transactionTemplate.executeWithoutResult(status -> {
+      if (!published.isEmpty()) {
+        outboxDAO.deleteMessages(published);
+      }
+      if (!failed.isEmpty()) {
+        outboxDAO.updateMessages(failed);
+      }
+    });
+    if (!published.isEmpty()) {
+      statsDClient.count("outbox.dispatch.published", published.size());
+    }
+    if (!failed.isEmpty()) {
+      statsDClient.count("outbox.dispatch.failed", failed.size());
+    }
+    return batch.size();
+  }
+
+  /**
+   * Locks due messages and leases them to this dispatcher by moving their next attempt ahead.
+   * The locks are released when the claiming transaction commits, before anything is published.
+   */
+  private List<OutboxMessage> claimBatch(Instant now) {
+    List<OutboxMessage> batch = outboxDAO.lockDueMessages(now, maxAttempts, batchSize);
+    if (!batch.isEmpty()) {
+      Instant leaseExpiry = now.plusMillis(leaseMs);
+      batch.forEach(message -> message.setNextAttemptAt(leaseExpiry));
+      outboxDAO.updateMessages(batch);
+    }
+    return batch;
+  }
+
+  private void scheduleRetry(OutboxMessage message, MessagePubService.PublishFailure failure, Instant now) {
+    int attempts = failure.senderFault() ? maxAttempts : message.getAttempts() + 1;
+    message.setAttempts(attempts);
+    message.setLastError(failure.code());
+    if (attempts >= maxAttempts) {
+      LOGGER.warn("Outbox message {} dead-lettered after {} attempt(s): {}", message.getId(), attempts, failure.code());
+      statsDClient.incrementCounter("outbox.dispatch.dead_lettered");
+      return;
+    }
+    long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 30));
+    message.setNextAttemptAt(now.plusMillis(backoff));
+  }
+
+  private void reportLag() {
+    try {
+      Instant now = Instant.now();
+      statsDClient.recordGaugeValue("outbox.pending", outboxDAO.countPending(maxAttempts));
+      statsDClient.recordGaugeValue("outbox.dead_letters", outboxDAO.countDeadLetters(maxAttempts));
+      statsDClient.recordGaugeValue("outbox.lag_ms", outboxDAO.getOldestPendingCreatedAt(maxAttempts)
+          .map(createdAt -> Duration.between(createdAt, now).toMillis())
+          .orElse(0L));
+    } catch (RuntimeException e) {
+      LOGGER.warn("Could not report outbox lag: {}", e.toString());
+    }
+  }
+}
@@ -0,0 +1,203 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.ImageDAO;
+import com.cloudcomputing.movieRetrievalWebApp.dao.StoredContentDAO;
+import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.model.StoredContent;
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
+import com.timgroup.statsd.StatsDClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps track, in the database, of whether deduplicated content is still referenced, so every
+ * instance sharing the database agrees on it. Each decision is taken with the content's
+ * {@link StoredContent} row locked, in the same transaction as the image insert or delete it
+ * depends on.
+ *
+ * Objects are never deleted on the request path. Dropping the last reference marks the row
+ * released, and {@link #sweep()} deletes the object and its derivatives once the row has stayed
+ * released for {@code image.content.sweep.graceMs}. Until then the object is still there, so a user
+ * who deletes a picture and uploads the same one again references it without writing it. An upload
+ * marks the row released while it writes the object too, so the grace period has to be longer than the
+ * slowest upload.
+ */
+@Service
+public class StoredContentService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StoredContentService.class);
+
+  private static final int MAX_ATTEMPTS = 3;
+
+  private final StoredContentDAO storedContentDAO;
+  private final ImageDAO imageDAO;
+  private final ObjectStore objectStore;
+  private final ImageDerivativeService imageDerivativeService;
+  private final StatsDClient statsDClient;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration grace;
+  private final int sweepBatchSize;
+
+  @Autowired
+  public StoredContentService(StoredContentDAO storedContentDAO, ImageDAO imageDAO, ObjectStore objectStore,
+                              ImageDerivativeService imageDerivativeService, StatsDClient statsDClient,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${image.content.sweep.graceMs:3600000}") long graceMs,
+                              @Value("${image.content.sweep.batchSize:100}") int sweepBatchSize) {
+    this.storedContentDAO = storedContentDAO;
+    this.imageDAO = imageDAO;
+    this.objectStore = objectStore;
+    this.imageDerivativeService = imageDerivativeService;
+    this.statsDClient = statsDClient;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.grace = Duration.ofMillis(graceMs);
+    this.sweepBatchSize = sweepBatchSize;
+  }
+
+  /**
+   * Records {@code image} against its content if another image already references it, reusing the
+   * derivatives generated for that image, or if the content is released but not swept yet. Otherwise
+   * reserves the content for an upload and returns empty; the caller then stores the object and calls
+   * {@link #attach(Image)}.
+   */
+  public Optional<Image> reference(Image image) {
+    return inTransaction(status -> {
+      StoredContent content = lockOrCreate(image.getContentHash());
+      Optional<Image> existing = imageDAO.getImageByContentHash(image.getContentHash());
+      if (existing.isEmpty() && content.isObjectStored()) {
+        // The last image using it was deleted, but the object is still stored; the sweep skips it now.
+        content.setReleasedAt(null);
+        storedContentDAO.updateContent(content);
+        return Optional.of(imageDAO.createImage(image));
+      }
+      if (existing.isEmpty()) {
+        // Restarts the grace period, so the sweep leaves the object alone while it is being written.
+        content.setReleasedAt(Instant.now());
+        storedContentDAO.updateContent(content);
+        return Optional.empty();
+      }
+      image.setDerivativeSizes(existing.get().getDerivativeSizes());
+      return Optional.of(imageDAO.createImage(image));
+    });
+  }
+
+  /**
+   * Records {@code image} once its content has been stored. Empty if the sweep removed the content
+   * while it was being written, in which case it has to be stored again.
+   */
+  public Optional<Image> attach(Image image) {
+    return inTransaction(status -> {
+      Optional<StoredContent> content = storedContentDAO.lockContent(image.getContentHash());
+      if (content.isEmpty()) {
+        return Optional.empty();
+      }
+      Image saved = imageDAO.createImage(image);
+      content.get().setReleasedAt(null);
+      content.get().setObjectStored(true);
+      storedContentDAO.updateContent(content.get());
+      return Optional.of(saved);
+    });
+  }
+
+  /**
+   * Deletes the user's image. If no other image references its content any more, the content is
+   * marked released for the sweep.
+   */
+  public void release(UUID userId, String contentHash) {
+    inTransaction(status -> {
+      StoredContent content = lockOrCreate(contentHash);
+      imageDAO.deleteImage(userId);
+      if (!imageDAO.existsByContentHash(contentHash)) {
+        content.setReleasedAt(Instant.now());
+        storedContentDAO.updateContent(content);
+      }
+      return null;
+    });
+  }
+
+  @Scheduled(fixedDelayString = "${image.content.sweep.intervalMs:60000}")
+  public void sweep() {
+    Instant cutoff = Instant.now().minus(grace);
+    List<String> released;
+    try {
+      released = storedContentDAO.getReleasedBefore(cutoff, sweepBatchSize);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Listing released content failed: {}", e.toString());
+      return;
+    }
+
+    int swept = 0;
+    for (String contentHash : released) {
+      try {
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> sweep(contentHash, cutoff)))) {
+          swept++;
+        }
+      } catch (RuntimeException e) {
+        LOGGER.warn("Sweeping content {} failed: {}", contentHash, e.toString());
+        statsDClient.incrementCounter("image.content.sweep.failed");
+      }
+    }
+    statsDClient.count("image.content.swept", swept);
+  }
+
+  // The objects are deleted with the row still locked, so no upload can reserve or reference the content
+  // in between. Deleting the row clears its objectStored flag along with it.
+  private boolean sweep(String contentHash, Instant cutoff) {
+    Optional<StoredContent> content = storedContentDAO.lockContent(contentHash);
+    if (content.isEmpty() || content.get().getReleasedAt() == null || content.get().getReleasedAt().isAfter(cutoff)) {
+      return false;
+    }
+    if (imageDAO.existsByContentHash(contentHash)) {
+      content.get().setReleasedAt(null);
+      storedContentDAO.updateContent(content.get());
+      return false;
+    }
+
+    String objectKey = ImageService.CONTENT_KEY_PREFIX + contentHash;
+    try {
+      for (int size : imageDerivativeService.getSizes()) {
+        objectStore.delete(ImageDerivativeService.derivativeKey(objectKey, size));
+      }
+      objectStore.delete(objectKey);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    storedContentDAO.deleteContent(content.get());
+    return true;
+  }
+
+  private StoredContent lockOrCreate(String contentHash) {
+    return storedContentDAO.lockContent(contentHash)
+        .orElseGet(() -> storedContentDAO.createContent(new StoredContent(contentHash)));
+  }
+
+  private <T> T inTransaction(TransactionCallback<T> callback) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionTemplate.execute(callback);
+      } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+        // Another instance inserted the row for the same new content first; the retry locks theirs.
+        if (attempt >= MAX_ATTEMPTS) {
+          throw e;
+        }
+      }
+    }
+  }
+}
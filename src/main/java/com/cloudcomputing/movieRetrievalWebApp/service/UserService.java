@@ -1,10 +1,14 @@
 package com.cloudcomputing.movieRetrievalWebApp.service;
 
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticatedUser;
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticationCache;
 import com.cloudcomputing.movieRetrievalWebApp.dao.UserDAO;
 import com.cloudcomputing.movieRetrievalWebApp.model.User;
+import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -17,10 +21,27 @@ public class UserService {
   @Autowired
   private PasswordEncoder passwordEncoder;
 
+  @Autowired
+  private AuthenticationCache authenticationCache;
+
+  @Autowired
+  private VerificationService verificationService;
+
+  @Autowired
+  private MessagePubService messagePubService;
+
   public Optional<User> getUserByEmail(String email) {
-    return userDAO.getAllUsers().stream()
-        .filter(user -> user.getEmailAddress().equals(email))
-        .findFirst();
+    return userDAO.getUserByEmail(email);
+  }
+
+  /**
+   * Loads the security principal for a user, including the verification flag, in one query.
+   */
+  public Optional<AuthenticatedUser> getAuthenticatedUser(String email) {
+    return userDAO.getUserCredentials(email)
+        .map(user -> new AuthenticatedUser(user.getUserId(), user.getEmailAddress(), user.getPassword(),
+            user.getFirstName(), user.getLastName(), user.getAccountCreated(), user.getAccountUpdated(),
+            user.isVerified()));
   }
 
   public User addUser(User user) {
@@ -28,10 +49,40 @@ public class UserService {
     return userDAO.createUser(user);
   }
 
+  /**
+   * Creates a user together with its verification token and the outbox entry for the verification
+   * email, in one transaction: either all three are stored or none is. Each is a single insert; a
+   * taken email address surfaces as an {@link org.springframework.dao.DuplicateKeyException} from the
+   * unique constraint instead of being looked up beforehand.
+   */
+  @Transactional
+  public User registerUser(User user) {
+    User savedUser = addUser(user);
+    VerificationToken token = verificationService.createVerificationToken(savedUser.getUserId(), savedUser.getEmailAddress());
+    messagePubService.enqueueVerificationMessage(savedUser.getEmailAddress(),
+                                                 savedUser.getFirstName(),
+                                                 savedUser.getUserId().toString(),
+                                                 token.getToken().toString());
+    return savedUser;
+  }
+
   public User updateUser(String email, User user) {
     if (user.getPassword() != null) {
       user.setPassword(passwordEncoder.encode(user.getPassword()));
     }
-    return userDAO.updateUser(email, user);
+    User updatedUser = userDAO.updateUser(email, user);
+    if (user.getPassword() != null) {
+      // Cached checks are tied to the stored hash, so other instances miss on their own; this frees the entry here.
+      authenticationCache.invalidate(email);
+    }
+    return updatedUser;
+  }
+
+  /**
+   * Replaces the stored password hash with one that is already encoded, e.g. when a login
+   * re-encodes a password hashed at an outdated BCrypt cost.
+   */
+  public boolean updatePasswordHash(String email, String passwordHash) {
+    return userDAO.updatePasswordHash(email, passwordHash);
   }
 }
@@ -2,9 +2,15 @@ package com.cloudcomputing.movieRetrievalWebApp.service;
 
 import com.cloudcomputing.movieRetrievalWebApp.dao.VerificationTokenDAO;
 import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.timgroup.statsd.StatsDClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,10 +19,48 @@ import java.util.UUID;
 public class VerificationService {
 
   private final VerificationTokenDAO verificationTokenDAO;
+  private final StatsDClient statsDClient;
+
+  /**
+   * Verification status keyed by email. A verified user never becomes unverified again, so that
+   * state is kept until evicted by size; "unverified" expires quickly so a verification completed
+   * on another instance is picked up.
+   */
+  private final Cache<String, Boolean> verificationStatusCache;
 
   @Autowired
-  public VerificationService(VerificationTokenDAO verificationTokenDAO) {
+  public VerificationService(VerificationTokenDAO verificationTokenDAO,
+                             StatsDClient statsDClient,
+                             @Value("${verification.cache.maxSize:100000}") long maxSize,
+                             @Value("${verification.cache.unverifiedTtlSeconds:30}") long unverifiedTtlSeconds) {
     this.verificationTokenDAO = verificationTokenDAO;
+    this.statsDClient = statsDClient;
+    this.verificationStatusCache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new VerificationStatusExpiry(Duration.ofSeconds(unverifiedTtlSeconds).toNanos()))
+        .build();
+  }
+
+  /**
+   * Check whether the user with the given email has completed verification.
+   * Answered from the verification status cache when possible, otherwise from the user's token.
+   *
+   * @param email The email of the user.
+   * @return true if the user is verified, false otherwise.
+   */
+  public boolean isUserVerified(String email) {
+    Boolean cached = verificationStatusCache.getIfPresent(email);
+    if (cached != null) {
+      statsDClient.incrementCounter("verification.cache.hit");
+      return cached;
+    }
+    statsDClient.incrementCounter("verification.cache.miss");
+
+    boolean verified = verificationTokenDAO.getVerificationTokenByUserEmail(email)
+        .map(token -> Boolean.TRUE.equals(token.getVerificationFlag()))
+        .orElse(false);
+    verificationStatusCache.put(email, verified);
+    return verified;
   }
 
   /**
@@ -111,8 +155,27 @@ public class VerificationService {
       // Update the verification flag
       verificationToken.setVerificationFlag(true);
       verificationTokenDAO.saveVerificationToken(verificationToken);
+      verificationStatusCache.put(verificationToken.getUserEmail(), true);
       return true;
     }
     return false; // Token not found
   }
-}
\ No newline at end of file
+
+  private record VerificationStatusExpiry(long unverifiedTtlNanos) implements Expiry<String, Boolean> {
+
+    @Override
+    public long expireAfterCreate(String email, Boolean verified, long currentTime) {
+      return verified ? Long.MAX_VALUE : unverifiedTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(String email, Boolean verified, long currentTime, long currentDuration) {
+      return expireAfterCreate(email, verified, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String email, Boolean verified, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package com.cloudcomputing.movieRetrievalWebApp.storage;
+
+import com.timgroup.statsd.StatsDClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * {@link ObjectStore} that keeps objects as files under {@code storage.local.root}, so the image
+ * endpoints can run and be load-tested on a single machine without AWS.
+ *
+ * Content is copied with {@link FileChannel#transferFrom} and {@link FileChannel#transferTo}. Between
+ * files and to sockets the kernel moves the bytes itself (copy_file_range / sendfile on Linux), without
+ * staging them in a Java buffer. Writes go to a temporary file that is renamed into place, so readers
+ * never see a partial object.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalFileSystemObjectStore implements ObjectStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalFileSystemObjectStore.class);
+  private static final String TEMP_PREFIX = ".upload-";
+
+  private final Path root;
+  private final StatsDClient statsDClient;
+
+  @Autowired
+  public LocalFileSystemObjectStore(@Value("${storage.local.root:${java.io.tmpdir}/movieRetrievalWebApp/objects}")
+                                    Path root, StatsDClient statsDClient) throws IOException {
+    this.root = Files.createDirectories(root).toRealPath();
+    this.statsDClient = statsDClient;
+    LOGGER.info("Storing objects under {}", this.root);
+  }
+
+  @Override
+  public void put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+    long startTime = System.currentTimeMillis();
+
+    Path target = resolve(key);
+    Files.createDirectories(target.getParent());
+    Path temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, ".tmp");
+    try {
+      try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        if (content instanceof FileInputStream fileInput) {
+          copy(fileInput.getChannel(), out, contentLength);
+        } else {
+          copy(Channels.newChannel(content), out, contentLength);
+        }
+      }
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    statsDClient.recordExecutionTime("storage.local.put.time", System.currentTimeMillis() - startTime);
+  }
+
+  /**
+   * Copies {@code contentLength} bytes into {@code out}. A file source is copied with transferTo,
+   * which stays in the kernel; other streams go through transferFrom's internal buffer.
+   */
+  private static void copy(ReadableByteChannel source, FileChannel out, long contentLength) throws IOException {
+    long position = 0;
+    while (position < contentLength) {
+      long copied = source instanceof FileChannel fileSource
+          ? fileSource.transferTo(fileSource.position(), contentLength - position, out)
+          : out.transferFrom(source, position, contentLength - position);
+      if (copied <= 0) {
+        throw new IOException("Content ended after " + position + " of " + contentLength + " bytes");
+      }
+      if (source instanceof FileChannel fileSource) {
+        fileSource.position(fileSource.position() + copied);
+      }
+      position += copied;
+    }
+  }
+
+  @Override
+  public InputStream get(String key) throws IOException {
+    return Files.newInputStream(existing(key));
+  }
+
+  @Override
+  public long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+    try (FileChannel in = FileChannel.open(existing(key), StandardOpenOption.READ)) {
+      long end = Math.min(position + count, in.size());
+      long transferred = 0;
+      while (position + transferred < end) {
+        long written = in.transferTo(position + transferred, end - position - transferred, target);
+        if (written <= 0) {
+          break;
+        }
+        transferred += written;
+      }
+      return transferred;
+    }
+  }
+
+  @Override
+  public Optional<ObjectMetadata> head(String key) throws IOException {
+    Path path = resolve(key);
+    if (!Files.isRegularFile(path)) {
+      return Optional.empty();
+    }
+    return Optional.of(metadata(key, path));
+  }
+
+  @Override
+  public void delete(String key) throws IOException {
+    long startTime = System.currentTimeMillis();
+
+    Files.deleteIfExists(resolve(key));
+    statsDClient.recordExecutionTime("storage.local.delete.time", System.currentTimeMillis() - startTime);
+  }
+
+  @Override
+  public List<ObjectMetadata> list(String prefix) throws IOException {
+    try (Stream<Path> files = Files.walk(root)) {
+      return files.filter(Files::isRegularFile)
+          .filter(path -> !path.getFileName().toString().startsWith(TEMP_PREFIX))
+          .map(path -> root.relativize(path).toString().replace('\\', '/'))
+          .filter(key -> key.startsWith(prefix))
+          .sorted()
+          .map(key -> {
+            try {
+              return metadata(key, resolve(key));
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          })
+          .toList();
+    }
+  }
+
+  @Override
+  public String location(String key) {
+    return resolve(key).toUri().toString();
+  }
+
+  private ObjectMetadata metadata(String key, Path path) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    return new ObjectMetadata(key, attributes.size(), Files.probeContentType(path),
+        attributes.lastModifiedTime().toInstant());
+  }
+
+  private Path existing(String key) throws NoSuchFileException {
+    Path path = resolve(key);
+    if (!Files.isRegularFile(path)) {
+      throw new NoSuchFileException(key);
+    }
+    return path;
+  }
+
+  /**
+   * Maps a key to a path under the root. The application only writes {@code content/<sha256>} and
+   * {@code content/derivatives/<size>/<sha256>}, but keys still come through the ObjectStore interface
+   * and older rows, so anything that would escape the root ("../", absolute paths) is rejected.
+   */
+  private Path resolve(String key) {
+    Path path = root.resolve(key).normalize();
+    if (key.isEmpty() || !path.startsWith(root) || path.equals(root)) {
+      throw new IllegalArgumentException("Invalid object key: " + key);
+    }
+    return path;
+  }
+}
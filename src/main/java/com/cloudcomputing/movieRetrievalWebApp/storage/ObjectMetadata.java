@@ -0,0 +1,9 @@
+package com.cloudcomputing.movieRetrievalWebApp.storage;
+
+import java.time.Instant;
+
+/**
+ * Size, content type and modification time of a stored object.
+ */
+public record ObjectMetadata(String key, long contentLength, String contentType, Instant lastModified) {
+}
@@ -0,0 +1,57 @@
+package com.cloudcomputing.movieRetrievalWebApp.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Blob storage for uploaded images, addressed by slash-separated keys such as {@code userId/file.png}.
+ *
+ * Content always moves as a stream or channel, never as a whole byte array, so memory use does not
+ * depend on object size. The implementation is chosen with {@code storage.backend}: {@code s3}
+ * (default) or {@code local}. A missing key is reported as {@link java.nio.file.NoSuchFileException}.
+ */
+public interface ObjectStore {
+
+  /**
+   * Stores {@code contentLength} bytes read from {@code content} under {@code key}, replacing any
+   * existing object. The caller keeps ownership of the stream.
+   */
+  void put(String key, InputStream content, long contentLength, String contentType) throws IOException;
+
+  /**
+   * Opens the object for reading; the caller must close the returned stream.
+   */
+  InputStream get(String key) throws IOException;
+
+  /**
+   * Copies {@code count} bytes of the object starting at {@code position} to {@code target},
+   * returning the number of bytes written. Backends that can, hand the copy to the kernel.
+   */
+  long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+  Optional<ObjectMetadata> head(String key) throws IOException;
+
+  /**
+   * Deletes the object; deleting a missing key is not an error.
+   */
+  void delete(String key) throws IOException;
+
+  List<ObjectMetadata> list(String prefix) throws IOException;
+
+  /**
+   * The location recorded for the object on its image row, e.g. {@code bucket/key} for S3.
+   */
+  String location(String key);
+
+  /**
+   * A time-limited URL clients can download the object from directly, if the backend supports it.
+   */
+  default Optional<URI> presignedUrl(String key, Duration ttl) {
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,287 @@
+package com.cloudcomputing.movieRetrievalWebApp.storage;
+
+import com.timgroup.statsd.StatsDClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.BlockingInputStreamAsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.Upload;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+/**
+ * {@link ObjectStore} backed by an S3 bucket. Objects above the multipart threshold are uploaded
+ * in parts, either concurrently through the transfer manager or one part at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3ObjectStore implements ObjectStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(S3ObjectStore.class);
+
+  // S3 rejects multipart parts smaller than 5 MiB (except the last one).
+  private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+  @Value("${cloud.aws.s3.bucket-name}")
+  private String bucketName;
+
+  @Value("${cloud.aws.s3.multipartThreshold:16777216}")
+  private long multipartThreshold;
+
+  @Value("${cloud.aws.s3.partSize:8388608}")
+  private int partSize;
+
+  // "sync" sends large files one part at a time through a single reused part buffer. "transfer-manager"
+  // uploads parts concurrently, but the SDK buffers up to partSize * maxConcurrency bytes per upload.
+  @Value("${cloud.aws.s3.uploadMode:sync}")
+  private String uploadMode;
+
+  @Autowired
+  private S3Client s3Client;
+
+  @Autowired
+  private S3TransferManager s3TransferManager;
+
+  @Autowired
+  private S3Presigner s3Presigner;
+
+  @Autowired
+  private StatsDClient statsDClient;
+
+  @Override
+  public void put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+    long startTime = System.currentTimeMillis();
+
+    if (contentLength > multipartThreshold && "transfer-manager".equals(uploadMode)) {
+      uploadWithTransferManager(key, content, contentLength, contentType);
+    } else if (contentLength > multipartThreshold) {
+      uploadMultipart(key, content, contentType);
+    } else {
+      PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+              .bucket(bucketName)
+              .key(key)
+              .contentType(contentType)
+              .contentLength(contentLength)
+              .build();
+
+      s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(content, contentLength));
+    }
+    statsDClient.recordExecutionTime("aws.s3.uploadImage.time", System.currentTimeMillis() - startTime);
+  }
+
+  /**
+   * Uploads through the S3 transfer manager, whose async client splits the content into parts and
+   * uploads up to {@code cloud.aws.s3.maxConcurrency} of them at once. The calling thread feeds the
+   * stream into the upload and waits for it to finish; progress and throughput are reported by
+   * {@link S3TransferMetricsListener}.
+   */
+  private void uploadWithTransferManager(String key, InputStream content, long contentLength, String contentType)
+      throws IOException {
+    PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .contentType(contentType)
+            .build();
+
+    BlockingInputStreamAsyncRequestBody requestBody = AsyncRequestBody.forBlockingInputStream(contentLength);
+    Upload upload = s3TransferManager.upload(UploadRequest.builder()
+            .putObjectRequest(putObjectRequest)
+            .requestBody(requestBody)
+            .addTransferListener(new S3TransferMetricsListener(statsDClient))
+            .build());
+
+    try {
+      requestBody.writeInputStream(content);
+      upload.completionFuture().join();
+    } catch (CompletionException e) {
+      LOGGER.warn("Transfer of {} failed: {}", key, String.valueOf(e.getCause()));
+      if (e.getCause() instanceof SdkException sdkException) {
+        throw sdkException;
+      }
+      throw new IOException("Upload of " + key + " failed", e.getCause());
+    } catch (RuntimeException e) {
+      upload.completionFuture().cancel(true);
+      throw e;
+    }
+  }
+
+  /**
+   * Uploads as an S3 multipart upload, reading the content part by part into a single reused buffer
+   * so memory use is bounded by the part size rather than the object size. The upload is aborted if
+   * any part fails, so no orphaned parts are left behind.
+   */
+  private void uploadMultipart(String key, InputStream content, String contentType) throws IOException {
+    String partContentType = contentType != null ? contentType : "application/octet-stream";
+    String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .contentType(partContentType)
+            .build()).uploadId();
+    statsDClient.incrementCounter("aws.s3.uploadImage.multipart");
+
+    byte[] buffer = new byte[Math.max(partSize, MIN_PART_SIZE)];
+    List<CompletedPart> completedParts = new ArrayList<>();
+    try {
+      int partNumber = 1;
+      int length;
+      while ((length = content.readNBytes(buffer, 0, buffer.length)) > 0) {
+        final int partLength = length;
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) partLength)
+                .build();
+
+        // The provider hands out a fresh view of the buffer on every (re)try without copying it.
+        String eTag = s3Client.uploadPart(uploadPartRequest, RequestBody.fromContentProvider(
+                () -> new ByteArrayInputStream(buffer, 0, partLength), partLength, partContentType)).eTag();
+        completedParts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+        partNumber++;
+      }
+
+      s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+              .bucket(bucketName)
+              .key(key)
+              .uploadId(uploadId)
+              .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+              .build());
+    } catch (IOException | SdkException e) {
+      LOGGER.warn("Multipart upload of {} failed, aborting: {}", key, e.getMessage());
+      try {
+        s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .build());
+      } catch (SdkException abortFailure) {
+        e.addSuppressed(abortFailure);
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public InputStream get(String key) throws IOException {
+    return getObject(GetObjectRequest.builder().bucket(bucketName).key(key).build());
+  }
+
+  @Override
+  public long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+    if (count <= 0) {
+      return 0;
+    }
+    // Ask S3 for just the requested range rather than skipping through the whole object.
+    GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .range("bytes=" + position + "-" + (position + count - 1))
+            .build();
+    try (InputStream content = getObject(getObjectRequest)) {
+      return content.transferTo(Channels.newOutputStream(target));
+    }
+  }
+
+  private ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest getObjectRequest)
+      throws NoSuchFileException {
+    try {
+      return s3Client.getObject(getObjectRequest);
+    } catch (NoSuchKeyException e) {
+      throw new NoSuchFileException(getObjectRequest.key());
+    }
+  }
+
+  @Override
+  public Optional<ObjectMetadata> head(String key) {
+    try {
+      HeadObjectResponse response = s3Client.headObject(HeadObjectRequest.builder()
+              .bucket(bucketName)
+              .key(key)
+              .build());
+      return Optional.of(new ObjectMetadata(key, response.contentLength(), response.contentType(),
+              response.lastModified()));
+    } catch (NoSuchKeyException e) {
+      return Optional.empty();
+    } catch (S3Exception e) {
+      if (e.statusCode() == 404) {
+        return Optional.empty();
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void delete(String key) {
+    long startTime = System.currentTimeMillis();
+
+    s3Client.deleteObject(DeleteObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .build());
+    statsDClient.recordExecutionTime("aws.s3.deleteImage.time", System.currentTimeMillis() - startTime);
+  }
+
+  @Override
+  public List<ObjectMetadata> list(String prefix) {
+    ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
+            .bucket(bucketName)
+            .prefix(prefix)
+            .build();
+
+    // Listings don't carry the content type; callers that need it can head() the object.
+    return s3Client.listObjectsV2Paginator(listRequest).contents().stream()
+            .map(s3Object -> new ObjectMetadata(s3Object.key(), s3Object.size(), null, s3Object.lastModified()))
+            .toList();
+  }
+
+  @Override
+  public String location(String key) {
+    return bucketName + "/" + key;
+  }
+
+  /**
+   * Signs a GET URL locally with the configured credentials; no request is made to S3.
+   */
+  @Override
+  public Optional<URI> presignedUrl(String key, Duration ttl) {
+    long startTime = System.nanoTime();
+
+    GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+            .signatureDuration(ttl)
+            .getObjectRequest(request -> request.bucket(bucketName).key(key))
+            .build();
+    try {
+      return Optional.of(s3Presigner.presignGetObject(presignRequest).url().toURI());
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException("Presigned URL for " + key + " is not a valid URI", e);
+    } finally {
+      statsDClient.recordExecutionTime("aws.s3.presignImage.time", (System.nanoTime() - startTime) / 1_000_000);
+    }
+  }
+}
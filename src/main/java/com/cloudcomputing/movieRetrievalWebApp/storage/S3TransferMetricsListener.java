@@ -0,0 +1,52 @@
+package com.cloudcomputing.movieRetrievalWebApp.storage;
+
+import com.timgroup.statsd.StatsDClient;
+import software.amazon.awssdk.transfer.s3.progress.TransferListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports the progress of a single S3 transfer to StatsD: transferred bytes as they are acknowledged,
+ * and the duration and average throughput once the transfer completes. One instance per transfer.
+ */
+class S3TransferMetricsListener implements TransferListener {
+
+  private final StatsDClient statsDClient;
+  private final AtomicLong reportedBytes = new AtomicLong();
+  private volatile long startNanos;
+
+  S3TransferMetricsListener(StatsDClient statsDClient) {
+    this.statsDClient = statsDClient;
+  }
+
+  @Override
+  public void transferInitiated(Context.TransferInitiated context) {
+    startNanos = System.nanoTime();
+    statsDClient.incrementCounter("aws.s3.transfer.started");
+  }
+
+  @Override
+  public void bytesTransferred(Context.BytesTransferred context) {
+    long transferred = context.progressSnapshot().transferredBytes();
+    long delta = transferred - reportedBytes.getAndAccumulate(transferred, Math::max);
+    if (delta > 0) {
+      statsDClient.count("aws.s3.transfer.bytes", delta);
+    }
+  }
+
+  @Override
+  public void transferComplete(Context.TransferComplete context) {
+    long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+    long transferred = context.progressSnapshot().transferredBytes();
+    bytesTransferred(context);
+
+    statsDClient.recordExecutionTime("aws.s3.transfer.time", elapsedNanos / 1_000_000);
+    statsDClient.recordGaugeValue("aws.s3.transfer.throughput_bytes_per_sec",
+        (long) (transferred * 1_000_000_000.0 / elapsedNanos));
+  }
+
+  @Override
+  public void transferFailed(Context.TransferFailed context) {
+    statsDClient.incrementCounter("aws.s3.transfer.failed");
+  }
+}
@@ -0,0 +1,76 @@
+package com.cloudcomputing.movieRetrievalWebApp.benchmark;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AccessTokenService;
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticationCache;
+import com.timgroup.statsd.NoOpStatsDClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request credential check for each authentication mode:
+ * HTTP Basic without the cache (BCrypt verify), HTTP Basic with a cache hit, and a signed bearer token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationCostBenchmark {
+
+  private static final String EMAIL = "bench@example.com";
+  private static final String PASSWORD = "benchmark-password";
+
+  private BCryptPasswordEncoder passwordEncoder;
+  private String passwordHash;
+  private AuthenticationCache authenticationCache;
+  private AccessTokenService accessTokenService;
+  private String accessToken;
+
+  @Setup
+  public void setUp() {
+    passwordEncoder = new BCryptPasswordEncoder();
+    passwordHash = passwordEncoder.encode(PASSWORD);
+
+    authenticationCache = new AuthenticationCache(new NoOpStatsDClient(), true, 10_000, 300);
+    authenticationCache.put(EMAIL, PASSWORD, passwordHash);
+
+    accessTokenService = new AccessTokenService(BenchmarkContexts.TOKEN_SECRET, 900, new StandardEnvironment());
+    accessToken = accessTokenService.issueToken(UUID.randomUUID(), EMAIL, true);
+  }
+
+  @Benchmark
+  public boolean basicAuthBcrypt() {
+    return passwordEncoder.matches(PASSWORD, passwordHash);
+  }
+
+  @Benchmark
+  public boolean basicAuthCacheHit() {
+    return authenticationCache.matches(EMAIL, PASSWORD, passwordHash);
+  }
+
+  @Benchmark
+  public Object bearerToken() {
+    return accessTokenService.parseToken(accessToken);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(AuthenticationCostBenchmark.class.getSimpleName()).build()).run();
+  }
+}
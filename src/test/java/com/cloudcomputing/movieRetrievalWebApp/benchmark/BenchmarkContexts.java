@@ -0,0 +1,50 @@
+package com.cloudcomputing.movieRetrievalWebApp.benchmark;
+
+import com.cloudcomputing.movieRetrievalWebApp.MovieRetrievalWebAppApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Starts the application against an in-memory H2 database so benchmarks can exercise the real
+ * Spring Data / Hibernate stack without MySQL or AWS credentials.
+ */
+public final class BenchmarkContexts {
+
+  // Any Base64 key will do; the application refuses to start without one outside tests.
+  public static final String TOKEN_SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+  private BenchmarkContexts() {
+  }
+
+  public static Map<String, Object> embeddedProperties() {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put("spring.datasource.url", "jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1");
+    properties.put("spring.datasource.username", "sa");
+    properties.put("spring.datasource.password", "");
+    properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+    properties.put("cloud.aws.region.static", "us-east-1");
+    properties.put("cloud.aws.s3.bucket-name", "benchmark-bucket");
+    properties.put("cloud.aws.sns.topic-arn", "arn:aws:sns:us-east-1:000000000000:benchmark");
+    properties.put("cloud.aws.credentials.access-key", "benchmark");
+    properties.put("cloud.aws.credentials.secret-key", "benchmark");
+    properties.put("auth.token.secret", TOKEN_SECRET);
+    properties.put("statsd.publishMessage", "false");
+    properties.put("logging.level.root", "WARN");
+    return properties;
+  }
+
+  public static ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                                     Map<String, Object> overrides) {
+    Map<String, Object> properties = embeddedProperties();
+    properties.putAll(overrides);
+    return new SpringApplicationBuilder(MovieRetrievalWebAppApplication.class)
+        .web(webApplicationType)
+        .properties(properties)
+        .run();
+  }
+}
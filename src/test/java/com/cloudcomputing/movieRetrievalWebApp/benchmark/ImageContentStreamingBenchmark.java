@@ -0,0 +1,139 @@
+package com.cloudcomputing.movieRetrievalWebApp.benchmark;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AccessTokenService;
+import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.model.User;
+import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
+import com.cloudcomputing.movieRetrievalWebApp.repository.ImageRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.UserRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.VerificationTokenRepository;
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
+import com.cloudcomputing.movieRetrievalWebApp.support.SyntheticMultipartFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to download an image through GET /v1/user/self/pic/content over real HTTP, from the local
+ * filesystem store. Divide the object size by the average time for throughput. The heap is capped
+ * well below the largest object to show the body is streamed, not buffered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx256m"})
+public class ImageContentStreamingBenchmark {
+
+  private static final long MB = 1024 * 1024;
+
+  @Param({"16", "512"})
+  public int fileSizeMb;
+
+  @Param({"8192", "65536"})
+  public int bufferSize;
+
+  private Path storageRoot;
+  private ConfigurableApplicationContext context;
+  private HttpClient httpClient;
+  private URI contentUri;
+  private String authorization;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    storageRoot = Files.createTempDirectory("content-benchmark");
+    context = BenchmarkContexts.start(WebApplicationType.SERVLET, Map.of(
+        "server.port", "0",
+        "storage.backend", "local",
+        "storage.local.root", storageRoot.toString(),
+        "image.content.bufferSize", Integer.toString(bufferSize)));
+
+    User user = context.getBean(UserRepo.class).save(new User("bench@example.com", "{noop}unused", "Bench", "User"));
+    VerificationToken token = new VerificationToken();
+    token.setToken(UUID.randomUUID());
+    token.setUserId(user.getUserId());
+    token.setUserEmail(user.getEmailAddress());
+    token.setExpiryDate(LocalDateTime.now().plusDays(1));
+    token.setVerificationFlag(true);
+    context.getBean(VerificationTokenRepository.class).save(token);
+
+    String objectKey = user.getUserId() + "/image.png";
+    SyntheticMultipartFile file = new SyntheticMultipartFile(fileSizeMb * MB);
+    try (InputStream content = file.getInputStream()) {
+      context.getBean(ObjectStore.class).put(objectKey, content, file.getSize(), "image/png");
+    }
+    Image image = new Image();
+    image.setUserId(user.getUserId());
+    image.setFileName("image.png");
+    image.setObjectKey(objectKey);
+    image.setUrl(objectKey);
+    context.getBean(ImageRepo.class).save(image);
+
+    // A bearer token keeps BCrypt out of the measurement.
+    authorization = "Bearer " + context.getBean(AccessTokenService.class)
+        .issueToken(user.getUserId(), user.getEmailAddress(), true);
+    contentUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+        + "/v1/user/self/pic/content");
+    httpClient = HttpClient.newHttpClient();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    context.close();
+    FileSystemUtils.deleteRecursively(storageRoot);
+  }
+
+  @Benchmark
+  public long fullContent() throws Exception {
+    return download(HttpRequest.newBuilder(contentUri).header("Authorization", authorization));
+  }
+
+  @Benchmark
+  public long oneMegabyteRange() throws Exception {
+    return download(HttpRequest.newBuilder(contentUri)
+        .header("Authorization", authorization)
+        .header("Range", "bytes=" + (fileSizeMb / 2) * MB + "-" + ((fileSizeMb / 2 + 1) * MB - 1)));
+  }
+
+  private long download(HttpRequest.Builder request) throws Exception {
+    HttpResponse<InputStream> response = httpClient.send(request.GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+    try (InputStream body = response.body()) {
+      return body.transferTo(OutputStream.nullOutputStream());
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ImageContentStreamingBenchmark.class.getSimpleName()).build()).run();
+  }
+}
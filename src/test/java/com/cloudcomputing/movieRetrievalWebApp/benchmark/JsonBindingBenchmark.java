@@ -0,0 +1,103 @@
+package com.cloudcomputing.movieRetrievalWebApp.benchmark;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.JacksonConfig;
+import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCreateDTO;
+import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of binding a signup request body to UserCreateDTO and of writing a UserResponseDTO.
+ *
+ * {@code perRequestMapper} is the old path: the body parsed to a Map and converted with a new
+ * ObjectMapper on every request. The other variants use one shared mapper, configured like the
+ * application's, with and without the Blackbird module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBindingBenchmark {
+
+  private static final String SIGNUP_BODY = "{\"emailAddress\":\"bench@example.com\",\"password\":\"benchmark-password\","
+      + "\"firstName\":\"Bench\",\"lastName\":\"Mark\"}";
+
+  private ObjectMapper sharedMapper;
+  private ObjectMapper blackbirdMapper;
+  private UserResponseDTO response;
+
+  @Setup
+  public void setUp() {
+    JacksonConfig jacksonConfig = new JacksonConfig();
+
+    Jackson2ObjectMapperBuilder shared = Jackson2ObjectMapperBuilder.json();
+    jacksonConfig.strictJsonBinding().customize(shared);
+    sharedMapper = shared.build();
+
+    Jackson2ObjectMapperBuilder blackbird = Jackson2ObjectMapperBuilder.json();
+    jacksonConfig.strictJsonBinding().customize(blackbird);
+    blackbird.modulesToInstall(jacksonConfig.blackbirdModule());
+    blackbirdMapper = blackbird.build();
+
+    LocalDateTime now = LocalDateTime.now();
+    response = new UserResponseDTO();
+    response.setId(UUID.randomUUID());
+    response.setEmail("bench@example.com");
+    response.setFirst_name("Bench");
+    response.setLast_name("Mark");
+    response.setAccount_created(now.toString());
+    response.setAccount_updated(now.toString());
+  }
+
+  @Benchmark
+  public UserCreateDTO parsePerRequestMapper() throws JsonProcessingException {
+    Map<String, Object> body = sharedMapper.readValue(SIGNUP_BODY, new TypeReference<Map<String, Object>>() { });
+    return new ObjectMapper().convertValue(body, UserCreateDTO.class);
+  }
+
+  @Benchmark
+  public UserCreateDTO parseSharedMapper() throws JsonProcessingException {
+    return sharedMapper.readValue(SIGNUP_BODY, UserCreateDTO.class);
+  }
+
+  @Benchmark
+  public UserCreateDTO parseSharedMapperBlackbird() throws JsonProcessingException {
+    return blackbirdMapper.readValue(SIGNUP_BODY, UserCreateDTO.class);
+  }
+
+  @Benchmark
+  public byte[] writeSharedMapper() throws JsonProcessingException {
+    return sharedMapper.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] writeSharedMapperBlackbird() throws JsonProcessingException {
+    return blackbirdMapper.writeValueAsBytes(response);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(JsonBindingBenchmark.class.getSimpleName()).build()).run();
+  }
+}
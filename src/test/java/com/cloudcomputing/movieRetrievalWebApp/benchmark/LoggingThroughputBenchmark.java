@@ -0,0 +1,132 @@
+package com.cloudcomputing.movieRetrievalWebApp.benchmark;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AccessTokenService;
+import com.cloudcomputing.movieRetrievalWebApp.model.User;
+import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
+import com.cloudcomputing.movieRetrievalWebApp.repository.UserRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.VerificationTokenRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of POST /v1/user and GET /v1/user/self over real HTTP with eight concurrent clients
+ * while the application logs at INFO to a file, as it does when deployed, with the file appender
+ * written synchronously or behind the asynchronous queue, and with and without the per-logger rate
+ * limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class LoggingThroughputBenchmark {
+
+  @Param({"false", "true"})
+  public boolean asyncEnabled;
+
+  @Param({"0", "100"})
+  public long eventsPerSecond;
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  private Path logDirectory;
+  private ConfigurableApplicationContext context;
+  private HttpClient httpClient;
+  private URI signupUri;
+  private URI selfUri;
+  private String authorization;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    logDirectory = Files.createTempDirectory("logging-benchmark");
+    context = BenchmarkContexts.start(WebApplicationType.SERVLET, Map.of(
+        "server.port", "0",
+        "auth.bcrypt.strength", "4",
+        "outbox.dispatch.enabled", "false",
+        "logging.file.name", logDirectory.resolve("benchmark.log").toString(),
+        "logging.threshold.console", "OFF",
+        "logging.level.com.cloudcomputing.movieRetrievalWebApp", "INFO",
+        "logging.async.enabled", Boolean.toString(asyncEnabled),
+        "logging.rateLimit.eventsPerSecond", Long.toString(eventsPerSecond)));
+
+    User user = context.getBean(UserRepo.class).save(new User("bench@example.com", "{noop}unused", "Bench", "User"));
+    VerificationToken token = new VerificationToken();
+    token.setToken(UUID.randomUUID());
+    token.setUserId(user.getUserId());
+    token.setUserEmail(user.getEmailAddress());
+    token.setExpiryDate(LocalDateTime.now().plusDays(1));
+    token.setVerificationFlag(true);
+    context.getBean(VerificationTokenRepository.class).save(token);
+
+    // A bearer token keeps BCrypt out of the measurement.
+    authorization = "Bearer " + context.getBean(AccessTokenService.class)
+        .issueToken(user.getUserId(), user.getEmailAddress(), true);
+    String baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    signupUri = URI.create(baseUri + "/v1/user");
+    selfUri = URI.create(baseUri + "/v1/user/self");
+    httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    context.close();
+    FileSystemUtils.deleteRecursively(logDirectory);
+  }
+
+  @Benchmark
+  public int signup() throws IOException, InterruptedException {
+    String body = "{\"emailAddress\":\"signup" + sequence.incrementAndGet() + "@example.com\","
+        + "\"password\":\"benchmark-password\",\"firstName\":\"Bench\",\"lastName\":\"Mark\"}";
+    HttpRequest request = HttpRequest.newBuilder(signupUri)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+    return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+  @Benchmark
+  public int getSelf() throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(selfUri)
+        .header("Authorization", authorization)
+        .GET()
+        .build();
+    return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(LoggingThroughputBenchmark.class.getSimpleName()).build()).run();
+  }
+}
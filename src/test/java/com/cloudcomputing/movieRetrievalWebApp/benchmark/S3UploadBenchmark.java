@@ -0,0 +1,106 @@
+package com.cloudcomputing.movieRetrievalWebApp.benchmark;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AwsS3Config;
+import com.cloudcomputing.movieRetrievalWebApp.support.LocalS3StandIn;
+import com.cloudcomputing.movieRetrievalWebApp.support.SyntheticMultipartFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.BlockingInputStreamAsyncRequestBody;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.Upload;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time to upload one file through a single streamed PutObject versus the transfer
+ * manager's concurrent multipart upload. The local S3 stand-in limits each connection's bandwidth
+ * and adds per-request latency, like a remote bucket where one TCP stream cannot fill the link.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class S3UploadBenchmark {
+
+  private static final long MB = 1024 * 1024;
+
+  @Param({"64"})
+  public int fileSizeMb;
+
+  @Param({"20", "50"})
+  public int connectionMbPerSecond;
+
+  @Param({"20"})
+  public int latencyMillis;
+
+  private LocalS3StandIn standIn;
+  private S3Client s3Client;
+  private S3AsyncClient s3AsyncClient;
+  private S3TransferManager s3TransferManager;
+
+  @Setup
+  public void setUp() throws IOException {
+    standIn = new LocalS3StandIn(connectionMbPerSecond * MB, latencyMillis);
+    AwsS3Config config = standIn.s3Config(16 * MB, 8 * MB, 8);
+    s3Client = config.s3Client();
+    s3AsyncClient = config.s3AsyncClient();
+    s3TransferManager = config.s3TransferManager(s3AsyncClient);
+  }
+
+  @TearDown
+  public void tearDown() {
+    s3TransferManager.close();
+    s3AsyncClient.close();
+    s3Client.close();
+    standIn.close();
+  }
+
+  @Benchmark
+  public Object singlePut() throws IOException {
+    SyntheticMultipartFile file = new SyntheticMultipartFile(fileSizeMb * MB);
+    try (InputStream inputStream = file.getInputStream()) {
+      return s3Client.putObject(request -> request.bucket("bench").key("single"),
+          RequestBody.fromInputStream(inputStream, file.getSize()));
+    }
+  }
+
+  @Benchmark
+  public Object transferManager() throws IOException {
+    SyntheticMultipartFile file = new SyntheticMultipartFile(fileSizeMb * MB);
+    BlockingInputStreamAsyncRequestBody requestBody = AsyncRequestBody.forBlockingInputStream(file.getSize());
+    Upload upload = s3TransferManager.upload(UploadRequest.builder()
+        .putObjectRequest(request -> request.bucket("bench").key("multipart"))
+        .requestBody(requestBody)
+        .build());
+    try (InputStream inputStream = file.getInputStream()) {
+      requestBody.writeInputStream(inputStream);
+    }
+    return upload.completionFuture().join();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(S3UploadBenchmark.class.getSimpleName()).build()).run();
+  }
+}
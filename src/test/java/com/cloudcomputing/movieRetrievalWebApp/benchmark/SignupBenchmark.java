@@ -0,0 +1,98 @@
+package com.cloudcomputing.movieRetrievalWebApp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signup throughput of POST /v1/user over real HTTP with eight concurrent clients, for new email
+ * addresses and for one that is already taken. BCrypt runs at its minimum cost so the database
+ * round trips of the signup path, not password hashing, dominate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class SignupBenchmark {
+
+  private static final String DUPLICATE_EMAIL = "taken@example.com";
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  private ConfigurableApplicationContext context;
+  private HttpClient httpClient;
+  private URI signupUri;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException, InterruptedException {
+    context = BenchmarkContexts.start(WebApplicationType.SERVLET, Map.of(
+        "server.port", "0",
+        "auth.bcrypt.strength", "4",
+        "outbox.dispatch.enabled", "false"));
+    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+    signupUri = URI.create("http://localhost:" + port + "/v1/user");
+    httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    int status = signUp(DUPLICATE_EMAIL);
+    if (status != 201) {
+      throw new IllegalStateException("Seeding the taken email failed with HTTP " + status);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public int newUser() throws IOException, InterruptedException {
+    return signUp("signup" + sequence.incrementAndGet() + "@example.com");
+  }
+
+  @Benchmark
+  public int takenEmail() throws IOException, InterruptedException {
+    return signUp(DUPLICATE_EMAIL);
+  }
+
+  private int signUp(String email) throws IOException, InterruptedException {
+    String body = "{\"emailAddress\":\"" + email + "\",\"password\":\"benchmark-password\","
+        + "\"firstName\":\"Bench\",\"lastName\":\"Mark\"}";
+    HttpRequest request = HttpRequest.newBuilder(signupUri)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+    return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(SignupBenchmark.class.getSimpleName()).build()).run();
+  }
+}
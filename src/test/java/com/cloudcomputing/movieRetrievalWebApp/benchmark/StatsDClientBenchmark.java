@@ -0,0 +1,130 @@
+package com.cloudcomputing.movieRetrievalWebApp.benchmark;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AggregatingStatsDClient;
+import com.timgroup.statsd.NonBlockingStatsDClient;
+import com.timgroup.statsd.StatsDClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-call cost of the StatsD client on the request path, and the datagrams it sends under load.
+ *
+ * Each operation is what a typical request records: a counter increment and a timer.
+ * {@code nonBlocking} is NonBlockingStatsDClient, which formats a message and hands it to a sender
+ * thread for every call; {@code aggregating} is AggregatingStatsDClient flushing every second.
+ * Datagrams go to a receiver on the loopback interface, which prints after each iteration how many
+ * packets and metric lines per second it received. The sender thread of NonBlockingStatsDClient
+ * shares the CPUs with the benchmark threads, so part of its cost shows up as lower throughput of
+ * the callers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class StatsDClientBenchmark {
+
+  @Param({"nonBlocking", "aggregating"})
+  public String client;
+
+  private final AtomicLong packets = new AtomicLong();
+  private final AtomicLong lines = new AtomicLong();
+  private DatagramChannel receiver;
+  private Thread receiverThread;
+  private StatsDClient statsDClient;
+  private long iterationStart;
+
+  @Setup
+  public void setUp() throws IOException {
+    receiver = DatagramChannel.open();
+    receiver.setOption(StandardSocketOptions.SO_RCVBUF, 8 * 1024 * 1024);
+    receiver.bind(new InetSocketAddress("127.0.0.1", 0));
+    receiverThread = new Thread(this::receive, "statsd-receiver");
+    receiverThread.setDaemon(true);
+    receiverThread.start();
+
+    int port = ((InetSocketAddress) receiver.getLocalAddress()).getPort();
+    statsDClient = "aggregating".equals(client)
+        ? new AggregatingStatsDClient("bench", "127.0.0.1", port, 1000, 1432)
+        : new NonBlockingStatsDClient("bench", "127.0.0.1", port);
+  }
+
+  private void receive() {
+    ByteBuffer buffer = ByteBuffer.allocate(65536);
+    try {
+      while (true) {
+        buffer.clear();
+        receiver.receive(buffer);
+        packets.incrementAndGet();
+        long newlines = 1;
+        for (int i = 0; i < buffer.position(); i++) {
+          if (buffer.get(i) == '\n') {
+            newlines++;
+          }
+        }
+        lines.addAndGet(newlines);
+      }
+    } catch (ClosedChannelException e) {
+      // Trial finished.
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void startIteration() {
+    packets.set(0);
+    lines.set(0);
+    iterationStart = System.nanoTime();
+  }
+
+  @TearDown(Level.Iteration)
+  public void reportIteration() {
+    double seconds = (System.nanoTime() - iterationStart) / 1e9;
+    System.out.printf("%n%s: %.0f packets/s, %.0f metric lines/s%n", client, packets.get() / seconds,
+        lines.get() / seconds);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException, InterruptedException {
+    statsDClient.stop();
+    receiver.close();
+    receiverThread.join();
+  }
+
+  @Benchmark
+  public void recordRequest() {
+    statsDClient.incrementCounter("api.user.get.count");
+    statsDClient.recordExecutionTime("db.query.user.time", 3);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(StatsDClientBenchmark.class.getSimpleName()).build()).run();
+  }
+}
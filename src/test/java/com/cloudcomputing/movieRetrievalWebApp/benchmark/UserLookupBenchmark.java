@@ -0,0 +1,101 @@
+package com.cloudcomputing.movieRetrievalWebApp.benchmark;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.UserDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures UserDAO email lookups as the users table grows from 1k to 1M rows.
+ * With the unique index on users.email_address the latency should stay flat across table sizes.
+ *
+ * Run with: java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main UserLookupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class UserLookupBenchmark {
+
+  private static final int INSERT_BATCH_SIZE = 10_000;
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int userCount;
+
+  private ConfigurableApplicationContext context;
+  private UserDAO userDAO;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContexts.start(WebApplicationType.NONE, Map.of());
+    userDAO = context.getBean(UserDAO.class);
+    seedUsers(context.getBean(JdbcTemplate.class));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Object getUserByEmail() {
+    return userDAO.getUserByEmail(randomEmail());
+  }
+
+  @Benchmark
+  public boolean existsByEmail() {
+    return userDAO.existsByEmail(randomEmail());
+  }
+
+  private String randomEmail() {
+    return "bench" + ThreadLocalRandom.current().nextInt(userCount) + "@example.com";
+  }
+
+  private void seedUsers(JdbcTemplate jdbcTemplate) {
+    String sql = "INSERT INTO users (user_id, email_address, password, first_name, last_name, account_created, "
+        + "account_updated) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+    for (int i = 0; i < userCount; i++) {
+      batch.add(new Object[] {UUID.randomUUID(), "bench" + i + "@example.com", "hash", "First" + i, "Last" + i, now, now});
+      if (batch.size() == INSERT_BATCH_SIZE) {
+        jdbcTemplate.batchUpdate(sql, batch);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      jdbcTemplate.batchUpdate(sql, batch);
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(UserLookupBenchmark.class.getSimpleName()).build()).run();
+  }
+}
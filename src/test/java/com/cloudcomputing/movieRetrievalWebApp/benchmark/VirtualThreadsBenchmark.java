@@ -0,0 +1,140 @@
+package com.cloudcomputing.movieRetrievalWebApp.benchmark;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AccessTokenService;
+import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.model.User;
+import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
+import com.cloudcomputing.movieRetrievalWebApp.repository.ImageRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.UserRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.VerificationTokenRepository;
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
+import com.cloudcomputing.movieRetrievalWebApp.support.LocalS3StandIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of GET /v1/user/self/pic/content over real HTTP when S3 is slow, with request handling
+ * on platform threads and on virtual threads. Each request makes two calls to a local S3 stand-in
+ * that answers after {@code latencyMillis}: HeadObject on the request thread, then a ranged
+ * GetObject while the body streams on Spring MVC's async executor. Every invocation sends
+ * {@value #CONCURRENT_REQUESTS} requests at once and waits for all of them, so the score is requests
+ * per second with that many in flight. The S3 client may open as many connections as there are
+ * requests, so only the threads differ.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// The stand-in otherwise closes kept-alive connections beyond 200, which the S3 client would then reuse.
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.maxIdleConnections=1000")
+public class VirtualThreadsBenchmark {
+
+  private static final int CONCURRENT_REQUESTS = 400;
+
+  @Param({"false", "true"})
+  public boolean virtualThreads;
+
+  @Param({"100"})
+  public long latencyMillis;
+
+  private LocalS3StandIn standIn;
+  private ConfigurableApplicationContext context;
+  private HttpClient httpClient;
+  private HttpRequest contentRequest;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    standIn = new LocalS3StandIn(0, latencyMillis);
+    context = BenchmarkContexts.start(WebApplicationType.SERVLET, Map.of(
+        "server.port", "0",
+        "outbox.dispatch.enabled", "false",
+        "cloud.aws.s3.endpoint", standIn.endpoint().toString(),
+        "cloud.aws.s3.pathStyleAccess", "true",
+        "cloud.aws.http.maxConnections", Integer.toString(CONCURRENT_REQUESTS),
+        "spring.threads.virtual.enabled", Boolean.toString(virtualThreads)));
+
+    User user = context.getBean(UserRepo.class).save(new User("bench@example.com", "{noop}unused", "Bench", "User"));
+    VerificationToken token = new VerificationToken();
+    token.setToken(UUID.randomUUID());
+    token.setUserId(user.getUserId());
+    token.setUserEmail(user.getEmailAddress());
+    token.setExpiryDate(LocalDateTime.now().plusDays(1));
+    token.setVerificationFlag(true);
+    context.getBean(VerificationTokenRepository.class).save(token);
+
+    String objectKey = user.getUserId() + "/image.png";
+    context.getBean(ObjectStore.class).put(objectKey, new ByteArrayInputStream(new byte[4096]), 4096, "image/png");
+    Image image = new Image();
+    image.setUserId(user.getUserId());
+    image.setFileName("image.png");
+    image.setObjectKey(objectKey);
+    image.setUrl(objectKey);
+    context.getBean(ImageRepo.class).save(image);
+
+    // A bearer token keeps BCrypt out of the measurement.
+    String authorization = "Bearer " + context.getBean(AccessTokenService.class)
+        .issueToken(user.getUserId(), user.getEmailAddress(), true);
+    contentRequest = HttpRequest.newBuilder(URI.create("http://localhost:"
+            + context.getEnvironment().getProperty("local.server.port") + "/v1/user/self/pic/content"))
+        .header("Authorization", authorization)
+        .GET()
+        .build();
+    httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+    standIn.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CONCURRENT_REQUESTS)
+  public int concurrentContentRequests() {
+    CompletableFuture<?>[] responses = new CompletableFuture<?>[CONCURRENT_REQUESTS];
+    for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+      responses[i] = httpClient.sendAsync(contentRequest, HttpResponse.BodyHandlers.discarding())
+          .thenAccept(response -> {
+            if (response.statusCode() != 200) {
+              throw new IllegalStateException("Content request failed with HTTP " + response.statusCode());
+            }
+          });
+    }
+    CompletableFuture.allOf(responses).join();
+    return responses.length;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(VirtualThreadsBenchmark.class.getSimpleName()).build()).run();
+  }
+}
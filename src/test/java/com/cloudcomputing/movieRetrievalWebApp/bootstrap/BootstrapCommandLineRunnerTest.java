@@ -10,6 +10,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.sql.ResultSet;
@@ -35,10 +36,13 @@ class BootstrapCommandLineRunnerTest {
   @Mock
   private UserRepo userRepo;
 
+  @Mock
+  private PasswordEncoder passwordEncoder;
+
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
-    bootstrapRunner = new BootstrapCommandLineRunner(jdbcTemplate, userRepo);
+    bootstrapRunner = new BootstrapCommandLineRunner(jdbcTemplate, userRepo, passwordEncoder);
   }
 
   @Test
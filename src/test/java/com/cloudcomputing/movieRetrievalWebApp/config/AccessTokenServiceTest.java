@@ -0,0 +1,92 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessTokenServiceTest {
+
+  private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+  private static final Instant NOW = Instant.parse("2024-12-01T10:00:00Z");
+
+  private final AccessTokenService accessTokenService =
+      new AccessTokenService(SECRET, 900, Clock.fixed(NOW, ZoneOffset.UTC));
+
+  @Test
+  public void testIssuedToken_roundTripsClaims() {
+    UUID userId = UUID.randomUUID();
+
+    String token = accessTokenService.issueToken(userId, "test@example.com", true);
+    Optional<AccessTokenClaims> claims = accessTokenService.parseToken(token);
+
+    assertTrue(claims.isPresent());
+    assertEquals(userId, claims.get().userId());
+    assertEquals("test@example.com", claims.get().email());
+    assertTrue(claims.get().verified());
+    assertEquals(NOW.plusSeconds(900), claims.get().expiresAt());
+  }
+
+  @Test
+  public void testTamperedPayload_isRejected() {
+    String token = accessTokenService.issueToken(UUID.randomUUID(), "test@example.com", false);
+    String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((UUID.randomUUID() + "|true|9999999999|test@example.com").getBytes());
+
+    String forged = forgedPayload + token.substring(token.indexOf('.'));
+
+    assertTrue(accessTokenService.parseToken(forged).isEmpty());
+  }
+
+  @Test
+  public void testTokenFromDifferentKey_isRejected() {
+    AccessTokenService other = new AccessTokenService(Base64.getEncoder().encodeToString(new byte[] {1, 2, 3, 4}),
+        900, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    String token = other.issueToken(UUID.randomUUID(), "test@example.com", true);
+
+    assertTrue(accessTokenService.parseToken(token).isEmpty());
+  }
+
+  @Test
+  public void testExpiredToken_isRejected() {
+    String token = accessTokenService.issueToken(UUID.randomUUID(), "test@example.com", true);
+    AccessTokenService later = new AccessTokenService(SECRET, 900, Clock.fixed(NOW.plusSeconds(901), ZoneOffset.UTC));
+
+    assertTrue(later.parseToken(token).isEmpty());
+  }
+
+  @Test
+  public void testMalformedToken_isRejected() {
+    assertTrue(accessTokenService.parseToken("not-a-token").isEmpty());
+    assertTrue(accessTokenService.parseToken("abc.").isEmpty());
+    assertTrue(accessTokenService.parseToken(".abc").isEmpty());
+    assertTrue(accessTokenService.parseToken("!!!.???").isEmpty());
+  }
+
+  @Test
+  public void testMissingSecret_failsStartupOutsideTests() {
+    MockEnvironment production = new MockEnvironment();
+    production.setActiveProfiles("prod");
+
+    assertThrows(IllegalStateException.class, () -> new AccessTokenService("", 900, production));
+  }
+
+  @Test
+  public void testMissingSecret_usesRandomKeyUnderTestProfile() {
+    MockEnvironment test = new MockEnvironment();
+    test.setActiveProfiles("test");
+
+    AccessTokenService service = new AccessTokenService("", 900, test);
+    String token = service.issueToken(UUID.randomUUID(), "test@example.com", true);
+
+    assertTrue(service.parseToken(token).isPresent());
+  }
+}
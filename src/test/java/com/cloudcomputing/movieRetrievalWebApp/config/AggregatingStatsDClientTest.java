@@ -0,0 +1,149 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AggregatingStatsDClientTest {
+
+  private static final int MAX_PACKET_BYTES = 1432;
+
+  private DatagramSocket receiver;
+  private AggregatingStatsDClient client;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    receiver = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+    receiver.setSoTimeout(200);
+    // Flushed by the tests themselves.
+    client = new AggregatingStatsDClient("test", "127.0.0.1", receiver.getLocalPort(), 60_000, MAX_PACKET_BYTES);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    client.stop();
+    receiver.close();
+  }
+
+  // Everything received until the socket has been quiet for the receive timeout.
+  private List<String> receivePackets() throws IOException {
+    List<String> packets = new ArrayList<>();
+    byte[] buffer = new byte[65536];
+    while (true) {
+      DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+      try {
+        receiver.receive(packet);
+      } catch (SocketTimeoutException e) {
+        return packets;
+      }
+      packets.add(new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8));
+    }
+  }
+
+  private List<String> receiveLines() throws IOException {
+    return receivePackets().stream().flatMap(packet -> Arrays.stream(packet.split("\n"))).toList();
+  }
+
+  @Test
+  public void testCounters_areSentAsOneSumPerInterval() throws IOException {
+    for (int i = 0; i < 1000; i++) {
+      client.incrementCounter("api.user.get.count");
+    }
+    client.count("api.user.get.count", 5);
+
+    client.flush();
+
+    assertEquals(List.of("test.api.user.get.count:1005|c"), receiveLines());
+  }
+
+  @Test
+  public void testTimers_areSentAsDistinctValuesWithTheirCountAsSampleRate() throws IOException {
+    client.recordExecutionTime("db.query.user.time", 5);
+    client.recordExecutionTime("db.query.user.time", 5);
+    client.recordExecutionTime("db.query.user.time", 5);
+    client.recordExecutionTime("db.query.user.time", 7);
+
+    client.flush();
+
+    assertEquals(List.of("test.db.query.user.time:5|ms|@0.3333333333", "test.db.query.user.time:7|ms"),
+        receiveLines());
+  }
+
+  @Test
+  public void testGauges_sendTheLatestValueAndTheSummedDelta() throws IOException {
+    client.recordGaugeValue("outbox.pending", 3);
+    client.recordGaugeValue("outbox.pending", 1.5);
+    client.recordGaugeDelta("outbox.lag_ms", 2);
+    client.recordGaugeDelta("outbox.lag_ms", 1);
+    client.recordGaugeValue("temperature", -4);
+
+    client.flush();
+
+    List<String> lines = receiveLines();
+    assertEquals(4, lines.size(), lines.toString());
+    assertTrue(lines.contains("test.outbox.pending:1.5|g"), lines.toString());
+    assertTrue(lines.contains("test.outbox.lag_ms:+3|g"), lines.toString());
+    assertTrue(lines.indexOf("test.temperature:0|g") < lines.indexOf("test.temperature:-4|g"), lines.toString());
+  }
+
+  @Test
+  public void testSampledCalls_areScaledUp() throws IOException {
+    client.count("api.sampled.count", 1, 0.1);
+    client.recordExecutionTime("api.sampled.time", 12, 0.5);
+
+    client.flush();
+
+    List<String> lines = receiveLines();
+    assertTrue(lines.contains("test.api.sampled.count:10|c"), lines.toString());
+    assertTrue(lines.contains("test.api.sampled.time:12|ms|@0.5"), lines.toString());
+  }
+
+  @Test
+  public void testManyMetrics_arePackedIntoDatagramsNoLargerThanTheLimit() throws IOException {
+    for (int i = 0; i < 200; i++) {
+      client.incrementCounter("api.endpoint" + i + ".count");
+    }
+
+    client.flush();
+
+    List<String> packets = receivePackets();
+    assertTrue(packets.size() > 1 && packets.size() < 10, packets.size() + " packets");
+    for (String packet : packets) {
+      assertTrue(packet.getBytes(StandardCharsets.UTF_8).length <= MAX_PACKET_BYTES);
+    }
+    assertEquals(200, packets.stream().mapToInt(packet -> packet.split("\n").length).sum());
+  }
+
+  @Test
+  public void testFlush_sendsNothingWhenNothingChanged() throws IOException {
+    client.incrementCounter("api.user.get.count");
+    client.recordExecutionTime("db.query.user.time", 5);
+    client.flush();
+    receivePackets();
+
+    client.flush();
+
+    assertEquals(List.of(), receivePackets());
+  }
+
+  @Test
+  public void testStop_flushesWhatIsPending() throws IOException {
+    client.incrementCounter("api.user.post.count");
+
+    client.stop();
+
+    assertEquals(List.of("test.api.user.post.count:1|c"), receiveLines());
+  }
+}
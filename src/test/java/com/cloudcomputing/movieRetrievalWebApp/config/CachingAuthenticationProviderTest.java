@@ -0,0 +1,163 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingAuthenticationProviderTest {
+
+  private static final String EMAIL = "test@example.com";
+  private static final String HASH = "{bcrypt}$2a$10$storedHash";
+
+  @Mock
+  private AuthenticationProvider delegate;
+
+  @Mock
+  private UserDetailsService userDetailsService;
+
+  @Mock
+  private StatsDClient statsDClient;
+
+  private AuthenticationCache authenticationCache;
+
+  private CachingAuthenticationProvider provider;
+
+  @BeforeEach
+  public void setUp() {
+    authenticationCache = new AuthenticationCache(statsDClient, true, 100, 60);
+    provider = new CachingAuthenticationProvider(delegate, userDetailsService, authenticationCache);
+  }
+
+  private static Authentication request(String email, String password) {
+    return new UsernamePasswordAuthenticationToken(email, password);
+  }
+
+  private static AuthenticatedUser user(String passwordHash, String firstName) {
+    LocalDateTime now = LocalDateTime.now();
+    return new AuthenticatedUser(UUID.randomUUID(), EMAIL, passwordHash, firstName, "Doe", now, now, true);
+  }
+
+  private static Authentication success(AuthenticatedUser user) {
+    return UsernamePasswordAuthenticationToken.authenticated(user, null, List.of());
+  }
+
+  @Test
+  public void testRepeatedCredentials_delegateCalledOnce() {
+    when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user(HASH, "John"));
+    when(delegate.authenticate(any())).thenReturn(success(user(HASH, "John")));
+
+    provider.authenticate(request(EMAIL, "password"));
+    Authentication cached = provider.authenticate(request(EMAIL, "password"));
+
+    assertTrue(cached.isAuthenticated());
+    verify(delegate, times(1)).authenticate(any());
+    verify(statsDClient, times(1)).incrementCounter("auth.cache.hit");
+    verify(statsDClient, times(1)).incrementCounter("auth.cache.miss");
+  }
+
+  @Test
+  public void testCacheHit_servesCurrentProfile() {
+    when(userDetailsService.loadUserByUsername(EMAIL))
+        .thenReturn(user(HASH, "John"))
+        .thenReturn(user(HASH, "Johnny"));
+    when(delegate.authenticate(any())).thenReturn(success(user(HASH, "John")));
+
+    provider.authenticate(request(EMAIL, "password"));
+    Authentication cached = provider.authenticate(request(EMAIL, "password"));
+
+    assertEquals("Johnny", ((AuthenticatedUser) cached.getPrincipal()).getFirstName());
+  }
+
+  @Test
+  public void testChangedStoredHash_isNotServedFromCache() {
+    // Another instance changed the password: the stored hash no longer matches the cached check.
+    when(userDetailsService.loadUserByUsername(EMAIL))
+        .thenReturn(user(HASH, "John"))
+        .thenReturn(user("{bcrypt}$2a$10$otherHash", "John"));
+    when(delegate.authenticate(any()))
+        .thenReturn(success(user(HASH, "John")))
+        .thenThrow(new BadCredentialsException("Bad credentials"));
+
+    provider.authenticate(request(EMAIL, "password"));
+
+    assertThrows(BadCredentialsException.class, () -> provider.authenticate(request(EMAIL, "password")));
+    verify(delegate, times(2)).authenticate(any());
+  }
+
+  @Test
+  public void testDifferentPassword_isNotServedFromCache() {
+    when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user(HASH, "John"));
+    when(delegate.authenticate(any()))
+        .thenReturn(success(user(HASH, "John")))
+        .thenThrow(new BadCredentialsException("Bad credentials"));
+
+    provider.authenticate(request(EMAIL, "password"));
+
+    assertThrows(BadCredentialsException.class, () -> provider.authenticate(request(EMAIL, "wrong-password")));
+    verify(delegate, times(2)).authenticate(any());
+  }
+
+  @Test
+  public void testFailedAuthentication_isNotCached() {
+    when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user(HASH, "John"));
+    when(delegate.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+    assertThrows(BadCredentialsException.class, () -> provider.authenticate(request(EMAIL, "bad")));
+    assertThrows(BadCredentialsException.class, () -> provider.authenticate(request(EMAIL, "bad")));
+
+    verify(delegate, times(2)).authenticate(any());
+  }
+
+  @Test
+  public void testUnknownUser_delegates() {
+    when(userDetailsService.loadUserByUsername(EMAIL)).thenThrow(new UsernameNotFoundException(EMAIL));
+    when(delegate.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+    assertThrows(BadCredentialsException.class, () -> provider.authenticate(request(EMAIL, "password")));
+    verify(delegate, times(1)).authenticate(any());
+  }
+
+  @Test
+  public void testInvalidate_forcesVerificationAgain() {
+    when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user(HASH, "John"));
+    when(delegate.authenticate(any())).thenReturn(success(user(HASH, "John")));
+
+    provider.authenticate(request(EMAIL, "password"));
+    authenticationCache.invalidate(EMAIL);
+    provider.authenticate(request(EMAIL, "password"));
+
+    verify(delegate, times(2)).authenticate(any());
+    verify(statsDClient, times(1)).incrementCounter("auth.cache.invalidation");
+  }
+
+  @Test
+  public void testDisabledCache_alwaysDelegates() {
+    provider = new CachingAuthenticationProvider(delegate, userDetailsService,
+        new AuthenticationCache(statsDClient, false, 100, 60));
+    when(delegate.authenticate(any())).thenReturn(success(user(HASH, "John")));
+
+    provider.authenticate(request(EMAIL, "password"));
+    provider.authenticate(request(EMAIL, "password"));
+
+    verify(delegate, times(2)).authenticate(any());
+    verifyNoInteractions(userDetailsService);
+  }
+}
@@ -0,0 +1,85 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CountingAsyncAppenderTest {
+
+  private final LoggerContext context = new LoggerContext();
+  private final BlockingAppender target = new BlockingAppender();
+  private final CountingAsyncAppender appender = new CountingAsyncAppender();
+
+  @BeforeEach
+  public void setUp() {
+    context.setMDCAdapter(new LogbackMDCAdapter());
+    target.setContext(context);
+    target.start();
+    appender.setContext(context);
+    appender.setQueueSize(4);
+    appender.setDiscardingThreshold(3);
+    appender.addAppender(target);
+    appender.start();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    target.release.countDown();
+    appender.stop();
+  }
+
+  @Test
+  public void testAppend_dropsInfoNearlyFullAndEverythingWhenFull() throws InterruptedException {
+    appender.doAppend(event(Level.INFO, "held by the worker"));
+    assertTrue(target.started.await(5, TimeUnit.SECONDS));
+
+    appender.doAppend(event(Level.INFO, "queued"));
+    appender.doAppend(event(Level.INFO, "queued"));
+    appender.doAppend(event(Level.INFO, "dropped, under the threshold"));
+    appender.doAppend(event(Level.WARN, "queued"));
+    appender.doAppend(event(Level.ERROR, "queued"));
+    appender.doAppend(event(Level.ERROR, "dropped, full"));
+
+    assertEquals(2, appender.takeDropped());
+    assertEquals(0, appender.takeDropped());
+
+    target.release.countDown();
+    appender.stop();
+    assertEquals(5, target.events.size());
+  }
+
+  private LoggingEvent event(Level level, String message) {
+    return new LoggingEvent(getClass().getName(), context.getLogger("test"), level, message, null, null);
+  }
+
+  private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+      started.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      events.add(event);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class InstrumentedDataSourceTest {
+
+  private final StatsDClient statsDClient = mock(StatsDClient.class);
+  private final QueryMetrics metrics = new QueryMetrics(statsDClient, 2);
+  private DataSource dataSource;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    JdbcDataSource h2 = new JdbcDataSource();
+    h2.setURL("jdbc:h2:mem:InstrumentedDataSourceTest;DB_CLOSE_DELAY=-1");
+    dataSource = InstrumentedDataSource.wrap(h2, metrics);
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.execute("drop table if exists movies");
+      statement.execute("create table movies (id int primary key, title varchar(100))");
+      statement.executeUpdate("insert into movies values (1, 'Alien'), (2, 'Heat'), (3, 'Ran')");
+    }
+    clearInvocations(statsDClient);
+  }
+
+  @Test
+  public void testPreparedQuery_isTimedByShapeWithItsRows() throws SQLException {
+    String sql = "select title from movies where id > ?";
+    String name = metrics.statement(sql).name;
+    long before = QueryMetrics.statementsOnCurrentThread();
+
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setInt(1, 1);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          assertNotNull(resultSet.getString(1));
+        }
+      }
+    }
+
+    assertEquals(1, QueryMetrics.statementsOnCurrentThread() - before);
+    verify(statsDClient).recordExecutionTime(eq("db.connection.acquire.time"), anyLong());
+    verify(statsDClient).recordExecutionTime(eq(name + ".time"), anyLong());
+    verify(statsDClient).count(name + ".rows", 2);
+    verify(statsDClient, never()).incrementCounter("db.statement.large_result");
+  }
+
+  @Test
+  public void testLargeResult_isFlaggedWhenClosedBeforeItRunsOut() throws SQLException {
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery("select * from movies")) {
+      resultSet.next();
+      resultSet.next();
+      resultSet.next();
+    }
+
+    verify(statsDClient).count(metrics.statement("select * from movies").name + ".rows", 3);
+    verify(statsDClient).incrementCounter("db.statement.large_result");
+  }
+
+  @Test
+  public void testFailedStatement_countsAnError() throws SQLException {
+    String sql = "select * from missing_table";
+
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      assertThrows(SQLException.class, () -> statement.executeQuery(sql));
+    }
+
+    verify(statsDClient).incrementCounter(metrics.statement(sql).name + ".error");
+  }
+
+  @Test
+  public void testUnwrap_reachesTheDriver() throws SQLException {
+    assertTrue(dataSource.isWrapperFor(JdbcDataSource.class));
+    assertInstanceOf(JdbcDataSource.class, dataSource.unwrap(JdbcDataSource.class));
+    try (Connection connection = dataSource.getConnection()) {
+      assertInstanceOf(org.h2.jdbc.JdbcConnection.class, connection.unwrap(org.h2.jdbc.JdbcConnection.class));
+    }
+  }
+}
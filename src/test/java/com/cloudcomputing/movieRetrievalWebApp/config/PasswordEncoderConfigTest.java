@@ -0,0 +1,105 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class PasswordEncoderConfigTest {
+
+  private static final long MILLIS = 1_000_000L;
+
+  private StatsDClient statsDClient;
+  private PasswordEncoder passwordEncoder;
+
+  @BeforeEach
+  public void setUp() {
+    statsDClient = mock(StatsDClient.class);
+    passwordEncoder = newConfig(5).passwordEncoder(statsDClient);
+  }
+
+  private static PasswordEncoderConfig newConfig(int configuredStrength) {
+    PasswordEncoderConfig config = new PasswordEncoderConfig();
+    ReflectionTestUtils.setField(config, "configuredStrength", configuredStrength);
+    ReflectionTestUtils.setField(config, "targetMillis", 1L);
+    ReflectionTestUtils.setField(config, "probeStrength", 4);
+    ReflectionTestUtils.setField(config, "minStrength", 6);
+    ReflectionTestUtils.setField(config, "maxStrength", 6);
+    return config;
+  }
+
+  @Test
+  public void testChooseStrength_fitsBudget() {
+    // 3 ms at cost 4 -> ... -> 192 ms at 10; 384 ms at 11 would exceed 250 ms.
+    assertEquals(10, PasswordEncoderConfig.chooseStrength(3 * MILLIS, 4, 250 * MILLIS, 8, 14));
+  }
+
+  @Test
+  public void testChooseStrength_slowHostSelectsCostBelowDefault() {
+    // 10 ms at cost 4 -> 160 ms at 8; 320 ms at 9 would exceed 250 ms.
+    assertEquals(8, PasswordEncoderConfig.chooseStrength(10 * MILLIS, 4, 250 * MILLIS, 8, 14));
+  }
+
+  @Test
+  public void testChooseStrength_clampedToFloorAndMax() {
+    assertEquals(8, PasswordEncoderConfig.chooseStrength(400 * MILLIS, 4, 250 * MILLIS, 8, 14));
+    assertEquals(14, PasswordEncoderConfig.chooseStrength(1_000L, 4, 250 * MILLIS, 8, 14));
+  }
+
+  @Test
+  public void testCostOf() {
+    assertEquals(4, PasswordEncoderConfig.costOf(new BCryptPasswordEncoder(4).encode("Password@123")));
+    assertEquals(-1, PasswordEncoderConfig.costOf("plain"));
+  }
+
+  @Test
+  public void testEncode_usesPrefixedFormatAtConfiguredCost() {
+    String hash = passwordEncoder.encode("Password@123");
+
+    assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+    assertTrue(passwordEncoder.matches("Password@123", hash));
+    assertFalse(passwordEncoder.upgradeEncoding(hash));
+    verify(statsDClient).recordGaugeValue("auth.bcrypt.strength", 5L);
+  }
+
+  @Test
+  public void testLegacyHash_matchesAndNeedsUpgrade() {
+    String legacyHash = new BCryptPasswordEncoder(4).encode("Password@123");
+
+    assertTrue(passwordEncoder.matches("Password@123", legacyHash));
+    assertFalse(passwordEncoder.matches("wrong", legacyHash));
+    assertTrue(passwordEncoder.upgradeEncoding(legacyHash));
+    verify(statsDClient).incrementCounter("auth.password.rehash");
+  }
+
+  @Test
+  public void testLowerCostHash_needsUpgrade() {
+    String weakHash = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("Password@123");
+
+    assertTrue(passwordEncoder.matches("Password@123", weakHash));
+    assertTrue(passwordEncoder.upgradeEncoding(weakHash));
+  }
+
+  @Test
+  public void testHigherCostHash_rehashedDownToPinnedCost() {
+    String strongHash = "{bcrypt}" + new BCryptPasswordEncoder(6).encode("Password@123");
+
+    assertTrue(passwordEncoder.upgradeEncoding(strongHash));
+  }
+
+  @Test
+  public void testCalibratedCost_onlyRehashesBelowFloor() {
+    PasswordEncoder calibrated = newConfig(0).passwordEncoder(statsDClient);
+
+    assertTrue(calibrated.encode("Password@123").startsWith("{bcrypt}$2a$06$"));
+    // Hashes written by a larger instance at a higher cost are left alone.
+    assertFalse(calibrated.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(7).encode("Password@123")));
+    assertTrue(calibrated.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(5).encode("Password@123")));
+  }
+}
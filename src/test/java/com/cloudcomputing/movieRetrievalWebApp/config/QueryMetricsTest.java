@@ -0,0 +1,68 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class QueryMetricsTest {
+
+  private final StatsDClient statsDClient = mock(StatsDClient.class);
+  private final QueryMetrics metrics = new QueryMetrics(statsDClient, 100);
+
+  @Test
+  public void testNormalize_replacesLiteralsAndCollapsesWhitespace() {
+    assertEquals("select * from users where email_address=? and age > ?",
+        QueryMetrics.normalize("SELECT *\n  FROM users WHERE email_address='o''brien@example.com' AND age > 42"));
+    assertEquals("select u1_0.id from users u1_0 where u1_0.id in (?)",
+        QueryMetrics.normalize("select u1_0.id from users u1_0 where u1_0.id in (?, ?, ?)"));
+    assertEquals("select ? from dual", QueryMetrics.normalize("/* load */ select 1.5 -- one\nfrom dual"));
+  }
+
+  @Test
+  public void testStatement_namesShapeByVerbAndTable() {
+    String select = metrics.statement("select u1_0.id from users u1_0 where u1_0.email_address=?").name;
+    String insert = metrics.statement("insert into images (id,user_id) values (?,?)").name;
+    String update = metrics.statement("update outbox_messages set attempts=? where id=?").name;
+    String other = metrics.statement("create table t (id int)").name;
+
+    assertTrue(select.matches("db\\.statement\\.select\\.users\\.[0-9a-f]{8}"), select);
+    assertTrue(insert.startsWith("db.statement.insert.images."), insert);
+    assertTrue(update.startsWith("db.statement.update.outbox_messages."), update);
+    assertTrue(other.startsWith("db.statement.other.unknown."), other);
+  }
+
+  @Test
+  public void testStatement_groupsStatementsThatDifferOnlyInLiterals() {
+    assertEquals(metrics.statement("select * from users where id = 1").name,
+        metrics.statement("select * from users where id = 2").name);
+    assertNotEquals(metrics.statement("select * from users where id = 1").name,
+        metrics.statement("select * from images where id = 1").name);
+  }
+
+  @Test
+  public void testRowsRead_flagsLargeResults() {
+    QueryMetrics.StatementShape statement = metrics.statement("select * from users");
+
+    metrics.rowsRead(statement, 100);
+    verify(statsDClient, never()).incrementCounter("db.statement.large_result");
+
+    metrics.rowsRead(statement, 101);
+    verify(statsDClient).incrementCounter("db.statement.large_result");
+    verify(statsDClient).count(statement.rowsName, 101);
+  }
+
+  @Test
+  public void testExecuted_countsStatementsOnTheCurrentThread() {
+    QueryMetrics.StatementShape statement = metrics.statement("select * from users");
+    long before = QueryMetrics.statementsOnCurrentThread();
+
+    metrics.executed(statement, 2_000_000, false);
+    metrics.executed(statement, 1_000_000, true);
+
+    assertEquals(2, QueryMetrics.statementsOnCurrentThread() - before);
+    verify(statsDClient).recordExecutionTime(statement.timeName, 2);
+    verify(statsDClient).incrementCounter(statement.errorName);
+  }
+}
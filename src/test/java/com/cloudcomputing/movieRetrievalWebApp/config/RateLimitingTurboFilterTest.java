@@ -0,0 +1,58 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitingTurboFilterTest {
+
+  private final LoggerContext context = new LoggerContext();
+  private final Logger appLogger = context.getLogger("com.example.app.UserController");
+  private final Logger otherLogger = context.getLogger("org.example.Library");
+  private final RateLimitingTurboFilter filter = new RateLimitingTurboFilter("com.example.app", 3, 2, Level.WARN);
+
+  @Test
+  public void testDecide_samplesMessagesOverTheBudget() {
+    assertEquals(FilterReply.NEUTRAL, info(appLogger));
+    assertEquals(FilterReply.NEUTRAL, info(appLogger));
+    assertEquals(FilterReply.NEUTRAL, info(appLogger));
+    assertEquals(FilterReply.DENY, info(appLogger));
+    assertEquals(FilterReply.NEUTRAL, info(appLogger));
+    assertEquals(FilterReply.DENY, info(appLogger));
+
+    assertEquals(2, filter.takeDenied());
+    assertEquals(0, filter.takeDenied());
+  }
+
+  @Test
+  public void testDecide_neverLimitsErrorsOtherLoggersOrLevelChecks() {
+    for (int i = 0; i < 10; i++) {
+      info(appLogger);
+    }
+    filter.takeDenied();
+
+    assertEquals(FilterReply.NEUTRAL, filter.decide(null, appLogger, Level.ERROR, "failed", null, null));
+    assertEquals(FilterReply.NEUTRAL, info(otherLogger));
+    assertEquals(FilterReply.NEUTRAL, filter.decide(null, appLogger, Level.INFO, null, null, null));
+    assertEquals(0, filter.takeDenied());
+  }
+
+  @Test
+  public void testDecide_doesNotSpendTheBudgetOnDisabledLevels() {
+    appLogger.setLevel(Level.INFO);
+    for (int i = 0; i < 10; i++) {
+      assertEquals(FilterReply.NEUTRAL, filter.decide(null, appLogger, Level.DEBUG, "debug", null, null));
+    }
+
+    assertEquals(FilterReply.NEUTRAL, info(appLogger));
+    assertEquals(0, filter.takeDenied());
+  }
+
+  private FilterReply info(Logger logger) {
+    return filter.decide(null, logger, Level.INFO, "message {}", new Object[] {1}, null);
+  }
+}
@@ -0,0 +1,134 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RequestTimingFilterTest {
+
+  private final StatsDClient statsDClient = mock(StatsDClient.class);
+  private final RequestTimingFilter filter = new RequestTimingFilter(statsDClient);
+
+  private void serve(String method, String route, int status) throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/any");
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+      if (route != null) {
+        req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route);
+      }
+      ((HttpServletResponse) res).setStatus(status);
+    });
+  }
+
+  @Test
+  public void testFlush_sendsCountAndPercentilesPerRouteMethodAndStatus() throws Exception {
+    serve("GET", "/v1/user/self", 200);
+    serve("GET", "/v1/user/self", 200);
+    serve("GET", "/v1/user/self", 404);
+    serve("PUT", "/v1/user/self", 204);
+
+    filter.flush();
+
+    verify(statsDClient).count("http.server.v1.user.self.GET.200.count", 2);
+    verify(statsDClient).count("http.server.v1.user.self.GET.404.count", 1);
+    verify(statsDClient).count("http.server.v1.user.self.PUT.204.count", 1);
+    for (String suffix : new String[] {"p50", "p95", "p99", "max"}) {
+      verify(statsDClient).recordGaugeValue(eq("http.server.v1.user.self.GET.200." + suffix), anyDouble());
+    }
+  }
+
+  @Test
+  public void testFlush_sendsOnlyWhatWasRecordedSinceThePreviousFlush() throws Exception {
+    serve("GET", "/healthz", 200);
+    filter.flush();
+    clearInvocations(statsDClient);
+
+    filter.flush();
+
+    verifyNoInteractions(statsDClient);
+  }
+
+  @Test
+  public void testFlush_sendsStatementsRunPerRequest() throws Exception {
+    QueryMetrics queryMetrics = new QueryMetrics(mock(StatsDClient.class), 500);
+    QueryMetrics.StatementShape statement = queryMetrics.statement("select * from users where email_address = ?");
+    for (int queries : new int[] {1, 3}) {
+      filter.doFilter(new MockHttpServletRequest("GET", "/v1/user/self"), new MockHttpServletResponse(), (req, res) -> {
+        req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/v1/user/self");
+        for (int i = 0; i < queries; i++) {
+          queryMetrics.executed(statement, 0, false);
+        }
+      });
+    }
+
+    filter.flush();
+
+    verify(statsDClient).count("http.server.v1.user.self.GET.200.queries", 4);
+    verify(statsDClient).recordGaugeValue("http.server.v1.user.self.GET.200.queries_max", 3L);
+  }
+
+  @Test
+  public void testRequestWithoutHandler_isTimedAsUnmatched() throws Exception {
+    serve("GET", null, 401);
+
+    filter.flush();
+
+    verify(statsDClient).count("http.server.unmatched.GET.401.count", 1);
+  }
+
+  @Test
+  public void testFailedRequest_isTimedAs500() {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/user");
+
+    assertThrows(ServletException.class, () -> filter.doFilter(request, new MockHttpServletResponse(),
+        (req, res) -> {
+          req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/v1/user");
+          throw new ServletException("handler failed");
+        }));
+    filter.flush();
+
+    verify(statsDClient).count("http.server.v1.user.POST.500.count", 1);
+  }
+
+  @Test
+  public void testAsyncRequest_isTimedWhenItCompletes() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/user/self/pic/content");
+    request.setAsyncSupported(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, (req, res) -> {
+      req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/v1/user/self/pic/content");
+      req.startAsync();
+    });
+
+    filter.flush();
+    verify(statsDClient, never()).count(anyString(), anyLong());
+
+    response.setStatus(206);
+    ((MockAsyncContext) request.getAsyncContext()).complete();
+    filter.flush();
+
+    verify(statsDClient).count("http.server.v1.user.self.pic.content.GET.206.count", 1);
+  }
+
+  @Test
+  public void testMetricRoute() {
+    assertEquals("v1.user.self.pic.uploads.uploadId", RequestTimingFilter.metricRoute("/v1/user/self/pic/uploads/{uploadId}"));
+    assertEquals("healthz", RequestTimingFilter.metricRoute("/healthz"));
+    assertEquals("root", RequestTimingFilter.metricRoute("/"));
+    assertEquals("wildcard", RequestTimingFilter.metricRoute("/**"));
+    assertEquals("a.b_c", RequestTimingFilter.metricRoute("/a/b:c"));
+  }
+}
@@ -0,0 +1,106 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.cloudcomputing.movieRetrievalWebApp.controller.ValidatedRequest;
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RequestValidationInterceptorTest {
+
+  private final StatsDClient statsDClient = mock(StatsDClient.class);
+  private final RequestValidationInterceptor interceptor = new RequestValidationInterceptor(statsDClient);
+
+  static class Handlers {
+
+    @ValidatedRequest
+    public void noParameters() {
+    }
+
+    @ValidatedRequest(allowedParameters = "size", emptyBody = true)
+    public void sizeOnlyWithoutBody() {
+    }
+
+    public void unconstrained() {
+    }
+  }
+
+  private static HandlerMethod handler(String name) throws NoSuchMethodException {
+    return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+  }
+
+  private static MockHttpServletRequest request(String queryString) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/resource");
+    if (queryString != null) {
+      request.setQueryString(queryString);
+      String[] pair = queryString.split("=", 2);
+      request.addParameter(pair[0], pair[1]);
+    }
+    return request;
+  }
+
+  @Test
+  public void testRequestWithoutParameters_isAccepted() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertTrue(interceptor.preHandle(request(null), response, handler("noParameters")));
+    assertEquals(200, response.getStatus());
+    verifyNoInteractions(statsDClient);
+  }
+
+  @Test
+  public void testQueryParameter_isRejectedWithNoCacheHeaders() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertFalse(interceptor.preHandle(request("param=value"), response, handler("noParameters")));
+    assertEquals(400, response.getStatus());
+    assertEquals(List.of("no-cache", "no-store", "must-revalidate"), response.getHeaders("Cache-Control"));
+    assertEquals("no-cache", response.getHeader("Pragma"));
+    assertEquals("no-sniff", response.getHeader("X-Content-Type-Options"));
+    verify(statsDClient).incrementCounter("api.validation.noParameters.rejected.count");
+  }
+
+  @Test
+  public void testFormEncodedBodyParameter_isRejected() throws Exception {
+    MockHttpServletRequest request = request(null);
+    request.setContentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+    request.addParameter("param", "value");
+
+    assertFalse(interceptor.preHandle(request, new MockHttpServletResponse(), handler("noParameters")));
+  }
+
+  @Test
+  public void testAllowedParameter_isAccepted() throws Exception {
+    assertTrue(interceptor.preHandle(request("size=64"), new MockHttpServletResponse(), handler("sizeOnlyWithoutBody")));
+  }
+
+  @Test
+  public void testOtherParameter_isRejectedWhereSomeAreAllowed() throws Exception {
+    assertFalse(interceptor.preHandle(request("width=64"), new MockHttpServletResponse(), handler("sizeOnlyWithoutBody")));
+  }
+
+  @Test
+  public void testRequestBody_isRejectedWhereBodyMustBeEmpty() throws Exception {
+    MockHttpServletRequest withBody = request(null);
+    withBody.setContent("{}".getBytes());
+
+    assertFalse(interceptor.preHandle(withBody, new MockHttpServletResponse(), handler("sizeOnlyWithoutBody")));
+    assertTrue(interceptor.preHandle(withBody, new MockHttpServletResponse(), handler("noParameters")));
+  }
+
+  @Test
+  public void testUnannotatedHandler_isNotValidated() throws Exception {
+    MockHttpServletRequest request = request("param=value");
+    request.setContent("body".getBytes());
+
+    assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler("unconstrained")));
+    assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+  }
+}
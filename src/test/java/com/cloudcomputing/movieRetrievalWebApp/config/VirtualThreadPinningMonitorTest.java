@@ -0,0 +1,48 @@
+package com.cloudcomputing.movieRetrievalWebApp.config;
+
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.*;
+
+public class VirtualThreadPinningMonitorTest {
+
+  private final StatsDClient statsDClient = mock(StatsDClient.class);
+  private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(statsDClient, 10);
+  private final Object lock = new Object();
+
+  @AfterEach
+  public void tearDown() {
+    monitor.close();
+  }
+
+  @Test
+  public void testReportsBlockingInsideSynchronized() throws InterruptedException {
+    Thread.ofVirtual().start(() -> {
+      synchronized (lock) {
+        sleep(100);
+      }
+    }).join();
+
+    verify(statsDClient, timeout(10_000)).incrementCounter("threads.virtual.pinned");
+    verify(statsDClient, timeout(10_000)).recordExecutionTime(eq("threads.virtual.pinned.time"), longThat(ms -> ms >= 50));
+  }
+
+  @Test
+  public void testIgnoresBlockingOutsideSynchronized() throws InterruptedException {
+    Thread.ofVirtual().start(() -> sleep(100)).join();
+    // A pinned event would have been streamed within this time.
+    Thread.sleep(2000);
+
+    verify(statsDClient, never()).incrementCounter("threads.virtual.pinned");
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.cloudcomputing.movieRetrievalWebApp.controller;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AccessTokenService;
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticatedUser;
+import com.cloudcomputing.movieRetrievalWebApp.dto.authdto.AccessTokenResponseDTO;
+import com.cloudcomputing.movieRetrievalWebApp.dto.authdto.LoginRequestDTO;
+import com.cloudcomputing.movieRetrievalWebApp.service.UserService;
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuthControllerUnitTest {
+
+  @Mock
+  private StatsDClient statsDClient;
+
+  @Mock
+  private PasswordEncoder passwordEncoder;
+
+  @Mock
+  private UserService userService;
+
+  @Mock
+  private AccessTokenService accessTokenService;
+
+  @InjectMocks
+  private AuthController authController;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(passwordEncoder.encode("userNotFoundPassword")).thenReturn("dummy-hash");
+  }
+
+  @Test
+  void login_unknownEmailStillChecksAPassword() {
+    when(userService.getAuthenticatedUser("nobody@example.com")).thenReturn(Optional.empty());
+
+    ResponseEntity<AccessTokenResponseDTO> response = authController.login(request("nobody@example.com"));
+
+    assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    verify(passwordEncoder).matches("password123", "dummy-hash");
+  }
+
+  @Test
+  void login_dummyHashIsEncodedOnce() {
+    when(userService.getAuthenticatedUser(anyString())).thenReturn(Optional.empty());
+
+    authController.login(request("nobody@example.com"));
+    authController.login(request("nobody@example.com"));
+
+    verify(passwordEncoder, times(1)).encode("userNotFoundPassword");
+  }
+
+  @Test
+  void login_wrongPasswordIsUnauthorized() {
+    LocalDateTime now = LocalDateTime.now();
+    AuthenticatedUser user = new AuthenticatedUser(UUID.randomUUID(), "user@example.com", "stored-hash",
+        "John", "Doe", now, now, true);
+    when(userService.getAuthenticatedUser("user@example.com")).thenReturn(Optional.of(user));
+    when(passwordEncoder.matches("password123", "stored-hash")).thenReturn(false);
+
+    ResponseEntity<AccessTokenResponseDTO> response = authController.login(request("user@example.com"));
+
+    assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    verify(passwordEncoder, never()).encode(anyString());
+    verifyNoInteractions(accessTokenService);
+  }
+
+  private static LoginRequestDTO request(String email) {
+    LoginRequestDTO request = new LoginRequestDTO();
+    request.setEmailAddress(email);
+    request.setPassword("password123");
+    return request;
+  }
+}
@@ -0,0 +1,63 @@
+package com.cloudcomputing.movieRetrievalWebApp.controller;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticatedUser;
+import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCreateDTO;
+import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserUpdateDTO;
+import com.cloudcomputing.movieRetrievalWebApp.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ControllerUtilsTest {
+
+  // The documented email format the precompiled character tables implement.
+  private static final Pattern EMAIL_REGEX = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+
+  private static UserCreateDTO signup(String email, String password) {
+    UserCreateDTO userCreateDTO = new UserCreateDTO();
+    userCreateDTO.setEmailAddress(email);
+    userCreateDTO.setPassword(password);
+    return userCreateDTO;
+  }
+
+  @Test
+  public void testValidateEmailPassword_agreesWithEmailRegex() {
+    List<String> emails = List.of("test@example.com", "first.last+tag@sub-domain.example.org", "a_b-c@d",
+        "UPPER@CASE.COM", "1234@5678", "@example.com", "test@", "test", "", "two@@example.com",
+        "a@b@c", "with space@example.com", "test@exa_mple.com", "tëst@example.com", "test@example.com\n",
+        "test@example.com ", "semi;colon@example.com");
+
+    for (String email : emails) {
+      assertEquals(EMAIL_REGEX.matcher(email).matches(), ControllerUtils.validateEmailPassword(signup(email, "pw")),
+          email);
+    }
+  }
+
+  @Test
+  public void testValidateEmailPassword_rejectsMissingValues() {
+    assertFalse(ControllerUtils.validateEmailPassword(signup(null, "pw")));
+    assertFalse(ControllerUtils.validateEmailPassword(signup("test@example.com", null)));
+    assertFalse(ControllerUtils.validateEmailPassword(signup("test@example.com", "")));
+  }
+
+  @Test
+  public void testUpdateUser_keepsPrincipalNamesForMissingFields() {
+    LocalDateTime now = LocalDateTime.now();
+    AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "test@example.com", null, "John", "Doe",
+        now, now, true);
+    UserUpdateDTO update = new UserUpdateDTO();
+    update.setFirstName("Johnny");
+    update.setLastName("");
+
+    User user = ControllerUtils.updateUser(update, principal);
+
+    assertEquals("Johnny", user.getFirstName());
+    assertEquals("Doe", user.getLastName());
+    assertNull(user.getPassword());
+  }
+}
@@ -1,6 +1,7 @@
 package com.cloudcomputing.movieRetrievalWebApp.controller;
 
 import com.cloudcomputing.movieRetrievalWebApp.config.StatsDConfig;
+import com.cloudcomputing.movieRetrievalWebApp.service.HealthProbeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -19,10 +20,12 @@ import org.springframework.web.context.WebApplicationContext;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(HealthController.class)
-@Import(StatsDConfig.class)
+// Tests publish snapshots with probe() themselves; a background probe would race with their stubs.
+@WebMvcTest(controllers = HealthController.class, properties = "health.probe.background.enabled=false")
+@Import({StatsDConfig.class, HealthProbeService.class})
 public class HealthControllerIntegrationTest {
   @Autowired
   private WebApplicationContext context;
@@ -34,6 +37,9 @@ public class HealthControllerIntegrationTest {
     mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
   }
 
+  @Autowired
+  private HealthProbeService healthProbeService;
+
   @MockBean
   private JdbcTemplate jdbcTemplate;
 
@@ -47,6 +53,7 @@ public class HealthControllerIntegrationTest {
   void testHealthCheck_Success() throws Exception {
     // Simulate a successful DB connection by mocking jdbcTemplate
     doNothing().when(jdbcTemplate).execute("SELECT 1");
+    healthProbeService.probe();
 
     mockMvc.perform(MockMvcRequestBuilders.get("/healthz"))
         .andExpect(status().isOk())
@@ -72,7 +79,7 @@ public class HealthControllerIntegrationTest {
   void testHealthCheck_BadRequest_QueryParameters() throws Exception {
     // Test bad request when query parameters are present
     mockMvc.perform(MockMvcRequestBuilders.get("/healthz")
-        .param("param", "value"))
+        .queryParam("param", "value"))
         .andExpect(status().isBadRequest())
         .andExpect(header().string("Cache-Control", "no-cache"))
         .andExpect(header().string("Pragma", "no-cache"))
@@ -85,6 +92,7 @@ public class HealthControllerIntegrationTest {
     // Simulate database connection failure
     doThrow(new DataAccessException("DB connection error") {
     }).when(jdbcTemplate).execute("SELECT 1");
+    healthProbeService.probe();
 
     mockMvc.perform(MockMvcRequestBuilders.get("/healthz"))
         .andExpect(status().isServiceUnavailable())
@@ -93,6 +101,20 @@ public class HealthControllerIntegrationTest {
         .andExpect(header().string("X-Content-Type-Options", "no-sniff"));
   }
 
+  @Test
+  @WithMockUser
+  void testDeepHealthCheck_ProbesNow() throws Exception {
+    // The deep check queries the database itself rather than reading the snapshot
+    doThrow(new DataAccessException("DB connection error") {
+    }).when(jdbcTemplate).execute("SELECT 1");
+
+    mockMvc.perform(MockMvcRequestBuilders.get("/healthz/deep"))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.status").value("DOWN"))
+        .andExpect(jsonPath("$.components.database.up").value(false))
+        .andExpect(header().string("Cache-Control", "no-cache"));
+  }
+
   @Test
   @WithMockUser
   void testMethodNotAllowed_Post() throws Exception {
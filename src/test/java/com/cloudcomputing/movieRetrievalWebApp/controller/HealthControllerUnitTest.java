@@ -1,32 +1,27 @@
 package com.cloudcomputing.movieRetrievalWebApp.controller;
 
+import com.cloudcomputing.movieRetrievalWebApp.service.HealthProbeService;
 import com.timgroup.statsd.StatsDClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.dao.DataAccessException;
 import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
 
-import jakarta.servlet.http.HttpServletRequest;
+import java.time.Instant;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import java.util.Map;
-
 class HealthControllerUnitTest {
 
   @InjectMocks
   private HealthController healthController;
 
   @Mock
-  private JdbcTemplate jdbcTemplate;
-
-  @Mock
-  private HttpServletRequest request;
+  private HealthProbeService healthProbeService;
 
   @Mock
   private StatsDClient statsDClient;
@@ -39,43 +34,49 @@ class HealthControllerUnitTest {
   @Test
   void testHealthCheck_Success() {
 
-    doNothing().when(jdbcTemplate).execute("SELECT 1");
+    when(healthProbeService.snapshot()).thenReturn(snapshot(true));
 
-    ResponseEntity<Void> response = healthController.healthCheck(request);
+    ResponseEntity<Void> response = healthController.healthCheck();
 
     verify(statsDClient).incrementCounter("api.healthz.get.count");
+    verify(statsDClient).recordGaugeValue(eq("health.snapshot.age"), anyLong());
+    verify(healthProbeService, never()).probe();
     assertEquals(200, response.getStatusCodeValue());
   }
 
   @Test
-  void testHealthCheck_BadRequest_ContentLength() {
+  void testHealthCheck_ServiceUnavailable() {
 
-    when(request.getContentLength()).thenReturn(1);
+    when(healthProbeService.snapshot()).thenReturn(snapshot(false));
 
-    ResponseEntity<Void> response = healthController.healthCheck(request);
+    ResponseEntity<Void> response = healthController.healthCheck();
 
-    assertEquals(400, response.getStatusCodeValue());
+    assertEquals(503, response.getStatusCodeValue());
   }
 
   @Test
-  void testHealthCheck_BadRequest_QueryParameters() {
+  void testHealthCheck_StaleSnapshot() {
 
-    when(request.getParameterMap()).thenReturn(Map.of("param", new String[] { "value" }));
+    HealthProbeService.Snapshot snapshot = snapshot(true);
+    when(healthProbeService.snapshot()).thenReturn(snapshot);
+    when(healthProbeService.isStale(snapshot)).thenReturn(true);
 
-    ResponseEntity<Void> response = healthController.healthCheck(request);
+    ResponseEntity<Void> response = healthController.healthCheck();
 
-    assertEquals(400, response.getStatusCodeValue());
+    verify(statsDClient).incrementCounter("health.snapshot.stale");
+    assertEquals(503, response.getStatusCodeValue());
   }
 
   @Test
-  void testHealthCheck_ServiceUnavailable() {
+  void testDeepHealthCheck_ProbesNow() {
 
-    doThrow(new DataAccessException("DB connection error") {
-    }).when(jdbcTemplate).execute("SELECT 1");
+    when(healthProbeService.refresh()).thenReturn(snapshot(false));
 
-    ResponseEntity<Void> response = healthController.healthCheck(request);
+    ResponseEntity<Map<String, Object>> response = healthController.deepHealthCheck();
 
+    verify(healthProbeService).refresh();
     assertEquals(503, response.getStatusCodeValue());
+    assertEquals("DOWN", response.getBody().get("status"));
   }
 
   @Test
@@ -85,4 +86,10 @@ class HealthControllerUnitTest {
 
     assertEquals(405, response.getStatusCodeValue());
   }
+
+  private static HealthProbeService.Snapshot snapshot(boolean healthy) {
+    return new HealthProbeService.Snapshot(healthy,
+        Map.of("database", new HealthProbeService.ComponentHealth(healthy, 1, healthy ? null : "SQLException")),
+        Instant.now(), System.nanoTime());
+  }
 }
@@ -0,0 +1,340 @@
+package com.cloudcomputing.movieRetrievalWebApp.controller;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AccessTokenService;
+import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.model.User;
+import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
+import com.cloudcomputing.movieRetrievalWebApp.repository.ImageRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.ImageUploadRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.UserRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.VerificationTokenRepository;
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises GET /v1/user/self/pic/content over real HTTP against the local filesystem store, so the
+ * streamed body, range handling and conditional requests are checked end to end, along with the
+ * asynchronous upload and its status endpoint.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ImageControllerIntegrationTest {
+
+  private static final String PASSWORD = "password123";
+
+  @TempDir
+  static Path storageRoot;
+
+  @DynamicPropertySource
+  static void storageProperties(DynamicPropertyRegistry registry) {
+    registry.add("storage.backend", () -> "local");
+    registry.add("storage.local.root", () -> storageRoot.toString());
+    registry.add("image.upload.async.spoolDir", () -> storageRoot.resolve("spool").toString());
+  }
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private UserRepo userRepo;
+
+  @Autowired
+  private VerificationTokenRepository verificationTokenRepository;
+
+  @Autowired
+  private ImageRepo imageRepo;
+
+  @Autowired
+  private ImageUploadRepo imageUploadRepo;
+
+  @Autowired
+  private ObjectStore objectStore;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  @Autowired
+  private AccessTokenService accessTokenService;
+
+  // A fresh address per test, so a principal cached for an earlier test's user is never reused.
+  private final String email = "content-" + UUID.randomUUID() + "@example.com";
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private final byte[] content = new byte[300_000];
+  private User user;
+  private Image image;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (i * 31);
+    }
+
+    user = userRepo.save(new User(email, passwordEncoder.encode(PASSWORD), "Content", "Test"));
+    VerificationToken token = new VerificationToken();
+    token.setToken(UUID.randomUUID());
+    token.setUserId(user.getUserId());
+    token.setUserEmail(email);
+    token.setExpiryDate(LocalDateTime.now().plusHours(1));
+    token.setVerificationFlag(true);
+    verificationTokenRepository.save(token);
+
+    String objectKey = user.getUserId() + "/pic.png";
+    objectStore.put(objectKey, new ByteArrayInputStream(content), content.length, "image/png");
+    image = new Image();
+    image.setUserId(user.getUserId());
+    image.setFileName("pic.png");
+    image.setUrl(objectStore.location(objectKey));
+    image.setObjectKey(objectKey);
+    image = imageRepo.save(image);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    imageUploadRepo.deleteAll();
+    imageRepo.deleteAll();
+    verificationTokenRepository.deleteAll();
+    userRepo.deleteAll();
+  }
+
+  @Test
+  public void getContent_streamsFullImageWithValidators() throws Exception {
+    HttpResponse<byte[]> response = send(request());
+
+    assertEquals(200, response.statusCode());
+    assertArrayEquals(content, response.body());
+    assertEquals("\"" + image.getId() + "\"", response.headers().firstValue("ETag").orElseThrow());
+    assertEquals("image/png", response.headers().firstValue("Content-Type").orElseThrow());
+    assertEquals("bytes", response.headers().firstValue("Accept-Ranges").orElseThrow());
+    assertTrue(response.headers().firstValue("Last-Modified").isPresent());
+  }
+
+  @Test
+  public void getContent_withBearerToken_streamsImage() throws Exception {
+    String token = accessTokenService.issueToken(user.getUserId(), email, true);
+    HttpResponse<byte[]> response = send(HttpRequest.newBuilder(contentUri())
+        .header("Authorization", "Bearer " + token));
+
+    assertEquals(200, response.statusCode());
+    assertArrayEquals(content, response.body());
+  }
+
+  @Test
+  public void getContent_rangeReturnsPartialContent() throws Exception {
+    HttpResponse<byte[]> response = send(request().header("Range", "bytes=1000-1999"));
+
+    assertEquals(206, response.statusCode());
+    assertEquals("bytes 1000-1999/" + content.length, response.headers().firstValue("Content-Range").orElseThrow());
+    assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), response.body());
+  }
+
+  @Test
+  public void getContent_suffixRangeReturnsTail() throws Exception {
+    HttpResponse<byte[]> response = send(request().header("Range", "bytes=-500"));
+
+    assertEquals(206, response.statusCode());
+    assertArrayEquals(Arrays.copyOfRange(content, content.length - 500, content.length), response.body());
+  }
+
+  @Test
+  public void getContent_unsatisfiableRangeReturns416() throws Exception {
+    HttpResponse<byte[]> response = send(request().header("Range", "bytes=" + content.length + "-"));
+
+    assertEquals(416, response.statusCode());
+    assertEquals("bytes */" + content.length, response.headers().firstValue("Content-Range").orElseThrow());
+  }
+
+  @Test
+  public void getContent_staleIfRangeServesFullImage() throws Exception {
+    HttpResponse<byte[]> response = send(request()
+        .header("Range", "bytes=0-9")
+        .header("If-Range", "\"" + UUID.randomUUID() + "\""));
+
+    assertEquals(200, response.statusCode());
+    assertEquals(content.length, response.body().length);
+  }
+
+  @Test
+  public void getContent_matchingIfNoneMatchReturns304() throws Exception {
+    String eTag = send(request()).headers().firstValue("ETag").orElseThrow();
+
+    HttpResponse<byte[]> response = send(request().header("If-None-Match", eTag));
+
+    assertEquals(304, response.statusCode());
+    assertEquals(0, response.body().length);
+    assertEquals(eTag, response.headers().firstValue("ETag").orElseThrow());
+  }
+
+  @Test
+  public void getContent_ifModifiedSinceReturns304UntilChanged() throws Exception {
+    String lastModified = send(request()).headers().firstValue("Last-Modified").orElseThrow();
+
+    assertEquals(304, send(request().header("If-Modified-Since", lastModified)).statusCode());
+    assertEquals(200, send(request().header("If-Modified-Since", "Mon, 01 Jan 2001 00:00:00 GMT")).statusCode());
+  }
+
+  @Test
+  public void getContent_withoutImageReturns404() throws Exception {
+    imageRepo.deleteAll();
+
+    assertEquals(404, send(request()).statusCode());
+  }
+
+  @Test
+  public void getContent_withUnknownQueryParamsReturnsBadRequest() throws Exception {
+    HttpResponse<byte[]> response = send(HttpRequest.newBuilder(URI.create(contentUri() + "?width=64"))
+        .header("Authorization", basicAuth()));
+
+    assertEquals(400, response.statusCode());
+  }
+
+  @Test
+  public void getContent_withUnsupportedSizeReturnsBadRequest() throws Exception {
+    HttpResponse<byte[]> response = send(HttpRequest.newBuilder(URI.create(contentUri() + "?size=65"))
+        .header("Authorization", basicAuth()));
+
+    assertEquals(400, response.statusCode());
+  }
+
+  @Test
+  public void getContent_withSizeStreamsDerivative() throws Exception {
+    byte[] derivative = Arrays.copyOf(content, 1000);
+    objectStore.put(user.getUserId() + "/derivatives/64/pic.png", new ByteArrayInputStream(derivative),
+        derivative.length, "image/png");
+    image.setDerivativeSizes("64");
+    imageRepo.save(image);
+
+    HttpResponse<byte[]> response = send(HttpRequest.newBuilder(URI.create(contentUri() + "?size=64"))
+        .header("Authorization", basicAuth()));
+
+    assertEquals(200, response.statusCode());
+    assertArrayEquals(derivative, response.body());
+    assertEquals("\"" + image.getId() + "-64\"", response.headers().firstValue("ETag").orElseThrow());
+  }
+
+  @Test
+  public void getContent_withSizeNotYetGeneratedServesOriginal() throws Exception {
+    HttpResponse<byte[]> response = send(HttpRequest.newBuilder(URI.create(contentUri() + "?size=256"))
+        .header("Authorization", basicAuth()));
+
+    assertEquals(200, response.statusCode());
+    assertArrayEquals(content, response.body());
+    assertEquals("\"" + image.getId() + "\"", response.headers().firstValue("ETag").orElseThrow());
+  }
+
+  @Test
+  public void getImage_withoutBodyReturnsImageDetails() throws Exception {
+    HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(picUri())
+        .header("Authorization", basicAuth()).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body().contains("pic.png"), response.body());
+  }
+
+  @Test
+  public void getImage_withBodyReturnsBadRequest() throws Exception {
+    HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(picUri())
+        .header("Authorization", basicAuth())
+        .header("Content-Type", "application/json")
+        .method("GET", HttpRequest.BodyPublishers.ofString("{}"))
+        .build(), HttpResponse.BodyHandlers.ofString());
+
+    assertEquals(400, response.statusCode());
+    assertEquals("no-cache", response.headers().firstValue("Pragma").orElseThrow());
+  }
+
+  @Test
+  public void uploadAsync_isAcceptedThenStoredInBackground() throws Exception {
+    imageRepo.deleteAll();
+    byte[] upload = Arrays.copyOf(content, 5000);
+
+    HttpResponse<String> accepted = sendMultipart(URI.create("http://localhost:" + port + "/v1/user/self/pic/async"),
+        "async.png", upload);
+
+    assertEquals(202, accepted.statusCode());
+    assertTrue(accepted.body().contains("\"status\":\"pending\""));
+    URI statusUri = URI.create("http://localhost:" + port
+        + accepted.headers().firstValue("Location").orElseThrow());
+
+    String status = "";
+    for (int i = 0; i < 100 && !status.contains("\"status\":\"complete\""); i++) {
+      Thread.sleep(50);
+      HttpResponse<String> polled = httpClient.send(HttpRequest.newBuilder(statusUri)
+          .header("Authorization", basicAuth()).GET().build(), HttpResponse.BodyHandlers.ofString());
+      assertEquals(200, polled.statusCode());
+      status = polled.body();
+    }
+    assertTrue(status.contains("\"status\":\"complete\""), status);
+
+    HttpResponse<byte[]> stored = send(request());
+    assertEquals(200, stored.statusCode());
+    assertArrayEquals(upload, stored.body());
+  }
+
+  @Test
+  public void uploadStatus_unknownUploadReturns404() throws Exception {
+    HttpResponse<byte[]> response = send(HttpRequest.newBuilder(
+            URI.create("http://localhost:" + port + "/v1/user/self/pic/uploads/" + UUID.randomUUID()))
+        .header("Authorization", basicAuth()));
+
+    assertEquals(404, response.statusCode());
+  }
+
+  private HttpResponse<String> sendMultipart(URI uri, String fileName, byte[] fileContent) throws Exception {
+    String boundary = "boundary-" + UUID.randomUUID();
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    body.write(("--" + boundary + "\r\n"
+        + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+        + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+    body.write(fileContent);
+    body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+    return httpClient.send(HttpRequest.newBuilder(uri)
+        .header("Authorization", basicAuth())
+        .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+        .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+        .build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private HttpRequest.Builder request() {
+    return HttpRequest.newBuilder(contentUri()).header("Authorization", basicAuth());
+  }
+
+  private URI picUri() {
+    return URI.create("http://localhost:" + port + "/v1/user/self/pic");
+  }
+
+  private URI contentUri() {
+    return URI.create("http://localhost:" + port + "/v1/user/self/pic/content");
+  }
+
+  private String basicAuth() {
+    return "Basic " + Base64.getEncoder().encodeToString((email + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private HttpResponse<byte[]> send(HttpRequest.Builder request) throws Exception {
+    return httpClient.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+  }
+}
@@ -1,10 +1,10 @@
 package com.cloudcomputing.movieRetrievalWebApp.controller;
 
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticatedUser;
 import com.cloudcomputing.movieRetrievalWebApp.config.StatsDConfig;
 import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCreateDTO;
 import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserUpdateDTO;
 import com.cloudcomputing.movieRetrievalWebApp.model.User;
-import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
 import com.cloudcomputing.movieRetrievalWebApp.service.UserService;
 import com.cloudcomputing.movieRetrievalWebApp.service.VerificationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -14,18 +14,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -66,9 +70,11 @@ public class UserControllerIntegrationTest {
     userCreateDTO.setLastName("Doe");
     String jsonRequest = new ObjectMapper().writeValueAsString(userCreateDTO);
 
-    // Simulate the case where the user does not already exist
-    when(userService.getUserByEmail(userCreateDTO.getEmailAddress())).thenReturn(Optional.empty());
-    when(userService.addUser(any())).thenReturn(new User());
+    User savedUser = new User();
+    savedUser.setEmailAddress(userCreateDTO.getEmailAddress());
+    savedUser.setFirstName("John");
+    savedUser.setLastName("Doe");
+    when(userService.registerUser(any())).thenReturn(savedUser);
 
     // Perform the POST request and expect a 201 Created response
     mockMvc.perform(post("/v1/user")
@@ -76,7 +82,7 @@ public class UserControllerIntegrationTest {
         .content(jsonRequest))
       .andExpect(status().isCreated());
 
-    verify(userService, times(1)).addUser(any());
+    verify(userService, times(1)).registerUser(any());
   }
 
   @Test
@@ -101,7 +107,7 @@ public class UserControllerIntegrationTest {
     userCreateDTO.setFirstName("John");
     userCreateDTO.setLastName("Doe");
 
-    when(userService.getUserByEmail(any())).thenReturn(Optional.of(new User()));
+    when(userService.registerUser(any())).thenThrow(new DuplicateKeyException("User with this email already exists."));
 
     mockMvc.perform(post("/v1/user")
         .contentType(MediaType.APPLICATION_JSON)
@@ -139,25 +145,18 @@ public class UserControllerIntegrationTest {
       .andExpect(status().isBadRequest());
   }
 
+  private AuthenticatedUser authenticatedUser(String firstName, String lastName, boolean verified) {
+    LocalDateTime now = LocalDateTime.now();
+    return new AuthenticatedUser(UUID.randomUUID(), "usertest1@gmail.com", null, firstName, lastName, now, now,
+      verified);
+  }
+
   @Test
   @WithMockUser(username = "usertest1@gmail.com", password = "userTest1")
   public void getUserInfo_authenticatedUser_returnsUserInfo() throws Exception {
-    User mockUser = new User();
-    mockUser.setEmailAddress("usertest1@gmail.com");
-    mockUser.setFirstName("User");
-    mockUser.setLastName("Test");
-
-    VerificationToken mockVerificationToken = new VerificationToken();
-    mockVerificationToken.setUserId(mockUser.getUserId());
-    mockVerificationToken.setUserEmail(mockUser.getEmailAddress());
-    mockVerificationToken.setVerificationFlag(true);
-
-    // Mock the userService to return the user by email
-    when(userService.getUserByEmail("usertest1@gmail.com")).thenReturn(Optional.of(mockUser));
-
-    // Mock the verificationService to return a verified token for the user
-    when(verificationService.getVerificationTokenByUserId(mockUser.getUserId()))
-      .thenReturn(Optional.of(mockVerificationToken));
+    // A mocked principal carries no profile, so it is loaded once by email.
+    when(userService.getAuthenticatedUser("usertest1@gmail.com"))
+      .thenReturn(Optional.of(authenticatedUser("User", "Test", true)));
 
     mockMvc.perform(get("/v1/user/self"))
       .andExpect(status().isOk())
@@ -165,8 +164,29 @@ public class UserControllerIntegrationTest {
       .andExpect(jsonPath("$.first_name").value("User"))
       .andExpect(jsonPath("$.last_name").value("Test"));
 
-    verify(userService, times(3)).getUserByEmail("usertest1@gmail.com");
-    verify(verificationService, times(1)).getVerificationTokenByUserId(mockUser.getUserId());
+    verify(userService, times(1)).getAuthenticatedUser("usertest1@gmail.com");
+    verify(userService, never()).getUserByEmail(any());
+    verify(verificationService, never()).isUserVerified(any());
+  }
+
+  @Test
+  public void getUserInfo_authenticatedUserPrincipal_servedWithoutLookups() throws Exception {
+    mockMvc.perform(get("/v1/user/self").with(user(authenticatedUser("User", "Test", true))))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.email").value("usertest1@gmail.com"))
+      .andExpect(jsonPath("$.first_name").value("User"));
+
+    verifyNoInteractions(userService, verificationService);
+  }
+
+  @Test
+  public void getUserInfo_principalNotYetVerified_rechecksVerification() throws Exception {
+    when(verificationService.isUserVerified("usertest1@gmail.com")).thenReturn(false);
+
+    mockMvc.perform(get("/v1/user/self").with(user(authenticatedUser("User", "Test", false))))
+      .andExpect(status().isForbidden());
+
+    verify(verificationService, times(1)).isUserVerified("usertest1@gmail.com");
   }
 
   @Test
@@ -196,21 +216,44 @@ public class UserControllerIntegrationTest {
     mockExistingUser.setFirstName("UserUpdated");
     mockExistingUser.setLastName("TestUpdated");
 
-    VerificationToken mockVerificationToken = new VerificationToken();
-    mockVerificationToken.setUserId(mockExistingUser.getUserId());
-    mockVerificationToken.setUserEmail(mockExistingUser.getEmailAddress());
-    mockVerificationToken.setVerificationFlag(true);
-
-    when(userService.getUserByEmail("usertest1@gmail.com")).thenReturn(Optional.of(mockExistingUser));
+    when(userService.getAuthenticatedUser("usertest1@gmail.com"))
+      .thenReturn(Optional.of(authenticatedUser("User", "Test", true)));
     when(userService.updateUser(eq("usertest1@gmail.com"), any())).thenReturn(mockExistingUser);
 
-    // Mock the verificationService to return a verified token for the user
-    when(verificationService.getVerificationTokenByUserId(mockExistingUser.getUserId())).thenReturn(Optional.of(mockVerificationToken));
-
     mockMvc.perform(put("/v1/user/self")
         .contentType(MediaType.APPLICATION_JSON)
         .content(objectMapper.writeValueAsString(userUpdateMap)))
       .andExpect(status().isNoContent());
+
+    verify(userService, never()).getUserByEmail(any());
+  }
+
+  @Test
+  @WithMockUser(username = "usertest1@gmail.com", password = "userTest1")
+  public void updateUser_emailAddressInBody_returnsBadRequest() throws Exception {
+    when(userService.getAuthenticatedUser("usertest1@gmail.com"))
+      .thenReturn(Optional.of(authenticatedUser("User", "Test", true)));
+
+    mockMvc.perform(put("/v1/user/self")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"firstName\":\"UserUpdated\",\"emailAddress\":\"other@gmail.com\"}"))
+      .andExpect(status().isBadRequest());
+
+    verify(userService, never()).updateUser(any(), any());
+  }
+
+  @Test
+  @WithMockUser(username = "usertest1@gmail.com", password = "userTest1")
+  public void updateUser_emptyBody_returnsBadRequest() throws Exception {
+    when(userService.getAuthenticatedUser("usertest1@gmail.com"))
+      .thenReturn(Optional.of(authenticatedUser("User", "Test", true)));
+
+    mockMvc.perform(put("/v1/user/self")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{}"))
+      .andExpect(status().isBadRequest());
+
+    verify(userService, never()).updateUser(any(), any());
   }
 
   @Test
@@ -234,7 +277,7 @@ public class UserControllerIntegrationTest {
   @WithMockUser(username = "usertest1@gmail.com", password = "userTest1")
   public void updateUser_withQueryParams_returnsBadRequest() throws Exception {
     UserUpdateDTO userUpdateDTO = new UserUpdateDTO();
-    userUpdateDTO.setEmailAddress("usertest1@gmail.com");
+    userUpdateDTO.setFirstName("UserUpdated");
 
     mockMvc.perform(put("/v1/user/self?param=value")
         .contentType(MediaType.APPLICATION_JSON)
@@ -1,6 +1,6 @@
 package com.cloudcomputing.movieRetrievalWebApp.controller;
 
-import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticatedUser;
 import com.cloudcomputing.movieRetrievalWebApp.service.VerificationService;
 import com.timgroup.statsd.StatsDClient;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,9 +9,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mock.web.MockHttpServletRequest;
 
 import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCreateDTO;
 import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserResponseDTO;
@@ -20,9 +20,9 @@ import com.cloudcomputing.movieRetrievalWebApp.model.User;
 import com.cloudcomputing.movieRetrievalWebApp.service.UserService;
 
 import java.security.Principal;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -48,51 +48,51 @@ class UserControllerUnitTest {
     MockitoAnnotations.openMocks(this);
   }
 
+  private AuthenticatedUser authenticatedUser(String email) {
+    LocalDateTime now = LocalDateTime.now();
+    return new AuthenticatedUser(UUID.randomUUID(), email, null, "John", "Doe", now, now, true);
+  }
+
   @Test
   void createUser_Success() {
-    Map<String, Object> requestBody = new HashMap<>();
-    requestBody.put("emailAddress", "test@example.com");
-    requestBody.put("password", "password123");
-    requestBody.put("firstName", "John");
-    requestBody.put("lastName", "Doe");
-
-    MockHttpServletRequest request = new MockHttpServletRequest();
+    UserCreateDTO requestBody = new UserCreateDTO();
+    requestBody.setEmailAddress("test@example.com");
+    requestBody.setPassword("password123");
+    requestBody.setFirstName("John");
+    requestBody.setLastName("Doe");
 
     try (MockedStatic<ControllerUtils> mockedControllerUtils = mockStatic(ControllerUtils.class)) {
       mockedControllerUtils.when(() -> ControllerUtils.validateEmailPassword(any(UserCreateDTO.class)))
           .thenReturn(true);
-      mockedControllerUtils.when(() -> ControllerUtils.checkUserExists(userService, "test@example.com"))
-          .thenReturn(false);
       mockedControllerUtils.when(() -> ControllerUtils.createUser(any(UserCreateDTO.class))).thenReturn(new User());
-      mockedControllerUtils.when(() -> ControllerUtils.getExsistingUser(userService, "test@example.com"))
-          .thenReturn(Optional.of(new User()));
+      when(userService.registerUser(any(User.class))).thenReturn(new User());
       mockedControllerUtils.when(() -> ControllerUtils.setResponseObject(any(Optional.class)))
           .thenReturn(new UserResponseDTO());
 
-      ResponseEntity<UserResponseDTO> response = userController.createUser(requestBody, request);
+      ResponseEntity<UserResponseDTO> response = userController.createUser(requestBody);
 
       assertEquals(HttpStatus.CREATED, response.getStatusCode());
       assertNotNull(response.getBody());
+      verify(userService).registerUser(any(User.class));
     }
   }
 
   @Test
   void createUser_UserAlreadyExists() {
-    Map<String, Object> requestBody = new HashMap<>();
-    requestBody.put("emailAddress", "existing@example.com");
-    requestBody.put("password", "password123");
-    requestBody.put("firstName", "John");
-    requestBody.put("lastName", "Doe");
-
-    MockHttpServletRequest request = new MockHttpServletRequest();
+    UserCreateDTO requestBody = new UserCreateDTO();
+    requestBody.setEmailAddress("existing@example.com");
+    requestBody.setPassword("password123");
+    requestBody.setFirstName("John");
+    requestBody.setLastName("Doe");
 
     try (MockedStatic<ControllerUtils> mockedControllerUtils = mockStatic(ControllerUtils.class)) {
       mockedControllerUtils.when(() -> ControllerUtils.validateEmailPassword(any(UserCreateDTO.class)))
           .thenReturn(true);
-      mockedControllerUtils.when(() -> ControllerUtils.checkUserExists(userService, "existing@example.com"))
-          .thenReturn(true);
+      mockedControllerUtils.when(() -> ControllerUtils.createUser(any(UserCreateDTO.class))).thenReturn(new User());
+      when(userService.registerUser(any(User.class)))
+          .thenThrow(new DuplicateKeyException("User with this email already exists."));
 
-      ResponseEntity<UserResponseDTO> response = userController.createUser(requestBody, request);
+      ResponseEntity<UserResponseDTO> response = userController.createUser(requestBody);
 
       assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
@@ -101,49 +101,35 @@ class UserControllerUnitTest {
   @Test
   void getUserInfo_Success() {
     Principal principal = () -> "test@example.com";
-    MockHttpServletRequest mockRequest = new MockHttpServletRequest();
-
-    User mockUser = new User();
-    mockUser.setEmailAddress("test@example.com");
-    mockUser.setFirstName("John");
-    mockUser.setLastName("Doe");
 
-    VerificationToken token = new VerificationToken();
-    token.setVerificationFlag(true);
+    AuthenticatedUser mockUser = authenticatedUser("test@example.com");
 
     try (MockedStatic<ControllerUtils> mockedControllerUtils = mockStatic(ControllerUtils.class)) {
-      mockedControllerUtils.when(() -> ControllerUtils.checkUserExists(userService, "test@example.com"))
-        .thenReturn(true);
-      mockedControllerUtils.when(() -> ControllerUtils.getExsistingUser(userService, "test@example.com"))
+      mockedControllerUtils.when(() -> ControllerUtils.getAuthenticatedUser(userService, principal))
         .thenReturn(Optional.of(mockUser));
-      mockedControllerUtils.when(() -> ControllerUtils.setResponseObject(any(Optional.class)))
+      mockedControllerUtils.when(() -> ControllerUtils.checkUserVerified(verificationService, mockUser))
+        .thenReturn(true);
+      mockedControllerUtils.when(() -> ControllerUtils.setResponseObject(mockUser))
         .thenReturn(new UserResponseDTO());
 
-      // Mock userService to return the user
-      when(userService.getUserByEmail("test@example.com"))
-        .thenReturn(Optional.of(mockUser));
-
-      // Mock verificationService to return a verified token
-      when(verificationService.getVerificationTokenByUserId(mockUser.getUserId()))
-        .thenReturn(Optional.of(token));
-
-      ResponseEntity<UserResponseDTO> response = userController.getUserInfo(mockRequest, principal);
+      ResponseEntity<UserResponseDTO> response = userController.getUserInfo(principal);
 
       assertEquals(HttpStatus.OK, response.getStatusCode());
       assertNotNull(response.getBody());
+      // The profile comes from the principal; no further lookups are made.
+      verifyNoInteractions(userService);
     }
   }
 
   @Test
   void getUserInfo_UserNotFound() {
     Principal principal = () -> "nonexistent@example.com";
-    MockHttpServletRequest request = new MockHttpServletRequest();
 
     try (MockedStatic<ControllerUtils> mockedControllerUtils = mockStatic(ControllerUtils.class)) {
-      mockedControllerUtils.when(() -> ControllerUtils.checkUserExists(userService, "nonexistent@example.com"))
-          .thenReturn(false);
+      mockedControllerUtils.when(() -> ControllerUtils.getAuthenticatedUser(userService, principal))
+          .thenReturn(Optional.empty());
 
-      ResponseEntity<UserResponseDTO> response = userController.getUserInfo(request, principal);
+      ResponseEntity<UserResponseDTO> response = userController.getUserInfo(principal);
 
       assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
@@ -152,53 +138,70 @@ class UserControllerUnitTest {
   @Test
   void updateUser_Success() {
     Principal principal = () -> "test@example.com";
-    Map<String, Object> mockRequestBody = new HashMap<>();
-    mockRequestBody.put("firstName", "UpdatedJohn");
-    mockRequestBody.put("lastName", "UpdatedDoe");
-
-    MockHttpServletRequest mockRequest = new MockHttpServletRequest();
+    UserUpdateDTO mockRequestBody = new UserUpdateDTO();
+    mockRequestBody.setFirstName("UpdatedJohn");
+    mockRequestBody.setLastName("UpdatedDoe");
 
     User mockExistingUser = new User();
     mockExistingUser.setEmailAddress("test@example.com");
 
-    VerificationToken mockVerificationToken = new VerificationToken();
-    mockVerificationToken.setVerificationFlag(true);
+    AuthenticatedUser mockUser = authenticatedUser("test@example.com");
 
     try (MockedStatic<ControllerUtils> mockedControllerUtils = mockStatic(ControllerUtils.class)) {
-      mockedControllerUtils.when(() -> ControllerUtils.checkUserExists(userService, "test@example.com"))
+      mockedControllerUtils.when(() -> ControllerUtils.getAuthenticatedUser(userService, principal))
+        .thenReturn(Optional.of(mockUser));
+      mockedControllerUtils.when(() -> ControllerUtils.checkUserVerified(verificationService, mockUser))
         .thenReturn(true);
-      mockedControllerUtils.when(() -> ControllerUtils.updateUser(eq(userService),
-          any(UserUpdateDTO.class), eq("test@example.com")))
+      mockedControllerUtils.when(() -> ControllerUtils.updateUser(any(UserUpdateDTO.class), eq(mockUser)))
         .thenReturn(mockExistingUser);
 
-      // Mock `userService.getUserByEmail` to return the user
-      when(userService.getUserByEmail("test@example.com"))
-        .thenReturn(Optional.of(mockExistingUser));
+      ResponseEntity<UserResponseDTO> response = userController.updateUser(principal, mockRequestBody);
+
+      assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+      verify(userService).updateUser(eq("test@example.com"), any(User.class));
+      verify(userService, never()).getAuthenticatedUser(anyString());
+      verify(userService, never()).getUserByEmail(anyString());
+    }
+  }
+
+  @Test
+  void updateUser_tokenPrincipal_loadsProfileOnce() {
+    Principal principal = () -> "test@example.com";
+    UserUpdateDTO requestBody = new UserUpdateDTO();
+    requestBody.setFirstName("UpdatedJohn");
 
-      // Mock `verificationService.getVerificationTokenByUserId` to return a verified token
-      when(verificationService.getVerificationTokenByUserId(mockExistingUser.getUserId()))
-        .thenReturn(Optional.of(mockVerificationToken));
+    AuthenticatedUser tokenUser = new AuthenticatedUser(UUID.randomUUID(), "test@example.com", null, null, null,
+        null, null, true);
+    AuthenticatedUser loadedUser = authenticatedUser("test@example.com");
+    when(userService.getAuthenticatedUser("test@example.com")).thenReturn(Optional.of(loadedUser));
 
-      ResponseEntity<UserResponseDTO> response = userController.updateUser(principal, mockRequestBody, mockRequest);
+    try (MockedStatic<ControllerUtils> mockedControllerUtils = mockStatic(ControllerUtils.class)) {
+      mockedControllerUtils.when(() -> ControllerUtils.getAuthenticatedUser(userService, principal))
+        .thenReturn(Optional.of(tokenUser));
+      mockedControllerUtils.when(() -> ControllerUtils.checkUserVerified(verificationService, tokenUser))
+        .thenReturn(true);
+      mockedControllerUtils.when(() -> ControllerUtils.updateUser(any(UserUpdateDTO.class), eq(loadedUser)))
+        .thenReturn(new User());
+
+      ResponseEntity<UserResponseDTO> response = userController.updateUser(principal, requestBody);
 
       assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-      verify(userService).updateUser(eq("test@example.com"), any(User.class));
+      verify(userService, times(1)).getAuthenticatedUser("test@example.com");
+      mockedControllerUtils.verify(() -> ControllerUtils.updateUser(any(UserUpdateDTO.class), eq(loadedUser)));
     }
   }
 
   @Test
   void updateUser_UserNotFound() {
     Principal principal = () -> "nonexistent@example.com";
-    Map<String, Object> requestBody = new HashMap<>();
-    requestBody.put("firstName", "UpdatedJohn");
-
-    MockHttpServletRequest request = new MockHttpServletRequest();
+    UserUpdateDTO requestBody = new UserUpdateDTO();
+    requestBody.setFirstName("UpdatedJohn");
 
     try (MockedStatic<ControllerUtils> mockedControllerUtils = mockStatic(ControllerUtils.class)) {
-      mockedControllerUtils.when(() -> ControllerUtils.checkUserExists(userService, "nonexistent@example.com"))
-          .thenReturn(false);
+      mockedControllerUtils.when(() -> ControllerUtils.getAuthenticatedUser(userService, principal))
+          .thenReturn(Optional.empty());
 
-      ResponseEntity<UserResponseDTO> response = userController.updateUser(principal, requestBody, request);
+      ResponseEntity<UserResponseDTO> response = userController.updateUser(principal, requestBody);
 
       assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
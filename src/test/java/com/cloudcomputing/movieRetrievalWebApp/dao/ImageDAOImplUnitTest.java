@@ -0,0 +1,101 @@
+package com.cloudcomputing.movieRetrievalWebApp.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.implementation.ImageDAOImpl;
+import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.repository.ImageRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class ImageDAOImplUnitTest {
+
+  @Mock
+  private ImageRepo imageRepo;
+
+  @InjectMocks
+  private ImageDAOImpl imageDAOImpl;
+
+  @Test
+  public void testGetImageByUserId() {
+    // Arrange
+    UUID userId = UUID.randomUUID();
+    Image image = new Image();
+    image.setUserId(userId);
+    when(imageRepo.findByUserId(userId)).thenReturn(Optional.of(image));
+
+    // Act
+    Optional<Image> result = imageDAOImpl.getImageByUserId(userId);
+
+    // Assert
+    assertTrue(result.isPresent());
+    assertEquals(userId, result.get().getUserId());
+    verify(imageRepo, never()).findAll();
+  }
+
+  @Test
+  public void testCreateImage_imageDoesNotExist() {
+    // Arrange
+    Image image = new Image();
+    image.setUserId(UUID.randomUUID());
+    when(imageRepo.saveAndFlush(image)).thenReturn(image);
+
+    // Act
+    Image created = imageDAOImpl.createImage(image);
+
+    // Assert
+    assertEquals(image.getId(), created.getId());
+    verify(imageRepo, never()).findAll();
+  }
+
+  @Test
+  public void testCreateImage_imageAlreadyExists() {
+    // Arrange
+    Image image = new Image();
+    image.setUserId(UUID.randomUUID());
+    when(imageRepo.saveAndFlush(image)).thenThrow(new DataIntegrityViolationException("uk_images_user_id"));
+
+    // Act & Assert
+    assertThrows(EntityExistsException.class, () -> imageDAOImpl.createImage(image));
+  }
+
+  @Test
+  public void testDeleteImage_imageExists() {
+    // Arrange
+    UUID userId = UUID.randomUUID();
+    when(imageRepo.deleteByUserId(userId)).thenReturn(1);
+
+    // Act
+    imageDAOImpl.deleteImage(userId);
+
+    // Assert
+    verify(imageRepo, times(1)).deleteByUserId(userId);
+  }
+
+  @Test
+  public void testDeleteImage_imageDoesNotExist() {
+    // Arrange
+    UUID userId = UUID.randomUUID();
+    when(imageRepo.deleteByUserId(userId)).thenReturn(0);
+
+    // Act & Assert
+    assertThrows(EntityNotFoundException.class, () -> imageDAOImpl.deleteImage(userId));
+  }
+}
@@ -9,16 +9,19 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
 
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
-import com.timgroup.statsd.StatsDClient;
-import jakarta.persistence.EntityExistsException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 
 import com.cloudcomputing.movieRetrievalWebApp.dao.implementation.UserDAOImpl;
 import com.cloudcomputing.movieRetrievalWebApp.model.User;
@@ -30,9 +33,6 @@ public class UserDAOImplUnitTest {
   @Mock
   private UserRepo userRepo;
 
-  @Mock
-  private StatsDClient statsDClient;
-
   @InjectMocks
   private UserDAOImpl userDAOImpl;
 
@@ -50,39 +50,81 @@ public class UserDAOImplUnitTest {
     verify(userRepo, times(1)).findAll();
   }
 
+  @Test
+  public void testGetUserByEmail() {
+    // Arrange
+    User user = new User("john@example.com", "password", "John", "Doe");
+    when(userRepo.findByEmailAddress("john@example.com")).thenReturn(Optional.of(user));
+
+    // Act
+    Optional<User> result = userDAOImpl.getUserByEmail("john@example.com");
+
+    // Assert
+    assertTrue(result.isPresent());
+    assertEquals("john@example.com", result.get().getEmailAddress());
+    verify(userRepo, times(1)).findByEmailAddress("john@example.com");
+    verify(userRepo, times(0)).findAll();
+  }
+
+  @Test
+  public void testExistsByEmail() {
+    // Arrange
+    when(userRepo.existsByEmailAddress("john@example.com")).thenReturn(true);
+    when(userRepo.existsByEmailAddress("jane@example.com")).thenReturn(false);
+
+    // Act & Assert
+    assertTrue(userDAOImpl.existsByEmail("john@example.com"));
+    assertFalse(userDAOImpl.existsByEmail("jane@example.com"));
+  }
+
   @Test
   public void testCreateUser_userDoesNotExist() {
     // Arrange
     User newUser = new User("john@example.com", "password", "John", "Doe");
-    when(userRepo.findAll()).thenReturn(Collections.emptyList());
-    when(userRepo.save(any(User.class))).thenReturn(newUser);
+    when(userRepo.saveAndFlush(any(User.class))).thenReturn(newUser);
 
     // Act
     User createdUser = userDAOImpl.createUser(newUser);
 
     // Assert
     assertEquals("john@example.com", createdUser.getEmailAddress());
-    verify(userRepo, times(1)).save(any(User.class));
+    verify(userRepo, times(1)).saveAndFlush(any(User.class));
+    verify(userRepo, times(0)).existsByEmailAddress(any());
   }
 
   @Test
   public void testCreateUser_userAlreadyExists() {
     // Arrange
     User existingUser = new User("john@example.com", "password", "John", "Doe");
-    when(userRepo.findAll()).thenReturn(Collections.singletonList(existingUser));
+    when(userRepo.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+        new ConstraintViolationException("duplicate", new SQLException(), "PUBLIC.UK_USERS_EMAIL_ADDRESS_INDEX_4")));
 
     // Act & Assert
-    assertThrows(EntityExistsException.class, () -> {
+    assertThrows(DuplicateKeyException.class, () -> {
       userDAOImpl.createUser(existingUser);
     });
   }
 
+  @Test
+  public void testCreateUser_otherConstraintViolated() {
+    // Arrange
+    User invalidUser = new User("john@example.com", "password", null, "Doe");
+    DataIntegrityViolationException notNull = new DataIntegrityViolationException("not null",
+        new ConstraintViolationException("not null", new SQLException(), null));
+    when(userRepo.saveAndFlush(any(User.class))).thenThrow(notNull);
+
+    // Act & Assert
+    DataIntegrityViolationException thrown =
+        assertThrows(DataIntegrityViolationException.class, () -> userDAOImpl.createUser(invalidUser));
+    assertEquals(notNull, thrown);
+  }
+
   @Test
   public void testUpdateUser_userExists() {
     // Arrange
     User existingUser = new User("john@example.com", "password", "John", "Doe");
     User updatedUser = new User("john@example.com", "newpassword", "John", "Smith");
-    when(userRepo.findAll()).thenReturn(Collections.singletonList(existingUser));
+    when(userRepo.findByEmailAddress("john@example.com")).thenReturn(Optional.of(existingUser));
     when(userRepo.save(any(User.class))).thenReturn(updatedUser);
 
     // Act
@@ -96,7 +138,7 @@ public class UserDAOImplUnitTest {
   @Test
   public void testUpdateUser_userDoesNotExist() {
     // Arrange
-    when(userRepo.findAll()).thenReturn(Collections.emptyList());
+    when(userRepo.findByEmailAddress("nonexistent@example.com")).thenReturn(Optional.empty());
     User updatedUser = new User("john@example.com", "newpassword", "John", "Smith");
 
     // Act & Assert
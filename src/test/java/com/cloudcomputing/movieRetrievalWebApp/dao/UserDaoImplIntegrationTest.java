@@ -66,8 +66,7 @@ public class UserDaoImplIntegrationTest {
   @Test
   public void testCreateUser_userDoesNotExist() {
     // Arrange
-    when(userRepo.findAll()).thenReturn(Collections.emptyList());
-    when(userRepo.save(any(User.class))).thenReturn(sampleUser);
+    when(userRepo.saveAndFlush(any(User.class))).thenReturn(sampleUser);
 
     // Act
     User createdUser = userDAOImpl.createUser(sampleUser);
@@ -75,14 +74,14 @@ public class UserDaoImplIntegrationTest {
     // Assert
     assertNotNull(createdUser);
     assertEquals("john.doe@example.com", createdUser.getEmailAddress());
-    verify(userRepo, times(1)).save(any(User.class));
+    verify(userRepo, times(1)).saveAndFlush(any(User.class));
   }
 
   @Test
   public void testUpdateUser_userExists() {
     // Arrange
     User updatedUser = new User("john.doe@example.com", "newpassword", "John", "Smith");
-    when(userRepo.findAll()).thenReturn(Collections.singletonList(sampleUser));
+    when(userRepo.findByEmailAddress("john.doe@example.com")).thenReturn(Optional.of(sampleUser));
     when(userRepo.save(any(User.class))).thenReturn(updatedUser);
 
     // Act
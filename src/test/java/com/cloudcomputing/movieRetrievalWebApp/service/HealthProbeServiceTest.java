@@ -0,0 +1,158 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import software.amazon.awssdk.services.sns.SnsClient;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class HealthProbeServiceTest {
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final ObjectStore objectStore = mock(ObjectStore.class);
+  private final StatsDClient statsDClient = mock(StatsDClient.class);
+
+  private HealthProbeService service;
+
+  @AfterEach
+  public void tearDown() {
+    if (service != null) {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testProbe_publishesTheSnapshot() {
+    service = newService(60_000, false);
+
+    HealthProbeService.Snapshot snapshot = service.probe();
+
+    assertTrue(snapshot.healthy());
+    assertTrue(snapshot.components().get("database").up());
+    assertSame(snapshot, service.snapshot());
+    assertFalse(service.isStale(snapshot));
+    verify(statsDClient, atLeastOnce()).recordExecutionTime(eq("health.probe.database.time"), anyLong());
+  }
+
+  @Test
+  public void testProbe_reportsAFailingDatabase() {
+    doThrow(new DataAccessResourceFailureException("down")).when(jdbcTemplate).execute("SELECT 1");
+    service = newService(60_000, false);
+
+    HealthProbeService.Snapshot snapshot = service.probe();
+
+    assertFalse(snapshot.healthy());
+    assertEquals("DataAccessResourceFailureException", snapshot.components().get("database").error());
+    verify(statsDClient, atLeastOnce()).incrementCounter("health.probe.database.failure");
+  }
+
+  @Test
+  public void testProbe_checksStorageWhenEnabled() throws IOException {
+    when(objectStore.head(HealthProbeService.STORAGE_PROBE_KEY)).thenThrow(new IOException("unreachable"));
+    service = newService(60_000, true);
+
+    HealthProbeService.Snapshot snapshot = service.probe();
+
+    assertTrue(snapshot.components().get("database").up());
+    assertFalse(snapshot.components().get("storage").up());
+    assertFalse(snapshot.healthy());
+  }
+
+  @Test
+  public void testProbe_skipsStorageWhenDisabled() throws IOException {
+    when(objectStore.head(HealthProbeService.STORAGE_PROBE_KEY)).thenReturn(Optional.empty());
+    service = newService(60_000, false);
+
+    assertFalse(service.probe().components().containsKey("storage"));
+    verify(objectStore, never()).head(anyString());
+  }
+
+  @Test
+  public void testIsStale_afterStaleAfterMs() throws InterruptedException {
+    service = newService(0, false);
+
+    HealthProbeService.Snapshot snapshot = service.probe();
+    Thread.sleep(5);
+
+    assertTrue(service.isStale(snapshot));
+    assertTrue(service.ageMillis(snapshot) >= 5);
+  }
+
+  @Test
+  public void testRefresh_answersFromAFreshSnapshot() {
+    service = newService(60_000, false);
+
+    HealthProbeService.Snapshot first = service.refresh();
+    HealthProbeService.Snapshot second = service.refresh();
+
+    assertSame(first, second);
+    verify(jdbcTemplate, times(1)).execute("SELECT 1");
+  }
+
+  @Test
+  public void testRefresh_probesOnceTheSnapshotIsOlderThanTheMinimumInterval() throws InterruptedException {
+    service = newService(60_000, false, 0);
+
+    HealthProbeService.Snapshot first = service.refresh();
+    Thread.sleep(1);
+
+    assertNotSame(first, service.refresh());
+    verify(jdbcTemplate, times(2)).execute("SELECT 1");
+  }
+
+  @Test
+  public void testStart_keepsTheSnapshotFreshWhileTheSchedulerIsBlocked() throws InterruptedException {
+    // The application scheduler has one thread; a job stuck on SNS or S3 holds it.
+    ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+    taskScheduler.initialize();
+    CountDownLatch release = new CountDownLatch(1);
+    taskScheduler.execute(() -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    try {
+      service = new HealthProbeService(jdbcTemplate, provider(objectStore), provider(mock(SnsClient.class)),
+          statsDClient, true, 10, 200, 60_000, false, false, "");
+      service.start();
+
+      Thread.sleep(500);
+
+      HealthProbeService.Snapshot snapshot = service.snapshot();
+      assertTrue(snapshot.healthy());
+      assertFalse(service.isStale(snapshot));
+    } finally {
+      release.countDown();
+      taskScheduler.shutdown();
+    }
+  }
+
+  private HealthProbeService newService(long staleAfterMs, boolean probeStorage) {
+    return newService(staleAfterMs, probeStorage, 60_000);
+  }
+
+  private HealthProbeService newService(long staleAfterMs, boolean probeStorage, long deepMinIntervalMs) {
+    return new HealthProbeService(jdbcTemplate, provider(objectStore), provider(mock(SnsClient.class)),
+        statsDClient, false, 60_000, staleAfterMs, deepMinIntervalMs, probeStorage, false, "");
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> ObjectProvider<T> provider(T object) {
+    ObjectProvider<T> provider = mock(ObjectProvider.class);
+    when(provider.getObject()).thenReturn(object);
+    return provider;
+  }
+}
@@ -0,0 +1,200 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.ImageDAO;
+import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.storage.LocalFileSystemObjectStore;
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ImageDerivativeServiceTest {
+
+  private static final String OBJECT_KEY = "user/pic.png";
+
+  @TempDir
+  private Path root;
+
+  private ObjectStore objectStore;
+  private ImageDAO imageDAO;
+  private StatsDClient statsDClient;
+  private ImageDerivativeService derivativeService;
+  private Image image;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    statsDClient = mock(StatsDClient.class);
+    objectStore = new LocalFileSystemObjectStore(root, statsDClient);
+    imageDAO = mock(ImageDAO.class);
+    when(imageDAO.updateDerivativeSizes(any(), anyString())).thenReturn(true);
+    derivativeService = new ImageDerivativeService(objectStore, imageDAO, statsDClient, true,
+        new int[]{1024, 64, 256}, 1, 1, 50_000_000L);
+
+    image = new Image();
+    image.setObjectKey(OBJECT_KEY);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    derivativeService.shutdown();
+  }
+
+  @Test
+  public void testDerivativeKey_isNextToOriginal() {
+    assertEquals("user/derivatives/64/pic.png", ImageDerivativeService.derivativeKey(OBJECT_KEY, 64));
+  }
+
+  @Test
+  public void testGenerateDerivatives_scalesLongestSideAndRecordsSizes() throws IOException {
+    store(image(2000, 1000, "png"));
+
+    derivativeService.generateDerivatives(image, OBJECT_KEY);
+
+    assertDimensions(ImageDerivativeService.derivativeKey(OBJECT_KEY, 1024), 1024, 512);
+    assertDimensions(ImageDerivativeService.derivativeKey(OBJECT_KEY, 256), 256, 128);
+    assertDimensions(ImageDerivativeService.derivativeKey(OBJECT_KEY, 64), 64, 32);
+    verify(imageDAO).updateDerivativeSizes(image.getId(), "64,256,1024");
+    assertTrue(image.hasDerivative(256));
+    verify(statsDClient).count("image.derivatives.generated", 3);
+    verify(statsDClient).recordExecutionTime(eq("image.derivatives.time"), anyLong());
+  }
+
+  @Test
+  public void testGenerateDerivatives_neverScalesUp() throws IOException {
+    store(image(300, 200, "jpeg"));
+
+    derivativeService.generateDerivatives(image, OBJECT_KEY);
+
+    verify(imageDAO).updateDerivativeSizes(image.getId(), "64,256");
+    assertTrue(objectStore.head(ImageDerivativeService.derivativeKey(OBJECT_KEY, 1024)).isEmpty());
+    assertDimensions(ImageDerivativeService.derivativeKey(OBJECT_KEY, 256), 256, 171);
+  }
+
+  @Test
+  public void testGenerateDerivatives_skipsContentThatIsNotAnImage() throws IOException {
+    byte[] notAnImage = "plain text".getBytes();
+    objectStore.put(OBJECT_KEY, new ByteArrayInputStream(notAnImage), notAnImage.length, "text/plain");
+
+    derivativeService.generateDerivatives(image, OBJECT_KEY);
+
+    verify(statsDClient).incrementCounter("image.derivatives.unsupported");
+    verify(imageDAO, never()).updateDerivativeSizes(any(), anyString());
+  }
+
+  @Test
+  public void testGenerateDerivatives_skipsImagesOverPixelLimit() throws IOException {
+    derivativeService = new ImageDerivativeService(objectStore, imageDAO, statsDClient, true,
+        new int[]{64}, 1, 1, 100_000L);
+    store(image(1000, 1000, "png"));
+
+    derivativeService.generateDerivatives(image, OBJECT_KEY);
+
+    verify(statsDClient).incrementCounter("image.derivatives.too_large");
+    assertTrue(objectStore.list("user/derivatives/").isEmpty());
+  }
+
+  @Test
+  public void testGenerateDerivatives_missingOriginalCountsFailure() {
+    derivativeService.generateDerivatives(image, OBJECT_KEY);
+
+    verify(statsDClient).incrementCounter("image.derivatives.failed");
+  }
+
+  @Test
+  public void testGenerateDerivatives_imageDeletedMeanwhileRemovesDerivatives() throws IOException {
+    when(imageDAO.updateDerivativeSizes(any(), anyString())).thenReturn(false);
+    store(image(500, 500, "png"));
+
+    derivativeService.generateDerivatives(image, OBJECT_KEY);
+
+    assertTrue(objectStore.list("user/derivatives/").isEmpty());
+  }
+
+  @Test
+  public void testGenerateDerivatives_imageDeletedKeepsDerivativesOfDeduplicatedContentForTheSweep()
+      throws IOException {
+    when(imageDAO.updateDerivativeSizes(any(), anyString())).thenReturn(false);
+    image.setContentHash("abc");
+    store(image(500, 500, "png"));
+
+    derivativeService.generateDerivatives(image, OBJECT_KEY);
+
+    assertFalse(objectStore.list("user/derivatives/").isEmpty());
+  }
+
+  @Test
+  public void testSubmit_rejectsWhenQueueIsFull() throws Exception {
+    CountDownLatch blockWorker = new CountDownLatch(1);
+    CountDownLatch workerStarted = new CountDownLatch(1);
+    ObjectStore blockingStore = mock(ObjectStore.class);
+    when(blockingStore.get(anyString())).thenAnswer(invocation -> {
+      workerStarted.countDown();
+      blockWorker.await(5, TimeUnit.SECONDS);
+      throw new IOException("gone");
+    });
+    derivativeService.shutdown();
+    derivativeService = new ImageDerivativeService(blockingStore, imageDAO, statsDClient, true,
+        new int[]{64}, 1, 1, 50_000_000L);
+
+    assertTrue(derivativeService.submit(image, OBJECT_KEY));
+    assertTrue(workerStarted.await(5, TimeUnit.SECONDS));
+    assertTrue(derivativeService.submit(image, OBJECT_KEY)); // fills the one queue slot
+    assertFalse(derivativeService.submit(image, OBJECT_KEY));
+
+    verify(statsDClient).incrementCounter("image.derivatives.rejected");
+    verify(statsDClient, atLeastOnce()).recordGaugeValue(eq("image.derivatives.queue_depth"), eq(1L));
+    blockWorker.countDown();
+  }
+
+  @Test
+  public void testSubmit_disabledDoesNothing() {
+    derivativeService = new ImageDerivativeService(objectStore, imageDAO, statsDClient, false,
+        new int[]{64}, 1, 1, 50_000_000L);
+
+    assertFalse(derivativeService.submit(image, OBJECT_KEY));
+  }
+
+  private void store(byte[] content) throws IOException {
+    objectStore.put(OBJECT_KEY, new ByteArrayInputStream(content), content.length, "image/png");
+  }
+
+  private void assertDimensions(String key, int width, int height) throws IOException {
+    try (InputStream content = objectStore.get(key)) {
+      BufferedImage derivative = ImageIO.read(content);
+      assertEquals(width, derivative.getWidth());
+      assertEquals(height, derivative.getHeight());
+    }
+  }
+
+  private static byte[] image(int width, int height, String format) throws IOException {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = image.createGraphics();
+    graphics.setColor(Color.ORANGE);
+    graphics.fillRect(0, 0, width / 2, height);
+    graphics.dispose();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, format, out);
+    return out.toByteArray();
+  }
+}
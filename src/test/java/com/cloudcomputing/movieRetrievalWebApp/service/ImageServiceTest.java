@@ -0,0 +1,291 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.ImageDAO;
+import com.cloudcomputing.movieRetrievalWebApp.dto.imagedto.ImageResponseDTO;
+import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.storage.LocalFileSystemObjectStore;
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
+import com.timgroup.statsd.StatsDClient;
+import jakarta.persistence.EntityExistsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ImageServiceTest {
+
+  @Mock
+  private ImageDAO imageDAO;
+
+  @Mock
+  private ObjectStore objectStore;
+
+  @Mock
+  private ImageDerivativeService imageDerivativeService;
+
+  @Mock
+  private StoredContentService storedContentService;
+
+  @Mock
+  private StatsDClient statsDClient;
+
+  @InjectMocks
+  private ImageService imageService;
+
+  private final UUID userId = UUID.randomUUID();
+
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(imageService, "presignedUrlTtlSeconds", 300L);
+
+    when(storedContentService.reference(any(Image.class))).thenReturn(Optional.empty());
+    when(storedContentService.attach(any(Image.class))).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+    when(objectStore.location(anyString())).thenAnswer(invocation -> "test-bucket/" + invocation.getArgument(0));
+    when(imageDerivativeService.getSizes()).thenReturn(new int[]{64, 256});
+  }
+
+  @Test
+  public void testUploadImage_streamsToContentKeyAndRecordsHash() throws IOException {
+    byte[] content = new byte[1024];
+    String key = "content/" + sha256(content);
+
+    imageService.uploadImage(new MockMultipartFile("file", "pic.png", "image/png", content), userId);
+
+    verify(objectStore).put(eq(key), any(InputStream.class), eq(1024L), eq("image/png"));
+    verify(storedContentService).attach(argThat((Image image) ->
+        image.getObjectKey().equals(key)
+            && image.getContentHash().equals(sha256(content))
+            && image.getUrl().equals("test-bucket/" + key)));
+    verify(imageDerivativeService).submit(any(Image.class), eq(key));
+    verify(statsDClient, never()).incrementCounter("image.dedup.puts_saved");
+  }
+
+  @Test
+  public void testUploadImage_duplicateContentSkipsPutAndReusesDerivatives() throws IOException {
+    byte[] content = "same picture".getBytes();
+    when(storedContentService.reference(any(Image.class))).thenAnswer(invocation -> {
+      Image image = invocation.getArgument(0);
+      image.setDerivativeSizes("64,256");
+      return Optional.of(image);
+    });
+
+    imageService.uploadImage(new MockMultipartFile("file", "again.png", "image/png", content), userId);
+
+    verify(objectStore, never()).put(anyString(), any(InputStream.class), anyLong(), anyString());
+    verify(storedContentService, never()).attach(any());
+    verify(imageDerivativeService, never()).submit(any(), anyString());
+    verify(statsDClient).incrementCounter("image.dedup.puts_saved");
+    verify(statsDClient).count("image.dedup.bytes_saved", content.length);
+  }
+
+  @Test
+  public void testUploadImage_deleteThenReuploadReusesReleasedContent() throws IOException {
+    byte[] content = "same picture".getBytes();
+    String key = "content/" + sha256(content);
+    imageService.uploadImage(new MockMultipartFile("file", "pic.png", "image/png", content), userId);
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.of(contentImage(sha256(content))));
+    imageService.deleteImage(userId);
+
+    // The released content has not been swept, so it is referenced again; its thumbnails are not known.
+    when(storedContentService.reference(any(Image.class))).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+    imageService.uploadImage(new MockMultipartFile("file", "pic.png", "image/png", content), userId);
+
+    verify(storedContentService).release(userId, sha256(content));
+    verify(objectStore, times(1)).put(eq(key), any(InputStream.class), anyLong(), anyString());
+    verify(statsDClient).incrementCounter("image.dedup.puts_saved");
+    verify(statsDClient).count("image.dedup.bytes_saved", content.length);
+    verify(imageDerivativeService, times(2)).submit(any(Image.class), eq(key));
+  }
+
+  @Test
+  public void testUploadImage_failedInsertLeavesStoredContentToTheSweep() throws IOException {
+    byte[] content = "picture".getBytes();
+    when(storedContentService.attach(any(Image.class))).thenThrow(new EntityExistsException("Image already exists"));
+
+    assertThrows(EntityExistsException.class,
+        () -> imageService.uploadImage(new MockMultipartFile("file", "pic.png", "image/png", content), userId));
+
+    verify(objectStore, never()).delete(anyString());
+  }
+
+  @Test
+  public void testUploadImage_contentSweptWhileStoringIsStoredAgain() throws IOException {
+    byte[] content = "picture".getBytes();
+    when(storedContentService.attach(any(Image.class)))
+        .thenReturn(Optional.empty())
+        .thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+
+    imageService.uploadImage(new MockMultipartFile("file", "pic.png", "image/png", content), userId);
+
+    verify(storedContentService, times(2)).reference(any(Image.class));
+    verify(objectStore, times(2)).put(eq("content/" + sha256(content)), any(InputStream.class), anyLong(), anyString());
+  }
+
+  @Test
+  public void testDownloadImage_servedFromDatabaseWithoutStoreCalls() throws IOException {
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.of(storedImage(userId + "/pic.png")));
+
+    ImageResponseDTO response = imageService.downloadImage(userId);
+
+    assertEquals("pic.png", response.getFileName());
+    assertEquals("test-bucket/" + userId + "/pic.png", response.getUrl());
+    verifyNoInteractions(objectStore);
+  }
+
+  @Test
+  public void testDownloadImage_returnsPresignedUrlWhenEnabled() throws IOException {
+    ReflectionTestUtils.setField(imageService, "presignedUrlsEnabled", true);
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.of(storedImage(userId + "/pic.png")));
+    when(objectStore.presignedUrl(userId + "/pic.png", Duration.ofSeconds(300)))
+        .thenReturn(Optional.of(URI.create("https://signed.example/pic.png?X-Amz-Signature=abc")));
+
+    assertEquals("https://signed.example/pic.png?X-Amz-Signature=abc", imageService.downloadImage(userId).getUrl());
+  }
+
+  @Test
+  public void testDownloadImage_withGeneratedSizeReturnsDerivativeLocation() throws IOException {
+    Image image = storedImage(userId + "/pic.png");
+    image.setDerivativeSizes("64,256");
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.of(image));
+
+    ImageResponseDTO response = imageService.downloadImage(userId, 64);
+
+    assertEquals("test-bucket/" + userId + "/derivatives/64/pic.png", response.getUrl());
+    assertEquals(List.of(64, 256), response.getAvailableSizes());
+  }
+
+  @Test
+  public void testDownloadImage_withSizeNotYetGeneratedReturnsOriginal() throws IOException {
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.of(storedImage(userId + "/pic.png")));
+
+    ImageResponseDTO response = imageService.downloadImage(userId, 64);
+
+    assertEquals("test-bucket/" + userId + "/pic.png", response.getUrl());
+    assertEquals(List.of(), response.getAvailableSizes());
+  }
+
+  @Test
+  public void testDownloadImage_missingRecordIsNotFound() {
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.empty());
+
+    assertThrows(IOException.class, () -> imageService.downloadImage(userId));
+    verifyNoInteractions(objectStore);
+  }
+
+  @Test
+  public void testDeleteImage_deletesStoredKey() throws IOException {
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.of(storedImage(userId + "/pic.png")));
+
+    imageService.deleteImage(userId);
+
+    verify(objectStore).delete(userId + "/pic.png");
+    verify(objectStore, never()).list(anyString());
+    verify(imageDAO).deleteImage(userId);
+  }
+
+  @Test
+  public void testDeleteImage_alsoDeletesDerivatives() throws IOException {
+    Image image = storedImage(userId + "/pic.png");
+    image.setDerivativeSizes("64,256");
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.of(image));
+
+    imageService.deleteImage(userId);
+
+    verify(objectStore).delete(userId + "/derivatives/64/pic.png");
+    verify(objectStore).delete(userId + "/derivatives/256/pic.png");
+    verify(objectStore).delete(userId + "/pic.png");
+    verify(imageDAO).deleteImage(userId);
+  }
+
+  @Test
+  public void testDeleteImage_legacyRowFallsBackToKeyFromUrl() throws IOException {
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.of(storedImage(null)));
+
+    imageService.deleteImage(userId);
+
+    verify(objectStore).delete(userId + "/pic.png");
+  }
+
+  @Test
+  public void testDeleteImage_sharedContentIsReleasedNotDeleted() throws IOException {
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.of(contentImage("abc")));
+
+    imageService.deleteImage(userId);
+
+    verify(storedContentService).release(userId, "abc");
+    verify(imageDAO, never()).deleteImage(any());
+    verify(objectStore, never()).delete(anyString());
+  }
+
+  @Test
+  public void testUploadAndDeleteImage_withLocalFileSystemStore(@TempDir Path root) throws IOException {
+    ObjectStore localStore = new LocalFileSystemObjectStore(root, mock(StatsDClient.class));
+    ReflectionTestUtils.setField(imageService, "objectStore", localStore);
+    byte[] content = "not really a png".getBytes();
+
+    ImageResponseDTO response = imageService.uploadImage(new MockMultipartFile("file", "pic.png", "image/png", content),
+        userId);
+
+    Path stored = root.resolve("content").resolve(sha256(content));
+    assertArrayEquals(content, Files.readAllBytes(stored));
+    assertEquals(stored.toRealPath().toUri().toString(), response.getUrl());
+
+    Image image = contentImage(sha256(content));
+    when(imageDAO.getImageByUserId(userId)).thenReturn(Optional.of(image));
+    imageService.deleteImage(userId);
+
+    verify(storedContentService).release(userId, sha256(content));
+  }
+
+  private Image storedImage(String objectKey) {
+    Image image = new Image();
+    image.setUserId(userId);
+    image.setFileName("pic.png");
+    image.setUrl("test-bucket/" + userId + "/pic.png");
+    image.setObjectKey(objectKey);
+    return image;
+  }
+
+  private Image contentImage(String contentHash) {
+    Image image = storedImage("content/" + contentHash);
+    image.setContentHash(contentHash);
+    return image;
+  }
+
+  private static String sha256(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
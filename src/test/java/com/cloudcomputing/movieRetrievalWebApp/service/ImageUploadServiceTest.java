@@ -0,0 +1,186 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.ImageUploadDAO;
+import com.cloudcomputing.movieRetrievalWebApp.dto.imagedto.ImageResponseDTO;
+import com.cloudcomputing.movieRetrievalWebApp.model.ImageUpload;
+import com.timgroup.statsd.StatsDClient;
+import jakarta.persistence.EntityExistsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ImageUploadServiceTest {
+
+  @TempDir
+  private Path spoolDir;
+
+  private ImageService imageService;
+  private ImageUploadDAO imageUploadDAO;
+  private StatsDClient statsDClient;
+  private ImageUploadService uploadService;
+
+  private final UUID userId = UUID.randomUUID();
+  private final UUID imageId = UUID.randomUUID();
+  private final byte[] content = "picture bytes".getBytes();
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    imageService = mock(ImageService.class);
+    imageUploadDAO = mock(ImageUploadDAO.class);
+    statsDClient = mock(StatsDClient.class);
+    when(imageUploadDAO.createUpload(any(ImageUpload.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    uploadService = newService(1, 1);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    uploadService.shutdown();
+  }
+
+  @Test
+  public void testAccept_spoolsAndStoresInBackground() throws Exception {
+    when(imageService.uploadImage(any(InputStreamSource.class), eq("pic.png"), eq("image/png"), eq((long) content.length),
+        eq(userId))).thenAnswer(invocation -> {
+          try (InputStream spooled = invocation.<InputStreamSource>getArgument(0).getInputStream()) {
+            assertArrayEquals(content, spooled.readAllBytes());
+          }
+          return response();
+        });
+
+    ImageUpload upload = uploadService.accept(file(), userId);
+
+    assertEquals(ImageUpload.Status.PENDING, upload.getStatus());
+    verify(imageUploadDAO, timeout(5000)).markComplete(upload.getId(), imageId, 1);
+    verify(statsDClient, timeout(5000)).incrementCounter("image.upload.async.completed");
+    verify(statsDClient, timeout(5000)).recordExecutionTime(eq("image.upload.async.time"), anyLong());
+    assertSpoolEmptyEventually();
+  }
+
+  @Test
+  public void testProcess_retriesTransientFailures() throws Exception {
+    when(imageService.uploadImage(any(InputStreamSource.class), anyString(), anyString(), anyLong(), any()))
+        .thenThrow(new IOException("storage timeout"))
+        .thenReturn(response());
+
+    ImageUpload upload = uploadService.accept(file(), userId);
+
+    verify(imageUploadDAO, timeout(5000)).markComplete(upload.getId(), imageId, 2);
+    verify(statsDClient).incrementCounter("image.upload.async.retried");
+  }
+
+  @Test
+  public void testProcess_givesUpAfterMaxAttempts() throws Exception {
+    when(imageService.uploadImage(any(InputStreamSource.class), anyString(), anyString(), anyLong(), any()))
+        .thenThrow(new IOException("storage down"));
+
+    ImageUpload upload = uploadService.accept(file(), userId);
+
+    verify(imageUploadDAO, timeout(5000)).markFailed(upload.getId(), "Image storage is unavailable", 3);
+    verify(statsDClient, timeout(5000)).incrementCounter("image.upload.async.failed");
+    assertSpoolEmptyEventually();
+  }
+
+  @Test
+  public void testProcess_existingImageIsNotRetried() throws Exception {
+    when(imageService.uploadImage(any(InputStreamSource.class), anyString(), anyString(), anyLong(), any()))
+        .thenThrow(new EntityExistsException("Image already exists"));
+
+    ImageUpload upload = uploadService.accept(file(), userId);
+
+    verify(imageUploadDAO, timeout(5000)).markFailed(upload.getId(), "Image already exists", 1);
+    verify(imageService, times(1)).uploadImage(any(InputStreamSource.class), anyString(), anyString(), anyLong(), any());
+  }
+
+  @Test
+  public void testAccept_fullQueueIsRejectedWithoutSpooling() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(imageService.uploadImage(any(InputStreamSource.class), anyString(), anyString(), anyLong(), any()))
+        .thenAnswer(invocation -> {
+          release.await(5, TimeUnit.SECONDS);
+          return response();
+        });
+
+    uploadService.accept(file(), userId);                       // running
+    verify(imageService, timeout(5000)).uploadImage(any(InputStreamSource.class), anyString(), anyString(), anyLong(), any());
+    uploadService.accept(file(), userId);                       // queued
+
+    assertThrows(RejectedExecutionException.class, () -> uploadService.accept(file(), userId));
+    verify(statsDClient).incrementCounter("image.upload.async.rejected");
+    try (var spooled = Files.list(spoolDir)) {
+      assertEquals(2, spooled.count());
+    }
+
+    uploadService.reportMetrics();
+    verify(statsDClient).recordGaugeValue("image.upload.async.spool_bytes", 2L * content.length);
+    verify(statsDClient).recordGaugeValue("image.upload.async.queue_depth", 1L);
+    verify(statsDClient).recordGaugeValue("image.upload.async.pending", 2L);
+    release.countDown();
+  }
+
+  @Test
+  public void testResumePendingUploads_requeuesSpooledUploads() throws Exception {
+    ImageUpload pending = new ImageUpload();
+    pending.setUserId(userId);
+    pending.setFileName("pic.png");
+    pending.setContentType("image/png");
+    pending.setContentLength(content.length);
+    Path spoolFile = Files.write(spoolDir.resolve(pending.getId().toString()), content);
+    pending.setSpoolPath(spoolFile.toString());
+    ImageUpload elsewhere = new ImageUpload();
+    elsewhere.setSpoolPath(spoolDir.resolve("on-another-host").toString());
+    when(imageUploadDAO.getPendingUploads()).thenReturn(List.of(pending, elsewhere));
+    when(imageService.uploadImage(any(InputStreamSource.class), anyString(), anyString(), anyLong(), any()))
+        .thenReturn(response());
+
+    uploadService.resumePendingUploads();
+
+    verify(imageUploadDAO, timeout(5000)).markComplete(pending.getId(), imageId, 1);
+    verify(imageUploadDAO, never()).markComplete(eq(elsewhere.getId()), any(), anyInt());
+  }
+
+  private ImageUploadService newService(int threads, int queueCapacity) throws IOException {
+    return new ImageUploadService(imageService, imageUploadDAO, statsDClient, spoolDir, threads, queueCapacity, 3, 1, 5, false);
+  }
+
+  private MockMultipartFile file() {
+    return new MockMultipartFile("file", "pic.png", "image/png", content);
+  }
+
+  private ImageResponseDTO response() {
+    return new ImageResponseDTO("pic.png", imageId, "content/abc", LocalDate.now(), userId);
+  }
+
+  private void assertSpoolEmptyEventually() throws Exception {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (true) {
+      try (var spooled = Files.list(spoolDir)) {
+        if (spooled.findAny().isEmpty()) {
+          return;
+        }
+      }
+      assertTrue(System.currentTimeMillis() < deadline, "spool file was not removed");
+      Thread.sleep(20);
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.model.OutboxMessage;
+import com.cloudcomputing.movieRetrievalWebApp.model.User;
+import com.cloudcomputing.movieRetrievalWebApp.repository.OutboxMessageRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.UserRepo;
+import com.cloudcomputing.movieRetrievalWebApp.support.LocalSnsStandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs the outbox end to end against a local SNS stand-in: users are registered through
+ * {@link UserService}, and the dispatcher, with its schedule disabled, is driven by hand.
+ */
+@SpringBootTest
+public class OutboxDispatcherTest {
+
+  private static final LocalSnsStandIn SNS = startSns();
+
+  @DynamicPropertySource
+  static void outboxProperties(DynamicPropertyRegistry registry) {
+    // A database of its own, so dispatchers of other cached test contexts never see these rows.
+    registry.add("spring.datasource.url", () -> "jdbc:h2:mem:OutboxDispatcherTest;MODE=MySQL;DB_CLOSE_DELAY=-1");
+    registry.add("cloud.aws.sns.endpoint", () -> SNS.endpoint().toString());
+    registry.add("outbox.dispatch.enabled", () -> "false");
+    registry.add("outbox.dispatch.maxAttempts", () -> "5");
+  }
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private OutboxDispatcher outboxDispatcher;
+
+  @Autowired
+  private OutboxMessageRepo outboxMessageRepo;
+
+  @Autowired
+  private UserRepo userRepo;
+
+  @SpyBean
+  private MessagePubService messagePubService;
+
+  private static LocalSnsStandIn startSns() {
+    try {
+      return new LocalSnsStandIn();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @AfterAll
+  static void stopSns() {
+    SNS.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    outboxMessageRepo.deleteAll();
+    SNS.reset();
+  }
+
+  private User register(String localPart) {
+    String email = localPart + "-" + UUID.randomUUID() + "@example.com";
+    return userService.registerUser(new User(email, "password123", "John", "Doe"));
+  }
+
+  @Test
+  void registerUser_writesVerificationMessageToOutbox() {
+    User user = register("outbox");
+
+    List<OutboxMessage> messages = outboxMessageRepo.findAll();
+    assertEquals(1, messages.size());
+    assertEquals("verification", messages.get(0).getMessageType());
+    assertTrue(messages.get(0).getPayload().contains(user.getEmailAddress()));
+    assertTrue(messages.get(0).getPayload().contains(user.getUserId().toString()));
+    assertTrue(SNS.batches().isEmpty(), "nothing is published before the dispatcher runs");
+  }
+
+  @Test
+  void registerUser_failedInsert_leavesNoOutboxMessage() {
+    User user = new User("rollback-" + UUID.randomUUID() + "@example.com", "password123", null, "Doe");
+
+    assertThrows(RuntimeException.class, () -> userService.registerUser(user));
+
+    assertEquals(0, outboxMessageRepo.count());
+    assertFalse(userRepo.existsByEmailAddress(user.getEmailAddress()));
+  }
+
+  @Test
+  void dispatch_publishesInBatchesOfTen() {
+    for (int i = 0; i < 25; i++) {
+      register("batch" + i);
+    }
+
+    outboxDispatcher.dispatch();
+
+    assertEquals(List.of(10, 10, 5), SNS.batches().stream().map(List::size).toList());
+    assertEquals(0, outboxMessageRepo.count());
+  }
+
+  @Test
+  void dispatch_snsUnavailable_backsOffAndRetries() {
+    User user = register("retry");
+    SNS.failNextCalls(Integer.MAX_VALUE);
+
+    Instant beforeDispatch = Instant.now();
+    outboxDispatcher.dispatch();
+
+    OutboxMessage message = outboxMessageRepo.findAll().get(0);
+    assertEquals(1, message.getAttempts());
+    assertNotNull(message.getLastError());
+    assertTrue(message.getNextAttemptAt().isAfter(beforeDispatch), "retry is scheduled in the future");
+
+    SNS.reset();
+    outboxDispatcher.dispatch();
+    assertTrue(SNS.batches().isEmpty(), "message is not retried before its backoff expires");
+
+    message.setNextAttemptAt(Instant.now());
+    outboxMessageRepo.save(message);
+    outboxDispatcher.dispatch();
+
+    assertEquals(1, SNS.publishedMessages().size());
+    assertTrue(SNS.publishedMessages().get(0).contains(user.getEmailAddress()));
+    assertEquals(0, outboxMessageRepo.count());
+  }
+
+  @Test
+  void dispatch_senderFault_deadLettersOnlyThatMessage() {
+    User accepted = register("accepted");
+    register("rejected");
+    SNS.rejectMessagesContaining("rejected-");
+
+    outboxDispatcher.dispatch();
+
+    assertEquals(1, SNS.publishedMessages().size());
+    assertTrue(SNS.publishedMessages().get(0).contains(accepted.getEmailAddress()));
+    OutboxMessage deadLetter = outboxMessageRepo.findAll().get(0);
+    assertEquals(5, deadLetter.getAttempts());
+    assertEquals("InvalidParameter", deadLetter.getLastError());
+
+    SNS.reset();
+    deadLetter.setNextAttemptAt(Instant.now());
+    outboxMessageRepo.save(deadLetter);
+    outboxDispatcher.dispatch();
+    assertTrue(SNS.batches().isEmpty(), "dead letters are not dispatched again");
+  }
+
+  @Test
+  void dispatch_publishesOutsideTransactionWithBatchLeased() {
+    register("leased");
+    List<Boolean> inTransaction = new ArrayList<>();
+    List<Instant> nextAttemptsDuringPublish = new ArrayList<>();
+    doAnswer(invocation -> {
+      inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+      outboxMessageRepo.findAll().forEach(message -> nextAttemptsDuringPublish.add(message.getNextAttemptAt()));
+      return invocation.callRealMethod();
+    }).when(messagePubService).publishBatch(anyList());
+
+    Instant beforeDispatch = Instant.now();
+    outboxDispatcher.dispatch();
+
+    assertEquals(List.of(false), inTransaction);
+    assertEquals(1, nextAttemptsDuringPublish.size());
+    assertTrue(nextAttemptsDuringPublish.get(0).isAfter(beforeDispatch.plusSeconds(60)),
+        "the claimed message is leased while it is published");
+    assertEquals(0, outboxMessageRepo.count());
+  }
+}
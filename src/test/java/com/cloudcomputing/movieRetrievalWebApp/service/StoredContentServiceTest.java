@@ -0,0 +1,175 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.ImageDAO;
+import com.cloudcomputing.movieRetrievalWebApp.dao.StoredContentDAO;
+import com.cloudcomputing.movieRetrievalWebApp.model.Image;
+import com.cloudcomputing.movieRetrievalWebApp.repository.ImageRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.StoredContentRepo;
+import com.cloudcomputing.movieRetrievalWebApp.storage.ObjectStore;
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs reference counting against the database, with the sweep's grace period set to zero so released
+ * content is swept as soon as it is asked to.
+ */
+@SpringBootTest
+public class StoredContentServiceTest {
+
+  @DynamicPropertySource
+  static void databaseProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", () -> "jdbc:h2:mem:StoredContentServiceTest;MODE=MySQL;DB_CLOSE_DELAY=-1");
+    registry.add("outbox.dispatch.enabled", () -> "false");
+  }
+
+  @Autowired
+  private StoredContentDAO storedContentDAO;
+
+  @Autowired
+  private StoredContentRepo storedContentRepo;
+
+  @Autowired
+  private ImageDAO imageDAO;
+
+  @Autowired
+  private ImageRepo imageRepo;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final ObjectStore objectStore = mock(ObjectStore.class);
+  private final ImageDerivativeService imageDerivativeService = mock(ImageDerivativeService.class);
+
+  private StoredContentService service;
+
+  @BeforeEach
+  void setUp() {
+    imageRepo.deleteAll();
+    storedContentRepo.deleteAll();
+    when(imageDerivativeService.getSizes()).thenReturn(new int[]{64});
+    service = new StoredContentService(storedContentDAO, imageDAO, objectStore, imageDerivativeService,
+        mock(StatsDClient.class), transactionManager, 0, 100);
+  }
+
+  @Test
+  void reference_firstUploadReservesAndSecondReusesContent() {
+    Image first = image("abc");
+    assertTrue(service.reference(first).isEmpty());
+    assertTrue(service.attach(first).isPresent());
+    imageDAO.updateDerivativeSizes(first.getId(), "64");
+
+    Optional<Image> second = service.reference(image("abc"));
+
+    assertTrue(second.isPresent());
+    assertEquals("64", second.get().getDerivativeSizes());
+    assertNull(storedContentRepo.findById("abc").orElseThrow().getReleasedAt());
+  }
+
+  @Test
+  void release_lastReferenceIsSweptWithItsDerivatives() throws IOException {
+    Image image = upload("abc");
+
+    service.release(image.getUserId(), "abc");
+    service.sweep();
+
+    verify(objectStore).delete("content/derivatives/64/abc");
+    verify(objectStore).delete("content/abc");
+    assertFalse(storedContentRepo.existsById("abc"));
+  }
+
+  @Test
+  void release_sharedContentIsKept() throws IOException {
+    Image image = upload("abc");
+    upload("abc");
+
+    service.release(image.getUserId(), "abc");
+    service.sweep();
+
+    verify(objectStore, never()).delete(anyString());
+    assertNull(storedContentRepo.findById("abc").orElseThrow().getReleasedAt());
+  }
+
+  @Test
+  void release_rowWrittenBeforeReferenceTrackingCountsExistingImages() throws IOException {
+    Image legacy = image("abc");
+    imageDAO.createImage(legacy);
+    imageDAO.createImage(image("abc"));
+
+    service.release(legacy.getUserId(), "abc");
+    service.sweep();
+
+    verify(objectStore, never()).delete(anyString());
+  }
+
+  @Test
+  void attach_contentSweptWhileStoringMustBeStoredAgain() throws IOException {
+    Image image = image("abc");
+    assertTrue(service.reference(image).isEmpty());
+
+    service.sweep();
+
+    verify(objectStore).delete("content/abc");
+    assertTrue(service.attach(image).isEmpty());
+    assertTrue(imageDAO.getImageByUserId(image.getUserId()).isEmpty());
+  }
+
+  @Test
+  void reference_deleteThenReuploadReusesContentNotYetSwept() throws IOException {
+    Image image = upload("abc");
+    service.release(image.getUserId(), "abc");
+    assertNotNull(storedContentRepo.findById("abc").orElseThrow().getReleasedAt());
+
+    Image reuploaded = image("abc");
+    reuploaded.setUserId(image.getUserId());
+    Optional<Image> referenced = service.reference(reuploaded);
+
+    assertTrue(referenced.isPresent(), "the object is still stored, so it is referenced without a PUT");
+    assertNull(storedContentRepo.findById("abc").orElseThrow().getReleasedAt());
+    service.sweep();
+    verify(objectStore, never()).delete(anyString());
+  }
+
+  @Test
+  void reference_afterSweepStoresContentAgain() {
+    Image image = upload("abc");
+    service.release(image.getUserId(), "abc");
+    service.sweep();
+
+    assertTrue(service.reference(image("abc")).isEmpty(), "swept content has to be stored again");
+  }
+
+  @Test
+  void reference_reservedButUnattachedContentIsNotReused() {
+    assertTrue(service.reference(image("abc")).isEmpty());
+
+    assertTrue(service.reference(image("abc")).isEmpty(), "an upload still writing the object is not referenced");
+  }
+
+  private Image upload(String contentHash) {
+    Image image = image(contentHash);
+    return service.reference(image).orElseGet(() -> service.attach(image).orElseThrow());
+  }
+
+  private static Image image(String contentHash) {
+    Image image = new Image();
+    image.setUserId(UUID.randomUUID());
+    image.setFileName("pic.png");
+    image.setObjectKey("content/" + contentHash);
+    image.setUrl("test-bucket/content/" + contentHash);
+    image.setContentHash(contentHash);
+    return image;
+  }
+}
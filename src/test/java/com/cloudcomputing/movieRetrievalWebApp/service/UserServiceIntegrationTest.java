@@ -0,0 +1,135 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.controller.ControllerUtils;
+import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserUpdateDTO;
+import com.cloudcomputing.movieRetrievalWebApp.model.User;
+import com.cloudcomputing.movieRetrievalWebApp.repository.OutboxMessageRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.UserRepo;
+import com.cloudcomputing.movieRetrievalWebApp.repository.VerificationTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Signs users up against a real database, where duplicate emails are caught by the unique
+ * constraint on insert rather than by a lookup beforehand.
+ */
+@SpringBootTest
+public class UserServiceIntegrationTest {
+
+  @DynamicPropertySource
+  static void registrationProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", () -> "jdbc:h2:mem:UserServiceIntegrationTest;MODE=MySQL;DB_CLOSE_DELAY=-1");
+    registry.add("outbox.dispatch.enabled", () -> "false");
+  }
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private UserRepo userRepo;
+
+  @Autowired
+  private VerificationTokenRepository verificationTokenRepository;
+
+  @Autowired
+  private OutboxMessageRepo outboxMessageRepo;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  private static String uniqueEmail() {
+    return "signup-" + UUID.randomUUID() + "@example.com";
+  }
+
+  @Test
+  void registerUser_storesUserTokenAndOutboxMessage() {
+    String email = uniqueEmail();
+    long outboxBefore = outboxMessageRepo.count();
+
+    User user = userService.registerUser(new User(email, "password123", "John", "Doe"));
+
+    assertTrue(userRepo.existsByEmailAddress(email));
+    assertTrue(verificationTokenRepository.findByUserId(user.getUserId()).isPresent());
+    assertEquals(outboxBefore + 1, outboxMessageRepo.count());
+  }
+
+  @Test
+  void registerUser_duplicateEmail_throwsAndStoresNothingMore() {
+    String email = uniqueEmail();
+    userService.registerUser(new User(email, "password123", "John", "Doe"));
+    long outboxBefore = outboxMessageRepo.count();
+
+    User duplicate = new User(email, "password456", "Jane", "Doe");
+    assertThrows(DuplicateKeyException.class, () -> userService.registerUser(duplicate));
+
+    assertFalse(userRepo.existsById(duplicate.getUserId()));
+    assertTrue(verificationTokenRepository.findByUserId(duplicate.getUserId()).isEmpty());
+    assertEquals(outboxBefore, outboxMessageRepo.count());
+  }
+
+  @Test
+  void updateUser_withoutPassword_keepsStoredPassword() {
+    String email = uniqueEmail();
+    userService.registerUser(new User(email, "password123", "John", "Doe"));
+
+    UserUpdateDTO update = new UserUpdateDTO();
+    update.setFirstName("Johnny");
+    userService.updateUser(email,
+        ControllerUtils.updateUser(update, userService.getAuthenticatedUser(email).orElseThrow()));
+
+    User updated = userRepo.findByEmailAddress(email).orElseThrow();
+    assertEquals("Johnny", updated.getFirstName());
+    assertTrue(passwordEncoder.matches("password123", updated.getPassword()));
+  }
+
+  @Test
+  void registerUser_concurrentDuplicates_exactlyOneSucceeds() throws Exception {
+    String email = uniqueEmail();
+    int attempts = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(attempts);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<User>> results = new ArrayList<>();
+      for (int i = 0; i < attempts; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return userService.registerUser(new User(email, "password123", "John", "Doe"));
+        }));
+      }
+      start.countDown();
+
+      int created = 0;
+      int rejected = 0;
+      for (Future<User> result : results) {
+        try {
+          result.get();
+          created++;
+        } catch (ExecutionException e) {
+          assertInstanceOf(DuplicateKeyException.class, e.getCause());
+          rejected++;
+        }
+      }
+
+      assertEquals(1, created);
+      assertEquals(attempts - 1, rejected);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -1,7 +1,11 @@
 package com.cloudcomputing.movieRetrievalWebApp.service;
 
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticatedUser;
+import com.cloudcomputing.movieRetrievalWebApp.config.AuthenticationCache;
 import com.cloudcomputing.movieRetrievalWebApp.dao.UserDAO;
+import com.cloudcomputing.movieRetrievalWebApp.dto.userdto.UserCredentialsDTO;
 import com.cloudcomputing.movieRetrievalWebApp.model.User;
+import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,9 +14,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Arrays;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +33,15 @@ public class UserServiceTest {
   @Mock
   private PasswordEncoder passwordEncoder;
 
+  @Mock
+  private AuthenticationCache authenticationCache;
+
+  @Mock
+  private VerificationService verificationService;
+
+  @Mock
+  private MessagePubService messagePubService;
+
   @InjectMocks
   private UserService userService;
 
@@ -42,9 +56,24 @@ public class UserServiceTest {
     user.setLastName("Doe");
   }
 
+  @Test
+  public void testGetAuthenticatedUser_mapsCredentialsToPrincipal() {
+    UUID userId = UUID.randomUUID();
+    LocalDateTime created = LocalDateTime.now();
+    when(userDAO.getUserCredentials("test@example.com")).thenReturn(Optional.of(
+        new UserCredentialsDTO(userId, "test@example.com", "hash", "John", "Doe", created, created, true)));
+
+    AuthenticatedUser principal = userService.getAuthenticatedUser("test@example.com").orElseThrow();
+
+    assertEquals(userId, principal.getUserId());
+    assertEquals("test@example.com", principal.getUsername());
+    assertEquals("hash", principal.getPassword());
+    assertTrue(principal.isVerified());
+  }
+
   @Test
   public void testGetUserByEmail() {
-    when(userDAO.getAllUsers()).thenReturn(Arrays.asList(user));
+    when(userDAO.getUserByEmail("test@example.com")).thenReturn(Optional.of(user));
 
     Optional<User> foundUser = userService.getUserByEmail("test@example.com");
 
@@ -65,6 +94,22 @@ public class UserServiceTest {
     verify(userDAO, times(1)).createUser(any(User.class));
   }
 
+  @Test
+  public void testRegisterUser_queuesVerificationMessageForNewUser() {
+    VerificationToken token = new VerificationToken();
+    token.setToken(UUID.randomUUID());
+    when(passwordEncoder.encode("password")).thenReturn("hashedPassword");
+    when(userDAO.createUser(user)).thenReturn(user);
+    when(verificationService.createVerificationToken(user.getUserId(), "test@example.com")).thenReturn(token);
+
+    User registeredUser = userService.registerUser(user);
+
+    assertEquals(user, registeredUser);
+    assertEquals("hashedPassword", registeredUser.getPassword());
+    verify(messagePubService).enqueueVerificationMessage("test@example.com", "John",
+        user.getUserId().toString(), token.getToken().toString());
+  }
+
   @Test
   public void testUpdateUser() {
     when(passwordEncoder.encode(any(String.class))).thenReturn("hashedPassword");
@@ -75,5 +120,18 @@ public class UserServiceTest {
     assertEquals(user, updatedUser);
     verify(passwordEncoder, times(1)).encode("password");
     verify(userDAO, times(1)).updateUser(eq("test@example.com"), any(User.class));
+    verify(authenticationCache, times(1)).invalidate("test@example.com");
+  }
+
+  @Test
+  public void testUpdateUser_namesOnly_keepsCachedPasswordCheck() {
+    User namesOnly = new User();
+    namesOnly.setFirstName("Johnny");
+    when(userDAO.updateUser(anyString(), any(User.class))).thenReturn(namesOnly);
+
+    userService.updateUser("test@example.com", namesOnly);
+
+    verify(passwordEncoder, never()).encode(any());
+    verify(authenticationCache, never()).invalidate(anyString());
   }
 }
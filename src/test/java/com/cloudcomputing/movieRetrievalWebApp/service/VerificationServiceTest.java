@@ -0,0 +1,89 @@
+package com.cloudcomputing.movieRetrievalWebApp.service;
+
+import com.cloudcomputing.movieRetrievalWebApp.dao.VerificationTokenDAO;
+import com.cloudcomputing.movieRetrievalWebApp.model.VerificationToken;
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VerificationServiceTest {
+
+  private static final String EMAIL = "test@example.com";
+
+  @Mock
+  private VerificationTokenDAO verificationTokenDAO;
+
+  @Mock
+  private StatsDClient statsDClient;
+
+  private VerificationService verificationService;
+
+  private VerificationToken token;
+
+  @BeforeEach
+  public void setUp() {
+    verificationService = new VerificationService(verificationTokenDAO, statsDClient, 100, 30);
+
+    token = new VerificationToken();
+    token.setToken(UUID.randomUUID());
+    token.setUserId(UUID.randomUUID());
+    token.setUserEmail(EMAIL);
+    token.setExpiryDate(LocalDateTime.now().plusHours(2));
+    token.setVerificationFlag(false);
+  }
+
+  @Test
+  public void testIsUserVerified_verifiedStatusIsCached() {
+    token.setVerificationFlag(true);
+    when(verificationTokenDAO.getVerificationTokenByUserEmail(EMAIL)).thenReturn(Optional.of(token));
+
+    assertTrue(verificationService.isUserVerified(EMAIL));
+    assertTrue(verificationService.isUserVerified(EMAIL));
+
+    verify(verificationTokenDAO, times(1)).getVerificationTokenByUserEmail(EMAIL);
+    verify(statsDClient).incrementCounter("verification.cache.miss");
+    verify(statsDClient).incrementCounter("verification.cache.hit");
+  }
+
+  @Test
+  public void testIsUserVerified_noTokenMeansUnverified() {
+    when(verificationTokenDAO.getVerificationTokenByUserEmail(EMAIL)).thenReturn(Optional.empty());
+
+    assertFalse(verificationService.isUserVerified(EMAIL));
+  }
+
+  @Test
+  public void testVerifyToken_fillsCache() {
+    when(verificationTokenDAO.getVerificationTokenByUserEmail(EMAIL)).thenReturn(Optional.of(token));
+    when(verificationTokenDAO.getVerificationTokenByToken(token.getToken())).thenReturn(Optional.of(token));
+
+    assertFalse(verificationService.isUserVerified(EMAIL));
+    assertTrue(verificationService.verifyToken(token.getToken()));
+
+    // The cached "unverified" entry is replaced without another lookup.
+    assertTrue(verificationService.isUserVerified(EMAIL));
+    verify(verificationTokenDAO, times(1)).getVerificationTokenByUserEmail(EMAIL);
+    verify(verificationTokenDAO).saveVerificationToken(token);
+  }
+
+  @Test
+  public void testVerifyToken_expiredTokenIsNotCachedAsVerified() {
+    token.setExpiryDate(LocalDateTime.now().minusMinutes(1));
+    when(verificationTokenDAO.getVerificationTokenByToken(token.getToken())).thenReturn(Optional.of(token));
+    when(verificationTokenDAO.getVerificationTokenByUserEmail(EMAIL)).thenReturn(Optional.of(token));
+
+    assertFalse(verificationService.verifyToken(token.getToken()));
+    assertFalse(verificationService.isUserVerified(EMAIL));
+  }
+}
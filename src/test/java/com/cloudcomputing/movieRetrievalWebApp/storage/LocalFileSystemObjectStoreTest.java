@@ -0,0 +1,137 @@
+package com.cloudcomputing.movieRetrievalWebApp.storage;
+
+import com.cloudcomputing.movieRetrievalWebApp.support.SyntheticMultipartFile;
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class LocalFileSystemObjectStoreTest {
+
+  private static final int MB = 1024 * 1024;
+
+  @TempDir
+  private Path root;
+
+  private LocalFileSystemObjectStore objectStore;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    objectStore = new LocalFileSystemObjectStore(root, mock(StatsDClient.class));
+  }
+
+  @Test
+  public void testPutGetHeadRoundTrip() throws IOException {
+    put("user/pic.png", "hello image");
+
+    try (InputStream content = objectStore.get("user/pic.png")) {
+      assertEquals("hello image", new String(content.readAllBytes(), StandardCharsets.UTF_8));
+    }
+    ObjectMetadata metadata = objectStore.head("user/pic.png").orElseThrow();
+    assertEquals("user/pic.png", metadata.key());
+    assertEquals(11, metadata.contentLength());
+    assertNotNull(metadata.lastModified());
+  }
+
+  @Test
+  public void testPut_replacesExistingObjectAndLeavesNoTempFiles() throws IOException {
+    put("user/pic.png", "first version");
+    put("user/pic.png", "second");
+
+    assertEquals("second", Files.readString(root.resolve("user/pic.png")));
+    try (var files = Files.list(root.resolve("user"))) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  public void testPut_streamsLargeObjectFromFileChannel() throws IOException {
+    Path source = Files.createTempFile(root, "source", ".bin");
+    try (InputStream synthetic = new SyntheticMultipartFile(64L * MB).getInputStream()) {
+      Files.copy(synthetic, source, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    try (FileInputStream content = new FileInputStream(source.toFile())) {
+      objectStore.put("user/large.bin", content, Files.size(source), "application/octet-stream");
+    }
+
+    assertEquals(-1, Files.mismatch(source, root.resolve("user/large.bin")));
+  }
+
+  @Test
+  public void testPut_shortContentFailsWithoutCreatingObject() {
+    assertThrows(IOException.class, () ->
+        objectStore.put("user/pic.png", new ByteArrayInputStream(new byte[10]), 20, "image/png"));
+
+    assertFalse(Files.exists(root.resolve("user/pic.png")));
+  }
+
+  @Test
+  public void testTransferTo_copiesRequestedRange() throws IOException {
+    put("user/pic.png", "0123456789");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long transferred = objectStore.transferTo("user/pic.png", 3, 4, Channels.newChannel(out));
+
+    assertEquals(4, transferred);
+    assertEquals("3456", out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testTransferTo_stopsAtEndOfObject() throws IOException {
+    put("user/pic.png", "0123456789");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    assertEquals(2, objectStore.transferTo("user/pic.png", 8, 100, Channels.newChannel(out)));
+    assertEquals("89", out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testList_filtersByPrefix() throws IOException {
+    put("alice/a.png", "a");
+    put("alice/b.png", "bb");
+    put("bob/c.png", "ccc");
+
+    List<ObjectMetadata> objects = objectStore.list("alice/");
+
+    assertEquals(List.of("alice/a.png", "alice/b.png"), objects.stream().map(ObjectMetadata::key).toList());
+  }
+
+  @Test
+  public void testDelete_removesObjectAndIgnoresMissingKey() throws IOException {
+    put("user/pic.png", "x");
+
+    objectStore.delete("user/pic.png");
+    objectStore.delete("user/pic.png");
+
+    assertTrue(objectStore.head("user/pic.png").isEmpty());
+    assertThrows(NoSuchFileException.class, () -> objectStore.get("user/pic.png"));
+  }
+
+  @Test
+  public void testKeysCannotEscapeRoot() {
+    assertThrows(IllegalArgumentException.class, () -> put("user/../../escape.png", "x"));
+    assertThrows(IllegalArgumentException.class, () -> objectStore.get("/etc/passwd"));
+  }
+
+  private void put(String key, String content) throws IOException {
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    objectStore.put(key, new ByteArrayInputStream(bytes), bytes.length, "image/png");
+  }
+}
@@ -0,0 +1,181 @@
+package com.cloudcomputing.movieRetrievalWebApp.storage;
+
+import com.cloudcomputing.movieRetrievalWebApp.support.SyntheticMultipartFile;
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class S3ObjectStoreTest {
+
+  private static final int MB = 1024 * 1024;
+  private static final int PART_SIZE = 5 * MB;
+
+  @Mock
+  private S3Client s3Client;
+
+  @Mock
+  private StatsDClient statsDClient;
+
+  @InjectMocks
+  private S3ObjectStore objectStore;
+
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(objectStore, "bucketName", "test-bucket");
+    ReflectionTestUtils.setField(objectStore, "multipartThreshold", 16L * MB);
+    ReflectionTestUtils.setField(objectStore, "partSize", PART_SIZE);
+    ReflectionTestUtils.setField(objectStore, "uploadMode", "sync");
+    ReflectionTestUtils.setField(objectStore, "s3Presigner", S3Presigner.builder()
+        .region(Region.US_EAST_1)
+        .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("key", "secret")))
+        .build());
+
+    // Drain every request body the way the SDK would, so the content is actually read.
+    when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+      drain(invocation.getArgument(1));
+      return PutObjectResponse.builder().build();
+    });
+    when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+        .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+    when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+      drain(invocation.getArgument(1));
+      UploadPartRequest request = invocation.getArgument(0);
+      return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+    });
+  }
+
+  @Test
+  public void testPut_smallObjectIsStreamedInSinglePut() throws IOException {
+    put(new SyntheticMultipartFile(MB));
+
+    verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+  }
+
+  @Test
+  public void testPut_largeObjectUsesMultipart() throws IOException {
+    put(new SyntheticMultipartFile(21L * MB));
+
+    // 21 MiB in 5 MiB parts: four full parts and a 1 MiB tail.
+    verify(s3Client, times(5)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+    verify(s3Client).completeMultipartUpload(argThat((CompleteMultipartUploadRequest request) ->
+        request.multipartUpload().parts().size() == 5 && "upload-1".equals(request.uploadId())));
+    verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    verify(statsDClient).incrementCounter("aws.s3.uploadImage.multipart");
+  }
+
+  @Test
+  public void testPut_failedPartAbortsUpload() {
+    when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+        .thenThrow(SdkClientException.create("connection reset"));
+
+    assertThrows(SdkClientException.class, () -> put(new SyntheticMultipartFile(20L * MB)));
+
+    verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+  }
+
+  @Test
+  public void testPresignedUrl_isSignedLocally() {
+    String url = objectStore.presignedUrl("user/pic.png", Duration.ofSeconds(300)).orElseThrow().toString();
+
+    assertTrue(url.startsWith("https://test-bucket.s3.amazonaws.com/user/pic.png?"), url);
+    assertTrue(url.contains("X-Amz-Expires=300"), url);
+    assertTrue(url.contains("X-Amz-Signature="), url);
+    verifyNoInteractions(s3Client);
+  }
+
+  @Test
+  public void testDelete_deletesKey() {
+    objectStore.delete("user/pic.png");
+
+    verify(s3Client).deleteObject(argThat((DeleteObjectRequest request) ->
+        request.bucket().equals("test-bucket") && request.key().equals("user/pic.png")));
+  }
+
+  @Test
+  public void testGet_missingKeyIsNoSuchFile() {
+    when(s3Client.getObject(any(GetObjectRequest.class))).thenThrow(NoSuchKeyException.builder().build());
+
+    assertThrows(NoSuchFileException.class, () -> objectStore.get("user/missing.png"));
+  }
+
+  @Test
+  public void testHead_missingKeyIsEmpty() {
+    when(s3Client.headObject(any(HeadObjectRequest.class))).thenThrow(NoSuchKeyException.builder().build());
+
+    assertTrue(objectStore.head("user/missing.png").isEmpty());
+  }
+
+  @Test
+  public void testLocation_isBucketAndKey() {
+    assertEquals("test-bucket/user/pic.png", objectStore.location("user/pic.png"));
+  }
+
+  /**
+   * Bytes allocated by the uploading thread are an upper bound on the heap the upload can occupy,
+   * and unlike heap snapshots they are not blurred by concurrent GC. Going from 1 MB to 500 MB must
+   * not grow them by more than a couple of part buffers.
+   */
+  @Test
+  public void testPut_allocationStaysFlatAsObjectSizeGrows() throws IOException {
+    // Warm up both code paths so class loading and mock setup are not measured.
+    put(new SyntheticMultipartFile(MB));
+    put(new SyntheticMultipartFile(20L * MB));
+
+    long smallUpload = allocatedBytesDuring(new SyntheticMultipartFile(MB));
+    long largeUpload = allocatedBytesDuring(new SyntheticMultipartFile(500L * MB));
+
+    assertTrue(largeUpload - smallUpload < 3L * PART_SIZE,
+        "500 MB upload allocated " + largeUpload + " bytes vs " + smallUpload + " for 1 MB");
+  }
+
+  private long allocatedBytesDuring(MultipartFile file) throws IOException {
+    com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long before = threadMXBean.getCurrentThreadAllocatedBytes();
+    put(file);
+    return threadMXBean.getCurrentThreadAllocatedBytes() - before;
+  }
+
+  private void put(MultipartFile file) throws IOException {
+    try (InputStream inputStream = file.getInputStream()) {
+      objectStore.put("user/" + file.getOriginalFilename(), inputStream, file.getSize(), file.getContentType());
+    }
+  }
+
+  private static void drain(RequestBody requestBody) throws IOException {
+    try (InputStream inputStream = requestBody.contentStreamProvider().newStream()) {
+      inputStream.transferTo(OutputStream.nullOutputStream());
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.cloudcomputing.movieRetrievalWebApp.storage;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AwsS3Config;
+import com.cloudcomputing.movieRetrievalWebApp.support.LocalS3StandIn;
+import com.cloudcomputing.movieRetrievalWebApp.support.SyntheticMultipartFile;
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the upload paths against {@link LocalS3StandIn}, an S3-compatible server on localhost.
+ */
+public class S3ObjectStoreTransferManagerTest {
+
+  private static final int MB = 1024 * 1024;
+
+  private LocalS3StandIn standIn;
+  private S3Client s3Client;
+  private S3AsyncClient s3AsyncClient;
+  private S3TransferManager s3TransferManager;
+  private StatsDClient statsDClient;
+  private S3ObjectStore objectStore;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    // 100 MB/s per connection: a 5 MiB part takes ~50 ms, long enough for parts to overlap.
+    standIn = new LocalS3StandIn(100L * MB, 0);
+    AwsS3Config config = standIn.s3Config(8L * MB, 5L * MB, 4);
+    s3Client = config.s3Client();
+    s3AsyncClient = config.s3AsyncClient();
+    s3TransferManager = config.s3TransferManager(s3AsyncClient);
+
+    statsDClient = mock(StatsDClient.class);
+    objectStore = new S3ObjectStore();
+    ReflectionTestUtils.setField(objectStore, "s3Client", s3Client);
+    ReflectionTestUtils.setField(objectStore, "s3TransferManager", s3TransferManager);
+    ReflectionTestUtils.setField(objectStore, "statsDClient", statsDClient);
+    ReflectionTestUtils.setField(objectStore, "bucketName", "test-bucket");
+    ReflectionTestUtils.setField(objectStore, "multipartThreshold", 8L * MB);
+    ReflectionTestUtils.setField(objectStore, "partSize", 5 * MB);
+    ReflectionTestUtils.setField(objectStore, "uploadMode", "transfer-manager");
+  }
+
+  @AfterEach
+  public void tearDown() {
+    s3TransferManager.close();
+    s3AsyncClient.close();
+    s3Client.close();
+    standIn.close();
+  }
+
+  @Test
+  public void testPut_largeFileUploadsPartsConcurrently() throws IOException {
+    put(new SyntheticMultipartFile(40L * MB));
+
+    assertEquals(40L * MB, standIn.objectSize("test-bucket", "user/image.png"));
+    assertEquals(8, standIn.partRequests());
+    assertTrue(standIn.maxInFlightParts() > 1, "parts were uploaded one at a time");
+    assertTrue(standIn.maxInFlightParts() <= 4, "more parts in flight than maxConcurrency");
+    assertEquals(0, standIn.pendingUploads());
+
+    ArgumentCaptor<Long> transferred = ArgumentCaptor.forClass(Long.class);
+    verify(statsDClient, atLeastOnce()).count(eq("aws.s3.transfer.bytes"), transferred.capture());
+    assertEquals(40L * MB, transferred.getAllValues().stream().mapToLong(Long::longValue).sum());
+    verify(statsDClient, timeout(2000)).recordGaugeValue(eq("aws.s3.transfer.throughput_bytes_per_sec"), anyLong());
+  }
+
+  @Test
+  public void testPut_smallFileIsSinglePut() throws IOException {
+    put(new SyntheticMultipartFile(MB));
+
+    assertEquals((long) MB, standIn.objectSize("test-bucket", "user/image.png"));
+    assertEquals(0, standIn.partRequests());
+  }
+
+  @Test
+  public void testPut_syncModeUploadsPartsSequentially() throws IOException {
+    ReflectionTestUtils.setField(objectStore, "uploadMode", "sync");
+    put(new SyntheticMultipartFile(20L * MB));
+
+    assertEquals(20L * MB, standIn.objectSize("test-bucket", "user/image.png"));
+    assertEquals(4, standIn.partRequests());
+    assertEquals(1, standIn.maxInFlightParts());
+  }
+
+  private void put(MultipartFile file) throws IOException {
+    try (InputStream inputStream = file.getInputStream()) {
+      objectStore.put("user/" + file.getOriginalFilename(), inputStream, file.getSize(), file.getContentType());
+    }
+  }
+}
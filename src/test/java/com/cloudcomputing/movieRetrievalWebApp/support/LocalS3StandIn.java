@@ -0,0 +1,326 @@
+package com.cloudcomputing.movieRetrievalWebApp.support;
+
+import com.cloudcomputing.movieRetrievalWebApp.config.AwsS3Config;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal S3-compatible HTTP server for tests and benchmarks, addressed path-style
+ * ({@code http://localhost:port/bucket/key}). It implements PutObject, the multipart upload calls,
+ * HeadObject, GetObject with a single range and DeleteObject, and keeps only the size of each
+ * object, not its content; reads return zero bytes.
+ *
+ * An optional per-connection bandwidth limit and per-request latency make it behave like a remote
+ * store, so a single stream and parallel parts can be compared meaningfully on one machine.
+ */
+public class LocalS3StandIn implements AutoCloseable {
+
+  private static final String LAST_MODIFIED = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final long bytesPerSecondPerConnection;
+  private final long latencyMillis;
+
+  private final Map<String, Long> objects = new ConcurrentHashMap<>();
+  private final Map<String, Map<Integer, Long>> uploads = new ConcurrentHashMap<>();
+  private final AtomicInteger inFlightParts = new AtomicInteger();
+  private final AtomicInteger maxInFlightParts = new AtomicInteger();
+  private final AtomicInteger partRequests = new AtomicInteger();
+
+  public LocalS3StandIn() throws IOException {
+    this(0, 0);
+  }
+
+  /**
+   * @param bytesPerSecondPerConnection upload bandwidth of each request; 0 means unlimited.
+   * @param latencyMillis               delay added before each response.
+   */
+  public LocalS3StandIn(long bytesPerSecondPerConnection, long latencyMillis) throws IOException {
+    this.bytesPerSecondPerConnection = bytesPerSecondPerConnection;
+    this.latencyMillis = latencyMillis;
+    // A deep accept backlog, so hundreds of concurrent clients are queued rather than reset.
+    this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+    this.executor = Executors.newCachedThreadPool();
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+    server.start();
+  }
+
+  public URI endpoint() {
+    return URI.create("http://localhost:" + server.getAddress().getPort());
+  }
+
+  /**
+   * Returns an AwsS3Config whose clients talk to this stand-in with the given multipart settings.
+   */
+  public AwsS3Config s3Config(long multipartThreshold, long partSize, int maxConcurrency) {
+    AwsS3Config config = new AwsS3Config();
+    ReflectionTestUtils.setField(config, "region", "us-east-1");
+    ReflectionTestUtils.setField(config, "accessKey", "local");
+    ReflectionTestUtils.setField(config, "secretKey", "local");
+    ReflectionTestUtils.setField(config, "endpoint", endpoint().toString());
+    ReflectionTestUtils.setField(config, "pathStyleAccess", true);
+    ReflectionTestUtils.setField(config, "multipartThreshold", multipartThreshold);
+    ReflectionTestUtils.setField(config, "partSize", partSize);
+    ReflectionTestUtils.setField(config, "maxConcurrency", maxConcurrency);
+    ReflectionTestUtils.setField(config, "maxConnections", 50);
+    return config;
+  }
+
+  public Long objectSize(String bucket, String key) {
+    return objects.get(bucket + "/" + key);
+  }
+
+  public int partRequests() {
+    return partRequests.get();
+  }
+
+  public int maxInFlightParts() {
+    return maxInFlightParts.get();
+  }
+
+  public int pendingUploads() {
+    return uploads.size();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      String path = exchange.getRequestURI().getPath().substring(1);
+      Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+      String method = exchange.getRequestMethod();
+
+      if ("PUT".equals(method) && query.containsKey("partNumber")) {
+        uploadPart(exchange, query.get("uploadId"), Integer.parseInt(query.get("partNumber")));
+      } else if ("PUT".equals(method)) {
+        Body body = readBody(exchange);
+        objects.put(path, body.length());
+        respond(exchange, 200, Map.of("ETag", body.eTag()), null);
+      } else if ("POST".equals(method) && query.containsKey("uploads")) {
+        String uploadId = UUID.randomUUID().toString();
+        uploads.put(uploadId, new ConcurrentHashMap<>());
+        respond(exchange, 200, Map.of(), "<InitiateMultipartUploadResult><Bucket>" + bucket(path) + "</Bucket><Key>"
+            + key(path) + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+      } else if ("POST".equals(method) && query.containsKey("uploadId")) {
+        readBody(exchange);
+        Map<Integer, Long> parts = uploads.remove(query.get("uploadId"));
+        if (parts == null) {
+          respond(exchange, 404, Map.of(), "<Error><Code>NoSuchUpload</Code></Error>");
+          return;
+        }
+        objects.put(path, parts.values().stream().mapToLong(Long::longValue).sum());
+        respond(exchange, 200, Map.of(), "<CompleteMultipartUploadResult><Bucket>" + bucket(path) + "</Bucket><Key>"
+            + key(path) + "</Key><ETag>\"" + UUID.randomUUID() + "-" + parts.size() + "\"</ETag>"
+            + "</CompleteMultipartUploadResult>");
+      } else if ("DELETE".equals(method) && query.containsKey("uploadId")) {
+        uploads.remove(query.get("uploadId"));
+        respond(exchange, 204, Map.of(), null);
+      } else if ("DELETE".equals(method)) {
+        objects.remove(path);
+        respond(exchange, 204, Map.of(), null);
+      } else if ("HEAD".equals(method)) {
+        Long size = objects.get(path);
+        if (size == null) {
+          respond(exchange, 404, Map.of(), null);
+        } else {
+          respond(exchange, 200, Map.of("Content-Length", Long.toString(size), "Last-Modified", LAST_MODIFIED,
+              "Content-Type", "application/octet-stream"), null);
+        }
+      } else if ("GET".equals(method)) {
+        getObject(exchange, path);
+      } else {
+        respond(exchange, 501, Map.of(), "<Error><Code>NotImplemented</Code></Error>");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void getObject(HttpExchange exchange, String path) throws IOException, InterruptedException {
+    Long size = objects.get(path);
+    if (size == null) {
+      respond(exchange, 404, Map.of(), "<Error><Code>NoSuchKey</Code></Error>");
+      return;
+    }
+    long start = 0;
+    long end = size - 1;
+    int status = 200;
+    String range = exchange.getRequestHeaders().getFirst("Range");
+    if (range != null && range.startsWith("bytes=")) {
+      String[] bounds = range.substring("bytes=".length()).split("-", 2);
+      start = Long.parseLong(bounds[0]);
+      end = bounds[1].isEmpty() ? size - 1 : Math.min(Long.parseLong(bounds[1]), size - 1);
+      status = 206;
+      exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + size);
+    }
+    if (latencyMillis > 0) {
+      Thread.sleep(latencyMillis);
+    }
+    long length = end - start + 1;
+    exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+    exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+    exchange.sendResponseHeaders(status, length);
+    byte[] zeros = new byte[(int) Math.min(64 * 1024, Math.max(length, 1))];
+    OutputStream out = exchange.getResponseBody();
+    for (long remaining = length; remaining > 0; remaining -= zeros.length) {
+      out.write(zeros, 0, (int) Math.min(zeros.length, remaining));
+    }
+  }
+
+  private void uploadPart(HttpExchange exchange, String uploadId, int partNumber)
+      throws IOException, InterruptedException {
+    partRequests.incrementAndGet();
+    maxInFlightParts.accumulateAndGet(inFlightParts.incrementAndGet(), Math::max);
+    try {
+      Body body = readBody(exchange);
+      Map<Integer, Long> parts = uploads.get(uploadId);
+      if (parts == null) {
+        respond(exchange, 404, Map.of(), "<Error><Code>NoSuchUpload</Code></Error>");
+        return;
+      }
+      parts.put(partNumber, body.length());
+      respond(exchange, 200, Map.of("ETag", body.eTag()), null);
+    } finally {
+      inFlightParts.decrementAndGet();
+    }
+  }
+
+  /**
+   * Reads the request body, decoding aws-chunked signed payloads, at the configured bandwidth.
+   * Returns its length and the quoted MD5 ETag the SDK validates against.
+   */
+  private Body readBody(HttpExchange exchange) throws IOException, InterruptedException {
+    MessageDigest md5 = md5();
+    InputStream in = exchange.getRequestBody();
+    String contentSha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+    String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+    boolean chunked = (contentSha != null && contentSha.startsWith("STREAMING"))
+        || (contentEncoding != null && contentEncoding.contains("aws-chunked"));
+
+    long length = 0;
+    long startNanos = System.nanoTime();
+    byte[] buffer = new byte[64 * 1024];
+    if (chunked) {
+      long chunkSize;
+      while ((chunkSize = Long.parseLong(readLine(in).split(";")[0].trim(), 16)) > 0) {
+        long remaining = chunkSize;
+        while (remaining > 0) {
+          int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+          if (read < 0) {
+            throw new IOException("Truncated aws-chunked body");
+          }
+          md5.update(buffer, 0, read);
+          remaining -= read;
+          length += read;
+          throttle(length, startNanos);
+        }
+        readLine(in);
+      }
+      in.transferTo(OutputStream.nullOutputStream()); // trailers
+    } else {
+      int read;
+      while ((read = in.read(buffer)) > 0) {
+        md5.update(buffer, 0, read);
+        length += read;
+        throttle(length, startNanos);
+      }
+    }
+    return new Body(length, "\"" + HexFormat.of().formatHex(md5.digest()) + "\"");
+  }
+
+  private void throttle(long bytesRead, long startNanos) throws InterruptedException {
+    if (bytesPerSecondPerConnection <= 0) {
+      return;
+    }
+    long dueNanos = startNanos + bytesRead * 1_000_000_000L / bytesPerSecondPerConnection;
+    long waitNanos = dueNanos - System.nanoTime();
+    if (waitNanos > 0) {
+      Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+    }
+  }
+
+  private void respond(HttpExchange exchange, int status, Map<String, String> headers, String xml)
+      throws IOException, InterruptedException {
+    if (latencyMillis > 0) {
+      Thread.sleep(latencyMillis);
+    }
+    headers.forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+    if (xml == null) {
+      exchange.sendResponseHeaders(status, -1);
+      return;
+    }
+    byte[] payload = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/xml");
+    exchange.sendResponseHeaders(status, payload.length);
+    exchange.getResponseBody().write(payload);
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int b;
+    while ((b = in.read()) >= 0 && b != '\n') {
+      if (b != '\r') {
+        line.write(b);
+      }
+    }
+    return line.toString(StandardCharsets.US_ASCII);
+  }
+
+  private static Map<String, String> parseQuery(String rawQuery) {
+    Map<String, String> query = new HashMap<>();
+    if (rawQuery != null) {
+      for (String pair : rawQuery.split("&")) {
+        int eq = pair.indexOf('=');
+        query.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+      }
+    }
+    return query;
+  }
+
+  private static String bucket(String path) {
+    return path.substring(0, path.indexOf('/'));
+  }
+
+  private static String key(String path) {
+    return path.substring(path.indexOf('/') + 1);
+  }
+
+  private static MessageDigest md5() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private record Body(long length, String eTag) {
+  }
+}
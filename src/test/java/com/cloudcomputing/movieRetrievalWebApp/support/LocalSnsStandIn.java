@@ -0,0 +1,153 @@
+package com.cloudcomputing.movieRetrievalWebApp.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SNS-compatible HTTP server for tests. It understands the query-protocol PublishBatch
+ * call, records every batch it accepts and answers with a PublishBatchResponse.
+ *
+ * Calls can be made to fail as a whole with a 500, and entries whose message contains a given
+ * marker are rejected individually as sender faults, like SNS does for invalid messages.
+ */
+public class LocalSnsStandIn implements AutoCloseable {
+
+  private static final String ENTRY_PREFIX = "PublishBatchRequestEntries.member.";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+  private final AtomicInteger failingCalls = new AtomicInteger();
+  private volatile String rejectMarker;
+
+  public LocalSnsStandIn() throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    this.executor = Executors.newCachedThreadPool();
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+    server.start();
+  }
+
+  public URI endpoint() {
+    return URI.create("http://localhost:" + server.getAddress().getPort());
+  }
+
+  /**
+   * Answers the next {@code calls} requests with a 500, including the SDK's own retries.
+   */
+  public void failNextCalls(int calls) {
+    failingCalls.set(calls);
+  }
+
+  /**
+   * Rejects, as a sender fault, every entry whose message contains {@code marker}.
+   */
+  public void rejectMessagesContaining(String marker) {
+    this.rejectMarker = marker;
+  }
+
+  /**
+   * The messages of each accepted PublishBatch call, in the order they arrived.
+   */
+  public List<List<String>> batches() {
+    return batches;
+  }
+
+  public List<String> publishedMessages() {
+    return batches.stream().flatMap(List::stream).toList();
+  }
+
+  public void reset() {
+    batches.clear();
+    failingCalls.set(0);
+    rejectMarker = null;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      Map<String, String> params = parseForm(exchange.getRequestBody());
+
+      if (failingCalls.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+        respond(exchange, 500, "<ErrorResponse><Error><Type>Receiver</Type><Code>InternalError</Code>"
+            + "<Message>Injected failure</Message></Error><RequestId>" + UUID.randomUUID() + "</RequestId></ErrorResponse>");
+        return;
+      }
+      if (!"PublishBatch".equals(params.get("Action"))) {
+        respond(exchange, 400, "<ErrorResponse><Error><Type>Sender</Type><Code>InvalidAction</Code>"
+            + "<Message>Unsupported action</Message></Error><RequestId>" + UUID.randomUUID() + "</RequestId></ErrorResponse>");
+        return;
+      }
+
+      StringBuilder successful = new StringBuilder();
+      StringBuilder failed = new StringBuilder();
+      List<String> accepted = new ArrayList<>();
+      for (int i = 1; params.containsKey(ENTRY_PREFIX + i + ".Id"); i++) {
+        String id = params.get(ENTRY_PREFIX + i + ".Id");
+        String message = params.get(ENTRY_PREFIX + i + ".Message");
+        String marker = rejectMarker;
+        if (marker != null && message.contains(marker)) {
+          failed.append("<member><Id>").append(id).append("</Id><Code>InvalidParameter</Code>")
+              .append("<Message>Rejected</Message><SenderFault>true</SenderFault></member>");
+        } else {
+          accepted.add(message);
+          successful.append("<member><Id>").append(id).append("</Id><MessageId>")
+              .append(UUID.randomUUID()).append("</MessageId></member>");
+        }
+      }
+      batches.add(accepted);
+
+      respond(exchange, 200, "<PublishBatchResponse xmlns=\"http://sns.amazonaws.com/doc/2010-03-31/\">"
+          + "<PublishBatchResult><Successful>" + successful + "</Successful><Failed>" + failed + "</Failed>"
+          + "</PublishBatchResult><ResponseMetadata><RequestId>" + UUID.randomUUID()
+          + "</RequestId></ResponseMetadata></PublishBatchResponse>");
+    }
+  }
+
+  private static Map<String, String> parseForm(InputStream body) throws IOException {
+    Map<String, String> params = new TreeMap<>();
+    String form = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    for (String pair : form.split("&")) {
+      if (pair.isEmpty()) {
+        continue;
+      }
+      int eq = pair.indexOf('=');
+      String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+      String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+      params.put(key, value);
+    }
+    return params;
+  }
+
+  private static void respond(HttpExchange exchange, int status, String xml) throws IOException {
+    byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/xml");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
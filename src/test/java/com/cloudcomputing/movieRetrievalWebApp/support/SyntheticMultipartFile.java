@@ -0,0 +1,66 @@
+package com.cloudcomputing.movieRetrievalWebApp.support;
+
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.File;
+import java.io.InputStream;
+
+/**
+ * MultipartFile of the given size whose content is generated while it is read. getBytes() fails,
+ * so any code path that buffers the whole file is caught.
+ */
+public class SyntheticMultipartFile extends MockMultipartFile {
+
+  private final long size;
+
+  public SyntheticMultipartFile(long size) {
+    super("file", "image.png", "image/png", new byte[0]);
+    this.size = size;
+  }
+
+  @Override
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public byte[] getBytes() {
+    throw new AssertionError("upload must not buffer the whole file");
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return new InputStream() {
+      private long remaining = size;
+
+      @Override
+      public int read() {
+        if (remaining == 0) {
+          return -1;
+        }
+        remaining--;
+        return 0;
+      }
+
+      @Override
+      public int read(byte[] buffer, int offset, int length) {
+        if (remaining == 0) {
+          return -1;
+        }
+        int count = (int) Math.min(length, remaining);
+        remaining -= count;
+        return count;
+      }
+    };
+  }
+
+  @Override
+  public void transferTo(File dest) {
+    throw new UnsupportedOperationException();
+  }
+}